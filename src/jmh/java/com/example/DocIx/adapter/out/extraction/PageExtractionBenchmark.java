@@ -0,0 +1,39 @@
+package com.example.DocIx.adapter.out.extraction;
+
+import com.example.DocIx.benchmark.BenchmarkData;
+import com.example.DocIx.domain.port.out.PageExtractor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Throughput ekstraksi PDF per dokumen untuk PDF kecil, sedang, dan 5.000 halaman.
+ */
+@State(Scope.Benchmark)
+public class PageExtractionBenchmark {
+
+    @Param({"10", "200", "5000"})
+    public int pageCount;
+
+    private byte[] pdf;
+    private PageBasedContentExtractor extractor;
+
+    @Setup
+    public void setUp() {
+        pdf = BenchmarkData.pdf(pageCount);
+        // Budget longgar: yang diukur adalah biaya ekstraksi, bukan batasnya
+        extractor = new PageBasedContentExtractor(new ExtractionBudget(
+                Duration.ofHours(1), Duration.ofMinutes(5), 512L * 1024 * 1024, Long.MAX_VALUE));
+    }
+
+    @Benchmark
+    public List<PageExtractor.DocumentPage> extractPages() throws PageExtractor.PageExtractionException {
+        return extractor.extractPages(new ByteArrayInputStream(pdf), "benchmark.pdf", "benchmark-document");
+    }
+}
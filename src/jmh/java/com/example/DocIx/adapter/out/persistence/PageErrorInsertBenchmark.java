@@ -0,0 +1,156 @@
+package com.example.DocIx.adapter.out.persistence;
+
+import com.example.DocIx.benchmark.BenchmarkData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Properties;
+
+/**
+ * Throughput insert baris {@code indexing_page_error} dalam baris/detik, dengan statement yang sama seperti
+ * yang dikirim Hibernate untuk tiap strategi id:
+ * <ul>
+ *   <li>{@code identity}: satu INSERT ... RETURNING id per baris (batching insert mati)</li>
+ *   <li>{@code pooled-batch}: satu nextval per 50 id (pooled-lo), insert dikirim per batch 50</li>
+ *   <li>{@code pooled-batch-rewrite}: seperti di atas, ditambah {@code reWriteBatchedInserts} PgJDBC</li>
+ * </ul>
+ * Butuh Postgres yang berjalan: {@code DOCIX_BENCH_DATABASE_URL} (default database lokal aplikasi),
+ * {@code DATABASE_USERNAME} dan {@code DATABASE_PASSWORD}. Tabel dan sequence dibuat TEMP per koneksi.
+ */
+@State(Scope.Thread)
+@OperationsPerInvocation(PageErrorInsertBenchmark.ROWS_PER_TRANSACTION)
+public class PageErrorInsertBenchmark {
+
+    static final int ROWS_PER_TRANSACTION = 500;
+    // Sama dengan hibernate.jdbc.batch_size dan allocationSize sequence
+    private static final int BATCH_SIZE = 50;
+
+    private static final String INSERT_SQL = "INSERT INTO bench_page_error " +
+            "(indexing_log_id, page_number, error_message, retry_count, failed_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_WITH_ID_SQL = "INSERT INTO bench_page_error " +
+            "(indexing_log_id, page_number, error_message, retry_count, failed_at, id) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Param({"identity", "pooled-batch", "pooled-batch-rewrite"})
+    public String strategy;
+
+    private Connection connection;
+    private String errorMessage;
+    private long indexingLogId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", env("DATABASE_USERNAME", "docix_user"));
+        properties.setProperty("password", env("DATABASE_PASSWORD", "docix_password"));
+        properties.setProperty("reWriteBatchedInserts", String.valueOf(strategy.equals("pooled-batch-rewrite")));
+        connection = DriverManager.getConnection(
+                env("DOCIX_BENCH_DATABASE_URL", "jdbc:postgresql://localhost:5432/docix"), properties);
+        connection.setAutoCommit(false);
+
+        int increment = strategy.equals("identity") ? 1 : BATCH_SIZE;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TEMP SEQUENCE bench_page_error_id_seq INCREMENT BY " + increment);
+            statement.execute("CREATE TEMP TABLE bench_page_error (" +
+                    "id BIGINT PRIMARY KEY DEFAULT nextval('bench_page_error_id_seq'), " +
+                    "indexing_log_id BIGINT NOT NULL, " +
+                    "page_number INTEGER NOT NULL, " +
+                    "error_message TEXT, " +
+                    "retry_count INTEGER NOT NULL, " +
+                    "failed_at TIMESTAMP NOT NULL)");
+        }
+        connection.commit();
+        errorMessage = BenchmarkData.text(160, 5);
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() throws SQLException {
+        // Tabel dikosongkan agar ukuran index tidak ikut memengaruhi iterasi berikutnya
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE bench_page_error");
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public long insertPageErrors() throws SQLException {
+        long logId = ++indexingLogId;
+        Timestamp failedAt = Timestamp.valueOf(LocalDateTime.now());
+        long lastId = strategy.equals("identity")
+                ? insertWithIdentity(logId, failedAt)
+                : insertWithPooledBatch(logId, failedAt);
+        connection.commit();
+        return lastId;
+    }
+
+    private long insertWithIdentity(long logId, Timestamp failedAt) throws SQLException {
+        long lastId = 0;
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL, new String[]{"id"})) {
+            for (int page = 1; page <= ROWS_PER_TRANSACTION; page++) {
+                bindRow(insert, logId, page, failedAt);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    lastId = keys.getLong(1);
+                }
+            }
+        }
+        return lastId;
+    }
+
+    private long insertWithPooledBatch(long logId, Timestamp failedAt) throws SQLException {
+        long lastId = 0;
+        try (PreparedStatement nextBlock = connection.prepareStatement("SELECT nextval('bench_page_error_id_seq')");
+             PreparedStatement insert = connection.prepareStatement(INSERT_WITH_ID_SQL)) {
+            long id = 0;
+            for (int page = 1; page <= ROWS_PER_TRANSACTION; page++) {
+                if ((page - 1) % BATCH_SIZE == 0) {
+                    try (ResultSet rs = nextBlock.executeQuery()) {
+                        rs.next();
+                        id = rs.getLong(1);
+                    }
+                }
+                bindRow(insert, logId, page, failedAt);
+                insert.setLong(6, id);
+                lastId = id++;
+                insert.addBatch();
+                if (page % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        return lastId;
+    }
+
+    private void bindRow(PreparedStatement insert, long logId, int page, Timestamp failedAt) throws SQLException {
+        insert.setLong(1, logId);
+        insert.setInt(2, page);
+        insert.setString(3, errorMessage);
+        insert.setInt(4, 1);
+        insert.setTimestamp(5, failedAt);
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null && !value.isBlank() ? value : defaultValue;
+    }
+}
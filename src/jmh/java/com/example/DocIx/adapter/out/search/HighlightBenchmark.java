@@ -0,0 +1,73 @@
+package com.example.DocIx.adapter.out.search;
+
+import com.example.DocIx.adapter.out.search.ElasticsearchDocumentSearchAdapter.DocumentPageDocument;
+import com.example.DocIx.benchmark.BenchmarkData;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Biaya pembuatan snippet dan pemilihan highlight untuk teks halaman pendek dan sangat panjang.
+ * Kasus "miss" adalah query yang tidak ada di teks (seluruh teks dipindai).
+ */
+@State(Scope.Benchmark)
+public class HighlightBenchmark {
+
+    private static final String QUERY_PRESENT = "realisasi anggaran";
+    private static final String QUERY_ABSENT = "zzz tidak ditemukan";
+
+    @Param({"2000", "50000"})
+    public int pageChars;
+
+    private String content;
+    private Hit<DocumentPageDocument> highlightedHit;
+    private Hit<DocumentPageDocument> emptyHighlightHit;
+
+    @Setup
+    public void setUp() {
+        String text = BenchmarkData.text(pageChars, 7);
+        // Letakkan frasa query di tengah halaman
+        int middle = text.length() / 2;
+        content = text.substring(0, middle) + " " + QUERY_PRESENT + " " + text.substring(middle);
+
+        DocumentPageDocument page = new DocumentPageDocument("benchmark-document", "benchmark.pdf",
+                "benchmark.pdf", content, 1, "benchmark", null, null);
+        highlightedHit = Hit.of(h -> h
+                .index("document_pages")
+                .id("benchmark-document_page_1")
+                .source(page)
+                .highlight(Map.of("content", List.of("... <mark>realisasi</mark> <mark>anggaran</mark> ..."))));
+        emptyHighlightHit = Hit.of(h -> h
+                .index("document_pages")
+                .id("benchmark-document_page_1")
+                .source(page));
+    }
+
+    @Benchmark
+    public String createSnippetQueryFound() {
+        return ElasticsearchDocumentSearchAdapter.createSnippet(content, QUERY_PRESENT, 300);
+    }
+
+    @Benchmark
+    public String createSnippetQueryMissing() {
+        return ElasticsearchDocumentSearchAdapter.createSnippet(content, QUERY_ABSENT, 300);
+    }
+
+    @Benchmark
+    public String extractHighlightFromHighlightedHit() {
+        return ElasticsearchDocumentSearchAdapter.extractHighlightFromPage(
+                highlightedHit, highlightedHit.source(), QUERY_PRESENT);
+    }
+
+    @Benchmark
+    public String extractHighlightWithSnippetFallback() {
+        return ElasticsearchDocumentSearchAdapter.extractHighlightFromPage(
+                emptyHighlightHit, emptyHighlightHit.source(), QUERY_PRESENT);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.DocIx.benchmark;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+/**
+ * Input sintetis yang deterministik untuk benchmark JMH.
+ */
+public final class BenchmarkData {
+
+    private static final String[] WORDS = {
+            "dokumen", "halaman", "indeks", "pencarian", "laporan", "anggaran", "kontrak", "lampiran",
+            "pasal", "ketentuan", "pembayaran", "tahun", "realisasi", "pengadaan", "barang", "jasa",
+            "the", "agreement", "annex", "schedule", "total", "amount", "party", "clause", "2024", "IDR"
+    };
+
+    private static final int LINES_PER_PAGE = 45;
+    private static final int WORDS_PER_LINE = 12;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Teks acak dengan panjang kira-kira {@code length} karakter
+     */
+    public static String text(int length, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder sb = new StringBuilder(length + 16);
+        int wordsInLine = 0;
+        while (sb.length() < length) {
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+            if (++wordsInLine == WORDS_PER_LINE) {
+                sb.append('\n');
+                wordsInLine = 0;
+            } else {
+                sb.append(' ');
+            }
+        }
+        sb.setLength(length);
+        return sb.toString();
+    }
+
+    /**
+     * PDF dengan {@code pageCount} halaman teks penuh (font standar, tanpa gambar)
+     */
+    public static byte[] pdf(int pageCount) {
+        SplittableRandom random = new SplittableRandom(42);
+        try (PDDocument document = new PDDocument();
+             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (int p = 0; p < pageCount; p++) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 10);
+                    content.setLeading(14f);
+                    content.newLineAtOffset(50, 780);
+                    for (int line = 0; line < LINES_PER_PAGE; line++) {
+                        StringBuilder sb = new StringBuilder();
+                        for (int w = 0; w < WORDS_PER_LINE; w++) {
+                            sb.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+                        }
+                        content.showText(sb.toString());
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            document.save(out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to generate benchmark PDF", e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.DocIx.domain.util;
+
+import com.example.DocIx.benchmark.BenchmarkData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Utilitas yang dipanggil di jalur request dan logging: masking data sensitif dan
+ * pembuatan nama file terenkripsi.
+ */
+public class UtilBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class LogMessage {
+
+        @Param({"200", "20000"})
+        public int messageChars;
+
+        String message;
+
+        @Setup
+        public void setUp() {
+            String text = BenchmarkData.text(messageChars, 11);
+            // Sisipkan data sensitif agar semua pola masking terpakai
+            message = "user budi.santoso@example.co.id from 192.168.10.25 phone 021-555-0199 " + text;
+        }
+    }
+
+    @Benchmark
+    public String maskSensitiveData(LogMessage logMessage) {
+        return LoggingUtil.maskSensitiveData(logMessage.message);
+    }
+
+    @Benchmark
+    public String generateEncryptedFileName() {
+        return FileNameEncryptionUtil.generateEncryptedFileName(
+                "Laporan Realisasi Anggaran Tahun 2024 (final).pdf", "3f2b8c1e-9d4a-4c7e-8b1f-2a6d5e9c0b7a");
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.DocIx.adapter.in.messaging;
+
+import com.example.DocIx.adapter.out.messaging.RabbitMQDocumentCacheInvalidationPublisher.DocumentCacheInvalidationMessage;
+import com.example.DocIx.adapter.out.persistence.DocumentCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Menerima siaran invalidasi cache dokumen dari node lain (termasuk node ini sendiri)
+ */
+@Component
+@ConditionalOnProperty(prefix = "docix.cache.document.invalidation", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DocumentCacheInvalidationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentCacheInvalidationListener.class);
+
+    private final DocumentCache documentCache;
+
+    public DocumentCacheInvalidationListener(DocumentCache documentCache) {
+        this.documentCache = documentCache;
+    }
+
+    // Invalidasi bersifat idempoten; tidak perlu ack manual seperti antrian pemrosesan
+    @RabbitListener(queues = "#{documentCacheInvalidationQueue.name}", ackMode = "AUTO", concurrency = "1")
+    public void handleInvalidation(DocumentCacheInvalidationMessage message) {
+        documentCache.invalidate(message.getDocumentId());
+        logger.debug("Document cache entry invalidated by broadcast: {}", message.getDocumentId());
+    }
+}
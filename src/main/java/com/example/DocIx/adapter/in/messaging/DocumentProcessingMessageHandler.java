@@ -47,6 +47,14 @@ public class DocumentProcessingMessageHandler {
             // manual ack on success
             channel.basicAck(deliveryTag, false);
 
+        } catch (DocumentIndexingUseCase.IndexingCapacityExceededException e) {
+            // Node sedang penuh; kembalikan ke antrian agar bisa diambil consumer lain
+            logger.warn("Dokumen {} dikembalikan ke antrian: {}", documentId, e.getMessage());
+            try {
+                channel.basicNack(deliveryTag, false, true);
+            } catch (Exception nackEx) {
+                logger.error("Gagal melakukan NACK untuk deliveryTag {}: {}", deliveryTag, nackEx.getMessage(), nackEx);
+            }
         } catch (Exception e) {
             logger.error("Error saat memproses dokumen {}: {}", documentId, e.getMessage(), e);
             LoggingUtil.logError("document_processing_error", documentId, e);
@@ -92,12 +92,13 @@ public class AdminController {
         try {
             logger.info("Memulai reindex untuk dokumen yang hilang");
 
-            int reindexedCount = adminIndexingUseCase.reindexMissingDocuments();
+            AdminIndexingUseCase.ReindexSummary summary = adminIndexingUseCase.reindexMissingDocuments();
 
             return ResponseEntity.ok(Map.of(
                     "status", "success",
                     "message", "Reindex dokumen yang hilang berhasil dimulai",
-                    "reindexedCount", reindexedCount));
+                    "reindexedCount", summary.getReindexed(),
+                    "skippedCount", summary.getSkipped()));
         } catch (Exception e) {
             logger.error("Error saat reindex missing documents", e);
             return ResponseEntity.internalServerError()
@@ -111,14 +112,17 @@ public class AdminController {
      * Reindex semua dokumen
      */
     @PostMapping("/indexing/reindex-all")
-    public ResponseEntity<Map<String, String>> reindexAllDocuments() {
+    public ResponseEntity<Map<String, Object>> reindexAllDocuments() {
         try {
             logger.info("Memulai reindex untuk semua dokumen");
-            adminIndexingUseCase.reindexAllDocuments();
+            AdminIndexingUseCase.ReindexSummary summary = adminIndexingUseCase.reindexAllDocuments();
 
             return ResponseEntity.ok(Map.of(
                     "status", "success",
-                    "message", "Reindex semua dokumen berhasil dimulai"));
+                    "message", "Reindex semua dokumen berhasil dimulai",
+                    "reindexedCount", summary.getReindexed(),
+                    "requeuedCount", summary.getRequeued(),
+                    "skippedCount", summary.getSkipped()));
         } catch (Exception e) {
             logger.error("Error saat reindex all documents", e);
             return ResponseEntity.internalServerError()
@@ -7,10 +7,14 @@ import com.example.DocIx.domain.port.in.AutocompleteUseCase;
 import com.example.DocIx.domain.port.in.BulkUploadUseCase;
 import com.example.DocIx.domain.port.in.DocumentIndexingUseCase;
 import com.example.DocIx.domain.port.in.DownloadDocumentUseCase;
+import com.example.DocIx.domain.port.in.AsyncUploadUseCase;
+import com.example.DocIx.domain.model.PageStatus;
 import com.example.DocIx.domain.util.LoggingUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -21,6 +25,7 @@ import org.springframework.web.multipart.MultipartFile;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import java.io.IOException;
+import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -38,6 +43,8 @@ public class DocumentController {
     private final BulkUploadUseCase bulkUploadUseCase;
     private final DocumentIndexingUseCase documentIndexingUseCase;
     private final DownloadDocumentUseCase downloadDocumentUseCase;
+    private final AsyncUploadUseCase asyncUploadUseCase;
+    private final String downloadMode;
 
     public DocumentController(UploadDocumentUseCase uploadDocumentUseCase,
             SearchDocumentUseCase searchDocumentUseCase,
@@ -45,13 +52,17 @@ public class DocumentController {
             DocumentWebMapper documentWebMapper,
             BulkUploadUseCase bulkUploadUseCase,
             DocumentIndexingUseCase documentIndexingUseCase,
-            DownloadDocumentUseCase downloadDocumentUseCase) {
+            DownloadDocumentUseCase downloadDocumentUseCase,
+            AsyncUploadUseCase asyncUploadUseCase,
+            @Value("${docix.download.mode:redirect}") String downloadMode) {
         this.searchDocumentUseCase = searchDocumentUseCase;
         this.autocompleteUseCase = autocompleteUseCase;
         this.documentWebMapper = documentWebMapper;
         this.bulkUploadUseCase = bulkUploadUseCase;
         this.documentIndexingUseCase = documentIndexingUseCase;
         this.downloadDocumentUseCase = downloadDocumentUseCase;
+        this.asyncUploadUseCase = asyncUploadUseCase;
+        this.downloadMode = downloadMode;
     }
 
     /**
@@ -122,6 +133,96 @@ public class DocumentController {
         }
     }
 
+    /**
+     * Upload asynchronous: file di-stage ke disk lokal dan request dijawab 202 dengan document ID
+     * dan URL status. Penyimpanan ke MinIO, insert database dan publish dilakukan di background.
+     */
+    @PostMapping("/upload/async")
+    public ResponseEntity<AsyncUploadResponse> uploadDocumentAsync(
+            @RequestParam("file") @NotNull MultipartFile file,
+            @RequestParam("uploader") @NotNull @Size(min = 1, max = 100) String uploader) {
+
+        long startTime = System.currentTimeMillis();
+        String safeUploader = LoggingUtil.maskSensitiveData(uploader);
+        String safeFileName = LoggingUtil.safeFileName(file.getOriginalFilename());
+
+        logger.info("Memulai upload asynchronous - File: {}, Size: {} bytes, Uploader: {}",
+                safeFileName, file.getSize(), safeUploader);
+
+        try {
+            if (file.isEmpty()) {
+                return ResponseEntity.badRequest()
+                        .body(new AsyncUploadResponse(null, null, null, "File tidak boleh kosong"));
+            }
+
+            AsyncUploadUseCase.AsyncUploadResult result = asyncUploadUseCase.acceptUpload(
+                    new AsyncUploadUseCase.AsyncUploadCommand(
+                            file.getOriginalFilename(),
+                            file.getSize(),
+                            file.getContentType(),
+                            uploader,
+                            file::transferTo));
+
+            String statusUrl = "/api/documents/" + result.getDocumentId() + "/status";
+            long duration = System.currentTimeMillis() - startTime;
+            logger.info("Upload asynchronous diterima - DocumentId: {}, Duration: {}ms",
+                    result.getDocumentId(), duration);
+
+            LoggingUtil.logApiAccess("POST", "/api/documents/upload/async", safeUploader,
+                    duration, 202, "File: " + safeFileName);
+
+            return ResponseEntity.accepted()
+                    .location(URI.create(statusUrl))
+                    .body(new AsyncUploadResponse(result.getDocumentId(), result.getStatus(), statusUrl, null));
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("Upload asynchronous ditolak - File: {}, Error: {}", safeFileName, e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new AsyncUploadResponse(null, null, null, e.getMessage()));
+
+        } catch (AsyncUploadUseCase.UploadRejectedException e) {
+            long duration = System.currentTimeMillis() - startTime;
+            logger.warn("Upload asynchronous ditolak - File: {}, Error: {}", safeFileName, e.getMessage());
+
+            LoggingUtil.logApiAccess("POST", "/api/documents/upload/async", safeUploader,
+                    duration, 503, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(new AsyncUploadResponse(null, null, null, e.getMessage()));
+
+        } catch (Exception e) {
+            long duration = System.currentTimeMillis() - startTime;
+            logger.error("Upload asynchronous gagal - File: {}, Uploader: {}, Error: {}",
+                    safeFileName, safeUploader, e.getMessage(), e);
+
+            LoggingUtil.logApiError("POST", "/api/documents/upload/async", safeUploader,
+                    duration, e.getMessage());
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new AsyncUploadResponse(null, null, null, "Terjadi kesalahan saat upload"));
+        }
+    }
+
+    /**
+     * Commit ulang upload asynchronous yang gagal dari salinan staging-nya
+     */
+    @PostMapping("/upload/async/{documentId}/retry")
+    public ResponseEntity<Map<String, String>> retryAsyncUpload(@PathVariable String documentId) {
+        try {
+            return asyncUploadUseCase.retryFailedUpload(documentId)
+                    .map(status -> ResponseEntity.accepted().body(Map.of(
+                            "status", status.getStatus(),
+                            "statusUrl", "/api/documents/" + documentId + "/status")))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                            "status", "error",
+                            "message", "Upload ter-stage tidak ditemukan")));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                    "status", "error",
+                    "message", e.getMessage()));
+        }
+    }
+
     /**
      * Upload multiple documents sekaligus dengan atomic operations
      */
@@ -214,17 +315,42 @@ public class DocumentController {
     }
 
     /**
-     * Trigger reindex untuk dokumen tertentu
+     * Status indexing per halaman; {@code status} (INDEXED, FAILED, PENDING) membatasi halaman yang dikembalikan
+     */
+    @GetMapping("/{documentId}/indexing-status/pages")
+    public ResponseEntity<List<DocumentIndexingUseCase.PageIndexingStatusResponse>> getPageIndexingStatus(
+            @PathVariable String documentId,
+            @RequestParam(value = "status", required = false) PageStatus status) {
+
+        try {
+            return ResponseEntity.ok(documentIndexingUseCase.getPageIndexingStatus(documentId, status));
+        } catch (Exception e) {
+            logger.error("Error saat mengambil status indexing per halaman untuk document: {}", documentId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Trigger reindex untuk dokumen tertentu. Secara default hanya halaman yang berubah yang ditulis ulang;
+     * {@code force=true} menulis ulang semua halaman
      */
     @PostMapping("/{documentId}/reindex")
-    public ResponseEntity<Map<String, String>> reindexDocument(@PathVariable String documentId) {
+    public ResponseEntity<Map<String, String>> reindexDocument(@PathVariable String documentId,
+            @RequestParam(value = "force", defaultValue = "false") boolean force) {
         try {
-            logger.info("Memulai reindex untuk document: {}", documentId);
-            documentIndexingUseCase.processDocumentIndexing(documentId);
+            logger.info("Memulai reindex untuk document: {} (force: {})", documentId, force);
+            documentIndexingUseCase.processDocumentIndexing(documentId, force);
 
             return ResponseEntity.ok(Map.of(
                     "status", "success",
                     "message", "Reindex dokumen berhasil dimulai"));
+        } catch (DocumentIndexingUseCase.IndexingCapacityExceededException e) {
+            logger.warn("Reindex ditolak karena kapasitas indexing penuh - Document: {}", documentId);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .body(Map.of(
+                            "status", "error",
+                            "message", e.getMessage()));
         } catch (Exception e) {
             logger.error("Error saat reindex document: {}", documentId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -309,13 +435,22 @@ public class DocumentController {
         }
     }
 
+    /**
+     * Download dokumen. Mode "proxy" mengalirkan isi file melalui aplikasi, sedangkan mode
+     * "redirect" mengembalikan 302 ke URL presigned sehingga byte file tidak melewati node aplikasi.
+     * Mode hanya ditentukan konfigurasi server, bukan oleh klien.
+     */
     @GetMapping("/download/{documentId}")
     public ResponseEntity<InputStreamResource> downloadDocument(
             @PathVariable("documentId") String documentId) {
 
         long startTime = System.currentTimeMillis();
 
-        logger.info("Starting document download - DocumentId: {}", documentId);
+        logger.info("Starting document download - DocumentId: {}, Mode: {}", documentId, downloadMode);
+
+        if ("redirect".equalsIgnoreCase(downloadMode)) {
+            return redirectToPresignedUrl(documentId, startTime);
+        }
 
         try {
             var resultOpt = downloadDocumentUseCase.downloadByDocumentId(documentId);
@@ -356,6 +491,40 @@ public class DocumentController {
         }
     }
 
+    private ResponseEntity<InputStreamResource> redirectToPresignedUrl(String documentId, long startTime) {
+        try {
+            var redirectOpt = downloadDocumentUseCase.getDownloadRedirect(documentId);
+            long duration = System.currentTimeMillis() - startTime;
+            if (redirectOpt.isEmpty()) {
+                logger.warn("Document download redirect failed - DocumentId: {} not found or not processed", documentId);
+
+                LoggingUtil.logApiAccess("GET", "/api/documents/download/" + documentId, "anonymous",
+                        duration, 404, "Document not found or not processed");
+                return ResponseEntity.notFound().build();
+            }
+
+            DownloadDocumentUseCase.DownloadRedirect redirect = redirectOpt.get();
+
+            LoggingUtil.logApiAccess("GET", "/api/documents/download/" + documentId, "anonymous",
+                    duration, 302, "Redirect to presigned URL");
+
+            return ResponseEntity.status(HttpStatus.FOUND)
+                    .location(URI.create(redirect.getUrl()))
+                    // URL presigned adalah kredensial sementara; jangan biarkan browser atau proxy menyimpannya
+                    .cacheControl(CacheControl.noStore())
+                    .build();
+
+        } catch (Exception e) {
+            long duration = System.currentTimeMillis() - startTime;
+            logger.error("Document download redirect failed - DocumentId: {}, Error: {}",
+                    documentId, e.getMessage(), e);
+
+            LoggingUtil.logApiError("GET", "/api/documents/download/" + documentId, "anonymous",
+                    duration, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     // Debug endpoint dihapus untuk menjaga batasan layer web terhadap domain ports saja
 
     // Response DTOs
@@ -389,6 +558,36 @@ public class DocumentController {
         }
     }
 
+    public static class AsyncUploadResponse {
+        private String documentId;
+        private String status;
+        private String statusUrl;
+        private String error;
+
+        public AsyncUploadResponse(String documentId, String status, String statusUrl, String error) {
+            this.documentId = documentId;
+            this.status = status;
+            this.statusUrl = statusUrl;
+            this.error = error;
+        }
+
+        public String getDocumentId() {
+            return documentId;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public String getStatusUrl() {
+            return statusUrl;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
     public static class BulkUploadResponse {
         private List<UploadResult> successful = new java.util.ArrayList<>();
         private List<UploadError> failed = new java.util.ArrayList<>();
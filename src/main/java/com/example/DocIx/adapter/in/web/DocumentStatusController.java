@@ -1,13 +1,22 @@
 package com.example.DocIx.adapter.in.web;
 
+import com.example.DocIx.domain.model.DocumentStatus;
 import com.example.DocIx.domain.port.in.DocumentStatusQueryUseCase;
 import com.example.DocIx.adapter.in.web.mapper.DocumentStatusWebMapper;
 import com.example.DocIx.domain.util.LoggingUtil;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,13 +25,25 @@ import java.util.Optional;
 public class DocumentStatusController {
 
     private static final Logger logger = LoggerFactory.getLogger(DocumentStatusController.class);
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    // Ukuran halaman jika hanya cursor yang diberikan
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    // Baris pertama langsung di-flush, selanjutnya per batch agar tidak flush per baris
+    private static final int STREAM_FLUSH_EVERY = 100;
+
     private final DocumentStatusQueryUseCase documentStatusQueryUseCase;
     private final DocumentStatusWebMapper documentStatusWebMapper;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter streamRowWriter;
 
     public DocumentStatusController(DocumentStatusQueryUseCase documentStatusQueryUseCase,
-                                    DocumentStatusWebMapper documentStatusWebMapper) {
+                                    DocumentStatusWebMapper documentStatusWebMapper,
+                                    ObjectMapper objectMapper) {
         this.documentStatusQueryUseCase = documentStatusQueryUseCase;
         this.documentStatusWebMapper = documentStatusWebMapper;
+        this.objectMapper = objectMapper;
+        this.streamRowWriter = objectMapper.writerFor(DocumentStatusResponse.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     @GetMapping("/{documentId}/status")
@@ -66,26 +87,42 @@ public class DocumentStatusController {
         }
     }
 
+    /**
+     * Tanpa {@code cursor} dan {@code limit} semua dokumen dikembalikan seperti sebelumnya; paging aktif
+     * begitu salah satunya diberikan
+     */
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<DocumentStatusResponse>> getDocumentsByStatus(@PathVariable String status) {
+    public ResponseEntity<List<DocumentStatusResponse>> getDocumentsByStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         long startTime = System.currentTimeMillis();
 
-        logger.info("Starting documents by status query - Status: {}", status);
+        logger.info("Starting documents by status query - Status: {}, Limit: {}, Cursor: {}",
+                   status, limit, cursor != null);
 
         try {
-            List<DocumentStatusQueryUseCase.DocumentStatusResponse> list = documentStatusQueryUseCase.getDocumentsByStatus(status);
-            List<DocumentStatusResponse> responses = list.stream()
+            DocumentStatusQueryUseCase.DocumentStatusPage page = cursor == null && limit == null
+                ? new DocumentStatusQueryUseCase.DocumentStatusPage(
+                    documentStatusQueryUseCase.getDocumentsByStatus(status), null)
+                : documentStatusQueryUseCase.getDocumentsByStatus(status, cursor,
+                    limit != null ? limit : DEFAULT_PAGE_SIZE);
+            List<DocumentStatusResponse> responses = page.getItems().stream()
                 .map(documentStatusWebMapper::toWeb)
                 .toList();
 
             long duration = System.currentTimeMillis() - startTime;
-            logger.info("Documents by status query completed - Status: {}, Results: {}, Duration: {}ms",
-                       status, responses.size(), duration);
+            logger.info("Documents by status query completed - Status: {}, Results: {}, HasMore: {}, Duration: {}ms",
+                       status, responses.size(), page.getNextCursor() != null, duration);
 
             LoggingUtil.logApiAccess("GET", "/api/documents/status/" + status, "anonymous",
                                    duration, 200, "Results: " + responses.size());
 
-            return ResponseEntity.ok(responses);
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                builder.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return builder.body(responses);
 
         } catch (IllegalArgumentException e) {
             long duration = System.currentTimeMillis() - startTime;
@@ -107,6 +144,66 @@ public class DocumentStatusController {
         }
     }
 
+    /**
+     * Semua dokumen dengan status tertentu sebagai NDJSON (satu objek JSON per baris), ditulis per batch
+     * keyset sehingga memori tetap datar berapa pun jumlah barisnya
+     */
+    @GetMapping(value = "/status/{status}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamDocumentsByStatus(@PathVariable String status) {
+        // Status divalidasi sebelum response di-commit; setelah streaming dimulai status HTTP tidak bisa diubah
+        try {
+            DocumentStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Documents by status stream rejected - Invalid status: {}", status);
+            LoggingUtil.logApiAccess("GET", "/api/documents/status/" + status + "/stream", "anonymous",
+                                   0, 400, "Invalid status");
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            long startTime = System.currentTimeMillis();
+            long[] rows = {0};
+            logger.info("Starting documents by status stream - Status: {}", status);
+
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                // Pemisah antar baris ditulis sendiri sebagai '\n'
+                generator.setRootValueSeparator(null);
+                // Header terkirim sebelum query berjalan
+                outputStream.flush();
+
+                documentStatusQueryUseCase.streamDocumentsByStatus(status, doc -> {
+                    try {
+                        streamRowWriter.writeValue(generator, documentStatusWebMapper.toWeb(doc));
+                        generator.writeRaw('\n');
+                        if (++rows[0] == 1 || rows[0] % STREAM_FLUSH_EVERY == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        // Klien terputus: hentikan iterasi agar cursor database ditutup
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                long duration = System.currentTimeMillis() - startTime;
+                logger.warn("Documents by status stream aborted - Status: {}, Rows: {}, Duration: {}ms, Error: {}",
+                           status, rows[0], duration, e.getCause().getMessage());
+                LoggingUtil.logApiError("GET", "/api/documents/status/" + status + "/stream", "anonymous",
+                                      duration, e.getCause().getMessage());
+                throw e.getCause();
+            }
+
+            long duration = System.currentTimeMillis() - startTime;
+            logger.info("Documents by status stream completed - Status: {}, Rows: {}, Duration: {}ms",
+                       status, rows[0], duration);
+            LoggingUtil.logApiAccess("GET", "/api/documents/status/" + status + "/stream", "anonymous",
+                                   duration, 200, "Rows: " + rows[0]);
+        };
+
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
+
     public static class DocumentStatusResponse {
         private String documentId;
         private String originalFileName;
@@ -1,9 +1,11 @@
 package com.example.DocIx.adapter.in.web;
 
 import com.example.DocIx.adapter.in.messaging.DocumentProcessingMessageHandler;
+import com.example.DocIx.adapter.out.extraction.ExtractionWarmup;
 import com.example.DocIx.domain.util.LoggingUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -19,9 +21,12 @@ public class SystemStatusController {
 
     private static final Logger logger = LoggerFactory.getLogger(SystemStatusController.class);
     private final DocumentProcessingMessageHandler messageHandler;
+    private final ExtractionWarmup extractionWarmup;
 
-    public SystemStatusController(DocumentProcessingMessageHandler messageHandler) {
+    public SystemStatusController(DocumentProcessingMessageHandler messageHandler,
+                                  ExtractionWarmup extractionWarmup) {
         this.messageHandler = messageHandler;
+        this.extractionWarmup = extractionWarmup;
     }
 
     @GetMapping("/status")
@@ -59,10 +64,13 @@ public class SystemStatusController {
 
     @GetMapping("/health/ready")
     public ResponseEntity<Map<String, Object>> getReadinessStatus() {
+        // Pod baru belum menerima traffic sampai cache font dan extractor selesai di-warm-up
+        boolean ready = extractionWarmup.isCompleted();
         Map<String, Object> response = new HashMap<>();
-        response.put("ready", true);
+        response.put("ready", ready);
+        response.put("warmupCompleted", ready);
         response.put("activeProcessingTasks", messageHandler.getActiveProcessingTasks());
-        return ResponseEntity.ok(response);
+        return ready ? ResponseEntity.ok(response) : ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
     }
 
     @GetMapping("/health/live")
@@ -0,0 +1,34 @@
+package com.example.DocIx.adapter.out.extraction;
+
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.text.PDFTextStripper;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * PDFTextStripper yang mengecek budget ekstraksi di sela pemrosesan operator content stream,
+ * sehingga halaman yang macet di dalam {@code getText} dapat dihentikan.
+ */
+class BudgetedPDFTextStripper extends PDFTextStripper {
+
+    // Cek budget setiap N operator agar overhead tetap kecil
+    private static final int CHECK_INTERVAL = 256;
+
+    private final ExtractionBudget.Tracker tracker;
+    private int operatorCount;
+
+    BudgetedPDFTextStripper(ExtractionBudget.Tracker tracker) throws IOException {
+        super();
+        this.tracker = tracker;
+    }
+
+    @Override
+    protected void processOperator(Operator operator, List<COSBase> operands) throws IOException {
+        if (++operatorCount % CHECK_INTERVAL == 0) {
+            tracker.check();
+        }
+        super.processOperator(operator, operands);
+    }
+}
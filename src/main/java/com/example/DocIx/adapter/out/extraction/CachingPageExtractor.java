@@ -0,0 +1,204 @@
+package com.example.DocIx.adapter.out.extraction;
+
+import com.example.DocIx.adapter.out.storage.LocalDiskLruCache;
+import com.example.DocIx.domain.port.out.PageExtractor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Decorator PageExtractor yang menyimpan hasil ekstraksi di cache disk lokal, dengan key
+ * SHA-256 isi file dan versi extractor.
+ * <p>
+ * Retry, reindex oleh admin, dan upload duplikat dengan byte yang sama tidak menjalankan parser lagi.
+ * File dialirkan ke file sementara sambil di-hash (bukan ke heap), lalu extractor membaca dari file
+ * tersebut saat cache miss. Setiap halaman ditulis ke entri cache dalam format {@link PageTextCodec}
+ * begitu diterima. Kegagalan menulis cache tidak pernah menggagalkan ekstraksi; entri cache yang rusak
+ * setelah sebagian halaman diserahkan menggagalkan ekstraksi karena halaman tidak bisa ditarik kembali.
+ */
+public class CachingPageExtractor implements PageExtractor, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingPageExtractor.class);
+
+    private final PageExtractor delegate;
+    private final LocalDiskLruCache cache;
+    private final Path spoolDirectory;
+
+    public CachingPageExtractor(PageExtractor delegate, LocalDiskLruCache cache, Path spoolDirectory) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.spoolDirectory = spoolDirectory;
+    }
+
+    @Override
+    public String getExtractorVersion() {
+        return delegate.getExtractorVersion();
+    }
+
+    @Override
+    public int extractPages(InputStream fileContent, String fileName, String documentId,
+                            Consumer<DocumentPage> pageSink) throws PageExtractionException {
+        String version = delegate.getExtractorVersion();
+        Path spooled = null;
+        try {
+            spooled = Files.createTempFile(spoolDirectory, "extract-", ".bin");
+            String contentHash = spoolAndHash(fileContent, spooled);
+            String key = contentHash + "/" + version;
+
+            int cachedPages = readCached(key, documentId, version, pageSink);
+            if (cachedPages >= 0) {
+                logger.info("Extraction cache hit for document {} ({} pages), parser skipped", documentId, cachedPages);
+                return cachedPages;
+            }
+
+            // Halaman diteruskan begitu selesai dan sekaligus ditulis ke entri cache, tanpa dikumpulkan di heap
+            try (CacheWriter cacheWriter = new CacheWriter(key, version);
+                 InputStream in = Files.newInputStream(spooled)) {
+                int pages = delegate.extractPages(in, fileName, documentId, page -> {
+                    cacheWriter.write(page);
+                    pageSink.accept(page);
+                });
+                cacheWriter.commit();
+                return pages;
+            }
+        } catch (IOException e) {
+            throw new PageExtractionException("Failed to spool file for extraction: " + fileName, e);
+        } finally {
+            deleteQuietly(spooled);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * @return jumlah halaman yang diserahkan dari cache, atau -1 jika tidak ada entri yang bisa dipakai
+     */
+    private int readCached(String key, String documentId, String version, Consumer<DocumentPage> pageSink)
+            throws PageExtractionException {
+        AtomicInteger delivered = new AtomicInteger();
+        try {
+            Optional<FileChannel> channel = cache.open(key);
+            if (channel.isEmpty()) {
+                return -1;
+            }
+            try (InputStream in = Channels.newInputStream(channel.get())) {
+                return PageTextCodec.read(in, documentId, version, page -> {
+                    delivered.incrementAndGet();
+                    pageSink.accept(page);
+                });
+            }
+        } catch (IOException e) {
+            cache.invalidate(key);
+            if (delivered.get() == 0) {
+                logger.warn("Unreadable extraction cache entry, extracting again: {}", e.getMessage());
+                return -1;
+            }
+            // Halaman yang sudah diserahkan tidak bisa ditarik kembali; ekstraksi ulang diserahkan ke retry
+            throw new PageExtractionException("Extraction cache entry corrupt after " + delivered.get()
+                    + " pages for document " + documentId, e);
+        }
+    }
+
+    /**
+     * Menulis halaman ke entri cache saat diterima. Kegagalan atau entri yang terlalu besar hanya
+     * menghentikan penulisan cache, tidak pernah ekstraksinya.
+     */
+    private final class CacheWriter implements AutoCloseable {
+
+        private LocalDiskLruCache.PendingEntry entry;
+        private PageTextCodec.Writer writer;
+
+        CacheWriter(String key, String version) {
+            try {
+                entry = cache.create(key);
+                writer = PageTextCodec.open(entry.output(), version);
+            } catch (IOException e) {
+                abandon(e);
+            }
+        }
+
+        void write(DocumentPage page) {
+            if (writer == null) {
+                return;
+            }
+            try {
+                writer.write(page);
+            } catch (IOException e) {
+                abandon(e);
+            }
+        }
+
+        void commit() {
+            if (writer == null) {
+                return;
+            }
+            try {
+                writer.finish();
+                entry.commit();
+            } catch (IOException e) {
+                abandon(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (entry != null) {
+                entry.close();
+            }
+        }
+
+        private void abandon(IOException e) {
+            if (e instanceof LocalDiskLruCache.EntryTooLargeException) {
+                logger.debug("Extraction result too large for cache: {}", e.getMessage());
+            } else {
+                logger.warn("Failed to write extraction cache entry: {}", e.getMessage());
+            }
+            writer = null;
+            close();
+        }
+    }
+
+    private static String spoolAndHash(InputStream in, Path target) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        try (DigestInputStream digestIn = new DigestInputStream(in, digest);
+             OutputStream out = Files.newOutputStream(target)) {
+            digestIn.transferTo(out);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.debug("Failed to delete spool file {}: {}", path, e.getMessage());
+        }
+    }
+}
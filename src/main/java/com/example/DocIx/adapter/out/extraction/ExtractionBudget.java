@@ -0,0 +1,126 @@
+package com.example.DocIx.adapter.out.extraction;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+/**
+ * Batas waktu dan alokasi untuk satu ekstraksi dokumen.
+ * <ul>
+ *   <li>documentTimeout / pageTimeout: batas wall-clock per dokumen dan per halaman</li>
+ *   <li>heapBudgetBytes: batas buffer PDFBox di heap; sisanya dialihkan ke file sementara</li>
+ *   <li>maxAllocatedBytes: budget alokasi, yaitu total byte kumulatif yang dialokasikan thread ekstraksi
+ *       (termasuk objek yang sudah di-GC). Ini bukan batas heap hidup: gunanya menangkap loop parsing yang
+ *       tidak berujung. Batas heap hidup yang sebenarnya hanya ada di mode isolasi proses (-Xmx worker).</li>
+ * </ul>
+ */
+public class ExtractionBudget {
+
+    private final Duration documentTimeout;
+    private final Duration pageTimeout;
+    private final long heapBudgetBytes;
+    private final long maxAllocatedBytes;
+
+    public ExtractionBudget(Duration documentTimeout, Duration pageTimeout, long heapBudgetBytes, long maxAllocatedBytes) {
+        this.documentTimeout = documentTimeout;
+        this.pageTimeout = pageTimeout;
+        this.heapBudgetBytes = heapBudgetBytes;
+        this.maxAllocatedBytes = maxAllocatedBytes;
+    }
+
+    public Duration getDocumentTimeout() { return documentTimeout; }
+    public Duration getPageTimeout() { return pageTimeout; }
+    public long getHeapBudgetBytes() { return heapBudgetBytes; }
+    public long getMaxAllocatedBytes() { return maxAllocatedBytes; }
+
+    public MemoryUsageSetting memoryUsageSetting() {
+        return MemoryUsageSetting.setupMixed(heapBudgetBytes);
+    }
+
+    /**
+     * Mulai pelacakan budget untuk thread saat ini.
+     */
+    public Tracker start() {
+        return new Tracker(this);
+    }
+
+    /**
+     * Pelacak budget yang dicek secara kooperatif dari dalam loop ekstraksi.
+     * Hanya boleh digunakan oleh thread yang memanggil {@link #start()}.
+     */
+    public static class Tracker {
+
+        private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = threadMxBean();
+
+        private final ExtractionBudget budget;
+        private final long documentDeadline;
+        private final long allocationBaseline;
+        private long pageDeadline;
+        private int currentPage;
+
+        private Tracker(ExtractionBudget budget) {
+            this.budget = budget;
+            long now = System.nanoTime();
+            this.documentDeadline = now + budget.documentTimeout.toNanos();
+            this.pageDeadline = documentDeadline;
+            this.allocationBaseline = allocatedBytes();
+        }
+
+        public void startPage(int pageNumber) throws BudgetExceededException {
+            check();
+            this.currentPage = pageNumber;
+            this.pageDeadline = Math.min(documentDeadline, System.nanoTime() + budget.pageTimeout.toNanos());
+        }
+
+        public void check() throws BudgetExceededException {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new BudgetExceededException("Extraction cancelled after exceeding document time budget of "
+                        + budget.documentTimeout.toSeconds() + "s", true);
+            }
+            long now = System.nanoTime();
+            if (now > documentDeadline) {
+                throw new BudgetExceededException("Extraction exceeded document time budget of "
+                        + budget.documentTimeout.toSeconds() + "s at page " + currentPage, true);
+            }
+            if (now > pageDeadline) {
+                throw new BudgetExceededException("Page " + currentPage + " exceeded page time budget of "
+                        + budget.pageTimeout.toSeconds() + "s", true);
+            }
+            if (budget.maxAllocatedBytes > 0 && allocatedBytes() - allocationBaseline > budget.maxAllocatedBytes) {
+                throw new BudgetExceededException("Extraction exceeded allocation budget of "
+                        + (budget.maxAllocatedBytes / (1024 * 1024)) + "MB allocated at page " + currentPage, false);
+            }
+        }
+
+        private static long allocatedBytes() {
+            return THREAD_MX_BEAN != null ? THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() : 0L;
+        }
+
+        private static com.sun.management.ThreadMXBean threadMxBean() {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                    && bean.isThreadAllocatedMemorySupported()) {
+                bean.setThreadAllocatedMemoryEnabled(true);
+                return bean;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Dilempar dari dalam PDFBox (harus berupa IOException agar melewati stack parser).
+     */
+    public static class BudgetExceededException extends IOException {
+        private final boolean timeLimit;
+
+        public BudgetExceededException(String message, boolean timeLimit) {
+            super(message);
+            this.timeLimit = timeLimit;
+        }
+
+        public boolean isTimeLimit() {
+            return timeLimit;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.DocIx.adapter.out.extraction;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.FontMappers;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Menyiapkan extractor di background saat startup agar dokumen pertama tidak membayar biaya inisialisasi.
+ * <p>
+ * PDFBox membangun cache font sistem secara lazy pada pemakaian font pertama, yang bisa memakan waktu
+ * lama di pod baru. Warm-up memicu pembangunan cache tersebut lewat {@link FontMappers}, lalu
+ * mengekstrak dokumen kecil dengan extractor PDF dan Tika agar kelas-kelasnya termuat dan di-JIT. Cache
+ * font disimpan di {@code docix.extraction.font-cache.directory} (file {@code .pdfbox.cache}), sehingga
+ * direktori tersebut bisa dibagi antar pod atau disertakan di image. Readiness baru true setelah selesai.
+ */
+@Component
+public class ExtractionWarmup {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExtractionWarmup.class);
+
+    static final String FONT_CACHE_PROPERTY = "pdfbox.fontcache";
+
+    private final PageBasedContentExtractor pdfExtractor;
+    private final TikaStreamingPageExtractor tikaExtractor;
+    private final boolean enabled;
+
+    private volatile boolean completed;
+
+    public ExtractionWarmup(PageBasedContentExtractor pdfExtractor,
+                            TikaStreamingPageExtractor tikaExtractor,
+                            @Value("${docix.extraction.warmup.enabled:true}") boolean enabled,
+                            @Value("${docix.extraction.font-cache.directory:}") String fontCacheDirectory) {
+        this.pdfExtractor = pdfExtractor;
+        this.tikaExtractor = tikaExtractor;
+        this.enabled = enabled;
+        this.completed = !enabled;
+        // Harus diset sebelum PDFBox menyentuh font pertama kali; worker proses child mewarisinya
+        configureFontCacheDirectory(fontCacheDirectory);
+    }
+
+    /**
+     * @return true jika warm-up selesai (berhasil atau gagal) atau dinonaktifkan
+     */
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWarmup() {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new Thread(this::warmup, "extraction-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void warmup() {
+        long start = System.currentTimeMillis();
+        try {
+            warmFontCache();
+            warmExtractors();
+            logger.info("Extraction warm-up completed in {}ms", System.currentTimeMillis() - start);
+        } catch (Exception | LinkageError e) {
+            // Warm-up hanya optimasi; kegagalan tidak boleh menahan pod tetap not-ready
+            logger.warn("Extraction warm-up failed after {}ms: {}", System.currentTimeMillis() - start, e.getMessage());
+        } finally {
+            completed = true;
+        }
+    }
+
+    private void warmFontCache() {
+        long start = System.currentTimeMillis();
+        // Lookup pertama memaksa FileSystemFontProvider memindai font sistem atau memuat cache dari disk
+        FontMappers.instance().getFontBoxFont("Helvetica", null);
+        FontMappers.instance().getFontBoxFont("Times-Roman", null);
+        logger.info("PDFBox font cache ready in {}ms (cache directory: {})", System.currentTimeMillis() - start,
+                System.getProperty(FONT_CACHE_PROPERTY, System.getProperty("user.home")));
+    }
+
+    private void warmExtractors() throws Exception {
+        pdfExtractor.extractPages(new ByteArrayInputStream(samplePdf()), "warmup.pdf", "warmup");
+        tikaExtractor.extractPages(new ByteArrayInputStream(
+                "<html><body><h1>Warm-up</h1><p>DocIx extraction warm-up.</p></body></html>"
+                        .getBytes(StandardCharsets.UTF_8)), "warmup.html", "warmup");
+    }
+
+    private static byte[] samplePdf() throws IOException {
+        try (PDDocument document = new PDDocument();
+             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.beginText();
+                content.setFont(PDType1Font.HELVETICA, 12);
+                content.newLineAtOffset(72, 720);
+                content.showText("DocIx extraction warm-up");
+                content.endText();
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static void configureFontCacheDirectory(String fontCacheDirectory) {
+        if (fontCacheDirectory == null || fontCacheDirectory.isBlank()) {
+            return;
+        }
+        try {
+            Files.createDirectories(Path.of(fontCacheDirectory));
+            System.setProperty(FONT_CACHE_PROPERTY, fontCacheDirectory);
+        } catch (IOException e) {
+            logger.warn("Cannot use font cache directory {}, falling back to PDFBox default: {}",
+                    fontCacheDirectory, e.getMessage());
+        }
+    }
+}
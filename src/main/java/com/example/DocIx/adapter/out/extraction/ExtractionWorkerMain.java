@@ -0,0 +1,190 @@
+package com.example.DocIx.adapter.out.extraction;
+
+import com.example.DocIx.domain.port.out.PageExtractor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Entry point proses child JVM untuk ekstraksi terisolasi.
+ * <p>
+ * Protokol (stdin/stdout, big-endian):
+ * request = fileName (UTF), documentId (UTF), lalu konten sebagai rangkaian chunk: panjang (int) dan byte-nya,
+ * diakhiri {@link #END_OF_CONTENT} atau {@link #CONTENT_ABORTED} jika induk gagal membaca sumbernya;
+ * response = nol atau lebih {@link #STATUS_PAGE} (nomor (int), panjang (int), teks UTF-8) yang dikirim begitu
+ * halaman selesai, lalu satu status akhir: {@link #STATUS_OK}; {@link #STATUS_BUDGET_EXCEEDED} dengan flag budget
+ * waktu (boolean) dan pesan error (UTF); atau {@link #STATUS_ERROR} dengan pesan error (UTF).
+ * <p>
+ * Argumen: documentTimeoutMs pageTimeoutMs heapBudgetBytes maxAllocatedBytes virtualPageChars
+ */
+public final class ExtractionWorkerMain {
+
+    static final byte STATUS_OK = 0;
+    static final byte STATUS_ERROR = 1;
+    static final byte STATUS_BUDGET_EXCEEDED = 2;
+    static final byte STATUS_PAGE = 3;
+
+    static final int END_OF_CONTENT = 0;
+    static final int CONTENT_ABORTED = -1;
+
+    private static final int MAX_MESSAGE_LENGTH = 8 * 1024;
+
+    private ExtractionWorkerMain() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        // stdout dipakai untuk protokol; semua output lain (termasuk logging) dialihkan ke stderr
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+        System.setOut(System.err);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(FileDescriptor.in)));
+
+        ExtractionBudget budget = new ExtractionBudget(
+                Duration.ofMillis(Long.parseLong(args[0])),
+                Duration.ofMillis(Long.parseLong(args[1])),
+                Long.parseLong(args[2]),
+                Long.parseLong(args[3]));
+        PageExtractor extractor = new RoutingPageExtractor(
+                new PageBasedContentExtractor(budget),
+                new TikaStreamingPageExtractor(budget, Integer.parseInt(args[4])));
+
+        while (true) {
+            String fileName;
+            String documentId;
+            try {
+                fileName = in.readUTF();
+            } catch (EOFException e) {
+                // Parent menutup stdin: worker selesai
+                return;
+            }
+            documentId = in.readUTF();
+            ChunkedContentInputStream content = new ChunkedContentInputStream(in);
+
+            byte status;
+            String message = null;
+            boolean timeLimit = false;
+            try {
+                extractor.extractPages(content, fileName, documentId, page -> writePage(out, page));
+                status = STATUS_OK;
+            } catch (PageExtractor.ExtractionBudgetExceededException e) {
+                status = STATUS_BUDGET_EXCEEDED;
+                timeLimit = e.isTimeLimit();
+                message = e.getMessage();
+            } catch (Exception e) {
+                status = STATUS_ERROR;
+                message = String.valueOf(e.getMessage());
+            }
+
+            // Sisa konten yang tidak dibaca extractor harus dibuang agar request berikutnya terbaca dari awal
+            try {
+                content.drain();
+            } catch (EOFException e) {
+                return;
+            } catch (IOException e) {
+                if (status == STATUS_OK) {
+                    status = STATUS_ERROR;
+                    message = e.getMessage();
+                }
+            }
+
+            out.writeByte(status);
+            if (status == STATUS_BUDGET_EXCEEDED) {
+                out.writeBoolean(timeLimit);
+            }
+            if (status != STATUS_OK) {
+                out.writeUTF(truncate(message));
+            }
+            out.flush();
+        }
+    }
+
+    private static void writePage(DataOutputStream out, PageExtractor.DocumentPage page) {
+        try {
+            byte[] text = page.getContent().getBytes(StandardCharsets.UTF_8);
+            out.writeByte(STATUS_PAGE);
+            out.writeInt(page.getPageNumber());
+            out.writeInt(text.length);
+            out.write(text);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) : message;
+    }
+
+    /**
+     * Membaca konten dokumen dari rangkaian chunk tanpa menampungnya utuh di memori.
+     */
+    static final class ChunkedContentInputStream extends InputStream {
+
+        private final DataInputStream in;
+        private int remainingInChunk;
+        private boolean finished;
+
+        ChunkedContentInputStream(DataInputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!nextChunk()) {
+                return -1;
+            }
+            int read = in.read(buffer, offset, Math.min(length, remainingInChunk));
+            if (read < 0) {
+                throw new EOFException("Content stream closed mid-chunk");
+            }
+            remainingInChunk -= read;
+            return read;
+        }
+
+        @Override
+        public void close() {
+            // Stream stdin dipakai ulang untuk request berikutnya
+        }
+
+        void drain() throws IOException {
+            while (nextChunk()) {
+                in.skipNBytes(remainingInChunk);
+                remainingInChunk = 0;
+            }
+        }
+
+        private boolean nextChunk() throws IOException {
+            while (!finished && remainingInChunk == 0) {
+                int length = in.readInt();
+                if (length == CONTENT_ABORTED) {
+                    finished = true;
+                    throw new IOException("Document content stream aborted by parent");
+                }
+                if (length == END_OF_CONTENT) {
+                    finished = true;
+                }
+                remainingInChunk = Math.max(length, 0);
+            }
+            return !finished || remainingInChunk > 0;
+        }
+    }
+}
@@ -2,28 +2,41 @@ package com.example.DocIx.adapter.out.extraction;
 
 import com.example.DocIx.domain.port.out.PageExtractor;
 import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.util.Version;
 import org.apache.tika.Tika;
 import org.apache.tika.exception.TikaException;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Implementasi PageExtractor yang mengekstrak teks per-halaman secara akurat menggunakan PDFBox.
- * Fallback ke Tika jika terjadi kegagalan PDFBox.
+ * Fallback ke Tika jika terjadi kegagalan PDFBox. Budget waktu dan memori dicek di sela
+ * pemrosesan setiap halaman.
  */
 @Component
 public class PageBasedContentExtractor implements PageExtractor {
 
+    // Naikkan suffix setiap kali konfigurasi stripper atau pembersihan teks berubah
+    private static final String EXTRACTOR_VERSION = "pdfbox-" + Version.getVersion() + "/1";
+
     private final Tika tika = new Tika();
+    private final ExtractionBudget budget;
+
+    public PageBasedContentExtractor(ExtractionBudget budget) {
+        this.budget = budget;
+    }
 
     @Override
-    public List<DocumentPage> extractPages(InputStream fileContent, String fileName, String documentId)
-            throws PageExtractionException {
+    public String getExtractorVersion() {
+        return EXTRACTOR_VERSION;
+    }
+
+    @Override
+    public int extractPages(InputStream fileContent, String fileName, String documentId,
+                            Consumer<DocumentPage> pageSink) throws PageExtractionException {
 
         if (documentId == null || documentId.trim().isEmpty()) {
             throw new PageExtractionException("Document ID cannot be null or empty");
@@ -33,33 +46,39 @@ public class PageBasedContentExtractor implements PageExtractor {
             throw new PageExtractionException("File name cannot be null or empty");
         }
 
-        if (!fileName.toLowerCase().endsWith(".pdf")) {
-            throw new PageExtractionException("File is not a PDF: " + fileName);
-        }
-
         // PDFBox per-page extraction
-        try (PDDocument document = PDDocument.load(fileContent)) {
+        ExtractionBudget.Tracker tracker = budget.start();
+        int pagesEmitted = 0;
+        try (PDDocument document = PDDocument.load(fileContent, budget.memoryUsageSetting())) {
             int numPages = document.getNumberOfPages();
             if (numPages <= 0) {
                 throw new PageExtractionException("PDF has no pages: " + fileName);
             }
 
-            List<DocumentPage> pages = new ArrayList<>(numPages);
-
-            PDFTextStripper stripper = new PDFTextStripper();
+            BudgetedPDFTextStripper stripper = new BudgetedPDFTextStripper(tracker);
             stripper.setSortByPosition(true);
             stripper.setAddMoreFormatting(true);
 
+            // Satu buffer untuk semua halaman; teks tiap halaman hanya disalin sekali ke String
+            PageTextBuffer pageText = new PageTextBuffer();
             for (int pageIndex = 1; pageIndex <= numPages; pageIndex++) {
+                tracker.startPage(pageIndex);
                 stripper.setStartPage(pageIndex);
                 stripper.setEndPage(pageIndex);
-                String text = stripper.getText(document);
-                String cleaned = text == null ? "" : text.trim();
-                pages.add(new DocumentPage(documentId, pageIndex, cleaned));
+                pageText.reset();
+                stripper.writeText(document, pageText);
+                pageSink.accept(new DocumentPage(documentId, pageIndex, pageText.trimmedText()));
+                pagesEmitted++;
             }
 
-            return pages;
+            return pagesEmitted;
+        } catch (ExtractionBudget.BudgetExceededException e) {
+            throw new ExtractionBudgetExceededException(e.getMessage() + ": " + fileName, e, e.isTimeLimit());
         } catch (IOException e) {
+            if (pagesEmitted > 0) {
+                // Halaman awal sudah diserahkan; fallback akan mengulang nomor halaman yang sama
+                throw new PageExtractionException("Failed to extract PDF after page " + pagesEmitted + ": " + fileName, e);
+            }
             // Fallback ke Tika sebagai cadangan
             try {
                 String fullText = tika.parseToString(fileContent);
@@ -67,19 +86,20 @@ public class PageBasedContentExtractor implements PageExtractor {
                     throw new PageExtractionException("No text extracted from PDF: " + fileName);
                 }
                 String[] pageTexts = fullText.split("\f");
-                List<DocumentPage> pages = new ArrayList<>();
+                if (pageTexts.length == 0) {
+                    throw new PageExtractionException("No pages extracted from PDF: " + fileName);
+                }
                 int pageNumber = 1;
                 for (String pageText : pageTexts) {
                     String cleaned = pageText == null ? "" : pageText.trim();
-                    pages.add(new DocumentPage(documentId, pageNumber++, cleaned));
-                }
-                if (pages.isEmpty()) {
-                    throw new PageExtractionException("No pages extracted from PDF: " + fileName);
+                    pageSink.accept(new DocumentPage(documentId, pageNumber++, cleaned));
                 }
-                return pages;
+                return pageTexts.length;
             } catch (IOException | TikaException ex) {
                 throw new PageExtractionException("Failed to extract pages from PDF: " + fileName, ex);
             }
+        } catch (PageExtractionException e) {
+            throw e;
         } catch (Exception e) {
             throw new PageExtractionException("Unexpected error while extracting pages: " + fileName, e);
         }
@@ -0,0 +1,57 @@
+package com.example.DocIx.adapter.out.extraction;
+
+import java.io.Writer;
+
+/**
+ * Writer tujuan PDFTextStripper yang dipakai ulang untuk semua halaman satu dokumen.
+ * <p>
+ * {@code PDFTextStripper.getText} membuat StringWriter baru per halaman, lalu {@code toString} dan
+ * {@code trim} masing-masing menyalin teks lagi. Dengan buffer ini teks halaman hanya disalin sekali, langsung
+ * dalam bentuk yang sudah di-trim, dan buffer-nya dipakai ulang untuk halaman berikutnya.
+ */
+class PageTextBuffer extends Writer {
+
+    private final StringBuilder buffer = new StringBuilder(4096);
+
+    @Override
+    public void write(char[] cbuf, int off, int len) {
+        buffer.append(cbuf, off, len);
+    }
+
+    @Override
+    public void write(String str, int off, int len) {
+        buffer.append(str, off, off + len);
+    }
+
+    @Override
+    public void write(int c) {
+        buffer.append((char) c);
+    }
+
+    /**
+     * @return teks yang ditulis sejak {@link #reset()}, tanpa whitespace di awal dan akhir
+     */
+    String trimmedText() {
+        int start = 0;
+        int end = buffer.length();
+        while (start < end && buffer.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && buffer.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return buffer.substring(start, end);
+    }
+
+    void reset() {
+        buffer.setLength(0);
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.DocIx.adapter.out.extraction;
+
+import com.example.DocIx.domain.port.out.PageExtractor.DocumentPage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Format biner ringkas untuk teks hasil ekstraksi per halaman.
+ * <p>
+ * Seluruh isi dikompresi gzip. Setelah header (magic, versi format, versi extractor), setiap halaman
+ * ditulis sebagai nomor halaman, panjang byte, lalu teks UTF-8, dan diakhiri nomor halaman 0. Halaman
+ * dapat ditulis begitu selesai diekstrak dan dibaca berurutan tanpa memuat seluruh file terlebih dahulu.
+ * Format versi 1 menyimpan jumlah halaman di header dan masih dapat dibaca.
+ */
+public final class PageTextCodec {
+
+    private static final int MAGIC = 0x44585054; // "DXPT"
+    private static final byte FORMAT_VERSION = 2;
+    private static final byte COUNTED_FORMAT_VERSION = 1;
+    private static final int END_OF_PAGES = 0;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private PageTextCodec() {
+    }
+
+    /**
+     * Mulai menulis halaman ke {@code out}; {@link Writer#finish()} wajib dipanggil setelah halaman terakhir.
+     */
+    public static Writer open(OutputStream out, String extractorVersion) throws IOException {
+        return new Writer(out, extractorVersion);
+    }
+
+    public static void write(OutputStream out, String extractorVersion, List<DocumentPage> pages) throws IOException {
+        Writer writer = open(out, extractorVersion);
+        for (DocumentPage page : pages) {
+            writer.write(page);
+        }
+        writer.finish();
+    }
+
+    /**
+     * Baca header lalu alirkan halaman ke {@code pageSink} satu per satu.
+     *
+     * @return jumlah halaman, atau -1 jika data ditulis oleh versi extractor yang berbeda; dalam hal itu
+     * tidak ada halaman yang diserahkan
+     * @throws IOException jika data rusak; halaman sebelum kerusakan sudah diserahkan
+     */
+    public static int read(InputStream in, String documentId, String expectedExtractorVersion,
+                           Consumer<DocumentPage> pageSink) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(new GZIPInputStream(in, BUFFER_SIZE), BUFFER_SIZE));
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a page text file");
+        }
+        byte formatVersion = data.readByte();
+        if (formatVersion != FORMAT_VERSION && formatVersion != COUNTED_FORMAT_VERSION) {
+            return -1;
+        }
+        String extractorVersion = data.readUTF();
+        if (!extractorVersion.equals(expectedExtractorVersion)) {
+            return -1;
+        }
+
+        int pageCount = Integer.MAX_VALUE;
+        if (formatVersion == COUNTED_FORMAT_VERSION) {
+            pageCount = data.readInt();
+            if (pageCount < 0) {
+                throw new IOException("Invalid page count: " + pageCount);
+            }
+        }
+        int delivered = 0;
+        while (delivered < pageCount) {
+            int pageNumber = data.readInt();
+            if (pageNumber == END_OF_PAGES && formatVersion == FORMAT_VERSION) {
+                break;
+            }
+            int length = data.readInt();
+            if (length < 0) {
+                throw new IOException("Invalid page length: " + length);
+            }
+            byte[] content = new byte[length];
+            data.readFully(content);
+            pageSink.accept(new DocumentPage(documentId, pageNumber, new String(content, StandardCharsets.UTF_8)));
+            delivered++;
+        }
+        return delivered;
+    }
+
+    /**
+     * Baca semua halaman untuk dokumen tertentu.
+     *
+     * @return kosong jika data ditulis oleh versi extractor yang berbeda
+     */
+    public static Optional<List<DocumentPage>> read(InputStream in, String documentId, String expectedExtractorVersion)
+            throws IOException {
+        List<DocumentPage> pages = new ArrayList<>();
+        return read(in, documentId, expectedExtractorVersion, pages::add) < 0 ? Optional.empty() : Optional.of(pages);
+    }
+
+    /**
+     * Penulis halaman bertahap. Tidak thread-safe; halaman ditulis sesuai urutan diterima.
+     */
+    public static final class Writer {
+
+        private final GZIPOutputStream gzip;
+        private final DataOutputStream data;
+
+        private Writer(OutputStream out, String extractorVersion) throws IOException {
+            this.gzip = new GZIPOutputStream(out, BUFFER_SIZE);
+            this.data = new DataOutputStream(new BufferedOutputStream(gzip, BUFFER_SIZE));
+            data.writeInt(MAGIC);
+            data.writeByte(FORMAT_VERSION);
+            data.writeUTF(extractorVersion);
+        }
+
+        public void write(DocumentPage page) throws IOException {
+            if (page.getPageNumber() == END_OF_PAGES) {
+                throw new IllegalArgumentException("Page numbers start at 1");
+            }
+            byte[] content = page.getContent() != null
+                    ? page.getContent().getBytes(StandardCharsets.UTF_8)
+                    : new byte[0];
+            data.writeInt(page.getPageNumber());
+            data.writeInt(content.length);
+            data.write(content);
+        }
+
+        public void finish() throws IOException {
+            data.writeInt(END_OF_PAGES);
+            data.flush();
+            gzip.finish();
+        }
+    }
+}
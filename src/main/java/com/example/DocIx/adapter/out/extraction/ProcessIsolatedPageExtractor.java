@@ -0,0 +1,327 @@
+package com.example.DocIx.adapter.out.extraction;
+
+import com.example.DocIx.domain.port.out.PageExtractor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.jar.JarFile;
+
+/**
+ * Menjalankan ekstraksi di pool proses child JVM dengan heap sendiri.
+ * <p>
+ * Worker yang melewati batas waktu dibunuh, worker yang kehabisan heap berhenti sendiri
+ * ({@code -XX:+ExitOnOutOfMemoryError}); keduanya diganti dengan proses baru. Worker juga
+ * didaur ulang setelah sejumlah dokumen untuk membatasi efek kebocoran memori parser.
+ * <p>
+ * Konten dialirkan ke worker per chunk dari thread terpisah sementara thread pemanggil menerima halaman
+ * yang dikirim worker, sehingga baik proses induk maupun worker tidak menampung seluruh file.
+ */
+public class ProcessIsolatedPageExtractor implements PageExtractor, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessIsolatedPageExtractor.class);
+
+    private static final String BOOT_PROPERTIES_LAUNCHER = "org.springframework.boot.loader.launch.PropertiesLauncher";
+
+    private static final int CONTENT_CHUNK_BYTES = 64 * 1024;
+
+    private final ExtractionBudget budget;
+    private final String extractorVersion;
+    private final int workerHeapMb;
+    private final int maxDocumentsPerWorker;
+    private final int virtualPageChars;
+    private final long timeoutMillis;
+    private final BlockingQueue<Worker> idleWorkers;
+    private final ScheduledExecutorService watchdog;
+    private final ExecutorService contentWriters;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    public ProcessIsolatedPageExtractor(ExtractionBudget budget, String extractorVersion, int poolSize,
+                                        int workerHeapMb, int maxDocumentsPerWorker, int virtualPageChars) {
+        this.budget = budget;
+        this.extractorVersion = extractorVersion;
+        this.workerHeapMb = workerHeapMb;
+        this.maxDocumentsPerWorker = maxDocumentsPerWorker;
+        this.virtualPageChars = virtualPageChars;
+        // Worker sendiri menegakkan budget; watchdog hanya untuk worker yang tidak responsif
+        this.timeoutMillis = budget.getDocumentTimeout().toMillis() + 2_000L;
+        this.idleWorkers = new ArrayBlockingQueue<>(poolSize);
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "docix-extraction-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger writerCounter = new AtomicInteger();
+        this.contentWriters = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "docix-extraction-input-" + writerCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < poolSize; i++) {
+            idleWorkers.add(new Worker(null));
+        }
+    }
+
+    @Override
+    public int extractPages(InputStream fileContent, String fileName, String documentId,
+                            Consumer<DocumentPage> pageSink) throws PageExtractionException {
+        Worker slot;
+        try {
+            slot = idleWorkers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PageExtractionException("Interrupted while waiting for extraction worker", e);
+        }
+
+        Worker worker = slot;
+        try {
+            worker = slot.ensureStarted();
+            return worker.extract(fileContent, fileName, documentId, pageSink);
+        } finally {
+            idleWorkers.add(worker.recycleIfNeeded());
+        }
+    }
+
+    @Override
+    public String getExtractorVersion() {
+        return extractorVersion;
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            watchdog.shutdownNow();
+            contentWriters.shutdownNow();
+            for (Worker worker : idleWorkers) {
+                worker.destroy();
+            }
+        }
+    }
+
+    private List<String> workerCommand() {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Xmx" + workerHeapMb + "m");
+        command.add("-XX:+ExitOnOutOfMemoryError");
+        command.add("-Djava.awt.headless=true");
+        String fontCache = System.getProperty(ExtractionWarmup.FONT_CACHE_PROPERTY);
+        if (fontCache != null) {
+            // Worker memakai cache font yang sudah dibangun proses induk, bukan memindai font sistem lagi
+            command.add("-D" + ExtractionWarmup.FONT_CACHE_PROPERTY + "=" + fontCache);
+        }
+
+        String classPath = System.getProperty("java.class.path");
+        if (isSpringBootFatJar(classPath)) {
+            // Kelas aplikasi berada di BOOT-INF/classes sehingga harus dimuat lewat launcher Boot
+            command.add("-Dloader.main=" + ExtractionWorkerMain.class.getName());
+            command.add("-cp");
+            command.add(classPath);
+            command.add(BOOT_PROPERTIES_LAUNCHER);
+        } else {
+            command.add("-cp");
+            command.add(classPath);
+            command.add(ExtractionWorkerMain.class.getName());
+        }
+
+        command.add(String.valueOf(budget.getDocumentTimeout().toMillis()));
+        command.add(String.valueOf(budget.getPageTimeout().toMillis()));
+        command.add(String.valueOf(budget.getHeapBudgetBytes()));
+        command.add(String.valueOf(budget.getMaxAllocatedBytes()));
+        command.add(String.valueOf(virtualPageChars));
+        return command;
+    }
+
+    private static boolean isSpringBootFatJar(String classPath) {
+        if (classPath == null || classPath.contains(File.pathSeparator) || !classPath.endsWith(".jar")) {
+            return false;
+        }
+        try (JarFile jar = new JarFile(classPath)) {
+            return jar.getEntry("BOOT-INF/classes/") != null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Satu slot pool. Proses dijalankan secara lazy dan diganti setelah gagal atau setelah
+     * mencapai batas jumlah dokumen.
+     */
+    private class Worker {
+
+        private final Process process;
+        private final DataOutputStream requests;
+        private final DataInputStream responses;
+        private int documentsProcessed;
+        private boolean broken;
+
+        private Worker(Process process) {
+            this.process = process;
+            this.requests = process != null
+                    ? new DataOutputStream(new BufferedOutputStream(process.getOutputStream())) : null;
+            this.responses = process != null
+                    ? new DataInputStream(new BufferedInputStream(process.getInputStream())) : null;
+        }
+
+        private Worker ensureStarted() throws PageExtractionException {
+            if (process != null && process.isAlive()) {
+                return this;
+            }
+            try {
+                Process started = new ProcessBuilder(workerCommand())
+                        .redirectError(ProcessBuilder.Redirect.INHERIT)
+                        .start();
+                logger.info("Started extraction worker process pid={}", started.pid());
+                return new Worker(started);
+            } catch (IOException e) {
+                throw new PageExtractionException("Failed to start extraction worker process", e);
+            }
+        }
+
+        private int extract(InputStream content, String fileName, String documentId,
+                            Consumer<DocumentPage> pageSink) throws PageExtractionException {
+            AtomicBoolean killedByWatchdog = new AtomicBoolean();
+            ScheduledFuture<?> timeout = watchdog.schedule(() -> {
+                killedByWatchdog.set(true);
+                process.destroyForcibly();
+            }, timeoutMillis, TimeUnit.MILLISECONDS);
+
+            Future<?> contentWriter = null;
+            try {
+                documentsProcessed++;
+                requests.writeUTF(fileName);
+                requests.writeUTF(documentId);
+                requests.flush();
+                // Ditulis dari thread lain: worker bisa mengirim halaman sebelum konten selesai dibaca
+                contentWriter = contentWriters.submit(() -> {
+                    writeContent(content);
+                    return null;
+                });
+
+                int pageCount = 0;
+                while (true) {
+                    byte status = responses.readByte();
+                    if (status == ExtractionWorkerMain.STATUS_PAGE) {
+                        int pageNumber = responses.readInt();
+                        byte[] text = new byte[responses.readInt()];
+                        responses.readFully(text);
+                        pageSink.accept(new DocumentPage(documentId, pageNumber, new String(text, StandardCharsets.UTF_8)));
+                        pageCount++;
+                        continue;
+                    }
+                    // Worker hanya menjawab status akhir setelah seluruh konten diterima
+                    awaitContentWriter(contentWriter, fileName);
+                    if (status == ExtractionWorkerMain.STATUS_BUDGET_EXCEEDED) {
+                        boolean timeLimit = responses.readBoolean();
+                        throw new ExtractionBudgetExceededException(responses.readUTF(), timeLimit);
+                    }
+                    if (status != ExtractionWorkerMain.STATUS_OK) {
+                        throw new PageExtractionException(responses.readUTF());
+                    }
+                    return pageCount;
+                }
+            } catch (IOException e) {
+                broken = true;
+                if (killedByWatchdog.get()) {
+                    throw new ExtractionBudgetExceededException("Extraction worker killed after exceeding document time budget of "
+                            + budget.getDocumentTimeout().toSeconds() + "s: " + fileName, e, true);
+                }
+                // Proses berhenti sendiri, paling sering karena ExitOnOutOfMemoryError
+                throw new ExtractionBudgetExceededException("Extraction worker terminated (heap budget of "
+                        + workerHeapMb + "MB likely exceeded): " + fileName, e, false);
+            } catch (RuntimeException e) {
+                // Sisa respons worker tidak terbaca, proses tidak bisa dipakai ulang
+                broken = true;
+                throw e;
+            } finally {
+                timeout.cancel(false);
+                if (contentWriter != null && !contentWriter.isDone()) {
+                    broken = true;
+                    contentWriter.cancel(true);
+                }
+            }
+        }
+
+        private void writeContent(InputStream content) throws IOException {
+            byte[] buffer = new byte[CONTENT_CHUNK_BYTES];
+            try {
+                int read;
+                while ((read = content.readNBytes(buffer, 0, buffer.length)) > 0) {
+                    requests.writeInt(read);
+                    requests.write(buffer, 0, read);
+                }
+            } catch (IOException e) {
+                if (!process.isAlive()) {
+                    throw e;
+                }
+                // Sumber gagal dibaca (misalnya koneksi storage putus): worker diberi tahu agar ekstraksi gagal
+                requests.writeInt(ExtractionWorkerMain.CONTENT_ABORTED);
+                requests.flush();
+                throw e;
+            }
+            requests.writeInt(ExtractionWorkerMain.END_OF_CONTENT);
+            requests.flush();
+        }
+
+        private void awaitContentWriter(Future<?> contentWriter, String fileName) throws PageExtractionException {
+            // Jika pengiriman gagal, sisa respons tidak dibaca sehingga worker harus diganti
+            try {
+                contentWriter.get(timeoutMillis, TimeUnit.MILLISECONDS);
+                return;
+            } catch (ExecutionException e) {
+                broken = true;
+                throw new PageExtractionException("Failed to read document content: " + fileName, e.getCause());
+            } catch (TimeoutException e) {
+                broken = true;
+                throw new PageExtractionException("Timed out sending document content: " + fileName, e);
+            } catch (InterruptedException e) {
+                broken = true;
+                Thread.currentThread().interrupt();
+                throw new PageExtractionException("Interrupted while sending document content: " + fileName, e);
+            }
+        }
+
+        private Worker recycleIfNeeded() {
+            if (process == null) {
+                return this;
+            }
+            if (broken || !process.isAlive() || documentsProcessed >= maxDocumentsPerWorker || closed.get()) {
+                destroy();
+                return new Worker(null);
+            }
+            return this;
+        }
+
+        private void destroy() {
+            if (process != null && process.isAlive()) {
+                try {
+                    requests.close();
+                } catch (IOException ignore) {
+                }
+                process.destroyForcibly();
+            }
+        }
+    }
+}
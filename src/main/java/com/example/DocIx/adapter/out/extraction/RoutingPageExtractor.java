@@ -0,0 +1,61 @@
+package com.example.DocIx.adapter.out.extraction;
+
+import com.example.DocIx.domain.port.out.PageExtractor;
+import com.example.DocIx.domain.util.DocumentTypeUtil;
+import org.apache.tika.Tika;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Memilih extractor berdasarkan MIME type yang dideteksi dari byte awal file dan nama file:
+ * PDF ke PDFBox (halaman asli), format lain ke Tika (halaman virtual).
+ */
+public class RoutingPageExtractor implements PageExtractor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoutingPageExtractor.class);
+
+    private static final int DETECTION_PREFIX_BYTES = 8 * 1024;
+
+    private final Tika tika = new Tika();
+    private final PageExtractor pdfExtractor;
+    private final PageExtractor fallbackExtractor;
+
+    public RoutingPageExtractor(PageExtractor pdfExtractor, PageExtractor fallbackExtractor) {
+        this.pdfExtractor = pdfExtractor;
+        this.fallbackExtractor = fallbackExtractor;
+    }
+
+    @Override
+    public String getExtractorVersion() {
+        return pdfExtractor.getExtractorVersion() + "+" + fallbackExtractor.getExtractorVersion();
+    }
+
+    @Override
+    public int extractPages(InputStream fileContent, String fileName, String documentId,
+                            Consumer<DocumentPage> pageSink) throws PageExtractionException {
+        BufferedInputStream buffered = new BufferedInputStream(fileContent, DETECTION_PREFIX_BYTES);
+        String mimeType = detect(buffered, fileName);
+        logger.debug("Detected {} for document {}", mimeType, documentId);
+
+        if (DocumentTypeUtil.PDF_MIME_TYPE.equals(mimeType)) {
+            return pdfExtractor.extractPages(buffered, fileName, documentId, pageSink);
+        }
+        return fallbackExtractor.extractPages(buffered, fileName, documentId, pageSink);
+    }
+
+    private String detect(BufferedInputStream stream, String fileName) throws PageExtractionException {
+        try {
+            stream.mark(DETECTION_PREFIX_BYTES);
+            byte[] prefix = stream.readNBytes(DETECTION_PREFIX_BYTES);
+            stream.reset();
+            return tika.detect(prefix, fileName);
+        } catch (IOException e) {
+            throw new PageExtractionException("Failed to detect content type of " + fileName, e);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.DocIx.adapter.out.extraction;
+
+import com.example.DocIx.domain.port.out.PageExtractor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Supervisor ekstraksi: menjalankan extractor di thread terpisah dan menghentikan penantian
+ * setelah batas waktu dokumen terlewati, sehingga consumer tidak pernah macet pada satu file.
+ * <p>
+ * Budget per halaman dan memori dicek secara kooperatif oleh extractor; supervisor ini menjadi
+ * jaring pengaman untuk hang di luar titik pengecekan tersebut.
+ */
+public class SupervisedPageExtractor implements PageExtractor, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SupervisedPageExtractor.class);
+
+    // Waktu tambahan agar pengecekan kooperatif sempat melempar alasan yang lebih spesifik
+    private static final Duration SUPERVISOR_GRACE = Duration.ofSeconds(5);
+
+    // Status per ekstraksi; transisi keluar dari RUNNING menentukan siapa yang menyesuaikan gauge
+    private static final int PENDING = 0;
+    private static final int RUNNING = 1;
+    private static final int FINISHED = 2;
+    private static final int ABANDONED = 3;
+
+    private final PageExtractor delegate;
+    private final Duration documentTimeout;
+    private final ExecutorService executor;
+    private final AtomicInteger abandonedExtractions = new AtomicInteger();
+    private final Counter timeoutCounter;
+    private final Counter budgetExceededCounter;
+
+    public SupervisedPageExtractor(PageExtractor delegate, ExtractionBudget budget, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.documentTimeout = budget.getDocumentTimeout().plus(SUPERVISOR_GRACE);
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "docix-extraction-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.timeoutCounter = Counter.builder("extraction_budget_exceeded_total")
+                .description("Jumlah ekstraksi yang dihentikan karena melewati budget")
+                .tag("reason", "supervisor_timeout")
+                .register(meterRegistry);
+        this.budgetExceededCounter = Counter.builder("extraction_budget_exceeded_total")
+                .description("Jumlah ekstraksi yang dihentikan karena melewati budget")
+                .tag("reason", "budget")
+                .register(meterRegistry);
+        meterRegistry.gauge("extraction_abandoned_threads", abandonedExtractions);
+    }
+
+    @Override
+    public int extractPages(InputStream fileContent, String fileName, String documentId,
+                            Consumer<DocumentPage> pageSink) throws PageExtractionException {
+        AtomicInteger state = new AtomicInteger(PENDING);
+        Future<Integer> future = executor.submit(() -> {
+            if (!state.compareAndSet(PENDING, RUNNING)) {
+                // Ditinggalkan sebelum sempat berjalan
+                return 0;
+            }
+            try {
+                return delegate.extractPages(fileContent, fileName, documentId, page -> {
+                    // Thread yang ditinggalkan tidak boleh menyerahkan halaman lagi setelah pemanggil menerima error
+                    if (state.get() != ABANDONED) {
+                        pageSink.accept(page);
+                    }
+                });
+            } finally {
+                if (!state.compareAndSet(RUNNING, FINISHED)) {
+                    // Thread yang sempat ditinggalkan akhirnya selesai
+                    abandonedExtractions.decrementAndGet();
+                }
+            }
+        });
+
+        try {
+            return future.get(documentTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            abandon(state, future);
+            timeoutCounter.increment();
+            logger.warn("Extraction of document {} ({}) abandoned after {}s", documentId, fileName,
+                    documentTimeout.toSeconds());
+            throw new ExtractionBudgetExceededException("Extraction exceeded document time budget of "
+                    + documentTimeout.minus(SUPERVISOR_GRACE).toSeconds() + "s: " + fileName, true);
+        } catch (InterruptedException e) {
+            abandon(state, future);
+            Thread.currentThread().interrupt();
+            throw new PageExtractionException("Extraction interrupted: " + fileName, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ExtractionBudgetExceededException budgetException) {
+                budgetExceededCounter.increment();
+                logger.warn("Extraction of document {} exceeded budget: {}", documentId, budgetException.getMessage());
+                throw budgetException;
+            }
+            if (cause instanceof PageExtractionException extractionException) {
+                throw extractionException;
+            }
+            if (cause instanceof OutOfMemoryError) {
+                budgetExceededCounter.increment();
+                throw new ExtractionBudgetExceededException("Extraction ran out of heap: " + fileName, cause, false);
+            }
+            throw new PageExtractionException("Unexpected error while extracting pages: " + fileName, cause);
+        }
+    }
+
+    /**
+     * Tinggalkan ekstraksi yang masih berjalan. Gauge dinaikkan sebelum transisi agar tidak pernah
+     * negatif; jika worker ternyata sudah selesai, kenaikan itu dibatalkan.
+     */
+    private void abandon(AtomicInteger state, Future<Integer> future) {
+        while (true) {
+            int current = state.get();
+            if (current == FINISHED || current == ABANDONED) {
+                break;
+            }
+            if (current == PENDING) {
+                if (state.compareAndSet(PENDING, ABANDONED)) {
+                    break;
+                }
+                continue;
+            }
+            abandonedExtractions.incrementAndGet();
+            if (state.compareAndSet(RUNNING, ABANDONED)) {
+                break;
+            }
+            abandonedExtractions.decrementAndGet();
+        }
+        future.cancel(true);
+    }
+
+    @Override
+    public String getExtractorVersion() {
+        return delegate.getExtractorVersion();
+    }
+
+    @Override
+    public void close() throws Exception {
+        executor.shutdownNow();
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
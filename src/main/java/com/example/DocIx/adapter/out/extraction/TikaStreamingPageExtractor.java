@@ -0,0 +1,89 @@
+package com.example.DocIx.adapter.out.extraction;
+
+import com.example.DocIx.domain.port.out.PageExtractor;
+import org.apache.tika.Tika;
+import org.apache.tika.io.TemporaryResources;
+import org.apache.tika.io.TikaInputStream;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.metadata.TikaCoreProperties;
+import org.apache.tika.parser.AutoDetectParser;
+import org.apache.tika.parser.ParseContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Implementasi PageExtractor untuk format non-PDF (DOCX, PPTX, HTML, dan format lain yang didukung Tika).
+ * <p>
+ * Tika dijalankan dengan {@link VirtualPageContentHandler} sehingga teks dipotong menjadi halaman virtual
+ * selagi parsing berjalan, tanpa pernah membangun seluruh teks dokumen sebagai satu string. Container
+ * berbasis zip (OOXML/ODF) di-spool ke file sementara oleh {@link TikaInputStream}, bukan ke heap.
+ */
+@Component
+public class TikaStreamingPageExtractor implements PageExtractor {
+
+    // Naikkan suffix setiap kali aturan pemotongan halaman virtual berubah
+    private static final String EXTRACTOR_VERSION = "tika-" + new Tika().toString()
+            .replace("Apache Tika", "").trim() + "/1";
+
+    private final AutoDetectParser parser = new AutoDetectParser();
+    private final ExtractionBudget budget;
+    private final int virtualPageChars;
+
+    public TikaStreamingPageExtractor(ExtractionBudget budget,
+                                      @Value("${docix.extraction.tika.virtual-page-chars:4000}") int virtualPageChars) {
+        this.budget = budget;
+        this.virtualPageChars = virtualPageChars;
+    }
+
+    @Override
+    public String getExtractorVersion() {
+        return EXTRACTOR_VERSION + "@" + virtualPageChars;
+    }
+
+    @Override
+    public int extractPages(InputStream fileContent, String fileName, String documentId,
+                            Consumer<DocumentPage> pageSink) throws PageExtractionException {
+
+        if (documentId == null || documentId.trim().isEmpty()) {
+            throw new PageExtractionException("Document ID cannot be null or empty");
+        }
+
+        if (fileName == null || fileName.trim().isEmpty()) {
+            throw new PageExtractionException("File name cannot be null or empty");
+        }
+
+        ExtractionBudget.Tracker tracker = budget.start();
+        AtomicInteger pageCount = new AtomicInteger();
+        // Halaman diserahkan saat handler menutupnya, bukan setelah parsing selesai
+        VirtualPageContentHandler handler = new VirtualPageContentHandler(virtualPageChars, tracker,
+                text -> pageSink.accept(new DocumentPage(documentId, pageCount.incrementAndGet(), text)));
+
+        Metadata metadata = new Metadata();
+        metadata.set(TikaCoreProperties.RESOURCE_NAME_KEY, fileName);
+
+        try (TemporaryResources tmp = new TemporaryResources();
+             TikaInputStream stream = TikaInputStream.get(fileContent, tmp, metadata)) {
+            tracker.startPage(1);
+            parser.parse(stream, handler, metadata, new ParseContext());
+        } catch (Exception e) {
+            if (handler.getBudgetFailure() != null) {
+                throw new ExtractionBudgetExceededException(handler.getBudgetFailure().getMessage() + ": " + fileName,
+                        handler.getBudgetFailure(), handler.getBudgetFailure().isTimeLimit());
+            }
+            if (e instanceof ExtractionBudget.BudgetExceededException budgetExceeded) {
+                throw new ExtractionBudgetExceededException(budgetExceeded.getMessage() + ": " + fileName, e,
+                        budgetExceeded.isTimeLimit());
+            }
+            throw new PageExtractionException("Failed to extract pages from " + fileName + ": " + e.getMessage(), e);
+        }
+
+        if (pageCount.get() == 0) {
+            throw new PageExtractionException("No text extracted from file: " + fileName);
+        }
+        return pageCount.get();
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.DocIx.adapter.out.extraction;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * SAX handler yang memotong keluaran XHTML Tika menjadi "halaman virtual" selagi teks mengalir.
+ * <p>
+ * Batas halaman mengikuti struktur dokumen bila ada: setiap slide (PPTX/ODP) dan setiap halaman
+ * (format yang memiliki halaman) menjadi halaman sendiri; heading bagian (h1/h2) memulai halaman baru
+ * bila halaman berjalan sudah cukup panjang. Teks tanpa struktur dipotong di whitespace terdekat
+ * setelah mencapai ukuran target. Hanya teks halaman berjalan yang ditahan di memori.
+ */
+class VirtualPageContentHandler extends DefaultHandler {
+
+    private static final Set<String> BLOCK_ELEMENTS = Set.of(
+            "p", "div", "li", "tr", "table", "br", "h1", "h2", "h3", "h4", "h5", "h6",
+            "blockquote", "pre", "dt", "dd", "section", "article");
+    private static final Set<String> SECTION_HEADINGS = Set.of("h1", "h2");
+    private static final Set<String> PAGE_CLASSES = Set.of("slide-content", "page");
+    private static final int CHECK_INTERVAL = 64;
+
+    private final int targetPageChars;
+    private final int minSectionChars;
+    private final ExtractionBudget.Tracker tracker;
+    private final Consumer<String> pageSink;
+
+    private final StringBuilder current = new StringBuilder();
+    private int headDepth;
+    private int eventsSinceCheck;
+    private int pagesEmitted;
+    private ExtractionBudget.BudgetExceededException budgetFailure;
+
+    VirtualPageContentHandler(int targetPageChars, ExtractionBudget.Tracker tracker, Consumer<String> pageSink) {
+        this.targetPageChars = targetPageChars;
+        this.minSectionChars = targetPageChars / 4;
+        this.tracker = tracker;
+        this.pageSink = pageSink;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+        String name = localName.isEmpty() ? qName : localName;
+        if ("head".equals(name)) {
+            headDepth++;
+            return;
+        }
+        if ("div".equals(name) && PAGE_CLASSES.contains(attributes.getValue("class"))) {
+            flushPage();
+        } else if (SECTION_HEADINGS.contains(name) && current.length() >= minSectionChars) {
+            flushPage();
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) {
+        String name = localName.isEmpty() ? qName : localName;
+        if ("head".equals(name)) {
+            headDepth--;
+            return;
+        }
+        if (headDepth > 0) {
+            return;
+        }
+        if ("td".equals(name) || "th".equals(name)) {
+            appendSeparator('\t');
+        } else if (BLOCK_ELEMENTS.contains(name)) {
+            appendSeparator('\n');
+        }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) throws SAXException {
+        if (headDepth > 0) {
+            return;
+        }
+        checkBudget();
+        current.append(ch, start, length);
+        while (current.length() >= targetPageChars) {
+            splitAtWhitespace();
+        }
+    }
+
+    @Override
+    public void ignorableWhitespace(char[] ch, int start, int length) {
+        if (headDepth == 0) {
+            appendSeparator(' ');
+        }
+    }
+
+    @Override
+    public void endDocument() throws SAXException {
+        flushPage();
+    }
+
+    int getPagesEmitted() {
+        return pagesEmitted;
+    }
+
+    ExtractionBudget.BudgetExceededException getBudgetFailure() {
+        return budgetFailure;
+    }
+
+    private void checkBudget() throws SAXException {
+        if (++eventsSinceCheck < CHECK_INTERVAL) {
+            return;
+        }
+        eventsSinceCheck = 0;
+        try {
+            tracker.check();
+        } catch (ExtractionBudget.BudgetExceededException e) {
+            budgetFailure = e;
+            throw new SAXException(e);
+        }
+    }
+
+    private void appendSeparator(char separator) {
+        int length = current.length();
+        if (length > 0 && !Character.isWhitespace(current.charAt(length - 1))) {
+            current.append(separator);
+        } else if (separator == '\n' && length > 0 && current.charAt(length - 1) != '\n') {
+            current.setCharAt(length - 1, '\n');
+        }
+    }
+
+    /**
+     * Potong halaman berjalan di whitespace terakhir dalam seperlima akhir ukuran target,
+     * atau tepat di ukuran target jika tidak ada whitespace (misalnya teks tanpa spasi)
+     */
+    private void splitAtWhitespace() throws SAXException {
+        int cut = targetPageChars;
+        int lowerBound = targetPageChars - targetPageChars / 5;
+        for (int i = targetPageChars - 1; i >= lowerBound; i--) {
+            if (Character.isWhitespace(current.charAt(i))) {
+                cut = i + 1;
+                break;
+            }
+        }
+        String text = current.substring(0, cut);
+        current.delete(0, cut);
+        emit(text);
+    }
+
+    private void flushPage() throws SAXException {
+        String text = current.toString();
+        current.setLength(0);
+        emit(text);
+    }
+
+    private void emit(String text) throws SAXException {
+        String cleaned = text.strip();
+        if (cleaned.isEmpty()) {
+            return;
+        }
+        pageSink.accept(cleaned);
+        pagesEmitted++;
+        try {
+            tracker.startPage(pagesEmitted + 1);
+        } catch (ExtractionBudget.BudgetExceededException e) {
+            budgetFailure = e;
+            throw new SAXException(e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.DocIx.adapter.out.messaging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Menyiarkan ID dokumen yang berubah ke semua node lewat fanout exchange, agar cache dokumen
+ * di node lain ikut dihapus
+ */
+@Component
+public class RabbitMQDocumentCacheInvalidationPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(RabbitMQDocumentCacheInvalidationPublisher.class);
+
+    private final RabbitTemplate rabbitTemplate;
+    private final String exchangeName;
+    private final boolean enabled;
+
+    public RabbitMQDocumentCacheInvalidationPublisher(RabbitTemplate rabbitTemplate,
+                                                      @Value("${docix.cache.document.invalidation.exchange.name:document.cache.invalidation}") String exchangeName,
+                                                      @Value("${docix.cache.document.invalidation.enabled:true}") boolean enabled) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.exchangeName = exchangeName;
+        this.enabled = enabled;
+    }
+
+    public void publish(String documentId) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rabbitTemplate.convertAndSend(exchangeName, "", new DocumentCacheInvalidationMessage(documentId));
+        } catch (Exception e) {
+            // Node lain tetap konsisten setelah TTL cache habis; kegagalan siaran tidak menggagalkan penulisan
+            logger.warn("Failed to broadcast cache invalidation for document {}: {}", documentId, e.getMessage());
+        }
+    }
+
+    public static class DocumentCacheInvalidationMessage {
+        private String documentId;
+
+        public DocumentCacheInvalidationMessage() {}
+
+        public DocumentCacheInvalidationMessage(String documentId) {
+            this.documentId = documentId;
+        }
+
+        public String getDocumentId() { return documentId; }
+        public void setDocumentId(String documentId) { this.documentId = documentId; }
+    }
+}
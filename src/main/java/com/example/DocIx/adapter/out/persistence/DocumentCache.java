@@ -0,0 +1,165 @@
+package com.example.DocIx.adapter.out.persistence;
+
+import com.example.DocIx.adapter.out.messaging.RabbitMQDocumentCacheInvalidationPublisher;
+import com.example.DocIx.adapter.out.persistence.entity.DocumentJpaEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache LRU berbatas untuk baris {@code documents}, dipakai oleh {@link DocumentPersistenceAdapter#findById}.
+ * <p>
+ * Yang disimpan adalah salinan {@link DocumentJpaEntity} yang tidak pernah managed, sehingga setiap hit
+ * menghasilkan objek Document baru dan perubahan oleh pemanggil tidak bocor ke cache. Entri dihapus saat
+ * save/delete (sekali segera dan sekali lagi setelah commit), disiarkan ke node lain lewat
+ * {@link RabbitMQDocumentCacheInvalidationPublisher}, dan kedaluwarsa setelah {@code ttl-seconds} sebagai
+ * jaring pengaman jika siaran hilang. Pengisian cache dibatalkan jika ada invalidasi selama query berjalan.
+ * <p>
+ * Jika read replica aktif, transaksi read-only membaca replica yang bisa tertinggal; baris lama dari replica
+ * yang dibaca tepat setelah invalidasi akan bertahan di cache sampai TTL habis. Karena itu cache hanya diisi
+ * dari primary (lihat {@link #loadsFromPrimary()}).
+ */
+@Component
+public class DocumentCache {
+
+    private final boolean enabled;
+    private final boolean loadsFromPrimary;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final RabbitMQDocumentCacheInvalidationPublisher invalidationPublisher;
+    private final Map<String, Entry> entries;
+    // Naik pada setiap invalidasi; pengisian dari query yang dimulai sebelum invalidasi diabaikan
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public DocumentCache(
+            @Value("${docix.cache.document.enabled:true}") boolean enabled,
+            @Value("${docix.cache.document.max-entries:10000}") int maxEntries,
+            @Value("${docix.cache.document.ttl-seconds:300}") long ttlSeconds,
+            @Value("${docix.datasource.replica.enabled:false}") boolean replicaReads,
+            RabbitMQDocumentCacheInvalidationPublisher invalidationPublisher,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.loadsFromPrimary = replicaReads;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.invalidationPublisher = invalidationPublisher;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > DocumentCache.this.maxEntries;
+            }
+        };
+
+        this.hitCounter = Counter.builder("document_cache_requests")
+                .description("Lookup dokumen by ID yang dilayani cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("document_cache_requests")
+                .description("Lookup dokumen by ID yang dilayani cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("document_cache_size", this, DocumentCache::size)
+                .description("Jumlah dokumen di cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Cache hanya dipakai di luar transaksi read-write; penulis selalu membaca status terbaru dari database
+     */
+    boolean isUsable() {
+        return enabled && (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    /**
+     * @return true jika query pengisi cache harus dijalankan di transaksi read-write agar dilayani primary
+     */
+    boolean loadsFromPrimary() {
+        return loadsFromPrimary;
+    }
+
+    /**
+     * @return salinan entity, atau null jika tidak ada atau kedaluwarsa
+     */
+    DocumentJpaEntity get(String documentId) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(documentId);
+            if (entry != null && System.nanoTime() - entry.cachedAt > ttlNanos) {
+                entries.remove(documentId);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            missCounter.increment();
+            return null;
+        }
+        hitCounter.increment();
+        return entry.snapshot;
+    }
+
+    /**
+     * Tanda yang diambil sebelum query database, diteruskan ke {@link #put}
+     */
+    long startLoad() {
+        return invalidations.get();
+    }
+
+    void put(String documentId, DocumentJpaEntity snapshot, long loadToken) {
+        synchronized (entries) {
+            if (invalidations.get() == loadToken) {
+                entries.put(documentId, new Entry(snapshot, System.nanoTime()));
+            }
+        }
+    }
+
+    /**
+     * Hapus entri sekarang dan setelah transaksi berjalan di-commit, lalu siarkan ke node lain
+     */
+    void invalidateOnWrite(String documentId) {
+        if (!enabled) {
+            return;
+        }
+        invalidate(documentId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(documentId);
+                    invalidationPublisher.publish(documentId);
+                }
+            });
+        } else {
+            invalidationPublisher.publish(documentId);
+        }
+    }
+
+    /**
+     * Hapus entri lokal, misalnya karena siaran dari node lain
+     */
+    public void invalidate(String documentId) {
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            entries.remove(documentId);
+        }
+    }
+
+    private int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private record Entry(DocumentJpaEntity snapshot, long cachedAt) {
+    }
+}
@@ -6,9 +6,19 @@ import com.example.DocIx.adapter.out.persistence.repository.DocumentJpaRepositor
 import com.example.DocIx.domain.model.Document;
 import com.example.DocIx.domain.model.DocumentId;
 import com.example.DocIx.domain.model.DocumentStatus;
+import com.example.DocIx.domain.model.DocumentStatusSummary;
+import com.example.DocIx.adapter.out.persistence.projection.DocumentStatusProjection;
 import com.example.DocIx.domain.port.out.DocumentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,23 +27,82 @@ public class DocumentPersistenceAdapter implements DocumentRepository {
 
     private final DocumentJpaRepository jpaRepository;
     private final DocumentMapper mapper;
+    private final DocumentCache documentCache;
+    private final TransactionTemplate primaryReads;
 
-    public DocumentPersistenceAdapter(DocumentJpaRepository jpaRepository, DocumentMapper mapper) {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public DocumentPersistenceAdapter(DocumentJpaRepository jpaRepository, DocumentMapper mapper,
+                                      DocumentCache documentCache, PlatformTransactionManager transactionManager) {
         this.jpaRepository = jpaRepository;
         this.mapper = mapper;
+        this.documentCache = documentCache;
+        // Transaksi read-write baru selalu mendapat koneksi primary, juga saat dipanggil dari transaksi read-only
+        this.primaryReads = new TransactionTemplate(transactionManager);
+        this.primaryReads.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     @Override
     public Document save(Document document) {
         DocumentJpaEntity jpaEntity = mapper.toJpaEntity(document);
         DocumentJpaEntity savedEntity = jpaRepository.save(jpaEntity);
+        documentCache.invalidateOnWrite(document.getId().getValue());
         return mapper.toDomainEntity(savedEntity);
     }
 
+    @Override
+    @Transactional
+    public boolean updateStatusIfCurrent(Document document, DocumentStatus expectedStatus) {
+        String id = document.getId().getValue();
+        int updated = jpaRepository.updateStatusIfCurrent(id, expectedStatus, document.getStatus(),
+                document.getDownloadUrl(), document.getErrorMessage(), document.getLastProcessedAt());
+        return afterConditionalUpdate(id, updated);
+    }
+
+    @Override
+    @Transactional
+    public boolean claimForProcessing(Document document, DocumentStatus expectedStatus, LocalDateTime stuckBefore) {
+        if (expectedStatus != DocumentStatus.PROCESSING) {
+            return updateStatusIfCurrent(document, expectedStatus);
+        }
+        String id = document.getId().getValue();
+        int updated = jpaRepository.updateStatusIfStuck(id, DocumentStatus.PROCESSING, document.getStatus(),
+                document.getDownloadUrl(), document.getErrorMessage(), document.getLastProcessedAt(), stuckBefore);
+        return afterConditionalUpdate(id, updated);
+    }
+
+    private boolean afterConditionalUpdate(String id, int updated) {
+        if (updated == 0) {
+            return false;
+        }
+        // UPDATE bulk melewati persistence context; entity yang sudah dimuat di transaksi ini kini basi.
+        // getReference tidak menjalankan query, jadi detach tidak menambah statement
+        entityManager.detach(entityManager.getReference(DocumentJpaEntity.class, id));
+        documentCache.invalidateOnWrite(id);
+        return true;
+    }
+
     @Override
     public Optional<Document> findById(DocumentId id) {
-        return jpaRepository.findById(id.getValue())
-                .map(mapper::toDomainEntity);
+        if (!documentCache.isUsable()) {
+            return jpaRepository.findById(id.getValue())
+                    .map(mapper::toDomainEntity);
+        }
+
+        DocumentJpaEntity cached = documentCache.get(id.getValue());
+        if (cached != null) {
+            return Optional.of(mapper.toDomainEntity(cached));
+        }
+
+        long loadToken = documentCache.startLoad();
+        Optional<DocumentJpaEntity> loaded = documentCache.loadsFromPrimary()
+                ? primaryReads.execute(status -> jpaRepository.findById(id.getValue()))
+                : jpaRepository.findById(id.getValue());
+        Optional<Document> document = loaded.map(mapper::toDomainEntity);
+        // Salinan baru dari domain object, bukan entity managed, agar tidak ikut berubah oleh persistence context
+        document.ifPresent(doc -> documentCache.put(id.getValue(), mapper.toJpaEntity(doc), loadToken));
+        return document;
     }
 
     @Override
@@ -61,6 +130,28 @@ public class DocumentPersistenceAdapter implements DocumentRepository {
                 .toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Document> findByProcessedAfter(boolean processed, DocumentId afterId, int limit) {
+        DocumentStatus status = processed ? DocumentStatus.PROCESSED : DocumentStatus.UPLOADED;
+        return jpaRepository.findByStatusAfterId(status, afterId != null ? afterId.getValue() : "", Limit.of(limit))
+                .stream()
+                .map(mapper::toDomainEntity)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DocumentStatusSummary> findStatusSummaries(DocumentStatus status, LocalDateTime afterUploadedAt,
+                                                           DocumentId afterId, int limit) {
+        List<DocumentStatusProjection> rows = afterUploadedAt == null || afterId == null
+                ? jpaRepository.findStatusPage(status, Limit.of(limit))
+                : jpaRepository.findStatusPageAfter(status, afterUploadedAt, afterId.getValue(), Limit.of(limit));
+        return rows.stream()
+                .map(mapper::toStatusSummary)
+                .toList();
+    }
+
     @Override
     public List<Document> findAll() {
         return jpaRepository.findAll()
@@ -70,8 +161,11 @@ public class DocumentPersistenceAdapter implements DocumentRepository {
     }
 
     @Override
+    @Transactional
     public void deleteById(DocumentId id) {
+        jpaRepository.deletePageErrorsOfDocument(id.getValue());
         jpaRepository.deleteById(id.getValue());
+        documentCache.invalidateOnWrite(id.getValue());
     }
 
     @Override
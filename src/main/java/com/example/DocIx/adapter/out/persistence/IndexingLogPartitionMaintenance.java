@@ -0,0 +1,228 @@
+package com.example.DocIx.adapter.out.persistence;
+
+import com.example.DocIx.domain.port.out.IndexingLogRepository;
+import com.example.DocIx.domain.service.IndexingStatusCounters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Memelihara partisi bulanan {@code indexing_log} berdasarkan {@code updated_at} (lihat migrasi V10).
+ * <p>
+ * Setiap run membuat partisi untuk bulan-bulan ke depan agar baris baru tidak jatuh ke partisi default,
+ * lalu menghapus partisi yang seluruh rentangnya lebih tua dari {@code retention-months}. Partisi dihapus
+ * utuh dengan DROP (atau DETACH ke schema {@code indexing_archive} jika archive aktif), sehingga tidak ada
+ * DELETE besar yang membuat dead tuple dan index membengkak. Partisi yang masih memuat log IN_PROGRESS
+ * dilewati. Advisory lock memastikan hanya satu node yang menjalankan maintenance pada satu waktu.
+ * <p>
+ * Setiap indexing, reindex, atau retry memperbarui {@code updated_at} sehingga log pindah ke partisi bulan
+ * berjalan. Partisi kedaluwarsa hanya berisi log yang tidak tersentuh selama masa retensi: log dokumen yang
+ * sudah dihapus, atau log dokumen yang lama tidak diindeks ulang. Untuk yang terakhir, reindex berikutnya
+ * membuat log baru dan mengindeks semua halaman tanpa perbandingan hash.
+ * <p>
+ * {@code indexing_page_error} tidak punya FK ke tabel partisi. Page error milik partisi yang dihapus ikut
+ * dibuang sebelum partisi dilepas, dan page error yatim dari jalur lain dibersihkan bertahap setiap run.
+ */
+@Component
+public class IndexingLogPartitionMaintenance {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexingLogPartitionMaintenance.class);
+
+    private static final String PARENT_TABLE = "indexing_log";
+    private static final String DEFAULT_PARTITION = "indexing_log_default";
+    private static final String ARCHIVE_SCHEMA = "indexing_archive";
+    private static final String PARTITION_COLUMN = "updated_at";
+    // Batas baris page error yatim yang dihapus per run agar transaksi maintenance tetap singkat
+    private static final int ORPHAN_BATCH_SIZE = 10_000;
+    private static final Pattern PARTITION_NAME = Pattern.compile("indexing_log_p(\\d{6})");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    // Kunci advisory lock untuk job ini; nilai bebas asalkan unik di aplikasi
+    private static final long ADVISORY_LOCK_KEY = 0x446f6349784c6f67L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final IndexingLogRepository indexingLogRepository;
+    private final IndexingStatusCounters statusCounters;
+    private final int retentionMonths;
+    private final boolean archive;
+    private final int premakeMonths;
+
+    public IndexingLogPartitionMaintenance(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            IndexingLogRepository indexingLogRepository,
+            IndexingStatusCounters statusCounters,
+            @Value("${docix.indexing.log.retention-months:12}") int retentionMonths,
+            @Value("${docix.indexing.log.retention.archive:false}") boolean archive,
+            @Value("${docix.indexing.log.partition.premake-months:3}") int premakeMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.indexingLogRepository = indexingLogRepository;
+        this.statusCounters = statusCounters;
+        this.retentionMonths = retentionMonths;
+        this.archive = archive;
+        this.premakeMonths = premakeMonths;
+    }
+
+    @Scheduled(initialDelayString = "${docix.indexing.log.partition.initial-delay-ms:60000}",
+               fixedDelayString = "${docix.indexing.log.partition.maintenance-interval-ms:3600000}")
+    public void maintainPartitions() {
+        try {
+            Integer removed = transactionTemplate.execute(status -> {
+                Boolean locked = jdbcTemplate.queryForObject(
+                        "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, ADVISORY_LOCK_KEY);
+                if (!Boolean.TRUE.equals(locked)) {
+                    logger.debug("Partition maintenance already running on another node, skipping");
+                    return 0;
+                }
+                // DDL pada partisi butuh lock eksklusif di tabel induk; jangan antrikan query lain terlalu lama
+                jdbcTemplate.execute("SET LOCAL lock_timeout = '5s'");
+
+                createUpcomingPartitions();
+                int expired = retentionMonths > 0 ? removeExpiredPartitions() : 0;
+                purgeOrphanPageErrors();
+                return expired;
+            });
+
+            if (removed != null && removed > 0) {
+                // Log di partisi yang dihapus tidak melewati adapter, jadi counter status diselaraskan ulang
+                statusCounters.reset(indexingLogRepository.countByStatus());
+            }
+        } catch (Exception e) {
+            logger.error("Indexing log partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void createUpcomingPartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= premakeMonths; i++) {
+            YearMonth month = current.plusMonths(i);
+            String partition = partitionName(month);
+            Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition);
+            if (Boolean.TRUE.equals(exists)) {
+                continue;
+            }
+            try {
+                jdbcTemplate.execute("SAVEPOINT create_partition");
+                createPartition(partition, month.atDay(1), month.plusMonths(1).atDay(1));
+                jdbcTemplate.execute("RELEASE SAVEPOINT create_partition");
+            } catch (Exception e) {
+                jdbcTemplate.execute("ROLLBACK TO SAVEPOINT create_partition");
+                logger.warn("Cannot create partition {}: {}", partition, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Partisi yang dibuat terlambat tidak bisa langsung dibuat jika partisi default sudah memuat baris untuk
+     * rentangnya. Baris tersebut dipindahkan ke tabel baru terlebih dahulu, lalu tabel itu di-attach sebagai
+     * partisi; index dan constraint tabel induk ikut dibuat saat attach.
+     */
+    private void createPartition(String partition, LocalDate from, LocalDate to) {
+        Boolean inDefault = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION + " WHERE " + PARTITION_COLUMN + " >= ? AND " +
+                        PARTITION_COLUMN + " < ?)",
+                Boolean.class, from, to);
+        if (!Boolean.TRUE.equals(inDefault)) {
+            jdbcTemplate.execute(String.format(
+                    "CREATE TABLE %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                    partition, PARENT_TABLE, from, to));
+            return;
+        }
+
+        jdbcTemplate.execute(String.format("CREATE TABLE %s (LIKE %s INCLUDING DEFAULTS INCLUDING CONSTRAINTS)",
+                partition, PARENT_TABLE));
+        int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION +
+                " WHERE " + PARTITION_COLUMN + " >= ? AND " + PARTITION_COLUMN + " < ? RETURNING *)" +
+                " INSERT INTO " + partition + " SELECT * FROM moved", from, to);
+        jdbcTemplate.execute(String.format(
+                "ALTER TABLE %s ATTACH PARTITION %s FOR VALUES FROM ('%s') TO ('%s')",
+                PARENT_TABLE, partition, from, to));
+        logger.info("Created partition {} and moved {} rows out of {}", partition, moved, DEFAULT_PARTITION);
+    }
+
+    private int removeExpiredPartitions() {
+        // Partisi kedaluwarsa jika batas atasnya tidak lebih baru dari awal bulan cutoff
+        LocalDate cutoff = YearMonth.now().minusMonths(retentionMonths).atDay(1);
+        int removed = 0;
+
+        for (String partition : listPartitions()) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.parse(matcher.group(1), PARTITION_SUFFIX);
+            if (month.plusMonths(1).atDay(1).isAfter(cutoff)) {
+                continue;
+            }
+
+            Boolean inProgress = jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM " + partition + " WHERE indexing_status = 'IN_PROGRESS')",
+                    Boolean.class);
+            if (Boolean.TRUE.equals(inProgress)) {
+                logger.warn("Partition {} is past retention but still has IN_PROGRESS logs, keeping it", partition);
+                continue;
+            }
+
+            // Page error milik log di partisi ikut dibuang bersama partisinya
+            if (archive) {
+                jdbcTemplate.update("INSERT INTO " + ARCHIVE_SCHEMA + ".indexing_page_error " +
+                        "SELECT e.* FROM indexing_page_error e JOIN " + partition + " l ON l.id = e.indexing_log_id");
+            }
+            int errors = jdbcTemplate.update("DELETE FROM indexing_page_error e USING " + partition +
+                    " l WHERE l.id = e.indexing_log_id");
+
+            jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + partition);
+            if (archive) {
+                jdbcTemplate.execute("ALTER TABLE " + partition + " SET SCHEMA " + ARCHIVE_SCHEMA);
+                logger.info("Archived indexing log partition {} to schema {} ({} page errors)",
+                        partition, ARCHIVE_SCHEMA, errors);
+            } else {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                logger.info("Dropped indexing log partition {} ({} page errors)", partition, errors);
+            }
+            removed++;
+        }
+        return removed;
+    }
+
+    /**
+     * Page error yang log-nya sudah tidak ada, misalnya karena dokumen dihapus langsung di database sehingga
+     * log terhapus oleh cascade tanpa page error-nya
+     */
+    private void purgeOrphanPageErrors() {
+        int purged = jdbcTemplate.update("DELETE FROM indexing_page_error WHERE id IN (" +
+                "SELECT e.id FROM indexing_page_error e " +
+                "WHERE NOT EXISTS (SELECT 1 FROM " + PARENT_TABLE + " l WHERE l.id = e.indexing_log_id) LIMIT ?)",
+                ORPHAN_BATCH_SIZE);
+        if (purged > 0) {
+            logger.info("Purged {} orphan indexing page errors", purged);
+        }
+    }
+
+    private List<String> listPartitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = ? AND p.relnamespace = to_regnamespace(current_schema()) " +
+                "ORDER BY c.relname",
+                String.class, PARENT_TABLE);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARENT_TABLE + "_p" + month.format(PARTITION_SUFFIX);
+    }
+}
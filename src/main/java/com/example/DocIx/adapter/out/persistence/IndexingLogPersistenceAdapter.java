@@ -6,10 +6,17 @@ import com.example.DocIx.adapter.out.persistence.repository.IndexingLogJpaReposi
 import com.example.DocIx.domain.model.IndexingLog;
 import com.example.DocIx.domain.model.IndexingStatus;
 import com.example.DocIx.domain.port.out.IndexingLogRepository;
+import com.example.DocIx.domain.service.IndexingStatusCounters;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -19,18 +26,48 @@ public class IndexingLogPersistenceAdapter implements IndexingLogRepository {
 
     private final IndexingLogJpaRepository jpaRepository;
     private final IndexingLogMapper mapper;
+    private final IndexingStatusCounters statusCounters;
 
     public IndexingLogPersistenceAdapter(IndexingLogJpaRepository jpaRepository,
-                                       IndexingLogMapper mapper) {
+                                       IndexingLogMapper mapper,
+                                       IndexingStatusCounters statusCounters) {
         this.jpaRepository = jpaRepository;
         this.mapper = mapper;
+        this.statusCounters = statusCounters;
     }
 
+    /**
+     * Versi pada log dibandingkan dengan versi baris saat ini: log yang dibaca sebelum transaksi lain
+     * menyimpan perubahannya ditolak dengan {@link ObjectOptimisticLockingFailureException} alih-alih
+     * menimpa bitmap dan hash halaman. Perubahan langsung di-flush agar versi baru terbawa ke log yang
+     * disimpan, sehingga penyimpanan berikutnya dalam transaksi yang sama tetap lolos pengecekan.
+     */
     @Override
     public IndexingLog save(IndexingLog indexingLog) {
+        if (indexingLog.getId() != null) {
+            Optional<IndexingLogJpaEntity> existing = jpaRepository.findById(indexingLog.getId());
+            if (existing.isPresent()) {
+                IndexingLogJpaEntity managed = existing.get();
+                if (!Objects.equals(managed.getVersion(), indexingLog.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(IndexingLogJpaEntity.class, indexingLog.getId());
+                }
+                IndexingStatus previousStatus = mapper.mapIndexingStatusFromJpa(managed.getIndexingStatus());
+                mapper.updateJpaEntity(indexingLog, managed);
+                IndexingLogJpaEntity savedEntity = jpaRepository.saveAndFlush(managed);
+                indexingLog.setVersion(savedEntity.getVersion());
+                IndexingLog saved = mapper.toDomainEntity(savedEntity);
+                recordTransitionAfterCommit(previousStatus, saved.getIndexingStatus());
+                return saved;
+            }
+        }
+
         IndexingLogJpaEntity entity = mapper.toJpaEntity(indexingLog);
-        IndexingLogJpaEntity savedEntity = jpaRepository.save(entity);
-        return mapper.toDomainEntity(savedEntity);
+        IndexingLogJpaEntity savedEntity = jpaRepository.saveAndFlush(entity);
+        indexingLog.setId(savedEntity.getId());
+        indexingLog.setVersion(savedEntity.getVersion());
+        IndexingLog saved = mapper.toDomainEntity(savedEntity);
+        recordTransitionAfterCommit(null, saved.getIndexingStatus());
+        return saved;
     }
 
     @Override
@@ -48,6 +85,17 @@ public class IndexingLogPersistenceAdapter implements IndexingLogRepository {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Map<IndexingStatus, Long> countByStatus() {
+        Map<IndexingStatus, Long> counts = new EnumMap<>(IndexingStatus.class);
+        for (Object[] row : jpaRepository.countGroupByIndexingStatus()) {
+            counts.put(mapper.mapIndexingStatusFromJpa((IndexingLogJpaEntity.IndexingStatusEnum) row[0]),
+                    (Long) row[1]);
+        }
+        return counts;
+    }
+
     @Override
     public List<IndexingLog> findInProgressIndexing() {
         return jpaRepository.findInProgressIndexing()
@@ -66,7 +114,10 @@ public class IndexingLogPersistenceAdapter implements IndexingLogRepository {
 
     @Override
     public void deleteByDocumentId(String documentId) {
+        Optional<IndexingLogJpaEntity> existing = jpaRepository.findByDocumentId(documentId);
         jpaRepository.deleteByDocumentId(documentId);
+        existing.ifPresent(entity ->
+                recordTransitionAfterCommit(mapper.mapIndexingStatusFromJpa(entity.getIndexingStatus()), null));
     }
 
     @Override
@@ -74,5 +125,22 @@ public class IndexingLogPersistenceAdapter implements IndexingLogRepository {
         return jpaRepository.existsByDocumentId(documentId);
     }
 
-
+    /**
+     * Counter status hanya diperbarui jika perubahan benar-benar di-commit
+     */
+    private void recordTransitionAfterCommit(IndexingStatus from, IndexingStatus to) {
+        if (from == to) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            statusCounters.recordTransition(from, to);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                statusCounters.recordTransition(from, to);
+            }
+        });
+    }
 }
@@ -39,12 +39,16 @@ public class DocumentJpaEntity {
     @Column(nullable = false)
     private DocumentStatus status;
 
-    @Column(columnDefinition = "TEXT")
+    @Column(length = 500)
     private String errorMessage;
 
     @Column
     private LocalDateTime lastProcessedAt;
 
+    // Null untuk dokumen baru sehingga save() langsung INSERT tanpa SELECT merge
+    @Version
+    private Long version;
+
     // Default constructor for JPA
     protected DocumentJpaEntity() {}
 
@@ -103,4 +107,7 @@ public class DocumentJpaEntity {
 
     public LocalDateTime getLastProcessedAt() { return lastProcessedAt; }
     public void setLastProcessedAt(LocalDateTime lastProcessedAt) { this.lastProcessedAt = lastProcessedAt; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
\ No newline at end of file
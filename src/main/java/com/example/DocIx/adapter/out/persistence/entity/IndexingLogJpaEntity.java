@@ -9,8 +9,10 @@ import java.util.List;
 @Table(name = "indexing_log")
 public class IndexingLogJpaEntity {
 
+    // Sequence pooled-lo (lihat migrasi V9): satu nextval untuk 50 id, dan insert tetap bisa di-batch JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "indexing_log_id_seq")
+    @SequenceGenerator(name = "indexing_log_id_seq", sequenceName = "indexing_log_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "document_id", nullable = false)
@@ -29,17 +31,32 @@ public class IndexingLogJpaEntity {
     @Column(name = "indexing_status", nullable = false)
     private IndexingStatusEnum indexingStatus = IndexingStatusEnum.PENDING;
 
-    @Column(name = "created_at", nullable = false)
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // Kolom partisi (migrasi V10): UPDATE yang mengganti bulan memindahkan baris ke partisi bulan tersebut
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt = LocalDateTime.now();
 
     @Column(name = "error_details", columnDefinition = "TEXT")
     private String errorDetails;
 
+    // Bitmap halaman (bit ke-n untuk halaman n+1) dan hash konten 8 byte per halaman
+    @Column(name = "indexed_pages")
+    private byte[] indexedPages;
+
+    @Column(name = "failed_pages")
+    private byte[] failedPages;
+
+    @Column(name = "page_hashes")
+    private byte[] pageHashes;
+
+    // Dicek Hibernate saat flush: UPDATE dari transaksi yang memuat versi lama gagal alih-alih menimpa
+    @Version
+    private Long version;
+
     @OneToMany(mappedBy = "indexingLog", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
-    private List<IndexingPageLogJpaEntity> pageLogs = new ArrayList<>();
+    private List<IndexingPageErrorJpaEntity> pageErrors = new ArrayList<>();
 
     // Constructors
     public IndexingLogJpaEntity() {}
@@ -50,21 +67,24 @@ public class IndexingLogJpaEntity {
         this.updatedAt = LocalDateTime.now();
     }
 
-    // Helper method untuk menambah page log dengan relasi yang benar
-    public void addPageLog(IndexingPageLogJpaEntity pageLog) {
-        pageLogs.add(pageLog);
-        pageLog.setIndexingLog(this);
+    // Helper method untuk menambah page error dengan relasi yang benar
+    public void addPageError(IndexingPageErrorJpaEntity pageError) {
+        pageErrors.add(pageError);
+        pageError.setIndexingLog(this);
     }
 
-    public void removePageLog(IndexingPageLogJpaEntity pageLog) {
-        pageLogs.remove(pageLog);
-        pageLog.setIndexingLog(null);
+    public void removePageError(IndexingPageErrorJpaEntity pageError) {
+        pageErrors.remove(pageError);
+        pageError.setIndexingLog(null);
     }
 
     // Getters dan Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     public String getDocumentId() { return documentId; }
     public void setDocumentId(String documentId) { this.documentId = documentId; }
 
@@ -89,8 +109,17 @@ public class IndexingLogJpaEntity {
     public String getErrorDetails() { return errorDetails; }
     public void setErrorDetails(String errorDetails) { this.errorDetails = errorDetails; }
 
-    public List<IndexingPageLogJpaEntity> getPageLogs() { return pageLogs; }
-    public void setPageLogs(List<IndexingPageLogJpaEntity> pageLogs) { this.pageLogs = pageLogs; }
+    public byte[] getIndexedPages() { return indexedPages; }
+    public void setIndexedPages(byte[] indexedPages) { this.indexedPages = indexedPages; }
+
+    public byte[] getFailedPages() { return failedPages; }
+    public void setFailedPages(byte[] failedPages) { this.failedPages = failedPages; }
+
+    public byte[] getPageHashes() { return pageHashes; }
+    public void setPageHashes(byte[] pageHashes) { this.pageHashes = pageHashes; }
+
+    public List<IndexingPageErrorJpaEntity> getPageErrors() { return pageErrors; }
+    public void setPageErrors(List<IndexingPageErrorJpaEntity> pageErrors) { this.pageErrors = pageErrors; }
 
     public enum IndexingStatusEnum {
         PENDING, IN_PROGRESS, FULLY_INDEXED, PARTIALLY_INDEXED, FAILED
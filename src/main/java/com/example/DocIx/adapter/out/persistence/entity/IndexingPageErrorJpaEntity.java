@@ -4,11 +4,13 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "indexing_page_log")
-public class IndexingPageLogJpaEntity {
+@Table(name = "indexing_page_error")
+public class IndexingPageErrorJpaEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "indexing_page_error_id_seq")
+    @SequenceGenerator(name = "indexing_page_error_id_seq", sequenceName = "indexing_page_error_id_seq",
+            allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -18,29 +20,20 @@ public class IndexingPageLogJpaEntity {
     @Column(name = "page_number", nullable = false)
     private int pageNumber;
 
-    @Enumerated(EnumType.STRING)
-    @Column(name = "page_status", nullable = false)
-    private PageStatusEnum pageStatus = PageStatusEnum.PENDING;
-
-    @Column(name = "indexed_at")
-    private LocalDateTime indexedAt;
-
     @Column(name = "error_message", columnDefinition = "TEXT")
     private String errorMessage;
 
     @Column(name = "retry_count", nullable = false)
     private int retryCount = 0;
 
-    @Column(name = "created_at", nullable = false)
-    private LocalDateTime createdAt = LocalDateTime.now();
+    @Column(name = "failed_at", nullable = false)
+    private LocalDateTime failedAt = LocalDateTime.now();
 
     // Constructors
-    public IndexingPageLogJpaEntity() {}
+    public IndexingPageErrorJpaEntity() {}
 
-    public IndexingPageLogJpaEntity(IndexingLogJpaEntity indexingLog, int pageNumber) {
-        this.indexingLog = indexingLog;
+    public IndexingPageErrorJpaEntity(int pageNumber) {
         this.pageNumber = pageNumber;
-        this.createdAt = LocalDateTime.now();
     }
 
     // Getters and Setters
@@ -68,22 +61,6 @@ public class IndexingPageLogJpaEntity {
         this.pageNumber = pageNumber;
     }
 
-    public PageStatusEnum getPageStatus() {
-        return pageStatus;
-    }
-
-    public void setPageStatus(PageStatusEnum pageStatus) {
-        this.pageStatus = pageStatus;
-    }
-
-    public LocalDateTime getIndexedAt() {
-        return indexedAt;
-    }
-
-    public void setIndexedAt(LocalDateTime indexedAt) {
-        this.indexedAt = indexedAt;
-    }
-
     public String getErrorMessage() {
         return errorMessage;
     }
@@ -100,15 +77,11 @@ public class IndexingPageLogJpaEntity {
         this.retryCount = retryCount;
     }
 
-    public LocalDateTime getCreatedAt() {
-        return createdAt;
-    }
-
-    public void setCreatedAt(LocalDateTime createdAt) {
-        this.createdAt = createdAt;
+    public LocalDateTime getFailedAt() {
+        return failedAt;
     }
 
-    public enum PageStatusEnum {
-        PENDING, INDEXED, FAILED
+    public void setFailedAt(LocalDateTime failedAt) {
+        this.failedAt = failedAt;
     }
-}
\ No newline at end of file
+}
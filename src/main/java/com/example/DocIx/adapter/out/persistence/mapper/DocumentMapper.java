@@ -5,8 +5,10 @@ import org.mapstruct.Mapping;
 import org.mapstruct.Named;
 
 import com.example.DocIx.adapter.out.persistence.entity.DocumentJpaEntity;
+import com.example.DocIx.adapter.out.persistence.projection.DocumentStatusProjection;
 import com.example.DocIx.domain.model.Document;
 import com.example.DocIx.domain.model.DocumentId;
+import com.example.DocIx.domain.model.DocumentStatusSummary;
 
 @Mapper(componentModel = "spring")
 public interface DocumentMapper {
@@ -19,49 +21,34 @@ public interface DocumentMapper {
         return documentId != null ? documentId.getValue() : null;
     }
 
-    @Mapping(source = "id", target = "id", qualifiedByName = "stringToDocumentId")
-    @Mapping(target = ".", source = ".", qualifiedByName = "mapDocumentWithStatus")
-    Document toDomainEntity(DocumentJpaEntity jpaEntity);
-
-    @Named("stringToDocumentId")
-    default DocumentId stringToDocumentId(String id) {
-        return id != null ? DocumentId.of(id) : null;
-    }
-
-    @Named("mapDocumentWithStatus")
-    default Document mapDocumentWithStatus(DocumentJpaEntity jpaEntity) {
+    // Status, waktu dan versi dibaca apa adanya; melewati markAsXxx akan mengganti lastProcessedAt dengan now()
+    default Document toDomainEntity(DocumentJpaEntity jpaEntity) {
         if (jpaEntity == null)
             return null;
 
-        // Create document with basic constructor
-        Document document = new Document(
+        return new Document(
                 DocumentId.of(jpaEntity.getId()),
                 jpaEntity.getFileName(),
                 jpaEntity.getOriginalFileName(),
                 jpaEntity.getFileSize(),
                 jpaEntity.getContentType(),
                 jpaEntity.getStoragePath(),
-                jpaEntity.getUploader());
-
-        // Apply status and download URL based on JPA entity state
-        switch (jpaEntity.getStatus()) {
-            case UPLOADED -> {
-                // UPLOADED is the default state, no additional operations needed
-            }
-            case PROCESSING -> document.markAsProcessing();
-            case PROCESSED -> {
-                if (jpaEntity.getDownloadUrl() != null) {
-                    document.markAsProcessed(jpaEntity.getDownloadUrl());
-                }
-            }
-            case FAILED -> {
-                if (jpaEntity.getErrorMessage() != null) {
-                    document.markAsFailed(jpaEntity.getErrorMessage());
-                }
-            }
-            default -> throw new IllegalArgumentException("Unexpected value: " + jpaEntity.getStatus());
-        }
+                jpaEntity.getUploader(),
+                jpaEntity.getUploadedAt(),
+                jpaEntity.getDownloadUrl(),
+                jpaEntity.getStatus(),
+                jpaEntity.getErrorMessage(),
+                jpaEntity.getLastProcessedAt(),
+                jpaEntity.getVersion());
+    }
 
-        return document;
+    default DocumentStatusSummary toStatusSummary(DocumentStatusProjection projection) {
+        return new DocumentStatusSummary(
+                DocumentId.of(projection.id()),
+                projection.originalFileName(),
+                projection.status(),
+                projection.uploadedAt(),
+                projection.lastProcessedAt(),
+                projection.errorMessage());
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,10 @@
 package com.example.DocIx.adapter.out.persistence.mapper;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.mapstruct.AfterMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -7,34 +12,71 @@ import org.mapstruct.MappingTarget;
 import org.mapstruct.Named;
 
 import com.example.DocIx.adapter.out.persistence.entity.IndexingLogJpaEntity;
-import com.example.DocIx.adapter.out.persistence.entity.IndexingPageLogJpaEntity;
+import com.example.DocIx.adapter.out.persistence.entity.IndexingPageErrorJpaEntity;
 import com.example.DocIx.domain.model.IndexingLog;
-import com.example.DocIx.domain.model.IndexingPageLog;
 import com.example.DocIx.domain.model.IndexingStatus;
-import com.example.DocIx.domain.model.PageStatus;
 
 @Mapper(componentModel = "spring")
 public interface IndexingLogMapper {
 
     @Mapping(source = "indexingStatus", target = "indexingStatus", qualifiedByName = "mapIndexingStatusToJpa")
-    @Mapping(target = "pageLogs", ignore = true)
+    @Mapping(target = "indexedPages", ignore = true)
+    @Mapping(target = "failedPages", ignore = true)
+    @Mapping(target = "pageHashes", ignore = true)
+    @Mapping(target = "pageErrors", ignore = true)
+    @Mapping(target = "version", ignore = true)
     IndexingLogJpaEntity toJpaEntity(IndexingLog indexingLog);
 
     @AfterMapping
-    default void mapPageLogs(@MappingTarget IndexingLogJpaEntity entity, IndexingLog indexingLog) {
-        if (indexingLog.getPageLogs() != null) {
-            for (IndexingPageLog pageLog : indexingLog.getPageLogs()) {
-                IndexingPageLogJpaEntity pageEntity = toPageJpaEntity(pageLog, entity);
-                entity.addPageLog(pageEntity);
+    default void mapPageState(@MappingTarget IndexingLogJpaEntity entity, IndexingLog indexingLog) {
+        copyPageState(indexingLog, entity);
+    }
+
+    /**
+     * Salin field ringkasan dan status halaman ke entity yang sudah managed
+     */
+    default void updateJpaEntity(IndexingLog indexingLog, IndexingLogJpaEntity entity) {
+        entity.setDocumentId(indexingLog.getDocumentId());
+        entity.setTotalPages(indexingLog.getTotalPages());
+        entity.setPagesIndexed(indexingLog.getPagesIndexed());
+        entity.setPagesFailed(indexingLog.getPagesFailed());
+        entity.setIndexingStatus(mapIndexingStatusToJpa(indexingLog.getIndexingStatus()));
+        entity.setUpdatedAt(indexingLog.getUpdatedAt());
+        entity.setErrorDetails(indexingLog.getErrorDetails());
+        copyPageState(indexingLog, entity);
+    }
+
+    /**
+     * Bitmap dan hash ditulis utuh; baris page error disinkronkan per nomor halaman agar halaman
+     * yang gagal berulang kali tidak dihapus dan dibuat ulang
+     */
+    default void copyPageState(IndexingLog indexingLog, IndexingLogJpaEntity entity) {
+        entity.setIndexedPages(indexingLog.getIndexedPagesBitmap());
+        entity.setFailedPages(indexingLog.getFailedPagesBitmap());
+        entity.setPageHashes(indexingLog.getPageHashes());
+
+        Map<Integer, IndexingPageErrorJpaEntity> existing = new HashMap<>();
+        for (IndexingPageErrorJpaEntity error : new ArrayList<>(entity.getPageErrors())) {
+            existing.put(error.getPageNumber(), error);
+        }
+        for (IndexingLog.PageError error : indexingLog.getPageErrors()) {
+            IndexingPageErrorJpaEntity errorEntity = existing.remove(error.pageNumber());
+            if (errorEntity == null) {
+                errorEntity = new IndexingPageErrorJpaEntity(error.pageNumber());
+                entity.addPageError(errorEntity);
             }
+            errorEntity.setErrorMessage(error.errorMessage());
+            errorEntity.setRetryCount(error.retryCount());
+            errorEntity.setFailedAt(error.failedAt());
         }
+        existing.values().forEach(entity::removePageError);
     }
 
     default IndexingLog toDomainEntity(IndexingLogJpaEntity jpaEntity) {
         if (jpaEntity == null)
             return null;
 
-        return new IndexingLog(
+        IndexingLog indexingLog = new IndexingLog(
                 jpaEntity.getId(),
                 jpaEntity.getDocumentId(),
                 jpaEntity.getTotalPages(),
@@ -44,45 +86,19 @@ public interface IndexingLogMapper {
                 jpaEntity.getCreatedAt(),
                 jpaEntity.getUpdatedAt(),
                 jpaEntity.getErrorDetails());
-    }
-
-    @Mapping(source = "pageStatus", target = "pageStatus", qualifiedByName = "mapPageStatusToJpa")
-    @Mapping(target = "indexingLog", ignore = true)
-    IndexingPageLogJpaEntity toPageJpaEntity(IndexingPageLog pageLog);
-
-    default IndexingPageLogJpaEntity toPageJpaEntity(IndexingPageLog pageLog, IndexingLogJpaEntity parentEntity) {
-        if (pageLog == null)
-            return null;
-
-        IndexingPageLogJpaEntity entity = toPageJpaEntity(pageLog);
-        entity.setIndexingLog(parentEntity);
-        return entity;
-    }
-
-    @Named("mapPageStatusToJpa")
-    default IndexingPageLogJpaEntity.PageStatusEnum mapPageStatusToJpa(PageStatus status) {
-        if (status == null)
-            return IndexingPageLogJpaEntity.PageStatusEnum.PENDING;
-        return switch (status) {
-            case PENDING -> IndexingPageLogJpaEntity.PageStatusEnum.PENDING;
-            case INDEXED -> IndexingPageLogJpaEntity.PageStatusEnum.INDEXED;
-            case FAILED -> IndexingPageLogJpaEntity.PageStatusEnum.FAILED;
-        };
-    }
-
-    default IndexingPageLog toPageDomainEntity(IndexingPageLogJpaEntity entity) {
-        if (entity == null)
-            return null;
-
-        return new IndexingPageLog(
-                entity.getId(),
-                entity.getIndexingLog() != null ? entity.getIndexingLog().getId() : null,
-                entity.getPageNumber(),
-                mapPageStatusFromJpa(entity.getPageStatus()),
-                entity.getIndexedAt(),
-                entity.getErrorMessage(),
-                entity.getRetryCount(),
-                entity.getCreatedAt());
+        indexingLog.setVersion(jpaEntity.getVersion());
+
+        // Tabel page error hanya dibaca jika memang ada halaman yang gagal
+        List<IndexingLog.PageError> pageErrors = new ArrayList<>();
+        if (jpaEntity.getPagesFailed() > 0) {
+            for (IndexingPageErrorJpaEntity error : jpaEntity.getPageErrors()) {
+                pageErrors.add(new IndexingLog.PageError(error.getPageNumber(), error.getErrorMessage(),
+                        error.getRetryCount(), error.getFailedAt()));
+            }
+        }
+        indexingLog.restorePageState(jpaEntity.getIndexedPages(), jpaEntity.getFailedPages(),
+                jpaEntity.getPageHashes(), pageErrors);
+        return indexingLog;
     }
 
     @Named("mapIndexingStatusToJpa")
@@ -112,16 +128,4 @@ public interface IndexingLogMapper {
             case FAILED -> IndexingStatus.FAILED;
         };
     }
-
-    @Named("mapPageStatusFromJpa")
-    default PageStatus mapPageStatusFromJpa(IndexingPageLogJpaEntity.PageStatusEnum status) {
-        if (status == null)
-            return PageStatus.PENDING;
-
-        return switch (status) {
-            case PENDING -> PageStatus.PENDING;
-            case INDEXED -> PageStatus.INDEXED;
-            case FAILED -> PageStatus.FAILED;
-        };
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,18 @@
+package com.example.DocIx.adapter.out.persistence.projection;
+
+import com.example.DocIx.domain.model.DocumentStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyeksi kolom {@code documents} yang dibutuhkan endpoint status. Semua kolomnya ada di index
+ * {@code idx_documents_status_uploaded_at} (lihat migrasi V7), sehingga query bisa dijawab dengan
+ * index-only scan dan tanpa membuat entity managed.
+ */
+public record DocumentStatusProjection(String id,
+                                       String originalFileName,
+                                       DocumentStatus status,
+                                       LocalDateTime uploadedAt,
+                                       LocalDateTime lastProcessedAt,
+                                       String errorMessage) {
+}
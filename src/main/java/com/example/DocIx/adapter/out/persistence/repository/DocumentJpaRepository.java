@@ -1,14 +1,74 @@
 package com.example.DocIx.adapter.out.persistence.repository;
 
 import com.example.DocIx.adapter.out.persistence.entity.DocumentJpaEntity;
+import com.example.DocIx.adapter.out.persistence.projection.DocumentStatusProjection;
 import com.example.DocIx.domain.model.DocumentStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface DocumentJpaRepository extends JpaRepository<DocumentJpaEntity, String> {
     List<DocumentJpaEntity> findByStatus(DocumentStatus status);
     List<DocumentJpaEntity> findByUploader(String uploader);
-}
\ No newline at end of file
+
+    // Keyset pagination: memakai index primary key, biayanya sama di batch pertama maupun terakhir
+    @Query("SELECT d FROM DocumentJpaEntity d WHERE d.status = :status AND d.id > :afterId ORDER BY d.id")
+    List<DocumentJpaEntity> findByStatusAfterId(@Param("status") DocumentStatus status,
+                                                @Param("afterId") String afterId,
+                                                Limit limit);
+
+    // indexing_page_error tidak punya FK ke indexing_log (partisi), jadi tidak ikut terhapus oleh cascade
+    @Modifying
+    @Query(value = "DELETE FROM indexing_page_error e USING indexing_log l " +
+            "WHERE l.id = e.indexing_log_id AND l.document_id = :documentId", nativeQuery = true)
+    int deletePageErrorsOfDocument(@Param("documentId") String documentId);
+
+    // Transisi status atomik: hanya berlaku jika status di database masih :expectedStatus
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE DocumentJpaEntity d SET d.status = :newStatus, d.downloadUrl = :downloadUrl, " +
+            "d.errorMessage = :errorMessage, d.lastProcessedAt = :lastProcessedAt, d.version = d.version + 1 " +
+            "WHERE d.id = :id AND d.status = :expectedStatus")
+    int updateStatusIfCurrent(@Param("id") String id,
+                              @Param("expectedStatus") DocumentStatus expectedStatus,
+                              @Param("newStatus") DocumentStatus newStatus,
+                              @Param("downloadUrl") String downloadUrl,
+                              @Param("errorMessage") String errorMessage,
+                              @Param("lastProcessedAt") LocalDateTime lastProcessedAt);
+
+    // Klaim ulang dokumen PROCESSING: hanya jika consumer yang mengklaimnya tidak aktif sejak :stuckBefore
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE DocumentJpaEntity d SET d.status = :newStatus, d.downloadUrl = :downloadUrl, " +
+            "d.errorMessage = :errorMessage, d.lastProcessedAt = :lastProcessedAt, d.version = d.version + 1 " +
+            "WHERE d.id = :id AND d.status = :processingStatus " +
+            "AND (d.lastProcessedAt IS NULL OR d.lastProcessedAt < :stuckBefore)")
+    int updateStatusIfStuck(@Param("id") String id,
+                            @Param("processingStatus") DocumentStatus processingStatus,
+                            @Param("newStatus") DocumentStatus newStatus,
+                            @Param("downloadUrl") String downloadUrl,
+                            @Param("errorMessage") String errorMessage,
+                            @Param("lastProcessedAt") LocalDateTime lastProcessedAt,
+                            @Param("stuckBefore") LocalDateTime stuckBefore);
+
+    // Proyeksi status: semua kolom ada di idx_documents_status_uploaded_at, dijawab dengan index-only scan
+    String STATUS_PROJECTION = "SELECT new com.example.DocIx.adapter.out.persistence.projection.DocumentStatusProjection(" +
+            "d.id, d.originalFileName, d.status, d.uploadedAt, d.lastProcessedAt, d.errorMessage) " +
+            "FROM DocumentJpaEntity d ";
+
+    @Query(STATUS_PROJECTION + "WHERE d.status = :status ORDER BY d.uploadedAt, d.id")
+    List<DocumentStatusProjection> findStatusPage(@Param("status") DocumentStatus status, Limit limit);
+
+    // Keyset (uploaded_at, id); syarat uploadedAt >= :afterUploadedAt memberi batas awal range scan di index
+    @Query(STATUS_PROJECTION + "WHERE d.status = :status AND d.uploadedAt >= :afterUploadedAt " +
+            "AND (d.uploadedAt > :afterUploadedAt OR d.id > :afterId) ORDER BY d.uploadedAt, d.id")
+    List<DocumentStatusProjection> findStatusPageAfter(@Param("status") DocumentStatus status,
+                                                       @Param("afterUploadedAt") LocalDateTime afterUploadedAt,
+                                                       @Param("afterId") String afterId,
+                                                       Limit limit);
+}
@@ -16,11 +16,18 @@ public interface IndexingLogJpaRepository extends JpaRepository<IndexingLogJpaEn
 
     List<IndexingLogJpaEntity> findByIndexingStatus(IndexingLogJpaEntity.IndexingStatusEnum status);
 
+    // Setiap baris: [IndexingStatusEnum, Long]
+    @Query("SELECT i.indexingStatus, COUNT(i) FROM IndexingLogJpaEntity i GROUP BY i.indexingStatus")
+    List<Object[]> countGroupByIndexingStatus();
+
     @Query("SELECT i FROM IndexingLogJpaEntity i WHERE i.indexingStatus = 'IN_PROGRESS'")
     List<IndexingLogJpaEntity> findInProgressIndexing();
 
+    // Dokumen yang melewati budget alokasi/heap (IndexingLog.EXTRACTION_BUDGET_EXCEEDED) tidak di-retry;
+    // timeout ekstraksi (IndexingLog.EXTRACTION_TIMEOUT) dibatasi di DocumentIndexingService
     @Query("SELECT i FROM IndexingLogJpaEntity i WHERE i.indexingStatus = 'FAILED' " +
-           "AND i.pagesFailed < :maxRetryCount")
+           "AND i.pagesFailed < :maxRetryCount " +
+           "AND (i.errorDetails IS NULL OR i.errorDetails NOT LIKE 'EXTRACTION_BUDGET_EXCEEDED%')")
     List<IndexingLogJpaEntity> findFailedIndexingForRetry(@Param("maxRetryCount") int maxRetryCount);
 
     void deleteByDocumentId(String documentId);
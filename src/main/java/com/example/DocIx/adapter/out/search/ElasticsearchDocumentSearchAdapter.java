@@ -3,29 +3,33 @@ package com.example.DocIx.adapter.out.search;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.elasticsearch.client.RestClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.example.DocIx.domain.model.Document;
-import com.example.DocIx.domain.model.IndexingPageLog;
 import com.example.DocIx.domain.model.DocumentId;
 import com.example.DocIx.domain.port.out.DocumentSearchEngine;
 import com.example.DocIx.domain.port.out.PageExtractor;
 import com.example.DocIx.domain.util.LoggingUtil;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.FieldValue;
 import co.elastic.clients.elasticsearch._types.SortOrder;
 import co.elastic.clients.elasticsearch._types.query_dsl.Query;
 import co.elastic.clients.elasticsearch._types.query_dsl.TextQueryType;
 import co.elastic.clients.elasticsearch.core.IndexRequest;
-import co.elastic.clients.elasticsearch.core.IndexResponse;
 import co.elastic.clients.elasticsearch.core.SearchRequest;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
 import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.json.JsonData;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
@@ -47,13 +51,32 @@ public class ElasticsearchDocumentSearchAdapter implements DocumentSearchEngine
     private final MeterRegistry meterRegistry;
     private final Tracer tracer;
 
+    // Passage splitting: halaman yang sangat panjang diindeks sebagai beberapa passage dan
+    // digabung kembali per halaman (collapse pada pageKey) saat pencarian
+    private final boolean passagesEnabled;
+    private final PassageSplitter passageSplitter;
+
+    // Penulisan halaman lewat _bulk NDJSON langsung dari teks, tanpa POJO perantara
+    private final PageBulkWriter pageBulkWriter;
+
+    // Jumlah doc per halaman yang ditulis ulang sejak removeStalePageDocs terakhir, per document ID.
+    // Sisa passage lama dihapus sekali per dokumen, bukan satu delete-by-query per halaman
+    private final Map<String, Map<String, Integer>> rewrittenPageDocCounts = new ConcurrentHashMap<>();
+
     @Autowired
     public ElasticsearchDocumentSearchAdapter(ElasticsearchClient elasticsearchClient,
+            RestClient elasticsearchRestClient,
             MeterRegistry meterRegistry,
-            Tracer tracer) {
+            Tracer tracer,
+            @Value("${docix.search.passages.enabled:false}") boolean passagesEnabled,
+            @Value("${docix.search.passages.max-chars:2000}") int passageMaxChars,
+            @Value("${docix.search.passages.overlap-chars:200}") int passageOverlapChars) {
         this.elasticsearchClient = elasticsearchClient;
         this.meterRegistry = meterRegistry;
         this.tracer = tracer;
+        this.passagesEnabled = passagesEnabled;
+        this.passageSplitter = new PassageSplitter(passageMaxChars, passageOverlapChars);
+        this.pageBulkWriter = new PageBulkWriter(elasticsearchRestClient, PAGES_INDEX_NAME);
 
         // Initialize metrics
         this.searchRequestsTotal = Counter.builder("search_requests_total")
@@ -79,6 +102,7 @@ public class ElasticsearchDocumentSearchAdapter implements DocumentSearchEngine
     private void initializeIndices() {
         try {
             createPagesIndexIfNotExists();
+            ensurePassageMapping();
         } catch (Exception e) {
             logger.warn("Warning: Failed to initialize Elasticsearch indices: {}", e.getMessage());
         }
@@ -105,36 +129,13 @@ public class ElasticsearchDocumentSearchAdapter implements DocumentSearchEngine
 
         for (int attempt = 1; attempt <= maxRetries; attempt++) {
             try {
-                DocumentPageDocument pageDoc = new DocumentPageDocument(
-                        String.valueOf(page.getDocumentId()),
-                        null,
-                        null,
-                        page.getContent(),
-                        page.getPageNumber(),
-                        null,
-                        null,
-                        null);
-
-                String pageId = page.getDocumentId() + "_page_" + page.getPageNumber();
-
-                IndexRequest<DocumentPageDocument> indexRequest = IndexRequest.of(i -> i
-                        .index(PAGES_INDEX_NAME)
-                        .id(pageId)
-                        .document(pageDoc));
-
-                IndexResponse response = elasticsearchClient.index(indexRequest);
-
-                // Validate indexing success
-                if (response.result() == null || (!response.result().toString().equalsIgnoreCase("created")
-                        && !response.result().toString().equalsIgnoreCase("updated"))) {
-                    throw new SearchEngineException(SearchEngineException.ErrorCode.INDEX_ERROR,
-                            "Elasticsearch returned unexpected result: " + response.result(), null);
-                }
+                String result = writePage(page);
+                String pageId = pageKeyOf(page.getDocumentId(), page.getPageNumber());
 
                 long duration = System.currentTimeMillis() - startTime;
                 logger.info("Document page indexed successfully - DocumentId: {}, PageId: {}, " +
                         "Result: {}, Attempt: {}, Duration: {}ms",
-                        documentId, pageId, response.result(), attempt, duration);
+                        documentId, pageId, result, attempt, duration);
 
                 return; // Success, exit retry loop
 
@@ -172,6 +173,93 @@ public class ElasticsearchDocumentSearchAdapter implements DocumentSearchEngine
                 lastException);
     }
 
+    /**
+     * Write one page: as a single doc, or as passages when passage splitting is enabled and the page is
+     * longer than the passage size. Leftover docs of the same page from an earlier split are removed later
+     * by {@link #removeStalePageDocs(DocumentId)}.
+     *
+     * @return result description for logging
+     */
+    private String writePage(PageExtractor.DocumentPage page) throws java.io.IOException {
+        String documentId = String.valueOf(page.getDocumentId());
+        String pageKey = pageKeyOf(documentId, page.getPageNumber());
+        List<String> passages = passagesEnabled
+                ? passageSplitter.split(page.getContent())
+                : List.of(page.getContent() != null ? page.getContent() : "");
+
+        List<PageBulkWriter.PageDoc> docs = new ArrayList<>(passages.size());
+        if (passages.size() == 1) {
+            docs.add(new PageBulkWriter.PageDoc(pageKey, documentId, page.getPageNumber(), pageKey, null,
+                    passages.get(0)));
+        } else {
+            for (int i = 0; i < passages.size(); i++) {
+                docs.add(new PageBulkWriter.PageDoc(pageKey + "_passage_" + (i + 1), documentId,
+                        page.getPageNumber(), pageKey, i + 1, passages.get(i)));
+            }
+        }
+        pageBulkWriter.write(docs);
+
+        // Dicatat juga saat passage dimatikan: passage lama dari halaman ini harus ikut dibersihkan
+        rewrittenPageDocCounts.computeIfAbsent(documentId, id -> new ConcurrentHashMap<>())
+                .put(pageKey, docs.size());
+        return docs.size() == 1 ? "indexed" : docs.size() + " passages";
+    }
+
+    /**
+     * Remove docs of rewritten pages that were not part of their latest write (the page used to have more
+     * passages, or switched between a single doc and passages), with one delete-by-query per document
+     */
+    @Override
+    public void removeStalePageDocs(DocumentId documentId) {
+        Map<String, Integer> docCounts = rewrittenPageDocCounts.remove(documentId.getValue());
+        if (docCounts == null || docCounts.isEmpty()) {
+            return;
+        }
+        try {
+            elasticsearchClient.deleteByQuery(dbq -> dbq
+                    .index(PAGES_INDEX_NAME)
+                    .query(stalePageDocsQuery(documentId.getValue(), docCounts)));
+        } catch (Exception e) {
+            throw new SearchEngineException("Failed to delete stale page docs: " + documentId, e);
+        }
+    }
+
+    /**
+     * Docs of the given pages outside their current layout, grouped by doc count so the query has one
+     * clause per distinct passage count rather than one per page:
+     * single-doc pages lose every passage doc, split pages lose the whole-page doc and passages past the count
+     */
+    static Query stalePageDocsQuery(String documentId, Map<String, Integer> docCountByPageKey) {
+        Map<Integer, List<String>> pageKeysByCount = new TreeMap<>();
+        docCountByPageKey.forEach((pageKey, count) ->
+                pageKeysByCount.computeIfAbsent(count, c -> new ArrayList<>()).add(pageKey));
+
+        List<Query> clauses = new ArrayList<>();
+        pageKeysByCount.forEach((count, pageKeys) -> {
+            List<FieldValue> keys = pageKeys.stream().map(FieldValue::of).toList();
+            if (count == 1) {
+                clauses.add(Query.of(q -> q.bool(b -> b
+                        .filter(f -> f.terms(t -> t.field("pageKey").terms(v -> v.value(keys))))
+                        .filter(f -> f.exists(e -> e.field("passageNumber"))))));
+            } else {
+                // Doc halaman utuh memakai pageKey sebagai ID (juga doc lama yang belum punya field pageKey)
+                clauses.add(Query.of(q -> q.ids(ids -> ids.values(pageKeys))));
+                clauses.add(Query.of(q -> q.bool(b -> b
+                        .filter(f -> f.terms(t -> t.field("pageKey").terms(v -> v.value(keys))))
+                        .filter(f -> f.range(r -> r.field("passageNumber").gt(JsonData.of(count)))))));
+            }
+        });
+
+        return Query.of(q -> q.bool(b -> b
+                .filter(f -> f.term(t -> t.field("documentId").value(documentId)))
+                .should(clauses)
+                .minimumShouldMatch("1")));
+    }
+
+    private static String pageKeyOf(String documentId, int pageNumber) {
+        return documentId + "_page_" + pageNumber;
+    }
+
     @Override
     public void deleteDocument(DocumentId documentId) {
         try {
@@ -257,6 +345,8 @@ public class ElasticsearchDocumentSearchAdapter implements DocumentSearchEngine
                                 .properties("content", p -> p
                                         .text(t -> t.analyzer("standard")))
                                 .properties("pageNumber", p -> p.integer(i -> i))
+                                .properties("pageKey", p -> p.keyword(k -> k))
+                                .properties("passageNumber", p -> p.integer(i -> i))
                                 .properties("uploader", p -> p.keyword(k -> k))
                                 .properties("uploadedAt", p -> p.date(d -> d))
                                 .properties("downloadUrl", p -> p.keyword(k -> k))));
@@ -268,6 +358,17 @@ public class ElasticsearchDocumentSearchAdapter implements DocumentSearchEngine
         }
     }
 
+    /**
+     * Add the passage fields to an index created before passage splitting existed.
+     * Pages indexed before that have no pageKey; run a forced reindex before enabling passages.
+     */
+    private void ensurePassageMapping() throws java.io.IOException {
+        elasticsearchClient.indices().putMapping(m -> m
+                .index(PAGES_INDEX_NAME)
+                .properties("pageKey", p -> p.keyword(k -> k))
+                .properties("passageNumber", p -> p.integer(i -> i)));
+    }
+
     /**
      * Index a single document page
      */
@@ -308,7 +409,8 @@ public class ElasticsearchDocumentSearchAdapter implements DocumentSearchEngine
                         document.getUploadedAt() != null ? document.getUploadedAt().toString() : null,
                         document.getDownloadUrl());
 
-                String pageId = page.getDocumentId() + "_page_" + page.getPageNumber();
+                String pageId = pageKeyOf(String.valueOf(page.getDocumentId()), page.getPageNumber());
+                pageDoc.setPageKey(pageId);
 
                 IndexRequest<DocumentPageDocument> request = IndexRequest.of(idx -> idx
                         .index(PAGES_INDEX_NAME)
@@ -353,6 +455,36 @@ public class ElasticsearchDocumentSearchAdapter implements DocumentSearchEngine
         }
     }
 
+    /**
+     * Delete pages of a document starting at the given page number (used when a document shrinks)
+     */
+    @Override
+    public void deleteDocumentPagesFrom(DocumentId documentId, int fromPageNumber) {
+        try {
+            boolean indexExists = elasticsearchClient.indices().exists(e -> e.index(PAGES_INDEX_NAME)).value();
+            if (!indexExists) {
+                return;
+            }
+
+            Query deleteQuery = Query.of(q -> q
+                    .bool(b -> b
+                            .filter(f -> f.term(t -> t
+                                    .field("documentId")
+                                    .value(documentId.getValue())))
+                            .filter(f -> f.range(r -> r
+                                    .field("pageNumber")
+                                    .gte(JsonData.of(fromPageNumber))))));
+
+            elasticsearchClient.deleteByQuery(dbq -> dbq
+                    .index(PAGES_INDEX_NAME)
+                    .query(deleteQuery));
+
+        } catch (Exception e) {
+            throw new SearchEngineException("Failed to delete document pages from page " + fromPageNumber
+                    + ": " + documentId, e);
+        }
+    }
+
     /**
      * Search across document pages with enhanced relevance using field
      * collapsing
@@ -439,8 +571,14 @@ public class ElasticsearchDocumentSearchAdapter implements DocumentSearchEngine
                         "Query dikonfigurasi dengan primary query (minimum_should_match: 50%) dan fallback wildcard query");
             }
 
-            // Build search request with field collapsing and stable sorting
-            SearchRequest request = SearchRequest.of(s -> s
+            // Build search request with field collapsing and stable sorting.
+            // Dengan passage splitting, passage terbaik per halaman dipilih lewat collapse pada pageKey,
+            // sehingga biaya highlight per hit dibatasi ukuran passage
+            SearchRequest request = SearchRequest.of(s -> {
+                if (passagesEnabled) {
+                    s.collapse(c -> c.field("pageKey"));
+                }
+                return s
                     .index(PAGES_INDEX_NAME)
                     .query(searchQuery)
                     .from(page * size)
@@ -462,7 +600,8 @@ public class ElasticsearchDocumentSearchAdapter implements DocumentSearchEngine
                                     .fragmentSize(100)
                                     .numberOfFragments(1)
                                     .preTags("<mark>")
-                                    .postTags("</mark>"))));
+                                    .postTags("</mark>")));
+            });
 
             logger.debug("Menjalankan query Elasticsearch...");
             SearchResponse<DocumentPageDocument> response = elasticsearchClient.search(request,
@@ -549,9 +688,9 @@ public class ElasticsearchDocumentSearchAdapter implements DocumentSearchEngine
 
     /**
      * Extract highlight with consistent priority: content > fileName >
-     * originalFileName
+     * originalFileName (package-private for the JMH benchmarks)
      */
-    private String extractHighlightFromPage(Hit<DocumentPageDocument> hit, DocumentPageDocument page, String query) {
+    static String extractHighlightFromPage(Hit<DocumentPageDocument> hit, DocumentPageDocument page, String query) {
         String highlightedContent = "";
 
         // Priority: content > fileName > originalFileName
@@ -577,7 +716,7 @@ public class ElasticsearchDocumentSearchAdapter implements DocumentSearchEngine
     /**
      * Create manual snippet from content with query context
      */
-    private String createSnippet(String content, String query, int maxLength) {
+    static String createSnippet(String content, String query, int maxLength) {
         if (content == null || content.isEmpty()) {
             return "";
         }
@@ -644,6 +783,8 @@ public class ElasticsearchDocumentSearchAdapter implements DocumentSearchEngine
         private String uploader;
         private String uploadedAt;
         private String downloadUrl;
+        private String pageKey;
+        private Integer passageNumber;
 
         public DocumentPageDocument() {
         }
@@ -724,5 +865,21 @@ public class ElasticsearchDocumentSearchAdapter implements DocumentSearchEngine
         public void setDownloadUrl(String downloadUrl) {
             this.downloadUrl = downloadUrl;
         }
+
+        public String getPageKey() {
+            return pageKey;
+        }
+
+        public void setPageKey(String pageKey) {
+            this.pageKey = pageKey;
+        }
+
+        public Integer getPassageNumber() {
+            return passageNumber;
+        }
+
+        public void setPassageNumber(Integer passageNumber) {
+            this.passageNumber = passageNumber;
+        }
     }
 }
@@ -0,0 +1,150 @@
+package com.example.DocIx.adapter.out.search;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.RestClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Menulis halaman ke Elasticsearch lewat {@code _bulk} dengan body NDJSON yang dibangun langsung dari teks
+ * halaman.
+ * <p>
+ * Jalur lewat ElasticsearchClient membuat {@code DocumentPageDocument} per halaman lalu menserialisasinya
+ * melalui lapisan JSON-P. Di sini teks ditulis satu kali sebagai UTF-8 oleh generator Jackson streaming
+ * ke buffer byte, dan buffer tersebut langsung menjadi body request tanpa salinan tambahan.
+ */
+class PageBulkWriter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final ContentType NDJSON = ContentType.create("application/x-ndjson");
+    // Response bulk cukup berisi flag errors dan alasan error per item
+    private static final String FILTER_PATH = "errors,items.*.error.reason";
+
+    private final RestClient restClient;
+    private final String indexName;
+
+    PageBulkWriter(RestClient restClient, String indexName) {
+        this.restClient = restClient;
+        this.indexName = indexName;
+    }
+
+    /**
+     * Satu dokumen di index halaman: halaman utuh ({@code passageNumber} null) atau satu passage
+     */
+    record PageDoc(String id, String documentId, int pageNumber, String pageKey, Integer passageNumber,
+                   String content) {
+    }
+
+    /**
+     * @throws SearchEngineException jika salah satu item ditolak Elasticsearch
+     */
+    void write(List<PageDoc> docs) throws IOException {
+        BodyBuffer body = new BodyBuffer(estimateSize(docs));
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(body, JsonEncoding.UTF8)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            // Pemisah antar baris NDJSON ditulis sendiri ('\n'), bukan spasi bawaan Jackson
+            generator.setRootValueSeparator(null);
+            for (PageDoc doc : docs) {
+                writeAction(generator, doc);
+                writeSource(generator, doc);
+            }
+        }
+
+        Request request = new Request("POST", "/_bulk");
+        request.addParameter("filter_path", FILTER_PATH);
+        request.setEntity(body.toEntity());
+        Response response = restClient.performRequest(request);
+
+        String failure = firstItemError(response);
+        if (failure != null) {
+            throw new SearchEngineException(SearchEngineException.ErrorCode.INDEX_ERROR,
+                    "Bulk indexing rejected by Elasticsearch: " + failure, null);
+        }
+    }
+
+    private void writeAction(JsonGenerator generator, PageDoc doc) throws IOException {
+        generator.writeStartObject();
+        generator.writeObjectFieldStart("index");
+        generator.writeStringField("_index", indexName);
+        generator.writeStringField("_id", doc.id());
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private void writeSource(JsonGenerator generator, PageDoc doc) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("documentId", doc.documentId());
+        generator.writeStringField("content", doc.content() != null ? doc.content() : "");
+        generator.writeNumberField("pageNumber", doc.pageNumber());
+        generator.writeStringField("pageKey", doc.pageKey());
+        if (doc.passageNumber() != null) {
+            generator.writeNumberField("passageNumber", doc.passageNumber());
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    /**
+     * Baca response bulk secara streaming; hanya alasan error pertama yang diambil
+     *
+     * @return null jika semua item berhasil
+     */
+    private static String firstItemError(Response response) throws IOException {
+        try (InputStream in = response.getEntity().getContent();
+             JsonParser parser = JSON_FACTORY.createParser(in)) {
+            boolean errors = false;
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token != JsonToken.FIELD_NAME) {
+                    continue;
+                }
+                String field = parser.currentName();
+                if ("errors".equals(field)) {
+                    errors = parser.nextToken() == JsonToken.VALUE_TRUE;
+                    if (!errors) {
+                        return null;
+                    }
+                } else if (errors && "reason".equals(field)) {
+                    parser.nextToken();
+                    return parser.getText();
+                }
+            }
+            return errors ? "unknown" : null;
+        }
+    }
+
+    private static int estimateSize(List<PageDoc> docs) {
+        long size = 0;
+        for (PageDoc doc : docs) {
+            // Teks sebagian besar ASCII; sisanya untuk action line, field lain, dan escape
+            size += (doc.content() != null ? doc.content().length() : 0) + 256;
+        }
+        return (int) Math.min(size + size / 16, Integer.MAX_VALUE - 16);
+    }
+
+    /**
+     * ByteArrayOutputStream yang buffer internalnya dipakai langsung sebagai entity, tanpa toByteArray()
+     */
+    private static final class BodyBuffer extends ByteArrayOutputStream {
+
+        BodyBuffer(int initialSize) {
+            super(initialSize);
+        }
+
+        ByteArrayEntity toEntity() {
+            return new ByteArrayEntity(buf, 0, count, NDJSON);
+        }
+    }
+}
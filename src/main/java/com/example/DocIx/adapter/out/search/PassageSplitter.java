@@ -0,0 +1,68 @@
+package com.example.DocIx.adapter.out.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Memecah teks halaman yang sangat panjang menjadi passage berukuran terbatas yang saling tumpang tindih.
+ * <p>
+ * Potongan dibuat di whitespace terdekat sebelum batas ukuran, dan setiap passage berikutnya dimulai
+ * {@code overlapChars} sebelum akhir passage sebelumnya, sehingga frasa yang melintasi batas tetap
+ * dapat ditemukan dan di-highlight utuh di salah satu passage.
+ */
+class PassageSplitter {
+
+    private final int maxChars;
+    private final int overlapChars;
+
+    PassageSplitter(int maxChars, int overlapChars) {
+        if (maxChars <= 0) {
+            throw new IllegalArgumentException("maxChars must be positive");
+        }
+        if (overlapChars < 0 || overlapChars >= maxChars / 2) {
+            throw new IllegalArgumentException("overlapChars must be between 0 and maxChars / 2");
+        }
+        this.maxChars = maxChars;
+        this.overlapChars = overlapChars;
+    }
+
+    /**
+     * @return satu elemen (teks asli) jika teks tidak melebihi {@code maxChars}
+     */
+    List<String> split(String text) {
+        if (text == null || text.length() <= maxChars) {
+            return List.of(text == null ? "" : text);
+        }
+
+        List<String> passages = new ArrayList<>(text.length() / (maxChars - overlapChars) + 1);
+        int start = 0;
+        while (start < text.length()) {
+            int end = Math.min(text.length(), start + maxChars);
+            if (end < text.length()) {
+                end = lastWhitespaceBefore(text, end, start + maxChars - maxChars / 10);
+            }
+            passages.add(text.substring(start, end).strip());
+            if (end >= text.length()) {
+                break;
+            }
+
+            int next = end - overlapChars;
+            // Mulai passage berikutnya di awal kata agar tumpang tindih tidak memotong kata
+            int wordStart = lastWhitespaceBefore(text, next, next - overlapChars / 2);
+            start = Math.max(start + 1, wordStart == next ? next : wordStart);
+        }
+        return passages;
+    }
+
+    /**
+     * Posisi setelah whitespace terakhir di {@code [lowerBound, end)}, atau {@code end} jika tidak ada
+     */
+    private static int lastWhitespaceBefore(String text, int end, int lowerBound) {
+        for (int i = end - 1; i >= Math.max(lowerBound, 0); i--) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                return i + 1;
+            }
+        }
+        return end;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.DocIx.adapter.out.storage;
+
+import com.example.DocIx.domain.port.out.DocumentStorage;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Tier cache disk lokal di depan MinIO.
+ * <p>
+ * Objek yang pernah diambil disimpan di disk node ini (dibatasi ukuran, eviksi LRU), sehingga
+ * retry dan reindex tidak mengunduh ulang PDF yang sama dari bucket. Entri di-cache dibaca langsung
+ * dari file lokal; saat miss, objek dialirkan ke pemanggil sambil disalin ke cache sehingga hanya
+ * diunduh sekali.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "docix.storage.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CachingDocumentStorageAdapter implements DocumentStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingDocumentStorageAdapter.class);
+
+    private final MinioDocumentStorageAdapter delegate;
+    private final LocalDiskLruCache cache;
+
+    public CachingDocumentStorageAdapter(MinioDocumentStorageAdapter delegate,
+                                         @Value("${docix.storage.cache.directory:${java.io.tmpdir}/docix/storage-cache}") String cacheDirectory,
+                                         @Value("${docix.storage.cache.max-size-mb:2048}") long maxSizeMb,
+                                         MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.cache = new LocalDiskLruCache("document-storage", Path.of(cacheDirectory),
+                maxSizeMb * 1024L * 1024L, meterRegistry);
+    }
+
+    @Override
+    public String store(String fileName, InputStream fileContent, long fileSize, String contentType) {
+        String storagePath = delegate.store(fileName, fileContent, fileSize, contentType);
+        // Path baru biasanya unik, tetapi pastikan tidak ada entri basi jika objek ditimpa
+        cache.invalidate(storagePath);
+        return storagePath;
+    }
+
+    @Override
+    public InputStream retrieve(String storagePath) {
+        try {
+            return cache.openOrTee(storagePath, () -> delegate.retrieve(storagePath));
+        } catch (IOException e) {
+            // Hanya terjadi saat membuka entri cache; objek belum diambil dari sumber
+            logger.warn("Local cache unavailable for {}, streaming from origin: {}", storagePath, e.getMessage());
+            return delegate.retrieve(storagePath);
+        }
+    }
+
+    @Override
+    public String generateDownloadUrl(String storagePath, String downloadFileName, String contentType, Duration validity) {
+        return delegate.generateDownloadUrl(storagePath, downloadFileName, contentType, validity);
+    }
+
+    @Override
+    public void delete(String storagePath) {
+        cache.invalidate(storagePath);
+        delegate.delete(storagePath);
+    }
+
+    @Override
+    public boolean exists(String storagePath) {
+        return cache.contains(storagePath) || delegate.exists(storagePath);
+    }
+}
@@ -0,0 +1,602 @@
+package com.example.DocIx.adapter.out.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache file di disk lokal dengan batas ukuran total dan eviksi LRU.
+ * <p>
+ * Entri ditulis ke file sementara lalu di-rename secara atomik, sehingga pembaca tidak pernah
+ * melihat file yang setengah tertulis. Miss bersamaan untuk key yang sama digabung menjadi satu
+ * pemuatan; thread lain menunggu hasilnya alih-alih mengambil ulang dari sumber.
+ * Penulisan dihentikan begitu melewati kapasitas cache, sehingga entri yang terlalu besar tidak
+ * pernah disalin penuh ke disk.
+ */
+public class LocalDiskLruCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalDiskLruCache.class);
+
+    private static final String ENTRY_SUFFIX = ".cache";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final String name;
+    private final Path directory;
+    private final long maxBytes;
+
+    // Urutan akses (LRU): nama file entri -> ukuran dalam byte
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Object lock = new Object();
+    private long currentBytes;
+
+    private final Map<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter coalescedCounter;
+    private final Counter evictionCounter;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong lookups = new AtomicLong();
+
+    public LocalDiskLruCache(String name, Path directory, long maxBytes, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+
+        this.hitCounter = Counter.builder("disk_cache_hits_total")
+                .description("Jumlah lookup yang dilayani dari cache disk lokal")
+                .tag("cache", name)
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("disk_cache_misses_total")
+                .description("Jumlah lookup yang harus memuat dari sumber")
+                .tag("cache", name)
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("disk_cache_coalesced_total")
+                .description("Jumlah miss yang menunggu pemuatan yang sedang berjalan untuk key yang sama")
+                .tag("cache", name)
+                .register(meterRegistry);
+        this.evictionCounter = Counter.builder("disk_cache_evictions_total")
+                .description("Jumlah entri yang dikeluarkan karena batas ukuran")
+                .tag("cache", name)
+                .register(meterRegistry);
+        Gauge.builder("disk_cache_size_bytes", this, LocalDiskLruCache::currentBytes)
+                .description("Total ukuran entri di cache disk lokal")
+                .tag("cache", name)
+                .register(meterRegistry);
+        Gauge.builder("disk_cache_hit_ratio", this, LocalDiskLruCache::hitRatio)
+                .description("Rasio lookup yang dilayani dari cache disk lokal")
+                .tag("cache", name)
+                .register(meterRegistry);
+
+        initializeDirectory();
+    }
+
+    /**
+     * Buka entri untuk dibaca jika ada di cache.
+     */
+    public Optional<FileChannel> open(String key) throws IOException {
+        lookups.incrementAndGet();
+        FileChannel channel = openIfPresent(fileNameFor(key));
+        if (channel != null) {
+            recordHit();
+        } else {
+            missCounter.increment();
+        }
+        return Optional.ofNullable(channel);
+    }
+
+    /**
+     * Buka entri untuk dibaca, memuatnya lewat {@code loader} jika belum ada.
+     * Hanya satu thread yang memuat key yang sama pada satu waktu.
+     *
+     * @throws EntryTooLargeException jika entri melebihi kapasitas cache; pemanggil harus membaca dari sumber
+     */
+    public FileChannel openOrLoad(String key, EntryWriter loader) throws IOException {
+        String fileName = fileNameFor(key);
+        lookups.incrementAndGet();
+
+        FileChannel channel = openIfPresent(fileName);
+        if (channel != null) {
+            recordHit();
+            return channel;
+        }
+
+        CompletableFuture<Void> pending = new CompletableFuture<>();
+        CompletableFuture<Void> existing = inFlight.putIfAbsent(fileName, pending);
+        if (existing != null) {
+            coalescedCounter.increment();
+            awaitLoad(existing);
+            channel = openIfPresent(fileName);
+            if (channel != null) {
+                return channel;
+            }
+            // Entri sudah dikeluarkan sebelum sempat dibuka; muat ulang tanpa penggabungan
+            writeEntry(fileName, loader);
+            return openCommitted(fileName);
+        }
+
+        missCounter.increment();
+        try {
+            writeEntry(fileName, loader);
+            pending.complete(null);
+        } catch (IOException | RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(fileName, pending);
+        }
+        return openCommitted(fileName);
+    }
+
+    /**
+     * Buka entri untuk dibaca; jika belum ada, kembalikan stream dari {@code origin} yang sekaligus
+     * menyalin byte yang dibaca ke cache. Entri di-commit saat stream dibaca sampai habis, sehingga
+     * pemanggil tidak menunggu seluruh objek tersalin dan sumber hanya dibaca sekali.
+     * <p>
+     * Penyalinan dihentikan tanpa mengganggu pembaca jika entri melewati kapasitas cache, jika
+     * penulisan ke disk gagal, atau jika stream ditutup sebelum habis. Miss bersamaan untuk key yang
+     * sedang disalin langsung membaca dari sumber.
+     */
+    public InputStream openOrTee(String key, OriginOpener origin) throws IOException {
+        String fileName = fileNameFor(key);
+        lookups.incrementAndGet();
+
+        FileChannel channel = openIfPresent(fileName);
+        if (channel != null) {
+            recordHit();
+            return Channels.newInputStream(channel);
+        }
+
+        missCounter.increment();
+        CompletableFuture<Void> pending = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(fileName, pending) != null) {
+            return origin.open();
+        }
+
+        InputStream in;
+        try {
+            in = origin.open();
+        } catch (IOException | RuntimeException e) {
+            release(fileName, pending);
+            throw e;
+        }
+
+        try {
+            return new TeeInputStream(in, newEntry(fileName), pending);
+        } catch (IOException e) {
+            logger.warn("Disk cache '{}' cannot copy entry, serving from origin only: {}", name, e.getMessage());
+            release(fileName, pending);
+            return in;
+        }
+    }
+
+    /**
+     * Mulai menulis entri secara bertahap; entri baru terlihat setelah {@link PendingEntry#commit()}.
+     * Penulisan yang melewati kapasitas cache melempar {@link EntryTooLargeException}.
+     */
+    public PendingEntry create(String key) throws IOException {
+        return newEntry(fileNameFor(key));
+    }
+
+    /**
+     * Simpan entri baru (menimpa entri lama dengan key yang sama).
+     */
+    public void put(String key, EntryWriter writer) throws IOException {
+        writeEntry(fileNameFor(key), writer);
+    }
+
+    public boolean contains(String key) {
+        synchronized (lock) {
+            return entries.containsKey(fileNameFor(key));
+        }
+    }
+
+    public void invalidate(String key) {
+        String fileName = fileNameFor(key);
+        synchronized (lock) {
+            Long size = entries.remove(fileName);
+            if (size != null) {
+                currentBytes -= size;
+                deleteQuietly(directory.resolve(fileName));
+            }
+        }
+    }
+
+    public long currentBytes() {
+        synchronized (lock) {
+            return currentBytes;
+        }
+    }
+
+    public double hitRatio() {
+        long total = lookups.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    private void recordHit() {
+        hits.incrementAndGet();
+        hitCounter.increment();
+    }
+
+    private FileChannel openIfPresent(String fileName) throws IOException {
+        // Dibuka di dalam lock agar eviksi tidak bisa menghapus file di antara lookup dan open.
+        // File yang sudah terbuka tetap bisa dibaca meskipun kemudian dikeluarkan dari cache.
+        synchronized (lock) {
+            // get(), bukan containsKey(): hanya get yang memindahkan entri ke ujung urutan akses LRU
+            if (entries.get(fileName) == null) {
+                return null;
+            }
+            try {
+                return FileChannel.open(directory.resolve(fileName), StandardOpenOption.READ);
+            } catch (NoSuchFileException e) {
+                Long size = entries.remove(fileName);
+                if (size != null) {
+                    currentBytes -= size;
+                }
+                return null;
+            }
+        }
+    }
+
+    private FileChannel openCommitted(String fileName) throws IOException {
+        FileChannel channel = openIfPresent(fileName);
+        if (channel == null) {
+            throw new NoSuchFileException(directory.resolve(fileName).toString(),
+                    null, "Cache entry evicted immediately after load");
+        }
+        return channel;
+    }
+
+    private void writeEntry(String fileName, EntryWriter writer) throws IOException {
+        try (PendingEntry entry = newEntry(fileName)) {
+            writer.write(entry.output());
+            entry.commit();
+        }
+    }
+
+    private PendingEntry newEntry(String fileName) throws IOException {
+        Path temp = Files.createTempFile(directory, fileName + "-", TEMP_SUFFIX);
+        try {
+            return new PendingEntry(fileName, temp, new LimitedOutputStream(
+                    Files.newOutputStream(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)));
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(temp);
+            throw e;
+        }
+    }
+
+    private void commitEntry(String fileName, Path temp, long size) throws IOException {
+        synchronized (lock) {
+            Files.move(temp, directory.resolve(fileName), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            Long previous = entries.put(fileName, size);
+            currentBytes += size - (previous != null ? previous : 0L);
+            evictIfNeeded(fileName);
+        }
+    }
+
+    private void release(String fileName, CompletableFuture<Void> pending) {
+        inFlight.remove(fileName, pending);
+        // Selesai normal: thread di openOrLoad yang menunggu akan memuat sendiri jika entri tidak ada
+        pending.complete(null);
+    }
+
+    private void evictIfNeeded(String protectedFileName) {
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            if (eldest.getKey().equals(protectedFileName)) {
+                continue;
+            }
+            iterator.remove();
+            currentBytes -= eldest.getValue();
+            deleteQuietly(directory.resolve(eldest.getKey()));
+            evictionCounter.increment();
+        }
+    }
+
+    private void awaitLoad(CompletableFuture<Void> pending) throws IOException {
+        try {
+            pending.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Cache load failed", cause);
+        }
+    }
+
+    private void initializeDirectory() {
+        try {
+            Files.createDirectories(directory);
+            List<Path> existing = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                for (Path path : stream) {
+                    String fileName = path.getFileName().toString();
+                    if (fileName.endsWith(TEMP_SUFFIX)) {
+                        // Sisa penulisan yang terputus (misalnya crash) tidak pernah valid
+                        deleteQuietly(path);
+                    } else if (fileName.endsWith(ENTRY_SUFFIX)) {
+                        existing.add(path);
+                    }
+                }
+            }
+
+            // Entri lama dimuat ulang dengan urutan waktu modifikasi sebagai perkiraan LRU
+            existing.sort(Comparator.comparingLong(LocalDiskLruCache::lastModifiedQuietly));
+            synchronized (lock) {
+                for (Path path : existing) {
+                    long size = Files.size(path);
+                    entries.put(path.getFileName().toString(), size);
+                    currentBytes += size;
+                }
+                evictIfNeeded(null);
+            }
+            logger.info("Disk cache '{}' ready at {} with {} entries ({} bytes, max {} bytes)",
+                    name, directory, entries.size(), currentBytes, maxBytes);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to initialize disk cache directory: " + directory, e);
+        }
+    }
+
+    private static long lastModifiedQuietly(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.debug("Failed to delete cache file {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static String fileNameFor(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8))) + ENTRY_SUFFIX;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface EntryWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface OriginOpener {
+        InputStream open() throws IOException;
+    }
+
+    /**
+     * Entri yang sedang ditulis ke file sementara. Menutup entri yang belum di-commit membuangnya.
+     */
+    public final class PendingEntry implements Closeable {
+
+        private final String fileName;
+        private final Path temp;
+        private final LimitedOutputStream out;
+        private boolean done;
+
+        private PendingEntry(String fileName, Path temp, LimitedOutputStream out) {
+            this.fileName = fileName;
+            this.temp = temp;
+            this.out = out;
+        }
+
+        public OutputStream output() {
+            return out;
+        }
+
+        public void commit() throws IOException {
+            out.close();
+            commitEntry(fileName, temp, out.written);
+            done = true;
+        }
+
+        @Override
+        public void close() {
+            if (done) {
+                return;
+            }
+            done = true;
+            try {
+                out.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close cache file {}: {}", temp, e.getMessage());
+            }
+            deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * Menghentikan penulisan begitu entri melewati kapasitas cache.
+     */
+    private final class LimitedOutputStream extends FilterOutputStream {
+
+        private long written;
+
+        LimitedOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            reserve(1);
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            reserve(len);
+            out.write(b, off, len);
+        }
+
+        private void reserve(int len) throws EntryTooLargeException {
+            written += len;
+            if (written > maxBytes) {
+                throw new EntryTooLargeException(name, written, maxBytes);
+            }
+        }
+    }
+
+    /**
+     * Stream sumber yang menyalin setiap byte yang dibaca ke entri yang sedang ditulis.
+     */
+    private final class TeeInputStream extends FilterInputStream {
+
+        private final CompletableFuture<Void> pending;
+        private final String fileName;
+        // null setelah entri di-commit atau penyalinan dihentikan
+        private PendingEntry entry;
+
+        TeeInputStream(InputStream in, PendingEntry entry, CompletableFuture<Void> pending) {
+            super(in);
+            this.entry = entry;
+            this.fileName = entry.fileName;
+            this.pending = pending;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b;
+            try {
+                b = in.read();
+            } catch (IOException e) {
+                abandon("origin read failed");
+                throw e;
+            }
+            if (b < 0) {
+                commit();
+            } else {
+                append(new byte[]{(byte) b}, 0, 1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n;
+            try {
+                n = in.read(b, off, len);
+            } catch (IOException e) {
+                abandon("origin read failed");
+                throw e;
+            }
+            if (n < 0) {
+                commit();
+            } else if (n > 0) {
+                append(b, off, n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // Byte yang dilewati tidak tersalin, jadi entri tidak lagi lengkap
+            abandon("stream skipped");
+            return in.skip(n);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                in.close();
+            } finally {
+                abandon("stream closed before end");
+            }
+        }
+
+        private void append(byte[] b, int off, int len) {
+            if (entry == null) {
+                return;
+            }
+            try {
+                entry.output().write(b, off, len);
+            } catch (EntryTooLargeException e) {
+                abandon("entry exceeds cache capacity");
+            } catch (IOException e) {
+                logger.warn("Disk cache '{}' failed to copy entry: {}", name, e.getMessage());
+                abandon("copy failed");
+            }
+        }
+
+        private void commit() {
+            if (entry == null) {
+                return;
+            }
+            try {
+                entry.commit();
+            } catch (IOException e) {
+                logger.warn("Disk cache '{}' failed to commit entry: {}", name, e.getMessage());
+            } finally {
+                entry.close();
+                entry = null;
+                release(fileName, pending);
+            }
+        }
+
+        private void abandon(String reason) {
+            if (entry == null) {
+                return;
+            }
+            logger.debug("Disk cache '{}' stopped copying {}: {}", name, fileName, reason);
+            entry.close();
+            entry = null;
+            release(fileName, pending);
+        }
+    }
+
+    public static class EntryTooLargeException extends IOException {
+        public EntryTooLargeException(String cacheName, long size, long maxBytes) {
+            super("Entry of " + size + " bytes exceeds capacity of cache '" + cacheName + "' (" + maxBytes + " bytes)");
+        }
+    }
+}
@@ -8,21 +8,31 @@ import io.minio.PutObjectArgs;
 import io.minio.RemoveObjectArgs;
 import io.minio.StatObjectArgs;
 import io.minio.http.Method;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
 import org.springframework.stereotype.Component;
 
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 @Component
 public class MinioDocumentStorageAdapter implements DocumentStorage {
 
     private final MinioClient minioClient;
+    // Endpoint publik (minio.public-url): URL yang diberikan ke klien harus ditandatangani untuk host tersebut
+    private final MinioClient presignClient;
     private final String bucketName;
 
     public MinioDocumentStorageAdapter(MinioClient minioClient,
+                                     @Qualifier("minioPresignClient") MinioClient presignClient,
                                      @Value("${minio.bucket-name}") String bucketName) {
         this.minioClient = minioClient;
+        this.presignClient = presignClient;
         this.bucketName = bucketName;
     }
 
@@ -62,7 +72,7 @@ public class MinioDocumentStorageAdapter implements DocumentStorage {
      */
     public String generateDownloadUrl(String storagePath, int expirationHours) {
         try {
-            return minioClient.getPresignedObjectUrl(
+            return presignClient.getPresignedObjectUrl(
                 GetPresignedObjectUrlArgs.builder()
                     .method(Method.GET)
                     .bucket(bucketName)
@@ -75,6 +85,33 @@ public class MinioDocumentStorageAdapter implements DocumentStorage {
         }
     }
 
+    @Override
+    public String generateDownloadUrl(String storagePath, String downloadFileName, String contentType, Duration validity) {
+        Map<String, String> responseHeaders = new HashMap<>();
+        if (downloadFileName != null && !downloadFileName.isBlank()) {
+            responseHeaders.put("response-content-disposition", ContentDisposition.attachment()
+                    .filename(downloadFileName, StandardCharsets.UTF_8)
+                    .build()
+                    .toString());
+        }
+        if (contentType != null && !contentType.isBlank()) {
+            responseHeaders.put("response-content-type", contentType);
+        }
+        try {
+            return presignClient.getPresignedObjectUrl(
+                GetPresignedObjectUrlArgs.builder()
+                    .method(Method.GET)
+                    .bucket(bucketName)
+                    .object(storagePath)
+                    .expiry((int) validity.toSeconds(), TimeUnit.SECONDS)
+                    .extraQueryParams(responseHeaders)
+                    .build()
+            );
+        } catch (Exception e) {
+            throw new StorageException("Failed to generate download URL for: " + storagePath, e);
+        }
+    }
+
     @Override
     public InputStream retrieve(String storagePath) {
         try {
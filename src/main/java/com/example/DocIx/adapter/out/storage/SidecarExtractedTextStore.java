@@ -0,0 +1,201 @@
+package com.example.DocIx.adapter.out.storage;
+
+import com.example.DocIx.adapter.out.extraction.PageTextCodec;
+import com.example.DocIx.domain.model.Document;
+import com.example.DocIx.domain.port.out.DocumentStorage;
+import com.example.DocIx.domain.port.out.ExtractedTextStore;
+import com.example.DocIx.domain.port.out.PageExtractor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Menyimpan teks per halaman sebagai objek sidecar terkompresi di samping file dokumen
+ * ({@code <storagePath>.pages.gz}). Halaman ditulis dan dibaca satu per satu dalam format
+ * {@link PageTextCodec}.
+ */
+@Component
+public class SidecarExtractedTextStore implements ExtractedTextStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SidecarExtractedTextStore.class);
+
+    private static final String SIDECAR_SUFFIX = ".pages.gz";
+    private static final String SIDECAR_CONTENT_TYPE = "application/gzip";
+
+    private static final PageWriter NO_OP_WRITER = new PageWriter() {
+        @Override
+        public void write(PageExtractor.DocumentPage page) {
+        }
+
+        @Override
+        public void commit() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    private final DocumentStorage documentStorage;
+    private final boolean enabled;
+
+    public SidecarExtractedTextStore(DocumentStorage documentStorage,
+                                     @Value("${docix.extraction.sidecar.enabled:true}") boolean enabled) {
+        this.documentStorage = documentStorage;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public int load(Document document, String extractorVersion, Consumer<PageExtractor.DocumentPage> pageSink) {
+        if (!enabled) {
+            return 0;
+        }
+        String sidecarPath = document.getStoragePath() + SIDECAR_SUFFIX;
+        InputStream in;
+        try {
+            in = documentStorage.retrieve(sidecarPath);
+        } catch (Exception e) {
+            logger.debug("No extracted text sidecar for document {}: {}", document.getId().getValue(), e.getMessage());
+            return 0;
+        }
+
+        AtomicInteger delivered = new AtomicInteger();
+        try (in) {
+            int pages = PageTextCodec.read(in, document.getId().getValue(), extractorVersion, page -> {
+                delivered.incrementAndGet();
+                pageSink.accept(page);
+            });
+            if (pages < 0) {
+                logger.info("Extracted text sidecar for document {} was produced by another extractor version, ignoring",
+                        document.getId().getValue());
+                return 0;
+            }
+            return pages;
+        } catch (Exception e) {
+            if (delivered.get() == 0) {
+                logger.warn("Failed to read extracted text sidecar {}: {}", sidecarPath, e.getMessage());
+                return 0;
+            }
+            throw new ExtractedTextUnreadableException("Extracted text sidecar " + sidecarPath
+                    + " corrupt after " + delivered.get() + " pages", e);
+        }
+    }
+
+    @Override
+    public PageWriter openWriter(Document document, String extractorVersion) {
+        if (!enabled) {
+            return NO_OP_WRITER;
+        }
+        return new SidecarWriter(document, extractorVersion);
+    }
+
+    @Override
+    public void delete(Document document) {
+        String sidecarPath = document.getStoragePath() + SIDECAR_SUFFIX;
+        try {
+            // Tetap dihapus meskipun sidecar dinonaktifkan: objek bisa tersisa dari konfigurasi sebelumnya
+            documentStorage.delete(sidecarPath);
+        } catch (Exception e) {
+            logger.warn("Failed to delete extracted text sidecar {}: {}", sidecarPath, e.getMessage());
+        }
+    }
+
+    /**
+     * Menulis halaman ke file sementara lokal saat diterima; file diunggah sebagai sidecar saat commit,
+     * sehingga teks dokumen tidak pernah ditampung utuh di heap.
+     */
+    private final class SidecarWriter implements PageWriter {
+
+        private final Document document;
+        private Path temp;
+        private OutputStream out;
+        private PageTextCodec.Writer writer;
+        private int pages;
+
+        SidecarWriter(Document document, String extractorVersion) {
+            this.document = document;
+            try {
+                temp = Files.createTempFile("docix-sidecar-", SIDECAR_SUFFIX);
+                out = new BufferedOutputStream(Files.newOutputStream(temp));
+                writer = PageTextCodec.open(out, extractorVersion);
+            } catch (IOException e) {
+                abandon(e);
+            }
+        }
+
+        @Override
+        public void write(PageExtractor.DocumentPage page) {
+            if (writer == null) {
+                return;
+            }
+            try {
+                writer.write(page);
+                pages++;
+            } catch (IOException e) {
+                abandon(e);
+            }
+        }
+
+        @Override
+        public void commit() {
+            if (writer == null) {
+                return;
+            }
+            try {
+                writer.finish();
+                out.close();
+                long size = Files.size(temp);
+                String storedPath = documentStorage.store(document.getFileName() + SIDECAR_SUFFIX,
+                        Files.newInputStream(temp), size, SIDECAR_CONTENT_TYPE);
+                if (!storedPath.equals(document.getStoragePath() + SIDECAR_SUFFIX)) {
+                    logger.warn("Extracted text sidecar stored at unexpected path {} for document {}",
+                            storedPath, document.getId().getValue());
+                }
+                logger.debug("Stored extracted text sidecar for document {} ({} pages, {} bytes)",
+                        document.getId().getValue(), pages, size);
+            } catch (Exception e) {
+                abandon(e);
+            } finally {
+                writer = null;
+            }
+        }
+
+        @Override
+        public void close() {
+            writer = null;
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    logger.debug("Failed to close sidecar file {}: {}", temp, e.getMessage());
+                }
+                out = null;
+            }
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    logger.debug("Failed to delete sidecar file {}: {}", temp, e.getMessage());
+                }
+                temp = null;
+            }
+        }
+
+        private void abandon(Exception e) {
+            // Sidecar hanya optimasi; kegagalan tidak boleh menggagalkan indexing
+            logger.warn("Failed to store extracted text sidecar for document {}: {}",
+                    document.getId().getValue(), e.getMessage());
+            close();
+        }
+    }
+}
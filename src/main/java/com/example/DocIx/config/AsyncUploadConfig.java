@@ -0,0 +1,28 @@
+package com.example.DocIx.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncUploadConfig {
+
+    /**
+     * Executor untuk tahap commit upload asynchronous (store ke MinIO, insert database, publish).
+     * Antrian dibatasi agar lonjakan upload ditolak lebih awal daripada menumpuk di disk staging.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor uploadCommitExecutor(
+            @Value("${docix.upload.async.workers:4}") int workers,
+            @Value("${docix.upload.async.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("docix-upload-commit-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
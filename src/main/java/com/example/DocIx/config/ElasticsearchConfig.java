@@ -4,43 +4,186 @@ import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import co.elastic.clients.json.jackson.JacksonJsonpMapper;
 import co.elastic.clients.transport.ElasticsearchTransport;
 import co.elastic.clients.transport.rest_client.RestClientTransport;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.apache.http.HttpHost;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
 import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestClientBuilder;
+import org.elasticsearch.client.sniff.ElasticsearchNodesSniffer;
+import org.elasticsearch.client.sniff.NodesSniffer;
+import org.elasticsearch.client.sniff.SniffOnFailureListener;
+import org.elasticsearch.client.sniff.Sniffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.net.URI;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transport Elasticsearch: beberapa host (http/https), sniffing node, batas pool koneksi,
+ * kompresi gzip, timeout, jumlah thread I/O reactor, dan metrik sisi klien.
+ */
 @Configuration
 public class ElasticsearchConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(ElasticsearchConfig.class);
+
+    private static final String REQUEST_START_ATTRIBUTE = "docix.es.request.start";
+
     @Value("${spring.elasticsearch.uris}")
-    private String elasticsearchUrl;
+    private String elasticsearchUrls;
 
-    @Bean
-    public ElasticsearchClient elasticsearchClient() {
-        // Parse URL
-        String host = "localhost";
-        int port = 9200;
-
-        if (elasticsearchUrl.startsWith("http://")) {
-            String[] parts = elasticsearchUrl.replace("http://", "").split(":");
-            host = parts[0];
-            if (parts.length > 1) {
-                port = Integer.parseInt(parts[1]);
-            }
+    @Value("${spring.elasticsearch.username:}")
+    private String username;
+
+    @Value("${spring.elasticsearch.password:}")
+    private String password;
+
+    @Value("${docix.elasticsearch.connect-timeout-ms:5000}")
+    private int connectTimeoutMs;
+
+    @Value("${docix.elasticsearch.socket-timeout-ms:60000}")
+    private int socketTimeoutMs;
+
+    @Value("${docix.elasticsearch.connection-request-timeout-ms:10000}")
+    private int connectionRequestTimeoutMs;
+
+    @Value("${docix.elasticsearch.max-conn-total:100}")
+    private int maxConnTotal;
+
+    @Value("${docix.elasticsearch.max-conn-per-route:30}")
+    private int maxConnPerRoute;
+
+    @Value("${docix.elasticsearch.io-thread-count:0}")
+    private int ioThreadCount;
+
+    @Value("${docix.elasticsearch.compression-enabled:true}")
+    private boolean compressionEnabled;
+
+    @Value("${docix.elasticsearch.sniffer.enabled:false}")
+    private boolean snifferEnabled;
+
+    @Value("${docix.elasticsearch.sniffer.interval-ms:300000}")
+    private int sniffIntervalMs;
+
+    @Value("${docix.elasticsearch.sniffer.delay-after-failure-ms:60000}")
+    private int sniffAfterFailureDelayMs;
+
+    private final SniffOnFailureListener sniffOnFailureListener = new SniffOnFailureListener();
+
+    @Bean(destroyMethod = "close")
+    public RestClient elasticsearchRestClient(MeterRegistry meterRegistry) throws IOReactorException {
+        HttpHost[] hosts = parseHosts(elasticsearchUrls);
+        int ioThreads = ioThreadCount > 0 ? ioThreadCount : Runtime.getRuntime().availableProcessors();
+
+        IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+                .setIoThreadCount(ioThreads)
+                .setConnectTimeout(connectTimeoutMs)
+                .setSoTimeout(socketTimeoutMs)
+                .build();
+        InstrumentedConnectionManager connectionManager = new InstrumentedConnectionManager(
+                new DefaultConnectingIOReactor(ioReactorConfig), meterRegistry);
+        connectionManager.setMaxTotal(maxConnTotal);
+        connectionManager.setDefaultMaxPerRoute(maxConnPerRoute);
+
+        RestClientBuilder builder = RestClient.builder(hosts)
+                .setCompressionEnabled(compressionEnabled)
+                .setRequestConfigCallback(requestConfig -> requestConfig
+                        .setConnectTimeout(connectTimeoutMs)
+                        .setSocketTimeout(socketTimeoutMs)
+                        .setConnectionRequestTimeout(connectionRequestTimeoutMs))
+                .setHttpClientConfigCallback(httpClient -> {
+                    httpClient.setConnectionManager(connectionManager)
+                            .addInterceptorFirst((HttpRequestInterceptor) (request, context) ->
+                                    context.setAttribute(REQUEST_START_ATTRIBUTE, System.nanoTime()))
+                            .addInterceptorLast((HttpResponseInterceptor) (response, context) -> {
+                                Object start = context.getAttribute(REQUEST_START_ATTRIBUTE);
+                                if (start instanceof Long startNanos) {
+                                    Timer.builder("elasticsearch_client_request_ms")
+                                            .description("Latensi request HTTP ke Elasticsearch dari sisi klien (setelah koneksi didapat)")
+                                            .tag("status", String.valueOf(response.getStatusLine().getStatusCode()))
+                                            .publishPercentiles(0.5, 0.95, 0.99)
+                                            .register(meterRegistry)
+                                            .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                                }
+                            });
+                    if (!username.isBlank()) {
+                        BasicCredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+                        credentialsProvider.setCredentials(AuthScope.ANY,
+                                new UsernamePasswordCredentials(username, password));
+                        httpClient.setDefaultCredentialsProvider(credentialsProvider);
+                    }
+                    return httpClient;
+                });
+
+        if (snifferEnabled) {
+            builder.setFailureListener(sniffOnFailureListener);
         }
 
-        // Create the low-level client
-        RestClient restClient = RestClient.builder(
-            new HttpHost(host, port, "http")
-        ).build();
+        logger.info("Elasticsearch client configured - Hosts: {}, MaxConnTotal: {}, MaxConnPerRoute: {}, IoThreads: {}, Compression: {}, Sniffer: {}",
+                Arrays.toString(hosts), maxConnTotal, maxConnPerRoute, ioThreads, compressionEnabled, snifferEnabled);
+
+        return builder.build();
+    }
+
+    /**
+     * Sniffer memperbarui daftar node secara berkala dan segera setelah node gagal, sehingga
+     * request tersebar ke seluruh node cluster, bukan hanya host yang dikonfigurasi.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "docix.elasticsearch.sniffer.enabled", havingValue = "true")
+    public Sniffer elasticsearchSniffer(RestClient elasticsearchRestClient) {
+        HttpHost[] hosts = parseHosts(elasticsearchUrls);
+        ElasticsearchNodesSniffer.Scheme scheme = "https".equals(hosts[0].getSchemeName())
+                ? ElasticsearchNodesSniffer.Scheme.HTTPS
+                : ElasticsearchNodesSniffer.Scheme.HTTP;
+        NodesSniffer nodesSniffer = new ElasticsearchNodesSniffer(elasticsearchRestClient,
+                ElasticsearchNodesSniffer.DEFAULT_SNIFF_REQUEST_TIMEOUT, scheme);
+
+        Sniffer sniffer = Sniffer.builder(elasticsearchRestClient)
+                .setNodesSniffer(nodesSniffer)
+                .setSniffIntervalMillis(sniffIntervalMs)
+                .setSniffAfterFailureDelayMillis(sniffAfterFailureDelayMs)
+                .build();
+        sniffOnFailureListener.setSniffer(sniffer);
+        return sniffer;
+    }
+
+    @Bean
+    public ElasticsearchTransport elasticsearchTransport(RestClient elasticsearchRestClient) {
+        return new RestClientTransport(elasticsearchRestClient, new JacksonJsonpMapper());
+    }
 
-        // Create the transport with a Jackson mapper
-        ElasticsearchTransport transport = new RestClientTransport(
-            restClient, new JacksonJsonpMapper()
-        );
+    @Bean
+    public ElasticsearchClient elasticsearchClient(ElasticsearchTransport elasticsearchTransport) {
+        return new ElasticsearchClient(elasticsearchTransport);
+    }
+
+    private static HttpHost[] parseHosts(String uris) {
+        return Arrays.stream(uris.split(","))
+                .map(String::trim)
+                .filter(uri -> !uri.isEmpty())
+                .map(ElasticsearchConfig::toHttpHost)
+                .toArray(HttpHost[]::new);
+    }
 
-        // And create the API client
-        return new ElasticsearchClient(transport);
+    private static HttpHost toHttpHost(String uri) {
+        URI parsed = URI.create(uri.contains("://") ? uri : "http://" + uri);
+        String scheme = parsed.getScheme() != null ? parsed.getScheme() : "http";
+        int port = parsed.getPort() != -1 ? parsed.getPort() : ("https".equals(scheme) ? 443 : 9200);
+        return new HttpHost(parsed.getHost(), port, scheme);
     }
 }
@@ -0,0 +1,82 @@
+package com.example.DocIx.config;
+
+import com.example.DocIx.adapter.out.extraction.CachingPageExtractor;
+import com.example.DocIx.adapter.out.extraction.ExtractionBudget;
+import com.example.DocIx.adapter.out.extraction.PageBasedContentExtractor;
+import com.example.DocIx.adapter.out.extraction.ProcessIsolatedPageExtractor;
+import com.example.DocIx.adapter.out.extraction.RoutingPageExtractor;
+import com.example.DocIx.adapter.out.extraction.SupervisedPageExtractor;
+import com.example.DocIx.adapter.out.extraction.TikaStreamingPageExtractor;
+import com.example.DocIx.adapter.out.storage.LocalDiskLruCache;
+import com.example.DocIx.domain.port.out.PageExtractor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Menyusun pipeline ekstraksi halaman yang dipakai oleh indexing.
+ */
+@Configuration
+public class ExtractionConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExtractionConfig.class);
+
+    @Bean
+    public ExtractionBudget extractionBudget(
+            @Value("${docix.extraction.budget.document-timeout-ms:120000}") long documentTimeoutMs,
+            @Value("${docix.extraction.budget.page-timeout-ms:20000}") long pageTimeoutMs,
+            @Value("${docix.extraction.budget.heap-mb:256}") long heapBudgetMb,
+            @Value("${docix.extraction.budget.max-allocated-mb:8192}") long maxAllocatedMb) {
+        return new ExtractionBudget(
+                Duration.ofMillis(documentTimeoutMs),
+                Duration.ofMillis(pageTimeoutMs),
+                heapBudgetMb * 1024 * 1024,
+                maxAllocatedMb * 1024 * 1024);
+    }
+
+    /**
+     * Extractor utama. PDF diekstrak PDFBox, format lain oleh Tika, dipilih berdasarkan MIME type.
+     * Secara default ekstraksi berjalan in-process di bawah supervisor; dengan isolasi aktif, ekstraksi
+     * dijalankan di pool proses child JVM yang dapat dibunuh dan didaur ulang. Lapisan terluar adalah cache
+     * hasil ekstraksi per isi file, sehingga file yang sama tidak di-parse ulang.
+     */
+    @Bean
+    @Primary
+    public PageExtractor pageExtractor(PageBasedContentExtractor pdfExtractor,
+                                       TikaStreamingPageExtractor tikaExtractor,
+                                       ExtractionBudget extractionBudget,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${docix.extraction.isolation.enabled:false}") boolean isolationEnabled,
+                                       @Value("${docix.extraction.isolation.pool-size:4}") int poolSize,
+                                       @Value("${docix.extraction.isolation.worker-heap-mb:512}") int workerHeapMb,
+                                       @Value("${docix.extraction.isolation.max-documents-per-worker:100}") int maxDocumentsPerWorker,
+                                       @Value("${docix.extraction.tika.virtual-page-chars:4000}") int virtualPageChars,
+                                       @Value("${docix.extraction.cache.enabled:true}") boolean cacheEnabled,
+                                       @Value("${docix.extraction.cache.directory:${java.io.tmpdir}/docix/extraction-cache}") String cacheDirectory,
+                                       @Value("${docix.extraction.cache.max-size-mb:1024}") long cacheMaxSizeMb) {
+        RoutingPageExtractor router = new RoutingPageExtractor(pdfExtractor, tikaExtractor);
+        PageExtractor extractor;
+        if (isolationEnabled) {
+            logger.info("Extraction runs in {} isolated worker processes ({}MB heap, recycled every {} documents)",
+                    poolSize, workerHeapMb, maxDocumentsPerWorker);
+            extractor = new ProcessIsolatedPageExtractor(extractionBudget, router.getExtractorVersion(),
+                    poolSize, workerHeapMb, maxDocumentsPerWorker, virtualPageChars);
+        } else {
+            extractor = new SupervisedPageExtractor(router, extractionBudget, meterRegistry);
+        }
+
+        if (cacheEnabled) {
+            LocalDiskLruCache cache = new LocalDiskLruCache("extraction", Path.of(cacheDirectory),
+                    cacheMaxSizeMb * 1024 * 1024, meterRegistry);
+            extractor = new CachingPageExtractor(extractor, cache, Path.of(System.getProperty("java.io.tmpdir")));
+        }
+        return extractor;
+    }
+}
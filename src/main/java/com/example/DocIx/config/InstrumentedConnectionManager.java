@@ -0,0 +1,82 @@
+package com.example.DocIx.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.nio.NHttpClientConnection;
+import org.apache.http.nio.reactor.ConnectingIOReactor;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection pool HTTP async untuk klien Elasticsearch yang mencatat lama menunggu
+ * lease koneksi serta statistik pool ke Micrometer.
+ */
+class InstrumentedConnectionManager extends PoolingNHttpClientConnectionManager {
+
+    private final Timer leaseTimer;
+    private final Timer leaseFailureTimer;
+
+    InstrumentedConnectionManager(ConnectingIOReactor ioReactor, MeterRegistry meterRegistry) {
+        super(ioReactor);
+        this.leaseTimer = Timer.builder("elasticsearch_client_pool_lease_ms")
+                .description("Waktu menunggu koneksi dari pool klien Elasticsearch")
+                .tag("outcome", "success")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.leaseFailureTimer = Timer.builder("elasticsearch_client_pool_lease_ms")
+                .description("Waktu menunggu koneksi dari pool klien Elasticsearch")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+
+        Gauge.builder("elasticsearch_client_pool_leased", this, cm -> cm.getTotalStats().getLeased())
+                .description("Jumlah koneksi yang sedang dipakai")
+                .register(meterRegistry);
+        Gauge.builder("elasticsearch_client_pool_pending", this, cm -> cm.getTotalStats().getPending())
+                .description("Jumlah request yang menunggu koneksi")
+                .register(meterRegistry);
+        Gauge.builder("elasticsearch_client_pool_available", this, cm -> cm.getTotalStats().getAvailable())
+                .description("Jumlah koneksi idle di pool")
+                .register(meterRegistry);
+        Gauge.builder("elasticsearch_client_pool_max", this, cm -> cm.getTotalStats().getMax())
+                .description("Batas total koneksi pool")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Future<NHttpClientConnection> requestConnection(HttpRoute route, Object state, long connectTimeout,
+                                                           long leaseTimeout, TimeUnit timeUnit,
+                                                           FutureCallback<NHttpClientConnection> callback) {
+        long start = System.nanoTime();
+        return super.requestConnection(route, state, connectTimeout, leaseTimeout, timeUnit,
+                new FutureCallback<>() {
+                    @Override
+                    public void completed(NHttpClientConnection result) {
+                        leaseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        if (callback != null) {
+                            callback.completed(result);
+                        }
+                    }
+
+                    @Override
+                    public void failed(Exception ex) {
+                        leaseFailureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        if (callback != null) {
+                            callback.failed(ex);
+                        }
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        leaseFailureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        if (callback != null) {
+                            callback.cancelled();
+                        }
+                    }
+                });
+    }
+}
@@ -8,6 +8,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.event.ContextClosedEvent;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.event.EventListener;
@@ -31,9 +32,16 @@ public class MinioConfig {
     @Value("${minio.bucket-name}")
     private String bucketName;
 
+    @Value("${minio.public-url:}")
+    private String publicUrl;
+
+    @Value("${minio.region:us-east-1}")
+    private String region;
+
     private MinioClient minioClient;
 
     @Bean
+    @Primary
     public MinioClient minioClient() {
         try {
             this.minioClient = MinioClient.builder()
@@ -49,6 +57,27 @@ public class MinioConfig {
         }
     }
 
+    /**
+     * Client khusus presign dengan endpoint publik; tidak dipakai untuk request ke MinIO.
+     * Presign dihitung lokal karena region sudah diketahui.
+     */
+    @Bean
+    public MinioClient minioPresignClient() {
+        String endpoint = publicUrl == null || publicUrl.isBlank() ? minioUrl : publicUrl;
+        try {
+            MinioClient client = MinioClient.builder()
+                    .endpoint(endpoint)
+                    .region(region)
+                    .credentials(accessKey, secretKey)
+                    .build();
+            logger.info("MinIO presign client configured for public endpoint: {}", endpoint);
+            return client;
+        } catch (Exception e) {
+            logger.error("Failed to create MinIO presign client", e);
+            throw new RuntimeException("Failed to create MinIO presign client", e);
+        }
+    }
+
     @EventListener(ContextRefreshedEvent.class)
     public void initializeBucket() {
         try {
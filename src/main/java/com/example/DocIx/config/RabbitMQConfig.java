@@ -1,8 +1,10 @@
 package com.example.DocIx.config;
 
+import org.springframework.amqp.core.AnonymousQueue;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.core.AcknowledgeMode;
@@ -45,6 +47,27 @@ public class RabbitMQConfig {
                 .with(routingKey);
     }
 
+    @Value("${docix.cache.document.invalidation.exchange.name:document.cache.invalidation}")
+    private String cacheInvalidationExchangeName;
+
+    @Bean
+    public FanoutExchange documentCacheInvalidationExchange() {
+        return new FanoutExchange(cacheInvalidationExchangeName, true, false);
+    }
+
+    // Setiap node punya antrian sendiri (exclusive, auto-delete) sehingga semua node menerima setiap siaran
+    @Bean
+    public AnonymousQueue documentCacheInvalidationQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding documentCacheInvalidationBinding() {
+        return BindingBuilder
+                .bind(documentCacheInvalidationQueue())
+                .to(documentCacheInvalidationExchange());
+    }
+
     @Bean
     public Jackson2JsonMessageConverter messageConverter() {
         Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter();
@@ -0,0 +1,104 @@
+package com.example.DocIx.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Mengarahkan transaksi {@code @Transactional(readOnly = true)} ke read replica Postgres.
+ * <p>
+ * DataSource utama aplikasi adalah {@link LazyConnectionDataSourceProxy}: koneksi fisik baru diambil saat
+ * statement pertama, setelah flag read-only transaksi diketahui, lalu diambil dari
+ * {@link ReplicaRoutingDataSource} untuk transaksi read-only dan dari primary untuk sisanya. Replica yang
+ * mati atau tertinggal lebih dari {@code max-lag-ms} dilewati; tanpa replica sehat, baca kembali ke primary.
+ * Aktif hanya jika {@code docix.datasource.replica.enabled=true}; selain itu Spring Boot membuat DataSource
+ * tunggal seperti biasa.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "docix.datasource.replica", name = "enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadReplicaDataSourceConfig.class);
+
+    private final List<HikariDataSource> replicaPools = new ArrayList<>();
+    private ReplicaRoutingDataSource replicaRouting;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            MeterRegistry meterRegistry,
+            @Value("${docix.datasource.replica.urls}") String urls,
+            @Value("${docix.datasource.replica.username:}") String username,
+            @Value("${docix.datasource.replica.password:}") String password,
+            @Value("${docix.datasource.replica.pool-size:5}") int poolSize,
+            @Value("${docix.datasource.replica.max-lag-ms:5000}") long maxLagMs) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : Arrays.stream(urls.split(",")).map(String::trim).filter(u -> !u.isEmpty()).toList()) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + replicaPools.size());
+            replica.setJdbcUrl(url);
+            replica.setDriverClassName(properties.getDriverClassName());
+            replica.setUsername(username.isBlank() ? properties.getUsername() : username);
+            replica.setPassword(password.isBlank() ? properties.getPassword() : password);
+            replica.setMaximumPoolSize(poolSize);
+            replica.setReadOnly(true);
+            // Replica yang mati saat startup tidak boleh menggagalkan aplikasi; primary tetap melayani baca
+            replica.setInitializationFailTimeout(-1);
+            replicaPools.add(replica);
+            replicas.add(replica);
+        }
+        logger.info("Routing read-only transactions to {} replica(s), max lag {}ms", replicas.size(), maxLagMs);
+
+        this.replicaRouting = new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLagMs);
+        Gauge.builder("db_read_replicas_healthy", replicaRouting, ReplicaRoutingDataSource::healthyReplicaCount)
+                .description("Jumlah read replica yang menerima query read-only")
+                .register(meterRegistry);
+        return replicaRouting;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primaryDataSource);
+        proxy.setReadOnlyDataSource(replicaRoutingDataSource);
+        return proxy;
+    }
+
+    @Scheduled(fixedDelayString = "${docix.datasource.replica.probe-interval-ms:5000}")
+    public void probeReplicas() {
+        if (replicaRouting != null) {
+            replicaRouting.probeReplicas();
+        }
+    }
+
+    @PreDestroy
+    public void closeReplicaPools() {
+        replicaPools.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.DocIx.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * DataSource untuk transaksi read-only: membagi koneksi ke replica secara round-robin dan jatuh ke
+ * primary jika tidak ada replica yang sehat.
+ * <p>
+ * Replica dianggap tidak sehat jika koneksi gagal atau lag replikasinya melebihi {@code maxLagMs}. Status
+ * diperbarui oleh {@link #probeReplicas()}; replica yang gagal saat mengambil koneksi langsung ditandai
+ * tidak sehat sampai probe berikutnya berhasil.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    // Replica yang sudah memutar ulang semua WAL yang diterima tidak tertinggal, berapa pun umur transaksi terakhir
+    private static final String LAG_QUERY =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000, 0) END";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMs;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, long maxLagMs) {
+        this.primary = primary;
+        this.replicas = IntStream.range(0, replicas.size())
+                .mapToObj(i -> new Replica(i, replicas.get(i)))
+                .toList();
+        this.maxLagMs = maxLagMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                replica.healthy = false;
+                logger.warn("Read replica {} unavailable, routing reads elsewhere: {}", replica.index, e.getMessage());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    /**
+     * Ukur lag setiap replica dan perbarui status sehatnya
+     */
+    public void probeReplicas() {
+        for (Replica replica : replicas) {
+            boolean wasHealthy = replica.healthy;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                rs.next();
+                replica.lagMs = rs.getLong(1);
+                replica.healthy = maxLagMs <= 0 || replica.lagMs <= maxLagMs;
+                if (!replica.healthy && wasHealthy) {
+                    logger.warn("Read replica {} lags {}ms (max {}ms), routing reads elsewhere",
+                            replica.index, replica.lagMs, maxLagMs);
+                }
+            } catch (SQLException e) {
+                replica.healthy = false;
+                if (wasHealthy) {
+                    logger.warn("Read replica {} probe failed: {}", replica.index, e.getMessage());
+                }
+            }
+            if (replica.healthy && !wasHealthy) {
+                logger.info("Read replica {} is back (lag {}ms)", replica.index, replica.lagMs);
+            }
+        }
+    }
+
+    /**
+     * @return jumlah replica yang sedang menerima query read-only
+     */
+    public int healthyReplicaCount() {
+        return (int) replicas.stream().filter(r -> r.healthy).count();
+    }
+
+    private static final class Replica {
+
+        private final int index;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+        private volatile long lagMs;
+
+        private Replica(int index, DataSource dataSource) {
+            this.index = index;
+            this.dataSource = dataSource;
+        }
+    }
+}
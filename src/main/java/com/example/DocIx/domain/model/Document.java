@@ -8,6 +8,9 @@ import java.util.Objects;
  * Berisi informasi lengkap tentang dokumen yang diunggah termasuk metadata dan status pemrosesan
  */
 public class Document {
+    /** Panjang maksimum pesan kesalahan yang disimpan (kolom ikut di index status, lihat migrasi V7) */
+    public static final int MAX_ERROR_MESSAGE_LENGTH = 500;
+
     private final DocumentId id;
     private final String fileName;
     private final String originalFileName;
@@ -20,6 +23,7 @@ public class Document {
     private DocumentStatus status;
     private String errorMessage;
     private LocalDateTime lastProcessedAt;
+    private final Long version;
 
     /**
      * Konstruktor untuk membuat instance Document baru
@@ -42,6 +46,30 @@ public class Document {
         this.uploader = Objects.requireNonNull(uploader, "Uploader cannot be null");
         this.uploadedAt = LocalDateTime.now();
         this.status = DocumentStatus.UPLOADED;
+        this.version = null;
+    }
+
+    /**
+     * Konstruktor lengkap untuk rekonstruksi dari database
+     * @param version versi baris untuk optimistic locking, null untuk dokumen yang belum disimpan
+     */
+    public Document(DocumentId id, String fileName, String originalFileName,
+                   long fileSize, String contentType, String storagePath, String uploader,
+                   LocalDateTime uploadedAt, String downloadUrl, DocumentStatus status,
+                   String errorMessage, LocalDateTime lastProcessedAt, Long version) {
+        this.id = Objects.requireNonNull(id, "Document ID cannot be null");
+        this.fileName = Objects.requireNonNull(fileName, "File name cannot be null");
+        this.originalFileName = Objects.requireNonNull(originalFileName, "Original file name cannot be null");
+        this.fileSize = fileSize;
+        this.contentType = Objects.requireNonNull(contentType, "Content type cannot be null");
+        this.storagePath = Objects.requireNonNull(storagePath, "Storage path cannot be null");
+        this.uploader = Objects.requireNonNull(uploader, "Uploader cannot be null");
+        this.uploadedAt = Objects.requireNonNull(uploadedAt, "Uploaded at cannot be null");
+        this.downloadUrl = downloadUrl;
+        this.status = Objects.requireNonNull(status, "Status cannot be null");
+        this.errorMessage = errorMessage;
+        this.lastProcessedAt = lastProcessedAt;
+        this.version = version;
     }
 
     // Metode bisnis untuk mengelola status dokumen
@@ -68,11 +96,13 @@ public class Document {
 
     /**
      * Menandai dokumen gagal diproses
-     * @param errorMessage pesan kesalahan yang menjelaskan kegagalan
+     * @param errorMessage pesan kesalahan yang menjelaskan kegagalan, dipotong ke {@link #MAX_ERROR_MESSAGE_LENGTH}
      */
     public void markAsFailed(String errorMessage) {
         this.status = DocumentStatus.FAILED;
-        this.errorMessage = errorMessage;
+        this.errorMessage = errorMessage != null && errorMessage.length() > MAX_ERROR_MESSAGE_LENGTH
+                ? errorMessage.substring(0, MAX_ERROR_MESSAGE_LENGTH)
+                : errorMessage;
         this.lastProcessedAt = LocalDateTime.now();
     }
 
@@ -130,6 +160,9 @@ public class Document {
     /** Mendapatkan waktu pemrosesan terakhir */
     public LocalDateTime getLastProcessedAt() { return lastProcessedAt; }
 
+    /** Mendapatkan versi baris saat dokumen dimuat, null jika belum pernah disimpan */
+    public Long getVersion() { return version; }
+
     /**
      * Membandingkan kesamaan dengan objek Document lain berdasarkan ID
      */
@@ -0,0 +1,22 @@
+package com.example.DocIx.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ringkasan status dokumen untuk query daftar status, dibaca langsung dari database tanpa memuat
+ * seluruh {@link Document}
+ *
+ * @param id ID dokumen
+ * @param originalFileName nama file asli yang diunggah
+ * @param status status pemrosesan dokumen
+ * @param uploadedAt waktu unggah
+ * @param lastProcessedAt waktu pemrosesan terakhir, null jika belum pernah diproses
+ * @param errorMessage pesan kesalahan terakhir, null jika tidak ada
+ */
+public record DocumentStatusSummary(DocumentId id,
+                                    String originalFileName,
+                                    DocumentStatus status,
+                                    LocalDateTime uploadedAt,
+                                    LocalDateTime lastProcessedAt,
+                                    String errorMessage) {
+}
@@ -1,16 +1,48 @@
 package com.example.DocIx.domain.model;
 
+import java.nio.ByteBuffer;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
 
 /**
  * Kelas entitas untuk mencatat log proses pengindeksan dokumen
  * Melacak status dan kemajuan pengindeksan halaman-halaman dokumen
+ * <p>
+ * Status per halaman disimpan sebagai dua bitmap (halaman terindeks dan halaman gagal; bit ke-n untuk
+ * halaman n+1) dan hash konten 8 byte per halaman, sehingga dokumen 5.000 halaman cukup satu baris.
+ * Pesan kesalahan hanya disimpan untuk halaman yang benar-benar gagal.
+ * <p>
+ * {@code synchronized} hanya melindungi satu instance di dalam satu proses. Dua transaksi yang memuat log
+ * yang sama memegang salinan bitmap masing-masing; yang menyimpan belakangan ditolak lewat {@link #getVersion()}
+ * agar tidak menimpa bitmap dan hash yang sudah ditulis transaksi lain.
  */
 public class IndexingLog {
+
+    /**
+     * Prefix errorDetails untuk dokumen yang melewati budget alokasi/heap ekstraksi; tidak diikutkan dalam
+     * retry otomatis karena hasilnya sama untuk file yang sama.
+     */
+    public static final String EXTRACTION_BUDGET_EXCEEDED = "EXTRACTION_BUDGET_EXCEEDED";
+
+    /**
+     * Prefix errorDetails untuk dokumen yang melewati budget waktu ekstraksi, diikuti jumlah timeout
+     * berturut-turut ({@code EXTRACTION_TIMEOUT#2: ...}). Timeout bisa disebabkan beban sesaat sehingga
+     * tetap di-retry sampai batas jumlah timeout tercapai.
+     */
+    public static final String EXTRACTION_TIMEOUT = "EXTRACTION_TIMEOUT";
+
+    private static final int HASH_BYTES = Long.BYTES;
+
     private Long id;
+    private Long version;
     private final String documentId;
     private int totalPages;
     private int pagesIndexed;
@@ -19,7 +51,10 @@ public class IndexingLog {
     private final LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private String errorDetails;
-    private List<IndexingPageLog> pageLogs;
+    private BitSet indexedPages;
+    private BitSet failedPages;
+    private byte[] pageHashes;
+    private final Map<Integer, PageError> pageErrors;
 
     /**
      * Konstruktor untuk membuat IndexingLog baru
@@ -33,7 +68,10 @@ public class IndexingLog {
         this.indexingStatus = IndexingStatus.PENDING;
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
-        this.pageLogs = new ArrayList<>();
+        this.indexedPages = new BitSet();
+        this.failedPages = new BitSet();
+        this.pageHashes = new byte[0];
+        this.pageErrors = new TreeMap<>();
     }
 
     /**
@@ -60,38 +98,81 @@ public class IndexingLog {
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
         this.errorDetails = errorDetails;
-        this.pageLogs = new ArrayList<>();
+        this.indexedPages = new BitSet();
+        this.failedPages = new BitSet();
+        this.pageHashes = new byte[0];
+        this.pageErrors = new TreeMap<>();
     }
 
     // Metode bisnis untuk mengelola proses pengindeksan
 
     /**
-     * Menginisialisasi proses pengindeksan dengan jumlah halaman tertentu
+     * Menginisialisasi proses pengindeksan dengan jumlah halaman tertentu.
+     * Status halaman yang masih ada dipertahankan agar hash kontennya bisa dibandingkan; halaman di luar
+     * jumlah halaman baru dibuang. Halaman yang sebelumnya gagal tidak punya hash sehingga selalu dicoba ulang.
      * @param totalPages total halaman yang akan diindeks
      */
-    public void initializePages(int totalPages) {
+    public synchronized void initializePages(int totalPages) {
         this.totalPages = totalPages;
         this.indexingStatus = IndexingStatus.IN_PROGRESS;
         this.updatedAt = LocalDateTime.now();
 
-        // Inisialisasi page logs
-        this.pageLogs.clear();
-        for (int i = 1; i <= totalPages; i++) {
-            this.pageLogs.add(new IndexingPageLog(this.id, i));
+        indexedPages.clear(totalPages, Math.max(totalPages, indexedPages.length()));
+        failedPages.clear(totalPages, Math.max(totalPages, failedPages.length()));
+        pageHashes = Arrays.copyOf(pageHashes, totalPages * HASH_BYTES);
+        pageErrors.keySet().removeIf(pageNumber -> pageNumber > totalPages);
+        updatePageCounts();
+    }
+
+    /**
+     * Menambah jumlah halaman ketika halaman baru diterima selama ekstraksi masih berjalan. Jumlah akhir
+     * baru diketahui setelah ekstraksi selesai dan ditetapkan dengan {@link #initializePages(int)}.
+     * @param pageNumber nomor halaman yang diterima
+     */
+    public synchronized void expandPages(int pageNumber) {
+        if (pageNumber <= totalPages) {
+            return;
         }
+        this.totalPages = pageNumber;
+        pageHashes = Arrays.copyOf(pageHashes, totalPages * HASH_BYTES);
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Lupakan semua hash konten sehingga setiap halaman ditulis ulang pada indexing berikutnya
+     */
+    public synchronized void clearPageHashes() {
+        Arrays.fill(pageHashes, (byte) 0);
+    }
+
+    /**
+     * Memeriksa apakah halaman sudah terindeks dengan konten yang sama
+     * @param pageNumber nomor halaman
+     * @param contentHash hash SHA-256 (hex) konten halaman saat ini
+     * @return true jika halaman tidak perlu ditulis ulang
+     */
+    public synchronized boolean isPageUnchanged(int pageNumber, String contentHash) {
+        if (!isValidPage(pageNumber) || !indexedPages.get(pageNumber - 1)) {
+            return false;
+        }
+        long stored = ByteBuffer.wrap(pageHashes).getLong((pageNumber - 1) * HASH_BYTES);
+        return stored != 0 && stored == hashPrefix(contentHash);
     }
 
     /**
      * Menandai halaman tertentu sebagai berhasil diindeks
      * @param pageNumber nomor halaman yang berhasil diindeks
+     * @param contentHash hash SHA-256 (hex) konten yang diindeks, atau null jika tidak diketahui
      */
-    public void markPageAsIndexed(int pageNumber) {
-        IndexingPageLog pageLog = findPageLog(pageNumber);
-        if (pageLog != null && pageLog.getPageStatus() != PageStatus.INDEXED) {
-            pageLog.markAsIndexed();
-            this.pagesIndexed++;
-            updateOverallStatus();
+    public synchronized void markPageAsIndexed(int pageNumber, String contentHash) {
+        if (!isValidPage(pageNumber)) {
+            return;
         }
+        indexedPages.set(pageNumber - 1);
+        failedPages.clear(pageNumber - 1);
+        storeHash(pageNumber, contentHash != null ? hashPrefix(contentHash) : 0);
+        pageErrors.remove(pageNumber);
+        updatePageCounts();
     }
 
     /**
@@ -99,40 +180,85 @@ public class IndexingLog {
      * @param pageNumber nomor halaman yang gagal diindeks
      * @param errorMessage pesan kesalahan
      */
-    public void markPageAsFailed(int pageNumber, String errorMessage) {
-        IndexingPageLog pageLog = findPageLog(pageNumber);
-        if (pageLog != null && pageLog.getPageStatus() != PageStatus.FAILED) {
-            pageLog.markAsFailed(errorMessage);
-            this.pagesFailed++;
-            updateOverallStatus();
+    public synchronized void markPageAsFailed(int pageNumber, String errorMessage) {
+        if (!isValidPage(pageNumber)) {
+            return;
         }
+        indexedPages.clear(pageNumber - 1);
+        failedPages.set(pageNumber - 1);
+        // Hash tidak disimpan untuk halaman gagal, agar halaman tersebut selalu dicoba ulang
+        storeHash(pageNumber, 0);
+        PageError previous = pageErrors.get(pageNumber);
+        pageErrors.put(pageNumber, new PageError(pageNumber, errorMessage,
+                previous != null ? previous.retryCount() + 1 : 1, LocalDateTime.now()));
+        updatePageCounts();
     }
 
     /**
-     * Mencari log halaman berdasarkan nomor halaman
-     * @param pageNumber nomor halaman yang dicari
-     * @return IndexingPageLog jika ditemukan, null jika tidak
+     * Menentukan status akhir setelah semua halaman diproses.
+     * Halaman yang belum terindeks maupun gagal (tidak ada pada hasil ekstraksi) ditandai gagal, sehingga
+     * log tidak tertinggal IN_PROGRESS tanpa ada proses yang melanjutkannya.
      */
-    private IndexingPageLog findPageLog(int pageNumber) {
-        return pageLogs.stream()
-                .filter(log -> log.getPageNumber() == pageNumber)
-                .findFirst()
-                .orElse(null);
+    public synchronized void completePageIndexing() {
+        for (int page = 1; page <= totalPages; page++) {
+            if (!indexedPages.get(page - 1) && !failedPages.get(page - 1)) {
+                markPageAsFailed(page, "Halaman tidak diproses");
+            }
+        }
+        this.updatedAt = LocalDateTime.now();
+
+        if (pagesFailed == 0) {
+            this.indexingStatus = IndexingStatus.FULLY_INDEXED;
+        } else if (pagesIndexed > 0) {
+            this.indexingStatus = IndexingStatus.PARTIALLY_INDEXED;
+        } else {
+            this.indexingStatus = IndexingStatus.FAILED;
+        }
     }
 
     /**
-     * Memperbarui status keseluruhan berdasarkan status halaman individual
+     * Mendapatkan status satu halaman dari bitmap
+     * @param pageNumber nomor halaman
+     * @return INDEXED, FAILED, atau PENDING jika belum diproses
      */
-    private void updateOverallStatus() {
+    public synchronized PageStatus getPageStatus(int pageNumber) {
+        if (!isValidPage(pageNumber)) {
+            return PageStatus.PENDING;
+        }
+        if (indexedPages.get(pageNumber - 1)) {
+            return PageStatus.INDEXED;
+        }
+        return failedPages.get(pageNumber - 1) ? PageStatus.FAILED : PageStatus.PENDING;
+    }
+
+    /**
+     * Mendapatkan detail kesalahan halaman yang gagal
+     * @param pageNumber nomor halaman
+     * @return PageError, atau null jika halaman tidak gagal
+     */
+    public synchronized PageError getPageError(int pageNumber) {
+        return pageErrors.get(pageNumber);
+    }
+
+    private boolean isValidPage(int pageNumber) {
+        return pageNumber >= 1 && pageNumber <= totalPages;
+    }
+
+    private void storeHash(int pageNumber, long hash) {
+        ByteBuffer.wrap(pageHashes).putLong((pageNumber - 1) * HASH_BYTES, hash);
+    }
+
+    private void updatePageCounts() {
+        this.pagesIndexed = indexedPages.cardinality();
+        this.pagesFailed = failedPages.cardinality();
         this.updatedAt = LocalDateTime.now();
+    }
 
-        if (pagesIndexed + pagesFailed >= totalPages) {
-            if (pagesFailed == 0) {
-                this.indexingStatus = IndexingStatus.FULLY_INDEXED;
-            } else {
-                this.indexingStatus = IndexingStatus.PARTIALLY_INDEXED;
-            }
-        }
+    /**
+     * 64 bit pertama hash SHA-256 cukup untuk mendeteksi perubahan konten halaman
+     */
+    private static long hashPrefix(String contentHash) {
+        return HexFormat.fromHexDigitsToLong(contentHash, 0, 16);
     }
 
     /**
@@ -178,6 +304,12 @@ public class IndexingLog {
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
+    /**
+     * Versi baris saat log ini dibaca; penyimpanan ditolak jika baris sudah diubah transaksi lain sejak itu
+     */
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     /** Mendapatkan ID dokumen */
     public String getDocumentId() { return documentId; }
 
@@ -206,11 +338,68 @@ public class IndexingLog {
 
     /** Mendapatkan detail kesalahan */
     public String getErrorDetails() { return errorDetails; }
+
+    /**
+     * Jumlah timeout ekstraksi berturut-turut yang tercatat di errorDetails; 0 jika kegagalan terakhir bukan timeout.
+     */
+    public int getExtractionTimeoutCount() {
+        String prefix = EXTRACTION_TIMEOUT + "#";
+        if (errorDetails == null || !errorDetails.startsWith(prefix)) {
+            return 0;
+        }
+        int end = errorDetails.indexOf(':', prefix.length());
+        try {
+            return Integer.parseInt(errorDetails.substring(prefix.length(), end < 0 ? errorDetails.length() : end));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Tandai gagal karena timeout ekstraksi, menaikkan hitungan timeout berturut-turut.
+     */
+    public void markAsExtractionTimedOut(String message) {
+        markAsFailed(EXTRACTION_TIMEOUT + "#" + (getExtractionTimeoutCount() + 1) + ": " + message);
+    }
     public void setErrorDetails(String errorDetails) { this.errorDetails = errorDetails; }
 
-    /** Mendapatkan daftar log halaman */
-    public List<IndexingPageLog> getPageLogs() { return pageLogs; }
-    public void setPageLogs(List<IndexingPageLog> pageLogs) { this.pageLogs = pageLogs; }
+    /** Mendapatkan bitmap halaman terindeks (urutan bit sama dengan get_bit pada bytea PostgreSQL) */
+    public synchronized byte[] getIndexedPagesBitmap() { return indexedPages.toByteArray(); }
+
+    /** Mendapatkan bitmap halaman gagal */
+    public synchronized byte[] getFailedPagesBitmap() { return failedPages.toByteArray(); }
+
+    /** Mendapatkan hash konten 8 byte per halaman; nol berarti hash tidak diketahui */
+    public synchronized byte[] getPageHashes() { return pageHashes.clone(); }
+
+    /** Mendapatkan kesalahan halaman yang gagal, urut nomor halaman */
+    public synchronized List<PageError> getPageErrors() { return new ArrayList<>(pageErrors.values()); }
+
+    /**
+     * Memulihkan status per halaman dari database
+     */
+    public synchronized void restorePageState(byte[] indexedPagesBitmap, byte[] failedPagesBitmap,
+                                              byte[] pageHashes, Collection<PageError> pageErrors) {
+        this.indexedPages = indexedPagesBitmap != null ? BitSet.valueOf(indexedPagesBitmap) : new BitSet();
+        this.failedPages = failedPagesBitmap != null ? BitSet.valueOf(failedPagesBitmap) : new BitSet();
+        this.pageHashes = Arrays.copyOf(pageHashes != null ? pageHashes : new byte[0], totalPages * HASH_BYTES);
+        this.pageErrors.clear();
+        if (pageErrors != null) {
+            for (PageError error : pageErrors) {
+                this.pageErrors.put(error.pageNumber(), error);
+            }
+        }
+    }
+
+    /**
+     * Kesalahan indexing satu halaman
+     * @param pageNumber nomor halaman
+     * @param errorMessage pesan kesalahan terakhir
+     * @param retryCount jumlah percobaan yang gagal
+     * @param failedAt waktu kegagalan terakhir
+     */
+    public record PageError(int pageNumber, String errorMessage, int retryCount, LocalDateTime failedAt) {
+    }
 
     /**
      * Membandingkan kesamaan berdasarkan ID dokumen
@@ -10,9 +10,9 @@ public interface AdminIndexingUseCase {
 
 	void retryFailedIndexing();
 
-	int reindexMissingDocuments();
+	ReindexSummary reindexMissingDocuments();
 
-	void reindexAllDocuments();
+	ReindexSummary reindexAllDocuments();
 
 	class IndexingSummaryResponse {
 		private final long pendingCount;
@@ -64,6 +64,24 @@ public interface AdminIndexingUseCase {
 		public double getConsistencyPercentage() { return consistencyPercentage; }
 		public List<String> getMissingDocumentIds() { return missingDocumentIds; }
 	}
-}
 
+	/**
+	 * Hasil reindex massal. Dokumen yang ditolak karena kapasitas indexing penuh tidak menghentikan pemindaian:
+	 * dikembalikan ke antrian pemrosesan ({@code requeued}) atau dilewati ({@code skipped}) untuk dijalankan ulang.
+	 */
+	class ReindexSummary {
+		private final int reindexed;
+		private final int requeued;
+		private final int skipped;
+
+		public ReindexSummary(int reindexed, int requeued, int skipped) {
+			this.reindexed = reindexed;
+			this.requeued = requeued;
+			this.skipped = skipped;
+		}
 
+		public int getReindexed() { return reindexed; }
+		public int getRequeued() { return requeued; }
+		public int getSkipped() { return skipped; }
+	}
+}
@@ -0,0 +1,71 @@
+package com.example.DocIx.domain.port.in;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Use case untuk upload asynchronous: konten di-stage ke disk lokal dan request langsung dijawab,
+ * sementara penyimpanan ke storage, insert database dan publish dilakukan di background.
+ */
+public interface AsyncUploadUseCase extends StagedUploadStatusQuery {
+
+	AsyncUploadResult acceptUpload(AsyncUploadCommand command);
+
+	/**
+	 * Commit ulang upload yang gagal dari salinan staging-nya.
+	 * Kosong jika upload tidak ada di staging; {@link IllegalStateException} jika upload tidak berstatus gagal.
+	 */
+	Optional<StagedUploadStatus> retryFailedUpload(String documentId);
+
+	/**
+	 * Menulis konten upload ke file staging. Implementasi web dapat memindahkan file sementara
+	 * milik container secara langsung tanpa menyalin ulang ke memori.
+	 */
+	@FunctionalInterface
+	interface ContentSpooler {
+		void spoolTo(Path target) throws IOException;
+	}
+
+	class AsyncUploadCommand {
+		private final String originalFileName;
+		private final long fileSize;
+		private final String contentType;
+		private final String uploader;
+		private final ContentSpooler contentSpooler;
+
+		public AsyncUploadCommand(String originalFileName, long fileSize, String contentType,
+								  String uploader, ContentSpooler contentSpooler) {
+			this.originalFileName = originalFileName;
+			this.fileSize = fileSize;
+			this.contentType = contentType;
+			this.uploader = uploader;
+			this.contentSpooler = contentSpooler;
+		}
+
+		public String getOriginalFileName() { return originalFileName; }
+		public long getFileSize() { return fileSize; }
+		public String getContentType() { return contentType; }
+		public String getUploader() { return uploader; }
+		public ContentSpooler getContentSpooler() { return contentSpooler; }
+	}
+
+	class AsyncUploadResult {
+		private final String documentId;
+		private final String status;
+
+		public AsyncUploadResult(String documentId, String status) {
+			this.documentId = documentId;
+			this.status = status;
+		}
+
+		public String getDocumentId() { return documentId; }
+		public String getStatus() { return status; }
+	}
+
+	class UploadRejectedException extends RuntimeException {
+		public UploadRejectedException(String message, Throwable cause) {
+			super(message, cause);
+		}
+	}
+}
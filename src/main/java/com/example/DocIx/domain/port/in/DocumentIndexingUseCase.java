@@ -1,15 +1,31 @@
 package com.example.DocIx.domain.port.in;
 
 import com.example.DocIx.domain.model.IndexingStatus;
+import com.example.DocIx.domain.model.PageStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface DocumentIndexingUseCase {
 
 	void processDocumentIndexing(String documentId);
 
+	/**
+	 * Indeks dokumen; halaman yang hash kontennya tidak berubah sejak indexing terakhir dilewati.
+	 * Dengan {@code forceFullReindex} semua halaman ditulis ulang ke search engine.
+	 */
+	void processDocumentIndexing(String documentId, boolean forceFullReindex);
+
 	void retryFailedIndexing();
 
 	IndexingStatusResponse getIndexingStatus(String documentId);
 
+	/**
+	 * Status indexing per halaman, dibaca dari bitmap halaman pada IndexingLog
+	 * @param statusFilter hanya halaman dengan status ini, atau null untuk semua halaman
+	 */
+	List<PageIndexingStatusResponse> getPageIndexingStatus(String documentId, PageStatus statusFilter);
+
 	class IndexingStatusResponse {
 		private final String documentId;
 		private final IndexingStatus status;
@@ -36,6 +52,36 @@ public interface DocumentIndexingUseCase {
 		public int getPagesFailed() { return pagesFailed; }
 		public double getProgress() { return progress; }
 	}
-}
 
+	class PageIndexingStatusResponse {
+		private final int pageNumber;
+		private final PageStatus status;
+		private final String errorMessage;
+		private final int retryCount;
+		private final LocalDateTime failedAt;
+
+		public PageIndexingStatusResponse(int pageNumber, PageStatus status, String errorMessage,
+								   int retryCount, LocalDateTime failedAt) {
+			this.pageNumber = pageNumber;
+			this.status = status;
+			this.errorMessage = errorMessage;
+			this.retryCount = retryCount;
+			this.failedAt = failedAt;
+		}
+
+		public int getPageNumber() { return pageNumber; }
+		public PageStatus getStatus() { return status; }
+		public String getErrorMessage() { return errorMessage; }
+		public int getRetryCount() { return retryCount; }
+		public LocalDateTime getFailedAt() { return failedAt; }
+	}
 
+	/**
+	 * Budget indexing node ini penuh; dokumen belum diproses dan harus dicoba lagi nanti
+	 */
+	class IndexingCapacityExceededException extends RuntimeException {
+		public IndexingCapacityExceededException(String message) {
+			super(message);
+		}
+	}
+}
@@ -2,13 +2,51 @@ package com.example.DocIx.domain.port.in;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface DocumentStatusQueryUseCase {
 
 	Optional<DocumentStatusResponse> getDocumentStatus(String documentId);
 
+	/**
+	 * Semua dokumen dengan status tertentu, berurutan waktu unggah lalu id; dipakai jika klien tidak meminta
+	 * paging (tanpa cursor dan limit)
+	 *
+	 * @throws IllegalArgumentException jika status tidak valid
+	 */
 	List<DocumentStatusResponse> getDocumentsByStatus(String status);
 
+	/**
+	 * Satu halaman dokumen dengan status tertentu, berurutan waktu unggah lalu id.
+	 *
+	 * @param cursor nilai {@link DocumentStatusPage#getNextCursor()} dari halaman sebelumnya, atau null
+	 * @throws IllegalArgumentException jika status atau cursor tidak valid
+	 */
+	DocumentStatusPage getDocumentsByStatus(String status, String cursor, int limit);
+
+	/**
+	 * Kirim setiap dokumen dengan status tertentu ke {@code action} per batch keyset, tanpa mengumpulkan
+	 * hasil di memori. Setiap batch dibaca dalam transaksi pendek sendiri, sehingga koneksi database tidak
+	 * ditahan selama klien lambat membaca
+	 *
+	 * @throws IllegalArgumentException jika status tidak valid
+	 */
+	void streamDocumentsByStatus(String status, Consumer<DocumentStatusResponse> action);
+
+	class DocumentStatusPage {
+		private final List<DocumentStatusResponse> items;
+		private final String nextCursor;
+
+		public DocumentStatusPage(List<DocumentStatusResponse> items, String nextCursor) {
+			this.items = items;
+			this.nextCursor = nextCursor;
+		}
+
+		public List<DocumentStatusResponse> getItems() { return items; }
+		/** null jika ini halaman terakhir */
+		public String getNextCursor() { return nextCursor; }
+	}
+
 	class DocumentStatusResponse {
 		private final String documentId;
 		private final String originalFileName;
@@ -1,12 +1,19 @@
 package com.example.DocIx.domain.port.in;
 
 import java.io.InputStream;
+import java.time.Instant;
 import java.util.Optional;
 
 public interface DownloadDocumentUseCase {
 
 	Optional<DownloadResult> downloadByDocumentId(String documentId);
 
+	/**
+	 * Buat (atau gunakan ulang) URL presigned untuk mengunduh dokumen langsung dari object storage.
+	 * Dokumen tetap harus ada dan sudah diproses.
+	 */
+	Optional<DownloadRedirect> getDownloadRedirect(String documentId);
+
 	class DownloadResult {
 		private final String originalFileName;
 		private final String contentType;
@@ -22,6 +29,19 @@ public interface DownloadDocumentUseCase {
 		public String getContentType() { return contentType; }
 		public InputStream getInputStream() { return inputStream; }
 	}
+
+	class DownloadRedirect {
+		private final String url;
+		private final Instant reusableUntil;
+
+		public DownloadRedirect(String url, Instant reusableUntil) {
+			this.url = url;
+			this.reusableUntil = reusableUntil;
+		}
+
+		public String getUrl() { return url; }
+		public Instant getReusableUntil() { return reusableUntil; }
+	}
 }
 
 
@@ -0,0 +1,34 @@
+package com.example.DocIx.domain.port.in;
+
+import java.util.Optional;
+
+/**
+ * Query status upload asynchronous yang belum ter-commit ke database (masih di staging atau gagal di-commit).
+ */
+public interface StagedUploadStatusQuery {
+
+	Optional<StagedUploadStatus> getStagedUploadStatus(String documentId);
+
+	class StagedUploadStatus {
+		private final String documentId;
+		private final String originalFileName;
+		private final String status;
+		private final String acceptedAt;
+		private final String errorMessage;
+
+		public StagedUploadStatus(String documentId, String originalFileName, String status,
+								  String acceptedAt, String errorMessage) {
+			this.documentId = documentId;
+			this.originalFileName = originalFileName;
+			this.status = status;
+			this.acceptedAt = acceptedAt;
+			this.errorMessage = errorMessage;
+		}
+
+		public String getDocumentId() { return documentId; }
+		public String getOriginalFileName() { return originalFileName; }
+		public String getStatus() { return status; }
+		public String getAcceptedAt() { return acceptedAt; }
+		public String getErrorMessage() { return errorMessage; }
+	}
+}
@@ -3,16 +3,83 @@ package com.example.DocIx.domain.port.out;
 import com.example.DocIx.domain.model.Document;
 import com.example.DocIx.domain.model.DocumentId;
 import com.example.DocIx.domain.model.DocumentStatus;
+import com.example.DocIx.domain.model.DocumentStatusSummary;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface DocumentRepository {
     Document save(Document document);
     Optional<Document> findById(DocumentId id);
+
+    /**
+     * Tulis status, downloadUrl, errorMessage dan lastProcessedAt dokumen dengan satu UPDATE bersyarat,
+     * hanya jika status di database masih {@code expectedStatus}. Field lain tidak disentuh.
+     *
+     * @return false jika status sudah diubah pihak lain atau dokumen tidak ada; tidak ada yang ditulis
+     */
+    boolean updateStatusIfCurrent(Document document, DocumentStatus expectedStatus);
+
+    /**
+     * Klaim dokumen untuk indexing seperti {@link #updateStatusIfCurrent}. Dokumen yang di database masih
+     * PROCESSING hanya diklaim ulang jika lastProcessedAt-nya lebih tua dari {@code stuckBefore}, yaitu
+     * consumer yang mengklaimnya dianggap sudah mati.
+     *
+     * @return false jika status sudah diubah pihak lain, dokumen masih diproses consumer lain, atau dokumen
+     *         tidak ada; tidak ada yang ditulis
+     */
+    boolean claimForProcessing(Document document, DocumentStatus expectedStatus, LocalDateTime stuckBefore);
     List<Document> findByStatus(DocumentStatus status);
     List<Document> findByUploader(String uploader);
     List<Document> findByProcessed(boolean processed);
+
+    /**
+     * Satu batch keyset dokumen berurutan id, dimulai setelah {@code afterId} (null untuk batch pertama)
+     */
+    List<Document> findByProcessedAfter(boolean processed, DocumentId afterId, int limit);
+
+    /**
+     * Satu halaman keyset ringkasan status, berurutan (uploadedAt, id), dimulai setelah dokumen
+     * {@code afterUploadedAt}/{@code afterId} (keduanya null untuk halaman pertama)
+     */
+    List<DocumentStatusSummary> findStatusSummaries(DocumentStatus status, LocalDateTime afterUploadedAt,
+                                                    DocumentId afterId, int limit);
+
+    /**
+     * Iterasi ringkasan status semua dokumen dengan status tertentu per halaman keyset (uploadedAt, id);
+     * hanya satu batch yang berada di memori, dan tidak ada transaksi yang terbuka di antara batch
+     */
+    default void forEachStatusSummary(DocumentStatus status, int batchSize, Consumer<DocumentStatusSummary> action) {
+        DocumentStatusSummary last = null;
+        List<DocumentStatusSummary> batch;
+        do {
+            batch = findStatusSummaries(status, last != null ? last.uploadedAt() : null,
+                    last != null ? last.id() : null, batchSize);
+            batch.forEach(action);
+            if (!batch.isEmpty()) {
+                last = batch.get(batch.size() - 1);
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    /**
+     * Iterasi semua dokumen per batch keyset tanpa memuat seluruh tabel ke memori. Karena posisi ditentukan
+     * oleh id terakhir (bukan offset), dokumen yang berubah status selama iterasi tidak membuat dokumen lain
+     * terlewat atau diproses dua kali.
+     */
+    default void forEachByProcessed(boolean processed, int batchSize, Consumer<Document> action) {
+        DocumentId afterId = null;
+        List<Document> batch;
+        do {
+            batch = findByProcessedAfter(processed, afterId, batchSize);
+            batch.forEach(action);
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == batchSize);
+    }
     List<Document> findAll(); // Tambahkan method findAll
     void deleteById(DocumentId id);
     boolean existsById(DocumentId id);
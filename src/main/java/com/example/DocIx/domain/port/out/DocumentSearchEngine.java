@@ -1,7 +1,6 @@
 package com.example.DocIx.domain.port.out;
 
 import com.example.DocIx.domain.model.Document;
-import com.example.DocIx.domain.model.IndexingPageLog;
 import com.example.DocIx.domain.model.DocumentId;
 
 import java.util.List;
@@ -10,7 +9,14 @@ public interface DocumentSearchEngine {
 
     void indexDocument(Document document);
     void indexDocumentPage(PageExtractor.DocumentPage page);
+
+    /**
+     * Hapus sisa doc dari halaman yang ditulis ulang lewat {@link #indexDocumentPage} (passage lama atau
+     * halaman utuh yang kini dipecah). Dipanggil sekali per dokumen setelah semua halamannya ditulis.
+     */
+    void removeStalePageDocs(DocumentId documentId);
     void deleteDocument(DocumentId documentId);
+    void deleteDocumentPagesFrom(DocumentId documentId, int fromPageNumber);
     List<SearchResult> search(String query, int page, int size);
     List<String> autocomplete(String query, int maxSuggestions);
 
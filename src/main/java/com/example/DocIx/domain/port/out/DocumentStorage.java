@@ -1,10 +1,17 @@
 package com.example.DocIx.domain.port.out;
 
 import java.io.InputStream;
+import java.time.Duration;
 
 public interface DocumentStorage {
     String store(String fileName, InputStream fileContent, long fileSize, String contentType);
     InputStream retrieve(String storagePath);
     void delete(String storagePath);
     boolean exists(String storagePath);
+
+    /**
+     * Buat URL presigned berumur pendek agar klien mengunduh langsung dari object storage.
+     * Nama file dan content type diteruskan sebagai header respons dari storage.
+     */
+    String generateDownloadUrl(String storagePath, String downloadFileName, String contentType, Duration validity);
 }
@@ -0,0 +1,48 @@
+package com.example.DocIx.domain.port.out;
+
+import com.example.DocIx.domain.model.Document;
+
+import java.util.function.Consumer;
+
+/**
+ * Penyimpanan teks hasil ekstraksi per halaman yang disimpan berdampingan dengan file asli,
+ * sehingga reindex tidak perlu mem-parsing ulang dokumen.
+ */
+public interface ExtractedTextStore {
+
+    /**
+     * Alirkan halaman tersimpan ke {@code pageSink} satu per satu.
+     *
+     * @return jumlah halaman yang diserahkan; 0 jika belum ada teks tersimpan atau teks dibuat oleh
+     * versi extractor lain, dalam hal itu tidak ada halaman yang diserahkan
+     * @throws ExtractedTextUnreadableException jika teks tersimpan rusak setelah sebagian halaman diserahkan
+     */
+    int load(Document document, String extractorVersion, Consumer<PageExtractor.DocumentPage> pageSink);
+
+    /**
+     * Mulai menyimpan teks per halaman. Halaman ditulis saat diterima dan baru menggantikan teks
+     * tersimpan setelah {@link PageWriter#commit()}; menutup writer tanpa commit membuang hasilnya.
+     */
+    PageWriter openWriter(Document document, String extractorVersion);
+
+    /**
+     * Hapus teks tersimpan milik dokumen; dipanggil bersamaan dengan penghapusan file aslinya.
+     */
+    void delete(Document document);
+
+    interface PageWriter extends AutoCloseable {
+
+        void write(PageExtractor.DocumentPage page);
+
+        void commit();
+
+        @Override
+        void close();
+    }
+
+    class ExtractedTextUnreadableException extends RuntimeException {
+        public ExtractedTextUnreadableException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.example.DocIx.domain.model.IndexingLog;
 import com.example.DocIx.domain.model.IndexingStatus;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface IndexingLogRepository {
@@ -14,6 +15,11 @@ public interface IndexingLogRepository {
 
     List<IndexingLog> findByStatus(IndexingStatus status);
 
+    /**
+     * Jumlah IndexingLog per status dalam satu query agregat; status tanpa baris tidak ada di map
+     */
+    Map<IndexingStatus, Long> countByStatus();
+
     List<IndexingLog> findInProgressIndexing();
 
     List<IndexingLog> findFailedIndexingForRetry(int maxRetryCount);
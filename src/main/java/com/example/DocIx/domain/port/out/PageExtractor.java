@@ -1,7 +1,13 @@
 package com.example.DocIx.domain.port.out;
 
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Interface untuk ekstraksi teks PDF per halaman
@@ -10,17 +16,39 @@ import java.util.List;
 public interface PageExtractor {
 
     /**
-     * Ekstrak teks dari PDF per halaman
-     * 
-     * @param fileContent InputStream dari file PDF
-     * @param fileName    nama file PDF
+     * Ekstrak teks per halaman; setiap halaman diserahkan ke {@code pageSink} begitu halaman tersebut selesai,
+     * sehingga extractor tidak menampung seluruh dokumen. Halaman yang sudah diserahkan tidak ditarik kembali
+     * jika ekstraksi kemudian gagal; pemanggil yang butuh hasil utuh harus membuangnya sendiri.
+     *
+     * @param fileContent InputStream dari file
+     * @param fileName    nama file
      * @param documentId  ID dokumen dari database (UUID string)
-     * @return List dari DocumentPage yang berisi informasi setiap halaman
+     * @param pageSink    penerima halaman, dipanggil berurutan sesuai nomor halaman
+     * @return jumlah halaman yang diserahkan
      * @throws PageExtractionException jika terjadi error saat ekstraksi
      */
-    List<DocumentPage> extractPages(InputStream fileContent, String fileName, String documentId)
+    int extractPages(InputStream fileContent, String fileName, String documentId, Consumer<DocumentPage> pageSink)
             throws PageExtractionException;
 
+    /**
+     * Ekstrak teks per halaman dan kumpulkan semuanya.
+     *
+     * @return List dari DocumentPage yang berisi informasi setiap halaman
+     * @throws PageExtractionException jika terjadi error saat ekstraksi
+     */
+    default List<DocumentPage> extractPages(InputStream fileContent, String fileName, String documentId)
+            throws PageExtractionException {
+        List<DocumentPage> pages = new ArrayList<>();
+        extractPages(fileContent, fileName, documentId, pages::add);
+        return pages;
+    }
+
+    /**
+     * Versi logika ekstraksi. Harus berubah setiap kali hasil ekstraksi dapat berbeda,
+     * agar teks yang tersimpan dari versi lama tidak digunakan ulang.
+     */
+    String getExtractorVersion();
+
     /**
      * Representasi halaman dokumen
      */
@@ -47,6 +75,19 @@ public interface PageExtractor {
             return content;
         }
 
+        /**
+         * Hash SHA-256 (hex) dari konten halaman, dipakai untuk mendeteksi halaman yang berubah saat reindex
+         */
+        public String contentHash() {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                byte[] bytes = (content != null ? content : "").getBytes(StandardCharsets.UTF_8);
+                return HexFormat.of().formatHex(digest.digest(bytes));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+
         @Override
         public String toString() {
             return "DocumentPage{" +
@@ -69,4 +110,27 @@ public interface PageExtractor {
             super(message);
         }
     }
+
+    /**
+     * Ekstraksi dihentikan karena melewati budget.
+     * Budget alokasi dan heap deterministik untuk file yang sama sehingga tidak perlu di-retry;
+     * budget waktu ({@link #isTimeLimit()}) bisa terlewati karena beban sesaat dan boleh di-retry terbatas.
+     */
+    class ExtractionBudgetExceededException extends PageExtractionException {
+        private final boolean timeLimit;
+
+        public ExtractionBudgetExceededException(String message, Throwable cause, boolean timeLimit) {
+            super(message, cause);
+            this.timeLimit = timeLimit;
+        }
+
+        public ExtractionBudgetExceededException(String message, boolean timeLimit) {
+            super(message);
+            this.timeLimit = timeLimit;
+        }
+
+        public boolean isTimeLimit() {
+            return timeLimit;
+        }
+    }
 }
\ No newline at end of file
@@ -2,12 +2,20 @@ package com.example.DocIx.domain.service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.example.DocIx.domain.model.Document;
 import com.example.DocIx.domain.model.IndexingStatus;
 import com.example.DocIx.domain.port.in.AdminIndexingUseCase;
+import com.example.DocIx.domain.port.in.DocumentIndexingUseCase;
+import com.example.DocIx.domain.port.out.DocumentProcessingPublisher;
 import com.example.DocIx.domain.port.out.DocumentRepository;
 import com.example.DocIx.domain.port.out.DocumentSearchEngine;
 import com.example.DocIx.domain.port.out.IndexingLogRepository;
@@ -15,54 +23,90 @@ import com.example.DocIx.domain.port.out.IndexingLogRepository;
 @Service
 public class AdminIndexingService implements AdminIndexingUseCase {
 
+	private static final Logger logger = LoggerFactory.getLogger(AdminIndexingService.class);
+
 	private final DocumentIndexingService documentIndexingService;
 	private final IndexingLogRepository indexingLogRepository;
 	private final DocumentRepository documentRepository;
 	private final DocumentSearchEngine searchEngine;
+	private final IndexingStatusCounters statusCounters;
+	private final DocumentProcessingPublisher processingPublisher;
+
+	// Ukuran batch keyset saat memindai tabel documents; memori tetap konstan berapa pun jumlah dokumen
+	@Value("${docix.indexing.scan.batch-size:500}")
+	private int scanBatchSize;
 
 	public AdminIndexingService(DocumentIndexingService documentIndexingService,
 							  IndexingLogRepository indexingLogRepository,
 							  DocumentRepository documentRepository,
-							  DocumentSearchEngine searchEngine) {
+							  DocumentSearchEngine searchEngine,
+							  IndexingStatusCounters statusCounters,
+							  DocumentProcessingPublisher processingPublisher) {
 		this.documentIndexingService = documentIndexingService;
 		this.indexingLogRepository = indexingLogRepository;
 		this.documentRepository = documentRepository;
 		this.searchEngine = searchEngine;
+		this.statusCounters = statusCounters;
+		this.processingPublisher = processingPublisher;
 	}
 
+	/**
+	 * Ringkasan dibaca dari counter di memori; database hanya di-query sekali sebelum counter terisi
+	 */
 	@Override
+	@Transactional(readOnly = true)
 	public IndexingSummaryResponse getIndexingSummary() {
-		long pendingCount = indexingLogRepository.findByStatus(IndexingStatus.PENDING).size();
-		long inProgressCount = indexingLogRepository.findByStatus(IndexingStatus.IN_PROGRESS).size();
-		long fullyIndexedCount = indexingLogRepository.findByStatus(IndexingStatus.FULLY_INDEXED).size();
-		long partiallyIndexedCount = indexingLogRepository.findByStatus(IndexingStatus.PARTIALLY_INDEXED).size();
-		long failedCount = indexingLogRepository.findByStatus(IndexingStatus.FAILED).size();
-		return new IndexingSummaryResponse(pendingCount, inProgressCount, fullyIndexedCount, partiallyIndexedCount, failedCount);
+		if (!statusCounters.isInitialized()) {
+			statusCounters.reset(indexingLogRepository.countByStatus());
+		}
+		return new IndexingSummaryResponse(
+				statusCounters.get(IndexingStatus.PENDING),
+				statusCounters.get(IndexingStatus.IN_PROGRESS),
+				statusCounters.get(IndexingStatus.FULLY_INDEXED),
+				statusCounters.get(IndexingStatus.PARTIALLY_INDEXED),
+				statusCounters.get(IndexingStatus.FAILED));
+	}
+
+	/**
+	 * Selaraskan counter status dengan satu query GROUP BY, untuk mengoreksi drift
+	 */
+	@Scheduled(fixedDelayString = "${docix.indexing.summary.reconcile-interval-ms:60000}")
+	public void reconcileIndexingSummary() {
+		try {
+			Map<IndexingStatus, Long> counts = indexingLogRepository.countByStatus();
+			statusCounters.reset(counts);
+			logger.debug("Counter status indexing diselaraskan: {}", counts);
+		} catch (Exception e) {
+			logger.error("Gagal menyelaraskan counter status indexing: {}", e.getMessage(), e);
+		}
 	}
 
+	/**
+	 * Tanpa transaksi pembungkus: setiap batch keyset dibaca dalam transaksi read-only sendiri, sehingga
+	 * koneksi dan persistence context tidak ditahan selama pengecekan ke Elasticsearch untuk semua dokumen
+	 */
 	@Override
 	public IndexingConsistencyResponse checkIndexingConsistency() {
-		List<Document> processedDocuments = documentRepository.findByProcessed(true);
-		int indexedDocuments = 0;
-		int missingDocuments = 0;
+		AtomicInteger totalDocuments = new AtomicInteger();
+		AtomicInteger indexedDocuments = new AtomicInteger();
 		List<String> missingDocumentIds = new ArrayList<>();
-		for (Document doc : processedDocuments) {
+		documentRepository.forEachByProcessed(true, scanBatchSize, doc -> {
+			totalDocuments.incrementAndGet();
 			try {
 				boolean exists = searchEngine.search(doc.getId().getValue(), 0, 1).stream()
 						.anyMatch(r -> r.getDocumentId().getValue().equals(doc.getId().getValue()));
 				if (exists) {
-					indexedDocuments++;
+					indexedDocuments.incrementAndGet();
 				} else {
-					missingDocuments++;
 					missingDocumentIds.add(doc.getId().getValue());
 				}
 			} catch (Exception e) {
-				missingDocuments++;
 				missingDocumentIds.add(doc.getId().getValue());
 			}
-		}
-		double consistencyPercentage = processedDocuments.size() > 0 ? (double) indexedDocuments / processedDocuments.size() * 100 : 100.0;
-		return new IndexingConsistencyResponse(processedDocuments.size(), indexedDocuments, missingDocuments, consistencyPercentage, missingDocumentIds);
+		});
+		int total = totalDocuments.get();
+		double consistencyPercentage = total > 0 ? (double) indexedDocuments.get() / total * 100 : 100.0;
+		return new IndexingConsistencyResponse(total, indexedDocuments.get(), missingDocumentIds.size(), consistencyPercentage, missingDocumentIds);
 	}
 
 	@Override
@@ -71,27 +115,55 @@ public class AdminIndexingService implements AdminIndexingUseCase {
 	}
 
 	@Override
-	public int reindexMissingDocuments() {
-		List<Document> processedDocuments = documentRepository.findByProcessed(true);
-		int reindexed = 0;
-		for (Document doc : processedDocuments) {
+	public ReindexSummary reindexMissingDocuments() {
+		AtomicInteger reindexed = new AtomicInteger();
+		AtomicInteger skipped = new AtomicInteger();
+		documentRepository.forEachByProcessed(true, scanBatchSize, doc -> {
 			boolean exists = searchEngine.search(doc.getId().getValue(), 0, 1).stream()
 					.anyMatch(r -> r.getDocumentId().getValue().equals(doc.getId().getValue()));
 			if (!exists) {
-				documentIndexingService.processDocumentIndexing(doc.getId().getValue());
-				reindexed++;
+				try {
+					// Hash halaman di database tidak mencerminkan isi index, tulis ulang semua halaman
+					documentIndexingService.processDocumentIndexing(doc.getId().getValue(), true);
+					reindexed.incrementAndGet();
+				} catch (DocumentIndexingUseCase.IndexingCapacityExceededException e) {
+					// Antrian pemrosesan tidak membawa flag force, jadi dokumen dilewati dan ikut pemindaian berikutnya
+					skipped.incrementAndGet();
+				}
 			}
+		});
+		if (skipped.get() > 0) {
+			logger.warn("Reindex missing: {} dokumen dilewati karena kapasitas indexing penuh, jalankan ulang nanti",
+					skipped.get());
 		}
-		return reindexed;
+		return new ReindexSummary(reindexed.get(), 0, skipped.get());
 	}
 
 	@Override
-	public void reindexAllDocuments() {
-		List<Document> processedDocuments = documentRepository.findByProcessed(true);
-		for (Document doc : processedDocuments) {
-			documentIndexingService.processDocumentIndexing(doc.getId().getValue());
+	public ReindexSummary reindexAllDocuments() {
+		AtomicInteger reindexed = new AtomicInteger();
+		AtomicInteger requeued = new AtomicInteger();
+		AtomicInteger skipped = new AtomicInteger();
+		documentRepository.forEachByProcessed(true, scanBatchSize, doc -> {
+			try {
+				documentIndexingService.processDocumentIndexing(doc.getId().getValue());
+				reindexed.incrementAndGet();
+			} catch (DocumentIndexingUseCase.IndexingCapacityExceededException e) {
+				// Diserahkan ke consumer antrian yang menunggu kapasitas sendiri
+				try {
+					processingPublisher.publishDocumentForProcessing(doc.getId());
+					requeued.incrementAndGet();
+				} catch (Exception publishException) {
+					logger.warn("Gagal mengantrikan ulang document {}: {}", doc.getId().getValue(),
+							publishException.getMessage());
+					skipped.incrementAndGet();
+				}
+			}
+		});
+		if (requeued.get() > 0 || skipped.get() > 0) {
+			logger.warn("Reindex all: kapasitas indexing penuh, {} dokumen diantrikan ulang, {} dilewati",
+					requeued.get(), skipped.get());
 		}
+		return new ReindexSummary(reindexed.get(), requeued.get(), skipped.get());
 	}
 }
-
-
@@ -0,0 +1,361 @@
+package com.example.DocIx.domain.service;
+
+import com.example.DocIx.domain.model.DocumentId;
+import com.example.DocIx.domain.port.in.AsyncUploadUseCase;
+import com.example.DocIx.domain.port.out.DocumentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Upload asynchronous dengan staged commit.
+ * <p>
+ * Konten di-stage ke disk lokal bersama file metadata, lalu request langsung dijawab dengan document ID.
+ * Tahap background memanggil {@link BulkUploadService#commitStagedUpload} sehingga semantik rollback
+ * sama dengan upload sinkron. File staging baru dihapus setelah commit berhasil; jika commit gagal,
+ * status gagal ditulis ke file metadata dan upload di-commit ulang dari salinan staging oleh
+ * {@link #retryFailedUploads()} (atau manual lewat {@link #retryFailedUpload(String)}). Upload yang masih
+ * ter-stage saat aplikasi berhenti diproses ulang ketika aplikasi siap kembali.
+ */
+@Service
+public class AsyncUploadService implements AsyncUploadUseCase {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncUploadService.class);
+
+    public static final String STATUS_STAGED = "STAGED";
+    public static final String STATUS_COMMITTING = "COMMITTING";
+    public static final String STATUS_UPLOAD_FAILED = "UPLOAD_FAILED";
+
+    private static final String CONTENT_SUFFIX = ".upload";
+    private static final String METADATA_SUFFIX = ".properties";
+
+    private final BulkUploadService bulkUploadService;
+    private final DocumentRepository documentRepository;
+    private final TaskExecutor uploadCommitExecutor;
+    private final Path stagingDirectory;
+    private final Duration failedStatusRetention;
+    private final int maxCommitAttempts;
+    private final Duration retryBackoff;
+
+    private final Map<String, StagedUpload> stagedUploads = new ConcurrentHashMap<>();
+
+    public AsyncUploadService(BulkUploadService bulkUploadService,
+                              DocumentRepository documentRepository,
+                              @Qualifier("uploadCommitExecutor") TaskExecutor uploadCommitExecutor,
+                              @Value("${docix.upload.async.staging-directory:${java.io.tmpdir}/docix/upload-staging}") String stagingDirectory,
+                              @Value("${docix.upload.async.failed-status-retention-minutes:1440}") long failedStatusRetentionMinutes,
+                              @Value("${docix.upload.async.max-commit-attempts:5}") int maxCommitAttempts,
+                              @Value("${docix.upload.async.retry-backoff-ms:60000}") long retryBackoffMs) {
+        this.bulkUploadService = bulkUploadService;
+        this.documentRepository = documentRepository;
+        this.uploadCommitExecutor = uploadCommitExecutor;
+        this.stagingDirectory = Path.of(stagingDirectory);
+        this.failedStatusRetention = Duration.ofMinutes(failedStatusRetentionMinutes);
+        this.maxCommitAttempts = maxCommitAttempts;
+        this.retryBackoff = Duration.ofMillis(retryBackoffMs);
+        try {
+            Files.createDirectories(this.stagingDirectory);
+        } catch (IOException e) {
+            throw new IllegalStateException("Gagal membuat direktori staging upload: " + stagingDirectory, e);
+        }
+    }
+
+    @Override
+    public AsyncUploadResult acceptUpload(AsyncUploadCommand command) {
+        // Validasi dilakukan sebelum 202 agar klien langsung menerima error yang jelas
+        bulkUploadService.validateUploadMetadata(command.getOriginalFileName(), command.getFileSize(),
+                command.getContentType(), command.getUploader());
+
+        DocumentId documentId = DocumentId.generate();
+        StagedUpload upload = new StagedUpload(documentId.getValue(), command.getOriginalFileName(),
+                command.getContentType(), command.getUploader(), LocalDateTime.now());
+
+        try {
+            command.getContentSpooler().spoolTo(contentPath(upload.documentId));
+            writeMetadata(upload);
+        } catch (IOException e) {
+            deleteStagedFiles(upload.documentId);
+            throw new BulkUploadService.BulkUploadException("Gagal menyimpan file ke staging", e);
+        }
+
+        stagedUploads.put(upload.documentId, upload);
+        try {
+            uploadCommitExecutor.execute(() -> commit(upload));
+        } catch (TaskRejectedException e) {
+            stagedUploads.remove(upload.documentId);
+            deleteStagedFiles(upload.documentId);
+            throw new UploadRejectedException("Antrian upload penuh, coba lagi nanti", e);
+        }
+
+        logger.info("Upload diterima dan di-stage: {} dengan ID: {}", command.getOriginalFileName(), upload.documentId);
+        return new AsyncUploadResult(upload.documentId, STATUS_STAGED);
+    }
+
+    @Override
+    public Optional<StagedUploadStatus> getStagedUploadStatus(String documentId) {
+        StagedUpload upload = stagedUploads.get(documentId);
+        if (upload == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new StagedUploadStatus(upload.documentId, upload.originalFileName,
+                upload.status, upload.acceptedAt.toString(), upload.errorMessage));
+    }
+
+    @Override
+    public Optional<StagedUploadStatus> retryFailedUpload(String documentId) {
+        StagedUpload upload = stagedUploads.get(documentId);
+        if (upload == null) {
+            return Optional.empty();
+        }
+        if (!upload.markRetrying()) {
+            throw new IllegalStateException("Upload " + documentId + " tidak dalam status " + STATUS_UPLOAD_FAILED);
+        }
+        // Retry manual memberi jatah percobaan baru walaupun percobaan otomatis sudah habis
+        upload.attempts = 0;
+        enqueueRetry(upload);
+        return getStagedUploadStatus(documentId);
+    }
+
+    /**
+     * Commit ulang upload yang gagal dari salinan staging. Upload yang sudah melewati batas percobaan
+     * dibiarkan di staging (masih bisa di-retry manual) sampai masa retensi habis.
+     */
+    @Scheduled(fixedDelayString = "${docix.upload.async.retry-interval-ms:60000}")
+    public void retryFailedUploads() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime retentionCutoff = now.minus(failedStatusRetention);
+        for (StagedUpload upload : stagedUploads.values()) {
+            if (!STATUS_UPLOAD_FAILED.equals(upload.status) || upload.lastAttemptAt == null) {
+                continue;
+            }
+            if (upload.attempts >= maxCommitAttempts) {
+                if (upload.lastAttemptAt.isBefore(retentionCutoff)) {
+                    logger.warn("Upload ter-stage {} dibuang setelah {} percobaan gagal: {}",
+                            upload.documentId, upload.attempts, upload.errorMessage);
+                    stagedUploads.remove(upload.documentId);
+                    deleteStagedFiles(upload.documentId);
+                }
+                continue;
+            }
+            if (upload.lastAttemptAt.plus(retryBackoff).isBefore(now) && upload.markRetrying()) {
+                enqueueRetry(upload);
+            }
+        }
+    }
+
+    /**
+     * Proses ulang upload yang masih ter-stage dari run sebelumnya.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverStagedUploads() {
+        int recovered = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(stagingDirectory, "*" + METADATA_SUFFIX)) {
+            for (Path metadataPath : stream) {
+                String fileName = metadataPath.getFileName().toString();
+                String documentId = fileName.substring(0, fileName.length() - METADATA_SUFFIX.length());
+                try {
+                    if (documentRepository.existsById(DocumentId.of(documentId))
+                            || !Files.exists(contentPath(documentId))) {
+                        // Sudah ter-commit sebelum aplikasi berhenti, atau konten tidak lengkap
+                        deleteStagedFiles(documentId);
+                        continue;
+                    }
+                    StagedUpload upload = readMetadata(documentId, metadataPath);
+                    stagedUploads.put(documentId, upload);
+                    if (STATUS_UPLOAD_FAILED.equals(upload.status)) {
+                        // Upload gagal diserahkan ke retryFailedUploads sesuai backoff dan batas percobaan
+                        continue;
+                    }
+                    uploadCommitExecutor.execute(() -> commit(upload));
+                    recovered++;
+                } catch (Exception e) {
+                    logger.error("Gagal memulihkan upload ter-stage {}: {}", documentId, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Gagal membaca direktori staging upload {}: {}", stagingDirectory, e.getMessage());
+        }
+        if (recovered > 0) {
+            logger.info("Memulihkan {} upload ter-stage dari run sebelumnya", recovered);
+        }
+    }
+
+    private void commit(StagedUpload upload) {
+        upload.status = STATUS_COMMITTING;
+        upload.attempts++;
+        upload.lastAttemptAt = LocalDateTime.now();
+        Path content = contentPath(upload.documentId);
+        try {
+            if (documentRepository.existsById(DocumentId.of(upload.documentId))) {
+                // Percobaan sebelumnya sudah ter-commit walaupun hasilnya tidak sempat tercatat
+                completeCommit(upload);
+                return;
+            }
+            BulkUploadService.BulkUploadResult result;
+            try (InputStream in = Files.newInputStream(content)) {
+                result = bulkUploadService.commitStagedUpload(
+                        DocumentId.of(upload.documentId), upload.originalFileName, in, Files.size(content),
+                        upload.contentType, upload.uploader);
+            }
+            if (result.isSuccess()) {
+                completeCommit(upload);
+            } else {
+                failCommit(upload, result.getErrorMessage());
+            }
+        } catch (Exception e) {
+            logger.error("Commit upload ter-stage gagal untuk {} (percobaan {}): {}",
+                    upload.documentId, upload.attempts, e.getMessage(), e);
+            failCommit(upload, e.getMessage());
+        }
+    }
+
+    private void completeCommit(StagedUpload upload) {
+        // Setelah commit, status dibaca dari database; salinan staging tidak dibutuhkan lagi
+        stagedUploads.remove(upload.documentId);
+        deleteStagedFiles(upload.documentId);
+        logger.info("Upload ter-stage berhasil di-commit: {}", upload.documentId);
+    }
+
+    private void failCommit(StagedUpload upload, String errorMessage) {
+        upload.fail(errorMessage);
+        try {
+            // Status gagal ikut ditulis ke metadata agar tetap terlihat dan di-retry setelah restart
+            writeMetadata(upload);
+        } catch (IOException e) {
+            logger.error("Gagal menyimpan status gagal upload ter-stage {}: {}", upload.documentId, e.getMessage());
+        }
+    }
+
+    private void enqueueRetry(StagedUpload upload) {
+        try {
+            uploadCommitExecutor.execute(() -> commit(upload));
+            logger.info("Commit ulang upload ter-stage {} (percobaan ke-{})", upload.documentId, upload.attempts + 1);
+        } catch (TaskRejectedException e) {
+            // Antrian penuh: tetap gagal dan dicoba lagi pada putaran berikutnya
+            upload.status = STATUS_UPLOAD_FAILED;
+            logger.warn("Antrian penuh, commit ulang upload {} ditunda", upload.documentId);
+        }
+    }
+
+    private void writeMetadata(StagedUpload upload) throws IOException {
+        Properties metadata = new Properties();
+        metadata.setProperty("originalFileName", upload.originalFileName);
+        metadata.setProperty("uploader", upload.uploader);
+        metadata.setProperty("acceptedAt", upload.acceptedAt.toString());
+        if (upload.contentType != null) {
+            metadata.setProperty("contentType", upload.contentType);
+        }
+        metadata.setProperty("status", upload.status);
+        metadata.setProperty("attempts", String.valueOf(upload.attempts));
+        if (upload.lastAttemptAt != null) {
+            metadata.setProperty("lastAttemptAt", upload.lastAttemptAt.toString());
+        }
+        if (upload.errorMessage != null) {
+            metadata.setProperty("errorMessage", upload.errorMessage);
+        }
+
+        // Metadata ditulis terakhir dan di-rename atomik: keberadaannya menandakan konten sudah lengkap
+        Path temp = stagingDirectory.resolve(upload.documentId + METADATA_SUFFIX + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            metadata.store(out, null);
+        }
+        Files.move(temp, metadataPath(upload.documentId), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private StagedUpload readMetadata(String documentId, Path metadataPath) throws IOException {
+        Properties metadata = new Properties();
+        try (InputStream in = Files.newInputStream(metadataPath)) {
+            metadata.load(in);
+        }
+        StagedUpload upload = new StagedUpload(documentId,
+                metadata.getProperty("originalFileName"),
+                metadata.getProperty("contentType"),
+                metadata.getProperty("uploader"),
+                LocalDateTime.parse(metadata.getProperty("acceptedAt")));
+        upload.attempts = Integer.parseInt(metadata.getProperty("attempts", "0"));
+        String lastAttemptAt = metadata.getProperty("lastAttemptAt");
+        if (lastAttemptAt != null) {
+            upload.lastAttemptAt = LocalDateTime.parse(lastAttemptAt);
+        }
+        if (STATUS_UPLOAD_FAILED.equals(metadata.getProperty("status"))) {
+            upload.fail(metadata.getProperty("errorMessage"));
+        }
+        return upload;
+    }
+
+    private Path contentPath(String documentId) {
+        return stagingDirectory.resolve(documentId + CONTENT_SUFFIX);
+    }
+
+    private Path metadataPath(String documentId) {
+        return stagingDirectory.resolve(documentId + METADATA_SUFFIX);
+    }
+
+    private void deleteStagedFiles(String documentId) {
+        try {
+            Files.deleteIfExists(metadataPath(documentId));
+            Files.deleteIfExists(contentPath(documentId));
+        } catch (IOException e) {
+            logger.warn("Gagal menghapus file staging untuk {}: {}", documentId, e.getMessage());
+        }
+    }
+
+    private static class StagedUpload {
+        private final String documentId;
+        private final String originalFileName;
+        private final String contentType;
+        private final String uploader;
+        private final LocalDateTime acceptedAt;
+        private volatile String status = STATUS_STAGED;
+        private volatile String errorMessage;
+        private volatile int attempts;
+        private volatile LocalDateTime lastAttemptAt;
+
+        private StagedUpload(String documentId, String originalFileName, String contentType,
+                             String uploader, LocalDateTime acceptedAt) {
+            this.documentId = documentId;
+            this.originalFileName = originalFileName;
+            this.contentType = contentType;
+            this.uploader = uploader;
+            this.acceptedAt = acceptedAt;
+        }
+
+        private synchronized void fail(String message) {
+            this.errorMessage = message;
+            this.status = STATUS_UPLOAD_FAILED;
+        }
+
+        /**
+         * Pindahkan dari UPLOAD_FAILED ke STAGED; false jika upload sedang atau sudah diproses.
+         */
+        private synchronized boolean markRetrying() {
+            if (!STATUS_UPLOAD_FAILED.equals(status)) {
+                return false;
+            }
+            this.status = STATUS_STAGED;
+            return true;
+        }
+    }
+}
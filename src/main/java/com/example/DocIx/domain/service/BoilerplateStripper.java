@@ -0,0 +1,210 @@
+package com.example.DocIx.domain.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.DocIx.domain.port.out.PageExtractor;
+
+/**
+ * Membuang header, footer, nomor halaman, dan catatan kerahasiaan yang berulang di sebagian besar
+ * halaman dokumen sebelum halaman diindeks.
+ * <p>
+ * Baris dibandingkan setelah dinormalisasi (huruf kecil, whitespace dirapatkan, angka yang sama dengan
+ * nomor halaman diganti {@code #}) sehingga "Halaman 3 dari 120" dan "Halaman 4 dari 120" dianggap baris
+ * yang sama, sedangkan baris isi yang kebetulan hanya berbeda angka tetap dipertahankan. Hanya
+ * baris di tepi atas dan bawah halaman yang diperiksa. Pola ditentukan dari sampel halaman pertama
+ * sehingga halaman berikutnya bisa dibersihkan satu per satu tanpa menampung seluruh dokumen. Teks asli
+ * tidak diubah di sidecar; hanya konten yang dikirim ke search engine yang dibersihkan.
+ */
+@Component
+public class BoilerplateStripper {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoilerplateStripper.class);
+
+    private final boolean enabled;
+    private final double minPageRatio;
+    private final int minPages;
+    private final int edgeLines;
+    private final int maxLineChars;
+    private final int samplePages;
+
+    public BoilerplateStripper(
+            @Value("${docix.indexing.boilerplate.enabled:true}") boolean enabled,
+            @Value("${docix.indexing.boilerplate.min-page-ratio:0.6}") double minPageRatio,
+            @Value("${docix.indexing.boilerplate.min-pages:3}") int minPages,
+            @Value("${docix.indexing.boilerplate.edge-lines:4}") int edgeLines,
+            @Value("${docix.indexing.boilerplate.max-line-chars:200}") int maxLineChars,
+            @Value("${docix.indexing.boilerplate.sample-pages:50}") int samplePages) {
+        this.enabled = enabled;
+        this.minPageRatio = minPageRatio;
+        this.minPages = minPages;
+        this.edgeLines = edgeLines;
+        this.maxLineChars = maxLineChars;
+        this.samplePages = Math.max(1, samplePages);
+    }
+
+    /**
+     * Jumlah halaman pertama yang ditampung sebagai sampel sebelum pola boilerplate ditentukan
+     */
+    public int getSamplePages() {
+        return samplePages;
+    }
+
+    /**
+     * Tentukan pola boilerplate dari halaman sampel (paling banyak {@link #getSamplePages()} halaman pertama).
+     * Pola ini lalu dipakai untuk setiap halaman dokumen, termasuk halaman setelah sampel.
+     */
+    public Boilerplate detect(List<PageExtractor.DocumentPage> sample) {
+        if (!enabled || sample.size() < minPages) {
+            return Boilerplate.NONE;
+        }
+        List<PageExtractor.DocumentPage> bounded = sample.size() > samplePages ? sample.subList(0, samplePages) : sample;
+        Set<String> lines = findBoilerplate(bounded);
+        if (lines.isEmpty()) {
+            return Boilerplate.NONE;
+        }
+        logger.info("Menemukan {} pola boilerplate dari {} halaman sampel document: {}",
+                lines.size(), bounded.size(), bounded.get(0).getDocumentId());
+        return new Boilerplate(lines);
+    }
+
+    /**
+     * @return halaman dengan baris boilerplate dibuang; halaman tanpa boilerplate dikembalikan apa adanya
+     */
+    public PageExtractor.DocumentPage strip(PageExtractor.DocumentPage page, Boilerplate boilerplate) {
+        if (boilerplate.isEmpty()) {
+            return page;
+        }
+        String[] lines = splitLines(page.getContent());
+        StringBuilder kept = new StringBuilder(page.getContent() != null ? page.getContent().length() : 0);
+        int removed = 0;
+        for (int i = 0; i < lines.length; i++) {
+            if (isEdgeLine(i, lines.length) && boilerplate.lines().contains(normalize(lines[i], page.getPageNumber()))) {
+                removed++;
+                continue;
+            }
+            if (kept.length() > 0) {
+                kept.append('\n');
+            }
+            kept.append(lines[i]);
+        }
+        if (removed == 0) {
+            return page;
+        }
+        return new PageExtractor.DocumentPage(page.getDocumentId(), page.getPageNumber(), kept.toString().strip());
+    }
+
+    /**
+     * Deteksi dari sampel lalu bersihkan semua halaman
+     */
+    public List<PageExtractor.DocumentPage> strip(List<PageExtractor.DocumentPage> pages) {
+        Boilerplate boilerplate = detect(pages);
+        if (boilerplate.isEmpty()) {
+            return pages;
+        }
+        List<PageExtractor.DocumentPage> stripped = new ArrayList<>(pages.size());
+        for (PageExtractor.DocumentPage page : pages) {
+            stripped.add(strip(page, boilerplate));
+        }
+        return stripped;
+    }
+
+    /**
+     * Baris ternormalisasi yang muncul di tepi halaman pada minimal {@code minPageRatio} dari halaman sampel
+     */
+    private Set<String> findBoilerplate(List<PageExtractor.DocumentPage> pages) {
+        Map<String, Integer> pageCounts = new HashMap<>();
+        for (PageExtractor.DocumentPage page : pages) {
+            String[] lines = splitLines(page.getContent());
+            // Satu baris dihitung sekali per halaman
+            Set<String> seenOnPage = new HashSet<>();
+            for (int i = 0; i < lines.length; i++) {
+                if (!isEdgeLine(i, lines.length)) {
+                    continue;
+                }
+                String key = normalize(lines[i], page.getPageNumber());
+                if (!key.isEmpty() && key.length() <= maxLineChars && seenOnPage.add(key)) {
+                    pageCounts.merge(key, 1, Integer::sum);
+                }
+            }
+        }
+
+        int threshold = Math.max(minPages, (int) Math.ceil(pages.size() * minPageRatio));
+        Set<String> boilerplate = new HashSet<>();
+        pageCounts.forEach((key, count) -> {
+            if (count >= threshold) {
+                boilerplate.add(key);
+            }
+        });
+        return boilerplate;
+    }
+
+    private boolean isEdgeLine(int index, int lineCount) {
+        return edgeLines <= 0 || index < edgeLines || index >= lineCount - edgeLines;
+    }
+
+    private static String[] splitLines(String content) {
+        return content == null || content.isEmpty() ? new String[0] : content.split("\r?\n");
+    }
+
+    private static String normalize(String line, int pageNumber) {
+        String pageToken = Integer.toString(pageNumber);
+        StringBuilder sb = new StringBuilder(line.length());
+        boolean pendingSpace = false;
+        boolean pageNumberSeen = false;
+        int i = 0;
+        while (i < line.length()) {
+            char c = line.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = sb.length() > 0;
+                i++;
+                continue;
+            }
+            if (pendingSpace) {
+                sb.append(' ');
+                pendingSpace = false;
+            }
+            if (Character.isDigit(c)) {
+                int end = i;
+                while (end < line.length() && Character.isDigit(line.charAt(end))) {
+                    end++;
+                }
+                // Hanya kemunculan pertama nomor halaman yang dianggap variabel ("Halaman 10 dari 10"
+                // di halaman terakhir); angka lain harus sama persis
+                if (!pageNumberSeen && end - i == pageToken.length()
+                        && line.regionMatches(i, pageToken, 0, pageToken.length())) {
+                    sb.append('#');
+                    pageNumberSeen = true;
+                } else {
+                    sb.append(line, i, end);
+                }
+                i = end;
+            } else {
+                sb.append(Character.toLowerCase(c));
+                i++;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Baris ternormalisasi yang dianggap boilerplate untuk satu dokumen
+     */
+    public record Boilerplate(Set<String> lines) {
+
+        public static final Boilerplate NONE = new Boilerplate(Set.of());
+
+        public boolean isEmpty() {
+            return lines.isEmpty();
+        }
+    }
+}
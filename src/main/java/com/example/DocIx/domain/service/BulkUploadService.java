@@ -4,6 +4,7 @@ import com.example.DocIx.domain.event.DocumentUploadEventListener;
 import com.example.DocIx.domain.port.in.BulkUploadUseCase;
 import com.example.DocIx.domain.model.*;
 import com.example.DocIx.domain.port.out.*;
+import com.example.DocIx.domain.util.DocumentTypeUtil;
 import com.example.DocIx.domain.util.FileNameEncryptionUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,6 +23,7 @@ public class BulkUploadService implements BulkUploadUseCase {
     private final DocumentRepository documentRepository;
     private final DocumentStorage documentStorage;
     private final IndexingLogRepository indexingLogRepository;
+    private final ExtractedTextStore extractedTextStore;
     private final ApplicationEventPublisher eventPublisher;
 
     @Value("${MAX_FILE_SIZE:100MB}")
@@ -30,10 +32,12 @@ public class BulkUploadService implements BulkUploadUseCase {
     public BulkUploadService(DocumentRepository documentRepository,
                            DocumentStorage documentStorage,
                            IndexingLogRepository indexingLogRepository,
+                           ExtractedTextStore extractedTextStore,
                            ApplicationEventPublisher eventPublisher) {
         this.documentRepository = documentRepository;
         this.documentStorage = documentStorage;
         this.indexingLogRepository = indexingLogRepository;
+        this.extractedTextStore = extractedTextStore;
         this.eventPublisher = eventPublisher;
     }
 
@@ -42,22 +46,51 @@ public class BulkUploadService implements BulkUploadUseCase {
      * Jika salah satu proses gagal, seluruh operasi akan dibatalkan (rollback)
      */
     private BulkUploadResult uploadDocumentInternal(BulkUploadCommand command) {
-        String storagePathForCleanup = null;
-        try {
-            logger.info("Memulai proses upload dokumen: {}", command.getOriginalFileName());
+        logger.info("Memulai proses upload dokumen: {}", command.getOriginalFileName());
+
+        // 1. Validasi command
+        validateUploadCommand(command);
 
-            // 1. Validasi command
-            validateUploadCommand(command);
+        // 2. Generate document ID
+        DocumentId documentId = DocumentId.generate();
+        logger.debug("Generated document ID: {} untuk file: {}", documentId.getValue(), command.getOriginalFileName());
+
+        return registerUpload(documentId, command.getOriginalFileName(),
+                new java.io.ByteArrayInputStream(command.getFileContent()),
+                command.getFileSize(), command.getContentType(), command.getUploader());
+    }
+
+    /**
+     * Commit upload yang sebelumnya di-stage di disk lokal (mode upload asynchronous).
+     * Document ID sudah diberikan ke klien saat upload diterima, sehingga ID yang sama dipakai di sini.
+     * Semantik rollback sama dengan upload sinkron.
+     */
+    @Transactional
+    public BulkUploadResult commitStagedUpload(DocumentId documentId, String originalFileName,
+                                               java.io.InputStream fileContent, long fileSize,
+                                               String contentType, String uploader) {
+        logger.info("Memulai commit upload ter-stage: {} dengan ID: {}", originalFileName, documentId.getValue());
+        validateUploadMetadata(originalFileName, fileSize, contentType, uploader);
+        return registerUpload(documentId, originalFileName, fileContent, fileSize, contentType, uploader);
+    }
 
-            // 2. Generate document ID dan encrypted filename
-            DocumentId documentId = DocumentId.generate();
+    /**
+     * Simpan file ke storage, simpan document dan indexing log, lalu publish event setelah commit.
+     * Jika salah satu langkah gagal, file yang sudah tersimpan dihapus kembali.
+     */
+    private BulkUploadResult registerUpload(DocumentId documentId, String originalFileName,
+                                            java.io.InputStream fileContent, long fileSize,
+                                            String contentType, String uploader) {
+        String storagePathForCleanup = null;
+        Document documentForCleanup = null;
+        // Content type generik dari klien diganti berdasarkan ekstensi agar unduhan memakai tipe yang benar
+        contentType = DocumentTypeUtil.resolveContentType(contentType, originalFileName);
+        try {
             String encryptedFileName = FileNameEncryptionUtil.generateEncryptedFileName(
-                command.getOriginalFileName(),
+                originalFileName,
                 documentId.getValue()
             );
 
-            logger.debug("Generated document ID: {} untuk file: {}", documentId.getValue(), command.getOriginalFileName());
-
             // 3. Cek idempotency - pastikan document belum ada yang diproses
             if (indexingLogRepository.existsByDocumentId(documentId.getValue())) {
                 logger.warn("Document sudah ada dalam proses indexing: {}", documentId.getValue());
@@ -69,9 +102,9 @@ public class BulkUploadService implements BulkUploadUseCase {
             try {
                 storagePath = documentStorage.store(
                     encryptedFileName,
-                    new java.io.ByteArrayInputStream(command.getFileContent()),
-                    command.getFileSize(),
-                    command.getContentType()
+                    fileContent,
+                    fileSize,
+                    contentType
                 );
                 logger.debug("File berhasil disimpan ke MinIO: {}", storagePath);
                 storagePathForCleanup = storagePath;
@@ -86,23 +119,20 @@ public class BulkUploadService implements BulkUploadUseCase {
                 document = new Document(
                     documentId,
                     encryptedFileName,
-                    command.getOriginalFileName(),
-                    command.getFileSize(),
-                    command.getContentType(),
+                    originalFileName,
+                    fileSize,
+                    contentType,
                     storagePath,
-                    command.getUploader()
+                    uploader
                 );
+                documentForCleanup = document;
 
                 documentRepository.save(document);
                 logger.debug("Document entity berhasil disimpan ke database");
             } catch (Exception e) {
                 logger.error("Gagal menyimpan document ke database: {}", e.getMessage());
                 // Rollback storage jika database gagal
-                try {
-                    documentStorage.delete(storagePath);
-                } catch (Exception storageException) {
-                    logger.error("Gagal menghapus file dari storage saat rollback: {}", storageException.getMessage());
-                }
+                deleteStoredFiles(storagePath, documentForCleanup);
                 throw new BulkUploadException("Gagal menyimpan document ke database", e);
             }
 
@@ -119,10 +149,10 @@ public class BulkUploadService implements BulkUploadUseCase {
 
             // 7. Publish event untuk async processing (setelah commit dengan TransactionalEventListener)
             eventPublisher.publishEvent(
-                new DocumentUploadEventListener.DocumentUploadedEvent(documentId, command.getUploader())
+                new DocumentUploadEventListener.DocumentUploadedEvent(documentId, uploader)
             );
 
-            logger.info("Upload dokumen berhasil: {} dengan ID: {}", command.getOriginalFileName(), documentId.getValue());
+            logger.info("Upload dokumen berhasil: {} dengan ID: {}", originalFileName, documentId.getValue());
 
             return BulkUploadResult.success(documentId.getValue(), "Upload berhasil");
 
@@ -130,28 +160,33 @@ public class BulkUploadService implements BulkUploadUseCase {
             logger.error("Bulk upload gagal: {}", e.getMessage());
             // Upaya cleanup file dari MinIO jika sudah terlanjur diupload
             if (storagePathForCleanup != null) {
-                try {
-                    documentStorage.delete(storagePathForCleanup);
-                    logger.debug("Cleanup file MinIO berhasil: {}", storagePathForCleanup);
-                } catch (Exception cleanupEx) {
-                    logger.warn("Gagal cleanup file MinIO saat rollback: {}", cleanupEx.getMessage());
-                }
+                deleteStoredFiles(storagePathForCleanup, documentForCleanup);
             }
             throw e;
         } catch (Exception e) {
             logger.error("Unexpected error saat bulk upload: {}", e.getMessage(), e);
             if (storagePathForCleanup != null) {
-                try {
-                    documentStorage.delete(storagePathForCleanup);
-                    logger.debug("Cleanup file MinIO berhasil: {}", storagePathForCleanup);
-                } catch (Exception cleanupEx) {
-                    logger.warn("Gagal cleanup file MinIO saat rollback: {}", cleanupEx.getMessage());
-                }
+                deleteStoredFiles(storagePathForCleanup, documentForCleanup);
             }
             throw new BulkUploadException("Terjadi kesalahan tidak terduga saat upload", e);
         }
     }
 
+    /**
+     * Hapus file yang sudah tersimpan saat rollback, termasuk sidecar teks ekstraksi milik dokumen
+     */
+    private void deleteStoredFiles(String storagePath, Document document) {
+        try {
+            documentStorage.delete(storagePath);
+            logger.debug("Cleanup file MinIO berhasil: {}", storagePath);
+        } catch (Exception cleanupEx) {
+            logger.warn("Gagal cleanup file MinIO saat rollback: {}", cleanupEx.getMessage());
+        }
+        if (document != null) {
+            extractedTextStore.delete(document);
+        }
+    }
+
     /**
      * Bulk upload multiple documents dengan atomic operations
      */
@@ -196,25 +231,38 @@ public class BulkUploadService implements BulkUploadUseCase {
             throw new IllegalArgumentException("Upload command tidak boleh null");
         }
 
+        validateUploadMetadata(command.getOriginalFileName(), command.getFileSize(),
+                command.getContentType(), command.getUploader());
+
+        if (command.getFileContent() == null || command.getFileContent().length == 0) {
+            throw new IllegalArgumentException("Konten file tidak boleh kosong");
+        }
+    }
+
+    /**
+     * Validasi metadata upload tanpa membaca konten file.
+     */
+    public void validateUploadMetadata(String originalFileName, long fileSize, String contentType, String uploader) {
         long maxFileSize = parseMaxFileSize(maxFileSizeConfig);
 
-        if (command.getFileSize() > maxFileSize) {
+        if (fileSize > maxFileSize) {
             throw new IllegalArgumentException("Ukuran file melebihi batas maksimum " + maxFileSizeConfig);
         }
 
-        if (!isPdf(command.getContentType(), command.getOriginalFileName())) {
-            throw new IllegalArgumentException("Hanya file PDF yang didukung");
+        if (!DocumentTypeUtil.isSupported(contentType, originalFileName)) {
+            throw new IllegalArgumentException(
+                    "Format file tidak didukung. Format yang didukung: PDF, DOC/DOCX, PPT/PPTX, ODT/ODP, RTF, HTML, TXT");
         }
 
-        if (command.getOriginalFileName() == null || command.getOriginalFileName().trim().isEmpty()) {
+        if (originalFileName == null || originalFileName.trim().isEmpty()) {
             throw new IllegalArgumentException("Nama file tidak boleh kosong");
         }
 
-        if (command.getUploader() == null || command.getUploader().trim().isEmpty()) {
+        if (uploader == null || uploader.trim().isEmpty()) {
             throw new IllegalArgumentException("Informasi uploader diperlukan");
         }
 
-        if (command.getFileContent() == null || command.getFileContent().length == 0) {
+        if (fileSize <= 0) {
             throw new IllegalArgumentException("Konten file tidak boleh kosong");
         }
     }
@@ -243,19 +291,6 @@ public class BulkUploadService implements BulkUploadUseCase {
         }
     }
 
-    private boolean isPdf(String contentType, String fileName) {
-        if (fileName != null && fileName.toLowerCase().endsWith(".pdf")) {
-            return true;
-        }
-        if (contentType == null) {
-            return false;
-        }
-        String ct = contentType.toLowerCase();
-        return ct.startsWith("application/pdf") ||
-               ct.equals("application/x-pdf") ||
-               (ct.equals("application/octet-stream") && fileName != null && fileName.toLowerCase().endsWith(".pdf"));
-    }
-
     // Inner classes untuk command dan result
     public static class BulkUploadCommand {
         private final String originalFileName;
@@ -1,21 +1,24 @@
 package com.example.DocIx.domain.service;
 
 import java.io.InputStream;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import com.example.DocIx.adapter.out.persistence.entity.IndexingLogJpaEntity;
-import com.example.DocIx.adapter.out.persistence.entity.IndexingPageLogJpaEntity;
-import com.example.DocIx.adapter.out.persistence.repository.IndexingPageLogJpaRepository;
 import com.example.DocIx.domain.model.Document;
 import com.example.DocIx.domain.model.DocumentId;
+import com.example.DocIx.domain.model.DocumentStatus;
 import com.example.DocIx.domain.model.IndexingLog;
 import com.example.DocIx.domain.model.IndexingStatus;
 import com.example.DocIx.domain.model.PageStatus;
@@ -23,12 +26,10 @@ import com.example.DocIx.domain.port.in.DocumentIndexingUseCase;
 import com.example.DocIx.domain.port.out.DocumentRepository;
 import com.example.DocIx.domain.port.out.DocumentSearchEngine;
 import com.example.DocIx.domain.port.out.DocumentStorage;
+import com.example.DocIx.domain.port.out.ExtractedTextStore;
 import com.example.DocIx.domain.port.out.IndexingLogRepository;
 import com.example.DocIx.domain.port.out.PageExtractor;
 
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
-
 @Service
 public class DocumentIndexingService implements DocumentIndexingUseCase {
 
@@ -39,147 +40,206 @@ public class DocumentIndexingService implements DocumentIndexingUseCase {
     private final PageExtractor pageExtractor;
     private final DocumentSearchEngine searchEngine;
     private final IndexingLogRepository indexingLogRepository;
-    private final IndexingPageLogJpaRepository pageLogRepository;
-
-    @PersistenceContext
-    private EntityManager entityManager;
+    private final ExtractedTextStore extractedTextStore;
+    private final BoilerplateStripper boilerplateStripper;
+    private final IndexingAdmissionControl admissionControl;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${docix.indexing.max-retry:3}")
     private int maxRetryCount;
 
+    @Value("${docix.indexing.retry.max-extraction-timeouts:3}")
+    private int maxExtractionTimeouts;
+
+    @Value("${docix.indexing.processing-stuck-after-ms:1800000}")
+    private long processingStuckAfterMs;
+
     public DocumentIndexingService(
             DocumentRepository documentRepository,
             IndexingLogRepository indexingLogRepository,
-            IndexingPageLogJpaRepository pageLogRepository,
             DocumentStorage documentStorage,
             PageExtractor pageExtractor,
-            DocumentSearchEngine searchEngine) {
+            DocumentSearchEngine searchEngine,
+            ExtractedTextStore extractedTextStore,
+            BoilerplateStripper boilerplateStripper,
+            IndexingAdmissionControl admissionControl,
+            PlatformTransactionManager transactionManager) {
         this.documentRepository = documentRepository;
         this.indexingLogRepository = indexingLogRepository;
-        this.pageLogRepository = pageLogRepository;
         this.documentStorage = documentStorage;
         this.pageExtractor = pageExtractor;
         this.searchEngine = searchEngine;
+        this.extractedTextStore = extractedTextStore;
+        this.boilerplateStripper = boilerplateStripper;
+        this.admissionControl = admissionControl;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
      * Proses pengindeksan dokumen secara asynchronous
-     * 1. Ambil file PDF dari MinIO
-     * 2. Ekstrak konten per halaman
-     * 3. Indeks setiap halaman ke Elasticsearch
-     * 4. Update status indexing
+     * 1. Ambil teks per halaman dari sidecar, atau ambil file dari MinIO
+     * 2. Ekstrak konten per halaman (PDF) atau halaman virtual (format lain) jika sidecar tidak tersedia
+     * 3. Buang header/footer yang berulang di sampel halaman pertama (teks asli tetap di sidecar)
+     * 4. Indeks halaman yang kontennya berubah sejak indexing terakhir ke Elasticsearch begitu halaman diterima
+     * 5. Update status indexing
+     * <p>
+     * Sebelum ekstraksi, dokumen mengambil budget sebesar ukuran filenya dari {@link IndexingAdmissionControl};
+     * jika budget tidak tersedia tepat waktu, {@link DocumentIndexingUseCase.IndexingCapacityExceededException}
+     * dilempar tanpa mengubah status dokumen agar pemanggil bisa mengantrikannya kembali.
      */
-    @Transactional
     public void processDocumentIndexing(String documentId) {
-        logger.info("Memulai proses indexing untuk document: {}", documentId);
+        processDocumentIndexing(documentId, false);
+    }
 
-        try {
-            // 1. Cari atau buat indexing log
-            IndexingLog indexingLog = getOrCreateIndexingLog(documentId);
+    /**
+     * Sama seperti {@link #processDocumentIndexing(String)}; dengan {@code forceFullReindex}
+     * hash konten diabaikan, pages lama dihapus dan semua halaman ditulis ulang ke Elasticsearch
+     */
+    public void processDocumentIndexing(String documentId, boolean forceFullReindex) {
+        // Menunggu budget dilakukan di luar transaksi agar tidak menahan koneksi database
+        long fileSize = documentRepository.findById(new DocumentId(documentId))
+                .map(Document::getFileSize)
+                .orElse(0L);
+
+        try (IndexingAdmissionControl.Permit permit = admissionControl.acquire(documentId, fileSize)) {
+            // Klaim di-commit dalam transaksi singkat sendiri agar consumer lain langsung melihat PROCESSING;
+            // jika transaksi indexing gagal total, dokumen bisa diklaim ulang setelah batas stuck terlewati
+            Document document = transactionTemplate.execute(status -> claimDocument(documentId));
+            if (document != null) {
+                transactionTemplate.executeWithoutResult(status -> indexDocument(document, forceFullReindex));
+            }
+        }
+    }
 
-            // 2. Ambil document dari database
+    /**
+     * Klaim dokumen dengan UPDATE bersyarat: jika consumer lain sudah mengubah statusnya sejak dibaca, atau
+     * dokumen PROCESSING masih aktif diproses consumer lain, UPDATE tidak berlaku dan pesan ini dilewati
+     *
+     * @return dokumen yang berhasil diklaim, atau null jika dilewati
+     */
+    private Document claimDocument(String documentId) {
+        try {
+            // 1. Ambil document dari database
             Optional<Document> documentOpt = documentRepository.findById(new DocumentId(documentId));
             if (documentOpt.isEmpty()) {
                 logger.error("Document tidak ditemukan: {}", documentId);
+                IndexingLog indexingLog = getOrCreateIndexingLog(documentId);
                 indexingLog.markAsFailed("Document tidak ditemukan di database");
                 indexingLogRepository.save(indexingLog);
-                return;
+                return null;
             }
 
+            // 2. Klaim; dokumen PROCESSING hanya diambil alih jika tidak disentuh selama batas stuck
             Document document = documentOpt.get();
+            DocumentStatus previousStatus = document.getStatus();
             document.markAsProcessing();
-            documentRepository.save(document);
-
-            // 3. Ambil file dari MinIO
-            byte[] fileContent = retrieveFileFromStorage(document);
-            if (fileContent == null) {
-                handleIndexingFailure(indexingLog, document, "Gagal mengambil file dari storage");
-                return;
+            LocalDateTime stuckBefore = document.getLastProcessedAt()
+                    .minus(Duration.ofMillis(processingStuckAfterMs));
+            if (!documentRepository.claimForProcessing(document, previousStatus, stuckBefore)) {
+                logger.warn("Document {} sudah tidak berstatus {} atau masih diproses consumer lain - dilewati",
+                        documentId, previousStatus);
+                return null;
             }
-
-            // 4. Ekstrak konten PDF per halaman (gunakan Tika-based PageExtractor)
-            List<PageExtractor.DocumentPage> pages = extractPagesFromPdf(fileContent, document);
-            if (pages == null || pages.isEmpty()) {
-                handleIndexingFailure(indexingLog, document, "Gagal mengekstrak halaman dari PDF atau file kosong");
-                return;
-            }
-
-            logger.info("Document {} berhasil diekstrak menjadi {} halaman", documentId, pages.size());
-
-            // 5. Simpan IndexingLog dulu untuk mendapatkan ID, kemudian inisialisasi page
-            // logs
-            indexingLog.setTotalPages(pages.size());
-            indexingLog.setIndexingStatus(IndexingStatus.IN_PROGRESS);
-            indexingLog.setUpdatedAt(java.time.LocalDateTime.now());
-
-            // Simpan dulu untuk mendapatkan ID
-            indexingLog = indexingLogRepository.save(indexingLog);
-
-            // Sekarang baru inisialisasi page logs dengan ID yang sudah ada
-            initializePageLogs(indexingLog, pages.size());
-
-            // 6. Indeks setiap halaman
-            indexDocumentPages(pages, indexingLog);
-
-            // 7. Update final status document
-            updateDocumentFinalStatus(document, indexingLog);
-
-            logger.info("Proses indexing selesai untuk document: {} dengan status: {}",
-                    documentId, indexingLog.getIndexingStatus());
-
+            return document;
         } catch (Exception e) {
-            logger.error("Error saat memproses indexing untuk document {}: {}", documentId, e.getMessage(), e);
+            logger.error("Error saat mengklaim document {} untuk indexing: {}", documentId, e.getMessage(), e);
             handleUnexpectedError(documentId, e);
+            return null;
         }
     }
 
-    private void initializePageLogs(IndexingLog indexingLog, int totalPages) {
+    private void indexDocument(Document document, boolean forceFullReindex) {
+        String documentId = document.getId().getValue();
+        logger.info("Memulai proses indexing untuk document: {} (force: {})", documentId, forceFullReindex);
+
         try {
-            // Pastikan parent tersimpan dan memiliki ID
+            // Cari atau buat indexing log; dokumen sudah diklaim sehingga tidak ada penulis lain.
+            // Status halaman lama dipertahankan agar hash konten bisa dibandingkan
+            IndexingLog indexingLog = getOrCreateIndexingLog(documentId);
+            int previousTotalPages = indexingLog.getTotalPages();
+            indexingLog.setIndexingStatus(IndexingStatus.IN_PROGRESS);
+            if (forceFullReindex) {
+                // Semua halaman ditulis ulang; halaman dan passage lama yang tersisa dihapus setelahnya
+                indexingLog.clearPageHashes();
+            }
             indexingLog = indexingLogRepository.save(indexingLog);
-            Long indexingLogId = indexingLog.getId();
-
-            // Strategi yang lebih aman: hapus page logs lama dengan native query
-            logger.debug("Menghapus page logs lama untuk indexing_log_id: {}", indexingLogId);
 
-            // Hapus dari collection dalam memory terlebih dahulu
-            if (indexingLog.getPageLogs() != null) {
-                indexingLog.getPageLogs().clear();
+            // 3. Halaman diindeks begitu diterima; gunakan teks hasil ekstraksi sebelumnya jika versi extractor sama
+            PageIndexer indexer = new PageIndexer(indexingLog);
+            int totalPages;
+            try {
+                totalPages = extractedTextStore.load(document, pageExtractor.getExtractorVersion(), indexer);
+            } catch (ExtractedTextStore.ExtractedTextUnreadableException e) {
+                // Halaman yang sudah terindeks tercatat dengan hash-nya, sehingga ekstraksi ulang melewatinya
+                logger.warn("Sidecar teks document {} rusak, diekstrak ulang: {}", documentId, e.getMessage());
+                extractedTextStore.delete(document);
+                indexer = new PageIndexer(indexingLog);
+                totalPages = 0;
             }
 
-            // Simpan IndexingLog tanpa page logs terlebih dahulu (sudah disimpan di atas)
-
-            // Flush menggunakan EntityManager
-            entityManager.flush();
+            if (totalPages > 0) {
+                logger.info("Document {} dimuat dari sidecar teks ({} halaman), ekstraksi PDF dilewati",
+                        documentId, totalPages);
+            } else {
+                // 3a. Buka file dari MinIO; konten dialirkan ke extractor tanpa dimuat utuh ke heap
+                InputStream fileContent = openFileFromStorage(document);
+                if (fileContent == null) {
+                    handleIndexingFailure(indexingLog, document, "Gagal mengambil file dari storage");
+                    return;
+                }
 
-            // Hapus page logs yang ada di database
-            pageLogRepository.deleteByIndexingLogId(indexingLogId);
+                // 3b. Ekstrak konten per halaman (PDF) atau halaman virtual (format lain); teks asli setiap
+                // halaman ditulis ke sidecar saat diterima dan baru disimpan jika ekstraksi selesai
+                try (fileContent; ExtractedTextStore.PageWriter sidecar =
+                        extractedTextStore.openWriter(document, pageExtractor.getExtractorVersion())) {
+                    indexer.copyTo(sidecar);
+                    totalPages = extractPages(fileContent, document, indexer);
+                    if (totalPages > 0) {
+                        sidecar.commit();
+                    }
+                } catch (PageExtractor.ExtractionBudgetExceededException e) {
+                    if (e.isTimeLimit()) {
+                        // Timeout bisa karena beban sesaat: di-retry sampai maxExtractionTimeouts
+                        indexingLog.markAsExtractionTimedOut(e.getMessage());
+                        handleIndexingFailure(indexingLog, document, indexingLog.getErrorDetails());
+                    } else {
+                        // Dokumen yang melewati budget alokasi/heap akan selalu gagal; tandai agar tidak di-retry
+                        handleIndexingFailure(indexingLog, document,
+                                IndexingLog.EXTRACTION_BUDGET_EXCEEDED + ": " + e.getMessage());
+                    }
+                    return;
+                }
+                if (totalPages <= 0) {
+                    handleIndexingFailure(indexingLog, document, "Gagal mengekstrak halaman dari file atau file kosong");
+                    return;
+                }
 
-            // Flush lagi untuk memastikan delete tereksekusi
-            entityManager.flush();
+                logger.info("Document {} berhasil diekstrak menjadi {} halaman", documentId, totalPages);
+            }
 
-            // Tunggu sebentar untuk memastikan delete commit
-            Thread.sleep(100);
+            // 4. Indeks sisa sampel boilerplate (dokumen yang lebih pendek dari sampel)
+            indexer.finish();
 
-            // Buat page logs baru langsung ke tabel anak untuk menghindari side effect
-            // orphanRemoval
-            logger.debug("Membuat {} page logs baru untuk indexing_log_id: {}", totalPages, indexingLogId);
-            IndexingLogJpaEntity parentRef = entityManager.getReference(IndexingLogJpaEntity.class, indexingLogId);
-            for (int i = 1; i <= totalPages; i++) {
-                IndexingPageLogJpaEntity pageEntity = new IndexingPageLogJpaEntity(parentRef, i);
-                pageLogRepository.save(pageEntity);
+            // 5. Tetapkan jumlah halaman akhir; halaman di luar jumlah baru dibuang dari log dan search engine
+            indexingLog.initializePages(totalPages);
+            if (previousTotalPages > totalPages) {
+                searchEngine.deleteDocumentPagesFrom(document.getId(), totalPages + 1);
+                logger.info("Menghapus {} halaman yang sudah tidak ada untuk document: {}",
+                        previousTotalPages - totalPages, documentId);
             }
 
-            logger.debug("Berhasil inisialisasi {} page logs untuk indexing_log_id: {}", totalPages, indexingLogId);
+            // 6. Hitung status akhir halaman
+            completePageIndexing(indexingLog, indexer, totalPages);
+
+            // 7. Update final status document
+            updateDocumentFinalStatus(document, indexingLog);
+
+            logger.info("Proses indexing selesai untuk document: {} dengan status: {}",
+                    documentId, indexingLog.getIndexingStatus());
 
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            logger.error("Thread interrupted saat inisialisasi page logs: {}", e.getMessage());
-            throw new RuntimeException("Thread interrupted", e);
         } catch (Exception e) {
-            logger.error("Error saat inisialisasi page logs untuk indexing_log_id {}: {}",
-                    indexingLog.getId(), e.getMessage(), e);
-            throw new RuntimeException("Gagal inisialisasi page logs", e);
+            logger.error("Error saat memproses indexing untuk document {}: {}", documentId, e.getMessage(), e);
+            handleUnexpectedError(documentId, e);
         }
     }
 
@@ -191,10 +251,9 @@ public class DocumentIndexingService implements DocumentIndexingUseCase {
                 });
     }
 
-    private byte[] retrieveFileFromStorage(Document document) {
+    private InputStream openFileFromStorage(Document document) {
         try {
-            InputStream inputStream = documentStorage.retrieve(document.getStoragePath());
-            return inputStream.readAllBytes();
+            return documentStorage.retrieve(document.getStoragePath());
         } catch (Exception e) {
             logger.error("Gagal mengambil file dari storage untuk document {}: {}",
                     document.getId().getValue(), e.getMessage());
@@ -202,109 +261,43 @@ public class DocumentIndexingService implements DocumentIndexingUseCase {
         }
     }
 
-    private List<PageExtractor.DocumentPage> extractPagesFromPdf(byte[] fileContent, Document document) {
+    /**
+     * @return jumlah halaman yang diserahkan, atau -1 jika ekstraksi gagal
+     */
+    private int extractPages(InputStream fileContent, Document document, PageIndexer indexer)
+            throws PageExtractor.ExtractionBudgetExceededException {
         try {
             return pageExtractor.extractPages(
-                    new java.io.ByteArrayInputStream(fileContent),
+                    fileContent,
                     document.getOriginalFileName(),
-                    document.getId().getValue());
+                    document.getId().getValue(),
+                    indexer);
+        } catch (PageExtractor.ExtractionBudgetExceededException e) {
+            throw e;
         } catch (Exception e) {
-            logger.error("Gagal mengekstrak halaman dari PDF untuk document {}: {}",
+            logger.error("Gagal mengekstrak halaman untuk document {}: {}",
                     document.getId().getValue(), e.getMessage());
-            return null;
+            return -1;
         }
     }
 
-    private void indexDocumentPages(List<PageExtractor.DocumentPage> pages,
-            IndexingLog indexingLog) {
-        int successCount = 0;
-        int failureCount = 0;
-
-        for (PageExtractor.DocumentPage page : pages) {
-            try {
-                // Index halaman ke Elasticsearch
-                searchEngine.indexDocumentPage(page);
-
-                // Update page log di database
-                updatePageLogStatus(indexingLog.getId(), page.getPageNumber(), PageStatus.INDEXED, null);
-                successCount++;
-
-                logger.debug("Halaman {} berhasil diindeks untuk document: {}",
-                        page.getPageNumber(), page.getDocumentId());
-
-            } catch (Exception e) {
-                // Update page log di database
-                updatePageLogStatus(indexingLog.getId(), page.getPageNumber(), PageStatus.FAILED, e.getMessage());
-                failureCount++;
-
-                logger.error("Gagal mengindeks halaman {} untuk document {}: {}",
-                        page.getPageNumber(), page.getDocumentId(), e.getMessage());
-            }
+    private void completePageIndexing(IndexingLog indexingLog, PageIndexer indexer, int totalPages) {
+        try {
+            searchEngine.removeStalePageDocs(DocumentId.of(indexingLog.getDocumentId()));
+        } catch (Exception e) {
+            // Halaman terbaru sudah tertulis; sisa passage lama tetap ada sampai halamannya ditulis ulang
+            logger.warn("Gagal menghapus sisa passage untuk document {}: {}",
+                    indexingLog.getDocumentId(), e.getMessage());
         }
 
-        // Update IndexingLog dengan count yang akurat
-        indexingLog.setPagesIndexed(successCount);
-        indexingLog.setPagesFailed(failureCount);
-        indexingLog.setUpdatedAt(java.time.LocalDateTime.now());
-
-        // Update status berdasarkan hasil
-        if (successCount + failureCount >= indexingLog.getTotalPages()) {
-            if (failureCount == 0) {
-                indexingLog.setIndexingStatus(IndexingStatus.FULLY_INDEXED);
-            } else if (successCount > 0) {
-                indexingLog.setIndexingStatus(IndexingStatus.PARTIALLY_INDEXED);
-            } else {
-                indexingLog.setIndexingStatus(IndexingStatus.FAILED);
-            }
-        }
+        // Status akhir dihitung dari bitmap halaman
+        indexingLog.completePageIndexing();
 
         // Simpan perubahan indexing log ke database
         indexingLogRepository.save(indexingLog);
 
-        logger.info("Proses indexing halaman selesai - Berhasil: {}, Gagal: {}, Total: {}",
-                successCount, failureCount, pages.size());
-    }
-
-    private void updatePageLogStatus(Long indexingLogId, int pageNumber, PageStatus status, String errorMessage) {
-        try {
-            // Cari page log berdasarkan indexing_log_id dan page_number
-            Optional<IndexingPageLogJpaEntity> pageLogOpt = pageLogRepository
-                    .findByIndexingLog_IdAndPageNumber(indexingLogId, pageNumber);
-
-            if (pageLogOpt.isPresent()) {
-                IndexingPageLogJpaEntity pageLog = pageLogOpt.get();
-
-                // Konversi PageStatus ke PageStatusEnum
-                IndexingPageLogJpaEntity.PageStatusEnum entityStatus;
-                switch (status) {
-                    case INDEXED:
-                        entityStatus = IndexingPageLogJpaEntity.PageStatusEnum.INDEXED;
-                        break;
-                    case FAILED:
-                        entityStatus = IndexingPageLogJpaEntity.PageStatusEnum.FAILED;
-                        break;
-                    default:
-                        entityStatus = IndexingPageLogJpaEntity.PageStatusEnum.PENDING;
-                        break;
-                }
-
-                pageLog.setPageStatus(entityStatus);
-                pageLog.setErrorMessage(errorMessage);
-                if (status == PageStatus.INDEXED) {
-                    pageLog.setIndexedAt(LocalDateTime.now());
-                } else if (status == PageStatus.FAILED) {
-                    pageLog.setRetryCount(pageLog.getRetryCount() + 1);
-                }
-
-                pageLogRepository.save(pageLog);
-                logger.debug("Updated page log untuk halaman {} dengan status {}", pageNumber, status);
-            } else {
-                logger.warn("Page log tidak ditemukan untuk indexing_log_id: {} dan page_number: {}",
-                        indexingLogId, pageNumber);
-            }
-        } catch (Exception e) {
-            logger.error("Gagal update page log status untuk halaman {}: {}", pageNumber, e.getMessage());
-        }
+        logger.info("Proses indexing halaman selesai - Berhasil: {} (tidak berubah: {}), Gagal: {}, Total: {}",
+                indexingLog.getPagesIndexed(), indexer.unchangedCount, indexingLog.getPagesFailed(), totalPages);
     }
 
     private void updateDocumentFinalStatus(Document document, IndexingLog indexingLog) {
@@ -317,7 +310,10 @@ public class DocumentIndexingService implements DocumentIndexingUseCase {
                 logger.warn("Document {} hanya sebagian berhasil diindeks", document.getId().getValue());
             }
 
-            documentRepository.save(document);
+            if (!documentRepository.updateStatusIfCurrent(document, DocumentStatus.PROCESSING)) {
+                logger.warn("Status akhir document {} tidak ditulis: status sudah diubah di luar proses indexing",
+                        document.getId().getValue());
+            }
         } catch (Exception e) {
             logger.error("Gagal update final status untuk document {}: {}",
                     document.getId().getValue(), e.getMessage());
@@ -329,7 +325,7 @@ public class DocumentIndexingService implements DocumentIndexingUseCase {
         indexingLogRepository.save(indexingLog);
 
         document.markAsFailed(errorMessage);
-        documentRepository.save(document);
+        documentRepository.updateStatusIfCurrent(document, DocumentStatus.PROCESSING);
 
         logger.error("Indexing gagal untuk document {}: {}", document.getId().getValue(), errorMessage);
     }
@@ -343,8 +339,9 @@ public class DocumentIndexingService implements DocumentIndexingUseCase {
             // Update document status jika ada
             documentRepository.findById(new DocumentId(documentId))
                     .ifPresent(document -> {
+                        DocumentStatus previousStatus = document.getStatus();
                         document.markAsFailed("Unexpected error during indexing: " + e.getMessage());
-                        documentRepository.save(document);
+                        documentRepository.updateStatusIfCurrent(document, previousStatus);
                     });
         } catch (Exception ex) {
             logger.error("Gagal menangani unexpected error untuk document {}: {}", documentId, ex.getMessage());
@@ -356,18 +353,27 @@ public class DocumentIndexingService implements DocumentIndexingUseCase {
     }
 
     /**
-     * Retry indexing untuk dokumen yang gagal
+     * Retry indexing untuk dokumen yang gagal. Tidak dibungkus transaksi: setiap dokumen memakai transaksinya
+     * sendiri setelah budget didapat, sehingga penantian budget tidak menahan koneksi database.
      */
-    @Transactional
     public void retryFailedIndexing() {
         logger.info("Memulai retry untuk indexing yang gagal");
 
         List<IndexingLog> failedLogs = indexingLogRepository.findFailedIndexingForRetry(maxRetryCount);
 
         for (IndexingLog failedLog : failedLogs) {
+            if (failedLog.getExtractionTimeoutCount() >= maxExtractionTimeouts) {
+                logger.debug("Document {} dilewati: sudah {} kali timeout saat ekstraksi",
+                        failedLog.getDocumentId(), failedLog.getExtractionTimeoutCount());
+                continue;
+            }
             try {
                 logger.info("Mencoba ulang indexing untuk document: {}", failedLog.getDocumentId());
                 processDocumentIndexing(failedLog.getDocumentId());
+            } catch (DocumentIndexingUseCase.IndexingCapacityExceededException e) {
+                // Kapasitas penuh: sisa dokumen dicoba lagi pada putaran retry berikutnya
+                logger.warn("Retry indexing dihentikan, kapasitas indexing penuh: {}", e.getMessage());
+                break;
             } catch (Exception e) {
                 logger.error("Retry indexing gagal untuk document {}: {}",
                         failedLog.getDocumentId(), e.getMessage());
@@ -380,6 +386,7 @@ public class DocumentIndexingService implements DocumentIndexingUseCase {
     /**
      * Mendapatkan status indexing untuk document
      */
+    @Transactional(readOnly = true)
     public DocumentIndexingUseCase.IndexingStatusResponse getIndexingStatus(String documentId) {
         Optional<IndexingLog> logOpt = indexingLogRepository.findByDocumentId(documentId);
 
@@ -397,4 +404,109 @@ public class DocumentIndexingService implements DocumentIndexingUseCase {
                 log.getIndexingProgress());
     }
 
+    /**
+     * Mendapatkan status indexing per halaman dari bitmap; pesan kesalahan hanya ada untuk halaman gagal
+     */
+    @Transactional(readOnly = true)
+    public List<DocumentIndexingUseCase.PageIndexingStatusResponse> getPageIndexingStatus(String documentId,
+            PageStatus statusFilter) {
+        Optional<IndexingLog> logOpt = indexingLogRepository.findByDocumentId(documentId);
+        if (logOpt.isEmpty()) {
+            return List.of();
+        }
+
+        IndexingLog log = logOpt.get();
+        List<DocumentIndexingUseCase.PageIndexingStatusResponse> pages = new ArrayList<>();
+        for (int pageNumber = 1; pageNumber <= log.getTotalPages(); pageNumber++) {
+            PageStatus status = log.getPageStatus(pageNumber);
+            if (statusFilter != null && status != statusFilter) {
+                continue;
+            }
+            IndexingLog.PageError error = status == PageStatus.FAILED ? log.getPageError(pageNumber) : null;
+            pages.add(new DocumentIndexingUseCase.PageIndexingStatusResponse(
+                    pageNumber,
+                    status,
+                    error != null ? error.errorMessage() : null,
+                    error != null ? error.retryCount() : 0,
+                    error != null ? error.failedAt() : null));
+        }
+        return pages;
+    }
+
+    /**
+     * Mengindeks halaman begitu diterima dari sidecar atau extractor. Halaman pertama ditampung sampai
+     * sampel boilerplate penuh; setelah pola ditentukan setiap halaman langsung dibersihkan dan diindeks,
+     * sehingga memori yang dipakai tidak bergantung pada jumlah halaman dokumen.
+     */
+    private final class PageIndexer implements Consumer<PageExtractor.DocumentPage> {
+
+        private final IndexingLog indexingLog;
+        private final List<PageExtractor.DocumentPage> sample = new ArrayList<>();
+        private BoilerplateStripper.Boilerplate boilerplate;
+        private ExtractedTextStore.PageWriter sidecar;
+        private int unchangedCount;
+
+        PageIndexer(IndexingLog indexingLog) {
+            this.indexingLog = indexingLog;
+        }
+
+        void copyTo(ExtractedTextStore.PageWriter sidecar) {
+            this.sidecar = sidecar;
+        }
+
+        @Override
+        public void accept(PageExtractor.DocumentPage page) {
+            if (sidecar != null) {
+                // Sidecar menyimpan teks asli, sebelum boilerplate dibuang
+                sidecar.write(page);
+            }
+            if (boilerplate != null) {
+                index(page);
+                return;
+            }
+            sample.add(page);
+            if (sample.size() >= boilerplateStripper.getSamplePages()) {
+                flushSample();
+            }
+        }
+
+        void finish() {
+            if (boilerplate == null) {
+                flushSample();
+            }
+        }
+
+        private void flushSample() {
+            boilerplate = boilerplateStripper.detect(sample);
+            sample.forEach(this::index);
+            sample.clear();
+        }
+
+        private void index(PageExtractor.DocumentPage extracted) {
+            PageExtractor.DocumentPage page = boilerplateStripper.strip(extracted, boilerplate);
+            indexingLog.expandPages(page.getPageNumber());
+            String contentHash = page.contentHash();
+
+            // Halaman yang sudah terindeks dengan konten yang sama tidak perlu ditulis ulang
+            if (indexingLog.isPageUnchanged(page.getPageNumber(), contentHash)) {
+                unchangedCount++;
+                return;
+            }
+
+            try {
+                // Index halaman ke Elasticsearch
+                searchEngine.indexDocumentPage(page);
+                indexingLog.markPageAsIndexed(page.getPageNumber(), contentHash);
+
+                logger.debug("Halaman {} berhasil diindeks untuk document: {}",
+                        page.getPageNumber(), page.getDocumentId());
+
+            } catch (Exception e) {
+                indexingLog.markPageAsFailed(page.getPageNumber(), e.getMessage());
+
+                logger.error("Gagal mengindeks halaman {} untuk document {}: {}",
+                        page.getPageNumber(), page.getDocumentId(), e.getMessage());
+            }
+        }
+    }
 }
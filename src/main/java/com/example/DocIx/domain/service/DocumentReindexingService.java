@@ -1,15 +1,17 @@
 package com.example.DocIx.domain.service;
 
-import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.example.DocIx.adapter.out.search.ElasticsearchDocumentSearchAdapter;
 import com.example.DocIx.domain.model.Document;
 import com.example.DocIx.domain.model.DocumentId;
+import com.example.DocIx.domain.port.in.DocumentIndexingUseCase;
 import com.example.DocIx.domain.port.out.ContentExtractor;
 import com.example.DocIx.domain.port.out.DocumentRepository;
 import com.example.DocIx.domain.port.out.DocumentStorage;
@@ -25,6 +27,9 @@ public class DocumentReindexingService {
     private final ElasticsearchDocumentSearchAdapter searchAdapter;
     private final DocumentIndexingService documentIndexingService;
 
+    @Value("${docix.indexing.scan.batch-size:500}")
+    private int scanBatchSize;
+
     public DocumentReindexingService(DocumentRepository documentRepository,
             DocumentStorage documentStorage,
             ContentExtractor contentExtractor,
@@ -37,13 +42,23 @@ public class DocumentReindexingService {
     }
 
     /**
-     * Re-index dokumen yang sudah diproses tapi missing dari Elasticsearch
+     * Re-index dokumen secara inkremental: hanya halaman yang kontennya berubah yang ditulis ulang
+     */
+    public ReindexResult reindexDocument(String documentId) {
+        return reindexDocument(documentId, false);
+    }
+
+    /**
+     * Re-index dokumen yang sudah diproses
      * Menggunakan DocumentIndexingService untuk memastikan konsistensi dengan
      * indexing normal
-     * dan populate IndexingPageLog dengan benar
+     * dan status per halaman di IndexingLog terisi dengan benar.
+     * Dengan {@code forceFullReindex} pages lama dihapus dari Elasticsearch dan semua halaman ditulis ulang
+     * (misalnya untuk dokumen yang hilang dari index). Jika kapasitas indexing penuh, hasilnya SKIPPED dan
+     * pages lama tidak disentuh.
      */
-    public ReindexResult reindexDocument(String documentId) {
-        logger.info("Starting re-indexing for document - DocumentId: {}", documentId);
+    public ReindexResult reindexDocument(String documentId, boolean forceFullReindex) {
+        logger.info("Starting re-indexing for document - DocumentId: {}, Force: {}", documentId, forceFullReindex);
 
         try {
             Optional<Document> documentOpt = documentRepository.findById(DocumentId.of(documentId));
@@ -62,22 +77,17 @@ public class DocumentReindexingService {
             String safeFileName = LoggingUtil.safeFileName(document.getOriginalFileName());
             logger.info("Re-indexing document - DocumentId: {}, File: {}", documentId, safeFileName);
 
-            // Hapus pages lama dari Elasticsearch jika ada
-            try {
-                searchAdapter.deleteDocumentPages(document.getId());
-                logger.debug("Deleted existing pages from Elasticsearch for document: {}", documentId);
-            } catch (Exception e) {
-                logger.warn("Failed to delete existing pages from Elasticsearch for document {}: {}",
-                        documentId, e.getMessage());
-            }
-
             // Gunakan DocumentIndexingService untuk memastikan konsistensi
-            // dan populate IndexingPageLog dengan benar
+            // dan status per halaman di IndexingLog terisi dengan benar. Dengan forceFullReindex, pages lama
+            // dihapus di sana setelah budget indexing didapat, bukan sebelumnya
             try {
-                documentIndexingService.processDocumentIndexing(documentId);
+                documentIndexingService.processDocumentIndexing(documentId, forceFullReindex);
                 logger.info("Document re-indexed successfully using DocumentIndexingService - DocumentId: {}",
                         documentId);
                 return ReindexResult.success(documentId, "Successfully re-indexed document with page logs");
+            } catch (DocumentIndexingUseCase.IndexingCapacityExceededException e) {
+                logger.warn("Re-indexing skipped, indexing capacity full - DocumentId: {}", documentId);
+                return ReindexResult.skipped(documentId, "Indexing capacity full, try again later");
             } catch (Exception e) {
                 logger.error("Failed to re-index document using DocumentIndexingService - DocumentId: {}, Error: {}",
                         documentId, e.getMessage(), e);
@@ -99,29 +109,28 @@ public class DocumentReindexingService {
         logger.info("Memulai reindex untuk dokumen yang hilang dari Elasticsearch");
 
         try {
-            List<Document> processedDocuments = documentRepository.findByProcessed(true);
-            int reindexedCount = 0;
+            AtomicInteger reindexedCount = new AtomicInteger();
 
-            for (Document document : processedDocuments) {
+            documentRepository.forEachByProcessed(true, scanBatchSize, document -> {
                 try {
                     // Cek apakah dokumen ada di Elasticsearch
                     boolean existsInElasticsearch = searchAdapter.documentExists(document.getId().getValue());
 
                     if (!existsInElasticsearch) {
                         logger.info("Reindexing missing document: {}", document.getId().getValue());
-                        ReindexResult result = reindexDocument(document.getId().getValue());
+                        ReindexResult result = reindexDocument(document.getId().getValue(), true);
 
                         if (result.isSuccess()) {
-                            reindexedCount++;
+                            reindexedCount.incrementAndGet();
                         }
                     }
                 } catch (Exception e) {
                     logger.error("Error saat reindex document {}: {}", document.getId().getValue(), e.getMessage());
                 }
-            }
+            });
 
-            logger.info("Reindex missing documents selesai. Total reindexed: {}", reindexedCount);
-            return reindexedCount;
+            logger.info("Reindex missing documents selesai. Total reindexed: {}", reindexedCount.get());
+            return reindexedCount.get();
 
         } catch (Exception e) {
             logger.error("Error saat reindex missing documents", e);
@@ -137,18 +146,19 @@ public class DocumentReindexingService {
         logger.info("Memulai reindex untuk semua dokumen");
 
         try {
-            List<Document> allDocuments = documentRepository.findByProcessed(true);
+            AtomicInteger totalDocuments = new AtomicInteger();
 
-            for (Document document : allDocuments) {
+            documentRepository.forEachByProcessed(true, scanBatchSize, document -> {
+                totalDocuments.incrementAndGet();
                 try {
                     logger.info("Reindexing document: {}", document.getId().getValue());
                     reindexDocument(document.getId().getValue());
                 } catch (Exception e) {
                     logger.error("Error saat reindex document {}: {}", document.getId().getValue(), e.getMessage());
                 }
-            }
+            });
 
-            logger.info("Reindex all documents selesai. Total documents: {}", allDocuments.size());
+            logger.info("Reindex all documents selesai. Total documents: {}", totalDocuments.get());
 
         } catch (Exception e) {
             logger.error("Error saat reindex all documents", e);
@@ -1,29 +1,46 @@
 package com.example.DocIx.domain.service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.example.DocIx.domain.model.Document;
 import com.example.DocIx.domain.model.DocumentId;
 import com.example.DocIx.domain.model.DocumentStatus;
+import com.example.DocIx.domain.model.DocumentStatusSummary;
 import com.example.DocIx.domain.port.in.DocumentStatusQueryUseCase;
+import com.example.DocIx.domain.port.in.StagedUploadStatusQuery;
 import com.example.DocIx.domain.port.out.DocumentRepository;
 
 @Service
+@Transactional(readOnly = true)
 public class DocumentStatusQueryService implements DocumentStatusQueryUseCase {
 
+	private static final int MAX_PAGE_SIZE = 1000;
+	// Ukuran batch keyset untuk daftar lengkap dan stream; satu transaksi pendek per batch
+	private static final int SCAN_BATCH_SIZE = 500;
+	private static final String CURSOR_SEPARATOR = "|";
+
 	private final DocumentRepository documentRepository;
+	private final StagedUploadStatusQuery stagedUploadStatusQuery;
 
-	public DocumentStatusQueryService(DocumentRepository documentRepository) {
+	public DocumentStatusQueryService(DocumentRepository documentRepository,
+									  StagedUploadStatusQuery stagedUploadStatusQuery) {
 		this.documentRepository = documentRepository;
+		this.stagedUploadStatusQuery = stagedUploadStatusQuery;
 	}
 
 	@Override
 	public Optional<DocumentStatusResponse> getDocumentStatus(String documentId) {
-		return documentRepository.findById(DocumentId.of(documentId))
+		Optional<DocumentStatusResponse> status = documentRepository.findById(DocumentId.of(documentId))
 				.map(doc -> new DocumentStatusResponse(
 						doc.getId().getValue(),
 						doc.getOriginalFileName(),
@@ -32,22 +49,93 @@ public class DocumentStatusQueryService implements DocumentStatusQueryUseCase {
 						doc.getLastProcessedAt() != null ? doc.getLastProcessedAt().toString() : null,
 						doc.getErrorMessage()
 				));
+		if (status.isPresent()) {
+			return status;
+		}
+
+		// Upload asynchronous yang belum ter-commit belum memiliki baris di database
+		return stagedUploadStatusQuery.getStagedUploadStatus(documentId)
+				.map(staged -> new DocumentStatusResponse(
+						staged.getDocumentId(),
+						staged.getOriginalFileName(),
+						staged.getStatus(),
+						staged.getAcceptedAt(),
+						null,
+						staged.getErrorMessage()));
 	}
 
 	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public List<DocumentStatusResponse> getDocumentsByStatus(String status) {
-		DocumentStatus ds = DocumentStatus.valueOf(status.toUpperCase());
-		List<Document> documents = documentRepository.findByStatus(ds);
-		return documents.stream()
-				.map(doc -> new DocumentStatusResponse(
-						doc.getId().getValue(),
-						doc.getOriginalFileName(),
-						doc.getStatus().name(),
-						doc.getUploadedAt().toString(),
-						doc.getLastProcessedAt() != null ? doc.getLastProcessedAt().toString() : null,
-						doc.getErrorMessage()))
-				.collect(Collectors.toList());
+		List<DocumentStatusResponse> responses = new ArrayList<>();
+		documentRepository.forEachStatusSummary(parseStatus(status), SCAN_BATCH_SIZE,
+				summary -> responses.add(toResponse(summary)));
+		return responses;
 	}
-}
 
+	@Override
+	public DocumentStatusPage getDocumentsByStatus(String status, String cursor, int limit) {
+		DocumentStatus ds = parseStatus(status);
+		int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+		DocumentStatusSummary after = cursor != null && !cursor.isBlank() ? decodeCursor(cursor) : null;
+
+		// Ambil satu baris lebih untuk mengetahui apakah masih ada halaman berikutnya
+		List<DocumentStatusSummary> summaries = documentRepository.findStatusSummaries(ds,
+				after != null ? after.uploadedAt() : null, after != null ? after.id() : null, pageSize + 1);
+		boolean hasMore = summaries.size() > pageSize;
+		List<DocumentStatusSummary> page = hasMore ? summaries.subList(0, pageSize) : summaries;
+
+		String nextCursor = hasMore ? encodeCursor(page.get(page.size() - 1)) : null;
+		return new DocumentStatusPage(page.stream().map(this::toResponse).toList(), nextCursor);
+	}
+
+	/**
+	 * Tanpa transaksi pembungkus: klien yang lambat membaca tidak menahan transaksi dan koneksi database,
+	 * hanya batch yang sedang dibaca
+	 */
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void streamDocumentsByStatus(String status, Consumer<DocumentStatusResponse> action) {
+		documentRepository.forEachStatusSummary(parseStatus(status), SCAN_BATCH_SIZE,
+				summary -> action.accept(toResponse(summary)));
+	}
+
+	private DocumentStatus parseStatus(String status) {
+		return DocumentStatus.valueOf(status.toUpperCase());
+	}
 
+	private DocumentStatusResponse toResponse(DocumentStatusSummary summary) {
+		return new DocumentStatusResponse(
+				summary.id().getValue(),
+				summary.originalFileName(),
+				summary.status().name(),
+				summary.uploadedAt().toString(),
+				summary.lastProcessedAt() != null ? summary.lastProcessedAt().toString() : null,
+				summary.errorMessage());
+	}
+
+	// Cursor opaque bagi klien: posisi keyset (uploadedAt, id) dokumen terakhir di halaman, di-encode base64url
+	private static String encodeCursor(DocumentStatusSummary last) {
+		String position = last.uploadedAt() + CURSOR_SEPARATOR + last.id().getValue();
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @return summary yang hanya berisi posisi keyset
+	 * @throws IllegalArgumentException jika cursor rusak; dipetakan ke 400 oleh controller
+	 */
+	private static DocumentStatusSummary decodeCursor(String cursor) {
+		String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+		int separator = position.indexOf(CURSOR_SEPARATOR);
+		if (separator < 0) {
+			throw new IllegalArgumentException("Invalid cursor");
+		}
+		try {
+			LocalDateTime uploadedAt = LocalDateTime.parse(position.substring(0, separator));
+			DocumentId id = DocumentId.of(position.substring(separator + 1));
+			return new DocumentStatusSummary(id, null, null, uploadedAt, null, null);
+		} catch (DateTimeParseException e) {
+			throw new IllegalArgumentException("Invalid cursor", e);
+		}
+	}
+}
@@ -1,9 +1,15 @@
 package com.example.DocIx.domain.service;
 
 import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.DocIx.domain.model.Document;
 import com.example.DocIx.domain.model.DocumentId;
@@ -16,26 +22,70 @@ public class DownloadDocumentService implements DownloadDocumentUseCase {
 
 	private final DocumentRepository documentRepository;
 	private final DocumentStorage documentStorage;
+	private final Duration presignedUrlValidity;
+	private final Duration presignedUrlReuseWindow;
+	private final int maxCachedUrls;
 
-	public DownloadDocumentService(DocumentRepository documentRepository, DocumentStorage documentStorage) {
+	// URL presigned per dokumen, digunakan ulang selama sebagian besar masa berlakunya
+	private final Map<String, DownloadRedirect> redirectCache = new ConcurrentHashMap<>();
+
+	public DownloadDocumentService(DocumentRepository documentRepository, DocumentStorage documentStorage,
+			@Value("${docix.download.presigned.validity-seconds:900}") long validitySeconds,
+			@Value("${docix.download.presigned.reuse-ratio:0.8}") double reuseRatio,
+			@Value("${docix.download.presigned.cache-max-entries:10000}") int maxCachedUrls) {
 		this.documentRepository = documentRepository;
 		this.documentStorage = documentStorage;
+		this.presignedUrlValidity = Duration.ofSeconds(validitySeconds);
+		this.presignedUrlReuseWindow = Duration.ofMillis((long) (validitySeconds * 1000 * Math.min(Math.max(reuseRatio, 0.0), 1.0)));
+		this.maxCachedUrls = maxCachedUrls;
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public Optional<DownloadResult> downloadByDocumentId(String documentId) {
-		Optional<Document> documentOptional = documentRepository.findById(DocumentId.of(documentId));
+		Optional<Document> documentOptional = findProcessedDocument(documentId);
 		if (documentOptional.isEmpty()) {
 			return Optional.empty();
 		}
 
 		Document document = documentOptional.get();
-		if (!document.isProcessed()) {
+		InputStream inputStream = documentStorage.retrieve(document.getStoragePath());
+		return Optional.of(new DownloadResult(document.getOriginalFileName(), document.getContentType(), inputStream));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<DownloadRedirect> getDownloadRedirect(String documentId) {
+		// Pengecekan database tetap dilakukan di setiap request; hanya URL yang di-cache
+		Optional<Document> documentOptional = findProcessedDocument(documentId);
+		if (documentOptional.isEmpty()) {
+			redirectCache.remove(documentId);
 			return Optional.empty();
 		}
 
-		InputStream inputStream = documentStorage.retrieve(document.getStoragePath());
-		return Optional.of(new DownloadResult(document.getOriginalFileName(), document.getContentType(), inputStream));
+		Instant now = Instant.now();
+		DownloadRedirect cached = redirectCache.get(documentId);
+		if (cached != null && now.isBefore(cached.getReusableUntil())) {
+			return Optional.of(cached);
+		}
+
+		Document document = documentOptional.get();
+		String url = documentStorage.generateDownloadUrl(document.getStoragePath(),
+				document.getOriginalFileName(), document.getContentType(), presignedUrlValidity);
+		DownloadRedirect redirect = new DownloadRedirect(url, now.plus(presignedUrlReuseWindow));
+
+		if (redirectCache.size() >= maxCachedUrls) {
+			redirectCache.values().removeIf(entry -> !now.isBefore(entry.getReusableUntil()));
+		}
+		if (redirectCache.size() < maxCachedUrls) {
+			redirectCache.put(documentId, redirect);
+		}
+		return Optional.of(redirect);
+	}
+
+	private Optional<Document> findProcessedDocument(String documentId) {
+		return documentRepository.findById(DocumentId.of(documentId))
+				.filter(Document::isProcessed);
 	}
 }
 
@@ -0,0 +1,136 @@
+package com.example.DocIx.domain.service;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.DocIx.domain.port.in.DocumentIndexingUseCase;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Semaphore berbobot yang membatasi total ukuran file yang sedang diindeks bersamaan di satu node.
+ * <p>
+ * Jumlah consumer membatasi jumlah dokumen, padahal memori dan CPU ekstraksi sebanding dengan ukuran
+ * dokumen. Setiap dokumen mengambil permit sebesar ukuran filenya (dalam KB); dokumen yang lebih besar
+ * dari seluruh budget dibatasi ke budget penuh sehingga tetap bisa diproses, tetapi sendirian. Semaphore
+ * bersifat fair agar dokumen besar tidak terus disalip dokumen kecil. Jika budget tidak tersedia dalam
+ * {@code max-wait-ms}, dokumen ditolak dan pemanggil mengembalikannya ke antrian.
+ */
+@Component
+public class IndexingAdmissionControl {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexingAdmissionControl.class);
+
+    private static final long BYTES_PER_PERMIT = 1024;
+
+    private final boolean enabled;
+    private final int totalPermits;
+    private final long maxWaitMs;
+    private final Semaphore semaphore;
+    private final Timer admittedWaitTimer;
+    private final Timer rejectedWaitTimer;
+
+    public IndexingAdmissionControl(
+            @Value("${docix.indexing.admission.enabled:true}") boolean enabled,
+            @Value("${docix.indexing.admission.budget-mb:256}") int budgetMb,
+            @Value("${docix.indexing.admission.max-wait-ms:30000}") long maxWaitMs,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.totalPermits = (int) (budgetMb * 1024L * 1024 / BYTES_PER_PERMIT);
+        this.maxWaitMs = maxWaitMs;
+        this.semaphore = new Semaphore(totalPermits, true);
+
+        this.admittedWaitTimer = Timer.builder("indexing_admission_wait_ms")
+                .description("Waktu menunggu budget indexing sebelum ekstraksi dimulai")
+                .tag("outcome", "admitted")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.rejectedWaitTimer = Timer.builder("indexing_admission_wait_ms")
+                .description("Waktu menunggu budget indexing sebelum ekstraksi dimulai")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+
+        Gauge.builder("indexing_admission_budget_bytes", this, c -> (double) c.totalPermits * BYTES_PER_PERMIT)
+                .description("Total budget ukuran file yang boleh diindeks bersamaan")
+                .register(meterRegistry);
+        Gauge.builder("indexing_admission_in_use_bytes", this,
+                        c -> (double) (c.totalPermits - c.semaphore.availablePermits()) * BYTES_PER_PERMIT)
+                .description("Budget yang sedang dipakai dokumen yang diindeks")
+                .register(meterRegistry);
+        Gauge.builder("indexing_admission_waiting", semaphore, Semaphore::getQueueLength)
+                .description("Jumlah dokumen yang menunggu budget")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ambil budget untuk satu dokumen, menunggu paling lama {@code max-wait-ms}.
+     *
+     * @throws DocumentIndexingUseCase.IndexingCapacityExceededException jika budget tidak tersedia tepat waktu
+     */
+    public Permit acquire(String documentId, long fileSizeBytes) {
+        if (!enabled) {
+            return Permit.NONE;
+        }
+
+        int permits = weightOf(fileSizeBytes);
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(permits, maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        long waitedNanos = System.nanoTime() - start;
+
+        if (!acquired) {
+            rejectedWaitTimer.record(waitedNanos, TimeUnit.NANOSECONDS);
+            logger.warn("Budget indexing penuh, document {} ({} bytes) dikembalikan ke antrian setelah menunggu {}ms",
+                    documentId, fileSizeBytes, TimeUnit.NANOSECONDS.toMillis(waitedNanos));
+            throw new DocumentIndexingUseCase.IndexingCapacityExceededException(
+                    "Kapasitas indexing penuh untuk document " + documentId);
+        }
+
+        admittedWaitTimer.record(waitedNanos, TimeUnit.NANOSECONDS);
+        logger.debug("Budget indexing diambil untuk document {}: {} KB (tersisa {} KB)",
+                documentId, permits, semaphore.availablePermits());
+        return new Permit(semaphore, permits);
+    }
+
+    private int weightOf(long fileSizeBytes) {
+        long permits = Math.max(1, (fileSizeBytes + BYTES_PER_PERMIT - 1) / BYTES_PER_PERMIT);
+        return (int) Math.min(permits, totalPermits);
+    }
+
+    /**
+     * Budget yang dipegang satu dokumen; dikembalikan saat {@link #close()}
+     */
+    public static final class Permit implements AutoCloseable {
+
+        static final Permit NONE = new Permit(null, 0);
+
+        private final Semaphore semaphore;
+        private final int permits;
+        private boolean released;
+
+        private Permit(Semaphore semaphore, int permits) {
+            this.semaphore = semaphore;
+            this.permits = permits;
+        }
+
+        @Override
+        public void close() {
+            if (semaphore != null && !released) {
+                released = true;
+                semaphore.release(permits);
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.DocIx.domain.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import com.example.DocIx.domain.model.IndexingStatus;
+
+/**
+ * Jumlah IndexingLog per status yang dijaga di memori, agar ringkasan indexing tidak perlu query database.
+ * <p>
+ * Counter diperbarui setelah transaksi yang mengubah status IndexingLog di-commit, dan diselaraskan
+ * ulang secara berkala dengan hasil query GROUP BY oleh {@link AdminIndexingService}. Drift kecil akibat
+ * transisi yang terjadi bersamaan dengan penyelarasan akan terkoreksi pada penyelarasan berikutnya.
+ */
+@Component
+public class IndexingStatusCounters {
+
+    private final Map<IndexingStatus, AtomicLong> counts = new EnumMap<>(IndexingStatus.class);
+    private volatile boolean initialized;
+
+    public IndexingStatusCounters() {
+        for (IndexingStatus status : IndexingStatus.values()) {
+            counts.put(status, new AtomicLong());
+        }
+    }
+
+    /**
+     * Catat perpindahan status satu IndexingLog
+     *
+     * @param from status sebelumnya, atau null untuk IndexingLog baru
+     * @param to   status baru, atau null jika IndexingLog dihapus
+     */
+    public void recordTransition(IndexingStatus from, IndexingStatus to) {
+        if (from == to) {
+            return;
+        }
+        if (from != null) {
+            counts.get(from).decrementAndGet();
+        }
+        if (to != null) {
+            counts.get(to).incrementAndGet();
+        }
+    }
+
+    /**
+     * Ganti seluruh counter dengan hasil hitungan dari database
+     */
+    public void reset(Map<IndexingStatus, Long> actualCounts) {
+        for (IndexingStatus status : IndexingStatus.values()) {
+            counts.get(status).set(actualCounts.getOrDefault(status, 0L));
+        }
+        initialized = true;
+    }
+
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    public long get(IndexingStatus status) {
+        // Transisi yang tercatat sebelum penyelarasan pertama bisa membuat nilai sementara negatif
+        return Math.max(0, counts.get(status).get());
+    }
+}
@@ -11,6 +11,7 @@ import com.example.DocIx.domain.port.in.UploadDocumentUseCase;
 import com.example.DocIx.domain.port.out.DocumentProcessingPublisher;
 import com.example.DocIx.domain.port.out.DocumentRepository;
 import com.example.DocIx.domain.port.out.DocumentStorage;
+import com.example.DocIx.domain.util.DocumentTypeUtil;
 import com.example.DocIx.domain.util.FileNameEncryptionUtil;
 
 /**
@@ -63,12 +64,16 @@ public class UploadDocumentService implements UploadDocumentUseCase {
                 command.getOriginalFileName(),
                 documentId.getValue());
 
+        // Content type generik dari klien diganti berdasarkan ekstensi agar unduhan memakai tipe yang benar
+        String contentType = DocumentTypeUtil.resolveContentType(command.getContentType(),
+                command.getOriginalFileName());
+
         // Simpan file di object storage menggunakan nama terenkripsi
         String storagePath = documentStorage.store(
                 encryptedFileName,
                 command.getFileContent(),
                 command.getFileSize(),
-                command.getContentType());
+                contentType);
 
         // Buat dan simpan entitas dokumen dengan nama file terenkripsi dan asli
         Document document = new Document(
@@ -76,7 +81,7 @@ public class UploadDocumentService implements UploadDocumentUseCase {
                 encryptedFileName, // Digunakan untuk identifikasi penyimpanan
                 command.getOriginalFileName(), // Digunakan untuk unduhan
                 command.getFileSize(),
-                command.getContentType(),
+                contentType,
                 storagePath,
                 command.getUploader());
 
@@ -99,8 +104,8 @@ public class UploadDocumentService implements UploadDocumentUseCase {
             throw new IllegalArgumentException("File size exceeds maximum limit of 50MB");
         }
 
-        if (!isPdf(command.getContentType(), command.getOriginalFileName())) {
-            throw new IllegalArgumentException("Only PDF files are supported");
+        if (!DocumentTypeUtil.isSupported(command.getContentType(), command.getOriginalFileName())) {
+            throw new IllegalArgumentException("Unsupported file type. Supported formats: PDF, DOC/DOCX, PPT/PPTX, ODT/ODP, RTF, HTML, TXT");
         }
 
         if (command.getOriginalFileName() == null || command.getOriginalFileName().trim().isEmpty()) {
@@ -111,31 +116,4 @@ public class UploadDocumentService implements UploadDocumentUseCase {
             throw new IllegalArgumentException("Uploader information is required");
         }
     }
-
-    /**
-     * Memeriksa apakah file adalah PDF yang valid
-     * 
-     * @param contentType tipe konten MIME
-     * @param fileName    nama file
-     * @return true jika file adalah PDF
-     */
-    private boolean isPdf(String contentType, String fileName) {
-        if (fileName != null && fileName.toLowerCase().endsWith(".pdf")) {
-            return true;
-        }
-        if (contentType == null) {
-            return false;
-        }
-        String ct = contentType.toLowerCase();
-        if (ct.startsWith("application/pdf")) {
-            return true;
-        }
-        if (ct.equals("application/x-pdf")) {
-            return true;
-        }
-        if (ct.equals("application/octet-stream") && fileName != null && fileName.toLowerCase().endsWith(".pdf")) {
-            return true;
-        }
-        return false;
-    }
 }
@@ -0,0 +1,84 @@
+package com.example.DocIx.domain.util;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Kelas utilitas untuk menentukan tipe dokumen yang dapat diindeks
+ * Format selain PDF diekstrak melalui Tika
+ */
+public class DocumentTypeUtil {
+
+    public static final String PDF_MIME_TYPE = "application/pdf";
+
+    // Ekstensi yang didukung -> MIME type kanonik
+    private static final Map<String, String> SUPPORTED_EXTENSIONS = Map.ofEntries(
+            Map.entry("pdf", PDF_MIME_TYPE),
+            Map.entry("doc", "application/msword"),
+            Map.entry("docx", "application/vnd.openxmlformats-officedocument.wordprocessingml.document"),
+            Map.entry("ppt", "application/vnd.ms-powerpoint"),
+            Map.entry("pptx", "application/vnd.openxmlformats-officedocument.presentationml.presentation"),
+            Map.entry("odt", "application/vnd.oasis.opendocument.text"),
+            Map.entry("odp", "application/vnd.oasis.opendocument.presentation"),
+            Map.entry("rtf", "application/rtf"),
+            Map.entry("html", "text/html"),
+            Map.entry("htm", "text/html"),
+            Map.entry("txt", "text/plain"));
+
+    private static final Set<String> GENERIC_CONTENT_TYPES = Set.of(
+            "application/octet-stream", "binary/octet-stream", "application/x-download");
+
+    private DocumentTypeUtil() {
+    }
+
+    /**
+     * Memeriksa apakah file dapat diindeks berdasarkan ekstensi atau content type
+     * @param contentType tipe konten MIME dari klien (boleh null)
+     * @param fileName nama file asli
+     * @return true jika format didukung
+     */
+    public static boolean isSupported(String contentType, String fileName) {
+        if (SUPPORTED_EXTENSIONS.containsKey(extensionOf(fileName))) {
+            return true;
+        }
+        String ct = normalize(contentType);
+        return ct != null && !GENERIC_CONTENT_TYPES.contains(ct)
+                && (SUPPORTED_EXTENSIONS.containsValue(ct) || ct.equals("application/x-pdf"));
+    }
+
+    /**
+     * Menentukan content type untuk penyimpanan; content type generik dari klien diganti
+     * berdasarkan ekstensi file
+     */
+    public static String resolveContentType(String contentType, String fileName) {
+        String ct = normalize(contentType);
+        if (ct != null && !GENERIC_CONTENT_TYPES.contains(ct)) {
+            return contentType;
+        }
+        return SUPPORTED_EXTENSIONS.getOrDefault(extensionOf(fileName), "application/octet-stream");
+    }
+
+    public static boolean isPdf(String contentType, String fileName) {
+        String ct = normalize(contentType);
+        return "pdf".equals(extensionOf(fileName))
+                || (ct != null && (ct.equals(PDF_MIME_TYPE) || ct.equals("application/x-pdf")));
+    }
+
+    private static String extensionOf(String fileName) {
+        if (fileName == null) {
+            return "";
+        }
+        int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? "" : fileName.substring(dot + 1).toLowerCase(Locale.ROOT).trim();
+    }
+
+    private static String normalize(String contentType) {
+        if (contentType == null || contentType.isBlank()) {
+            return null;
+        }
+        int semicolon = contentType.indexOf(';');
+        String base = semicolon < 0 ? contentType : contentType.substring(0, semicolon);
+        return base.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,97 @@
+-- indexing_log dipartisi ulang per bulan berdasarkan updated_at (aktivitas terakhir), bukan created_at.
+-- Satu dokumen memakai satu log selama dokumen ada dan created_at tidak pernah berubah, sehingga partisi
+-- created_at yang kedaluwarsa selalu masih berisi log dokumen aktif. Dengan updated_at, setiap indexing,
+-- reindex, atau retry memindahkan log ke partisi bulan berjalan; partisi lama hanya berisi log yang tidak
+-- tersentuh selama masa retensi dan bisa di-drop utuh tanpa UPDATE massal.
+-- Primary key menjadi (id, updated_at).
+
+-- Partisi V6 yang sudah diarsipkan diberi akhiran agar tidak bentrok dengan nama partisi baru
+DO $$
+DECLARE
+    archived RECORD;
+BEGIN
+    FOR archived IN SELECT tablename FROM pg_tables
+                    WHERE schemaname = 'indexing_archive' AND tablename ~ '^indexing_log_p[0-9]{6}$' LOOP
+        EXECUTE format('ALTER TABLE indexing_archive.%I RENAME TO %I',
+                       archived.tablename, archived.tablename || '_created');
+    END LOOP;
+END $$;
+
+ALTER TABLE indexing_log RENAME TO indexing_log_old;
+ALTER TABLE indexing_log_old RENAME CONSTRAINT pk_indexing_log TO pk_indexing_log_old;
+DROP INDEX idx_indexing_log_document_id;
+DROP INDEX idx_indexing_log_status;
+DROP INDEX idx_indexing_log_created_at;
+
+-- Nama partisi lama (termasuk indexing_log_default) dikosongkan untuk partisi baru
+DO $$
+DECLARE
+    old_partition RECORD;
+BEGIN
+    FOR old_partition IN SELECT c.relname FROM pg_inherits i
+                         JOIN pg_class c ON c.oid = i.inhrelid
+                         JOIN pg_class p ON p.oid = i.inhparent
+                         WHERE p.relname = 'indexing_log_old'
+                           AND p.relnamespace = to_regnamespace(current_schema()) LOOP
+        EXECUTE format('ALTER TABLE %I RENAME TO %I', old_partition.relname, old_partition.relname || '_old');
+    END LOOP;
+END $$;
+
+CREATE TABLE indexing_log (
+    id BIGINT NOT NULL DEFAULT nextval('indexing_log_id_seq'),
+    document_id VARCHAR(255) NOT NULL,
+    total_pages INTEGER NOT NULL DEFAULT 0,
+    pages_indexed INTEGER NOT NULL DEFAULT 0,
+    pages_failed INTEGER NOT NULL DEFAULT 0,
+    indexing_status VARCHAR(50) NOT NULL DEFAULT 'PENDING',
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    error_details TEXT,
+    indexed_pages BYTEA,
+    failed_pages BYTEA,
+    page_hashes BYTEA,
+    version BIGINT NOT NULL DEFAULT 0,
+
+    CONSTRAINT pk_indexing_log PRIMARY KEY (id, updated_at),
+    CONSTRAINT fk_indexing_log_document
+        FOREIGN KEY (document_id) REFERENCES documents(id) ON DELETE CASCADE,
+    CONSTRAINT chk_indexing_status
+        CHECK (indexing_status IN ('PENDING', 'IN_PROGRESS', 'FULLY_INDEXED', 'PARTIALLY_INDEXED', 'FAILED'))
+) PARTITION BY RANGE (updated_at);
+
+ALTER SEQUENCE indexing_log_id_seq OWNED BY indexing_log.id;
+
+-- Partisi bulanan dari aktivitas tertua sampai 3 bulan ke depan; bulan berikutnya dibuat oleh job maintenance
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', COALESCE((SELECT MIN(updated_at) FROM indexing_log_old), now()))::date;
+    last_month DATE := (date_trunc('month', now()) + INTERVAL '3 months')::date;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF indexing_log FOR VALUES FROM (%L) TO (%L)',
+                       'indexing_log_p' || to_char(month_start, 'YYYYMM'),
+                       month_start,
+                       (month_start + INTERVAL '1 month')::date);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+CREATE TABLE indexing_log_default PARTITION OF indexing_log DEFAULT;
+
+INSERT INTO indexing_log (id, document_id, total_pages, pages_indexed, pages_failed, indexing_status,
+                          created_at, updated_at, error_details, indexed_pages, failed_pages, page_hashes, version)
+SELECT id, document_id, total_pages, pages_indexed, pages_failed, indexing_status,
+       created_at, updated_at, error_details, indexed_pages, failed_pages, page_hashes, version
+FROM indexing_log_old;
+
+-- Partisi lama ikut terhapus bersama tabel induknya
+DROP TABLE indexing_log_old;
+
+CREATE INDEX idx_indexing_log_document_id ON indexing_log(document_id);
+CREATE INDEX idx_indexing_log_status ON indexing_log(indexing_status);
+CREATE INDEX idx_indexing_log_updated_at ON indexing_log(updated_at);
+
+-- Page error milik log yang sudah tidak ada (misalnya dari cascade penghapusan dokumen sebelum adapter
+-- menghapusnya sendiri) dibersihkan sekali di sini; selanjutnya oleh IndexingLogPartitionMaintenance
+DELETE FROM indexing_page_error e
+WHERE NOT EXISTS (SELECT 1 FROM indexing_log l WHERE l.id = e.indexing_log_id);
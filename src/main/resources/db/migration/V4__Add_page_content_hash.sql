@@ -0,0 +1,3 @@
+-- Hash konten per halaman untuk reindex inkremental: halaman yang hash-nya tidak berubah
+-- tidak perlu ditulis ulang ke Elasticsearch
+ALTER TABLE indexing_page_log ADD COLUMN content_hash VARCHAR(64);
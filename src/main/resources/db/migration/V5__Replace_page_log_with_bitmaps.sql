@@ -0,0 +1,68 @@
+-- Status per halaman disimpan di indexing_log sebagai bitmap: bit ke-n (urutan get_bit/set_bit PostgreSQL,
+-- bit paling rendah tiap byte lebih dulu) mewakili halaman n+1. Hash konten disimpan 8 byte per halaman
+-- (64 bit pertama SHA-256); nol berarti hash tidak diketahui.
+ALTER TABLE indexing_log ADD COLUMN indexed_pages BYTEA;
+ALTER TABLE indexing_log ADD COLUMN failed_pages BYTEA;
+ALTER TABLE indexing_log ADD COLUMN page_hashes BYTEA;
+
+-- Pesan kesalahan hanya untuk halaman yang gagal
+CREATE TABLE indexing_page_error (
+    id BIGSERIAL PRIMARY KEY,
+    indexing_log_id BIGINT NOT NULL,
+    page_number INTEGER NOT NULL,
+    error_message TEXT,
+    retry_count INTEGER NOT NULL DEFAULT 0,
+    failed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_page_error_indexing_log
+        FOREIGN KEY (indexing_log_id) REFERENCES indexing_log(id) ON DELETE CASCADE,
+    CONSTRAINT uk_indexing_page_error
+        UNIQUE (indexing_log_id, page_number)
+);
+
+-- Pindahkan status halaman dari indexing_page_log
+UPDATE indexing_log l
+SET indexed_pages = b.indexed_pages,
+    failed_pages = b.failed_pages
+FROM (
+    SELECT id,
+           decode(string_agg(lpad(to_hex(indexed_byte), 2, '0'), '' ORDER BY byte_index), 'hex') AS indexed_pages,
+           decode(string_agg(lpad(to_hex(failed_byte), 2, '0'), '' ORDER BY byte_index), 'hex') AS failed_pages
+    FROM (
+        SELECT l2.id,
+               (s.page_number - 1) / 8 AS byte_index,
+               SUM(CASE WHEN p.page_status = 'INDEXED' THEN 1 << ((s.page_number - 1) % 8) ELSE 0 END) AS indexed_byte,
+               SUM(CASE WHEN p.page_status = 'FAILED' THEN 1 << ((s.page_number - 1) % 8) ELSE 0 END) AS failed_byte
+        FROM indexing_log l2
+        CROSS JOIN LATERAL generate_series(1, l2.total_pages) AS s(page_number)
+        LEFT JOIN indexing_page_log p
+               ON p.indexing_log_id = l2.id AND p.page_number = s.page_number
+        GROUP BY l2.id, (s.page_number - 1) / 8
+    ) bytes
+    GROUP BY id
+) b
+WHERE b.id = l.id;
+
+UPDATE indexing_log l
+SET page_hashes = h.page_hashes
+FROM (
+    SELECT l2.id,
+           decode(string_agg(
+               CASE WHEN p.page_status = 'INDEXED' AND p.content_hash IS NOT NULL
+                    THEN substr(p.content_hash, 1, 16)
+                    ELSE repeat('0', 16) END,
+               '' ORDER BY s.page_number), 'hex') AS page_hashes
+    FROM indexing_log l2
+    CROSS JOIN LATERAL generate_series(1, l2.total_pages) AS s(page_number)
+    LEFT JOIN indexing_page_log p
+           ON p.indexing_log_id = l2.id AND p.page_number = s.page_number
+    GROUP BY l2.id
+) h
+WHERE h.id = l.id;
+
+INSERT INTO indexing_page_error (indexing_log_id, page_number, error_message, retry_count, failed_at)
+SELECT indexing_log_id, page_number, error_message, retry_count, created_at
+FROM indexing_page_log
+WHERE page_status = 'FAILED';
+
+DROP TABLE indexing_page_log;
@@ -0,0 +1,71 @@
+-- indexing_log dipartisi per bulan berdasarkan created_at agar partisi lama bisa di-drop atau diarsipkan
+-- utuh (lihat IndexingLogPartitionMaintenance) tanpa DELETE besar; vacuum dan index per partisi tetap kecil.
+-- Primary key partitioned table harus memuat kolom partisi, sehingga menjadi (id, created_at).
+
+-- indexing_page_error tidak bisa memakai FK ke (id) saja; baris yatim dibersihkan oleh job maintenance
+ALTER TABLE indexing_page_error DROP CONSTRAINT fk_page_error_indexing_log;
+
+ALTER TABLE indexing_log RENAME TO indexing_log_old;
+ALTER INDEX indexing_log_pkey RENAME TO indexing_log_old_pkey;
+DROP INDEX idx_indexing_log_document_id;
+DROP INDEX idx_indexing_log_status;
+DROP INDEX idx_indexing_log_created_at;
+
+CREATE TABLE indexing_log (
+    id BIGINT NOT NULL DEFAULT nextval('indexing_log_id_seq'),
+    document_id VARCHAR(255) NOT NULL,
+    total_pages INTEGER NOT NULL DEFAULT 0,
+    pages_indexed INTEGER NOT NULL DEFAULT 0,
+    pages_failed INTEGER NOT NULL DEFAULT 0,
+    indexing_status VARCHAR(50) NOT NULL DEFAULT 'PENDING',
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    error_details TEXT,
+    indexed_pages BYTEA,
+    failed_pages BYTEA,
+    page_hashes BYTEA,
+
+    CONSTRAINT pk_indexing_log PRIMARY KEY (id, created_at),
+    CONSTRAINT fk_indexing_log_document
+        FOREIGN KEY (document_id) REFERENCES documents(id) ON DELETE CASCADE,
+    CONSTRAINT chk_indexing_status
+        CHECK (indexing_status IN ('PENDING', 'IN_PROGRESS', 'FULLY_INDEXED', 'PARTIALLY_INDEXED', 'FAILED'))
+) PARTITION BY RANGE (created_at);
+
+-- Sequence lama dipindahkan ke tabel baru sebelum tabel lama di-drop
+ALTER SEQUENCE indexing_log_id_seq OWNED BY indexing_log.id;
+
+-- Partisi bulanan dari data tertua sampai 3 bulan ke depan; bulan berikutnya dibuat oleh job maintenance
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', COALESCE((SELECT MIN(created_at) FROM indexing_log_old), now()))::date;
+    last_month DATE := (date_trunc('month', now()) + INTERVAL '3 months')::date;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF indexing_log FOR VALUES FROM (%L) TO (%L)',
+                       'indexing_log_p' || to_char(month_start, 'YYYYMM'),
+                       month_start,
+                       (month_start + INTERVAL '1 month')::date);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+-- Penampung jika job maintenance terlambat membuat partisi bulan baru
+CREATE TABLE indexing_log_default PARTITION OF indexing_log DEFAULT;
+
+INSERT INTO indexing_log (id, document_id, total_pages, pages_indexed, pages_failed, indexing_status,
+                          created_at, updated_at, error_details, indexed_pages, failed_pages, page_hashes)
+SELECT id, document_id, total_pages, pages_indexed, pages_failed, indexing_status,
+       created_at, updated_at, error_details, indexed_pages, failed_pages, page_hashes
+FROM indexing_log_old;
+
+DROP TABLE indexing_log_old;
+
+-- Index untuk performa query (dibuat otomatis di setiap partisi)
+CREATE INDEX idx_indexing_log_document_id ON indexing_log(document_id);
+CREATE INDEX idx_indexing_log_status ON indexing_log(indexing_status);
+CREATE INDEX idx_indexing_log_created_at ON indexing_log(created_at);
+
+-- Tujuan partisi yang diarsipkan (docix.indexing.log.retention.archive=true)
+CREATE SCHEMA IF NOT EXISTS indexing_archive;
+CREATE TABLE indexing_archive.indexing_page_error (LIKE indexing_page_error);
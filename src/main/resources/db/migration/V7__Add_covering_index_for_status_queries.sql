@@ -0,0 +1,18 @@
+-- Index covering untuk endpoint daftar status (/api/documents/status/{status}): urutan keyset
+-- (uploaded_at, id) ada di key, kolom yang diproyeksikan di INCLUDE, sehingga Postgres bisa menjawab
+-- dengan index-only scan tanpa membaca heap.
+
+-- Ukuran tuple btree dibatasi (~2.7 KB); pesan error yang tidak dibatasi bisa membuat UPDATE gagal
+-- setelah kolom ini masuk index. Document.markAsFailed memotong pesan ke panjang yang sama.
+ALTER TABLE documents ALTER COLUMN error_message TYPE VARCHAR(500) USING left(error_message, 500);
+
+CREATE INDEX idx_documents_status_uploaded_at
+    ON documents (status, uploaded_at, id)
+    INCLUDE (original_file_name, last_processed_at, error_message);
+
+-- Prefix index baru sudah melayani filter status saja
+DROP INDEX idx_documents_status;
+
+-- Index-only scan hanya melewati heap untuk halaman yang all-visible di visibility map; status dokumen
+-- sering berubah, jadi vacuum dijalankan lebih sering dari default agar visibility map tetap segar
+ALTER TABLE documents SET (autovacuum_vacuum_scale_factor = 0.05, autovacuum_vacuum_insert_scale_factor = 0.05);
@@ -0,0 +1,6 @@
+-- Kolom versi untuk optimistic locking (@Version). Transisi status dokumen memakai UPDATE bersyarat
+-- (status = status yang diharapkan) dan ikut menaikkan versi agar save utuh yang basi ikut terdeteksi.
+ALTER TABLE documents ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- Ditambahkan di tabel induk, otomatis berlaku untuk semua partisi
+ALTER TABLE indexing_log ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,7 @@
+-- Id indexing_log dan indexing_page_error dialokasikan Hibernate dari sequence dengan optimizer pooled-lo:
+-- satu nextval menghasilkan nilai terendah blok 50 id. Dengan IDENTITY setiap insert harus dikirim sendiri
+-- untuk membaca id-nya, sehingga batching JDBC tidak mungkin.
+-- Increment harus sama dengan allocationSize di entity. DEFAULT nextval(...) tetap berlaku untuk insert
+-- manual; nilai itu memakai satu blok sendiri dan tidak bertabrakan dengan blok Hibernate.
+ALTER SEQUENCE indexing_log_id_seq INCREMENT BY 50;
+ALTER SEQUENCE indexing_page_error_id_seq INCREMENT BY 50;
@@ -0,0 +1,84 @@
+package com.example.DocIx.adapter.out.extraction;
+
+import com.example.DocIx.adapter.out.storage.LocalDiskLruCache;
+import com.example.DocIx.domain.port.out.PageExtractor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingPageExtractorTest {
+
+    @TempDir
+    Path cacheDirectory;
+
+    @TempDir
+    Path spoolDirectory;
+
+    private final CountingExtractor delegate = new CountingExtractor();
+
+    @Test
+    void secondExtractionOfSameBytesIsServedFromCache() throws Exception {
+        CachingPageExtractor extractor = extractor(1024 * 1024);
+
+        List<PageExtractor.DocumentPage> first = extract(extractor, "doc-1");
+        List<PageExtractor.DocumentPage> second = extract(extractor, "doc-2");
+
+        assertThat(delegate.runs.get()).isEqualTo(1);
+        assertThat(second).extracting(PageExtractor.DocumentPage::getContent)
+                .containsExactlyElementsOf(first.stream().map(PageExtractor.DocumentPage::getContent).toList());
+        assertThat(second).allSatisfy(page -> assertThat(page.getDocumentId()).isEqualTo("doc-2"));
+    }
+
+    @Test
+    void resultLargerThanCacheIsStillDeliveredAndNotCached() throws Exception {
+        CachingPageExtractor extractor = extractor(64);
+
+        assertThat(extract(extractor, "doc-1")).hasSize(3);
+        assertThat(extract(extractor, "doc-1")).hasSize(3);
+
+        assertThat(delegate.runs.get()).isEqualTo(2);
+    }
+
+    private CachingPageExtractor extractor(long maxBytes) {
+        LocalDiskLruCache cache = new LocalDiskLruCache("test", cacheDirectory, maxBytes, new SimpleMeterRegistry());
+        return new CachingPageExtractor(delegate, cache, spoolDirectory);
+    }
+
+    private static List<PageExtractor.DocumentPage> extract(CachingPageExtractor extractor, String documentId)
+            throws PageExtractor.PageExtractionException {
+        List<PageExtractor.DocumentPage> pages = new ArrayList<>();
+        extractor.extractPages(new ByteArrayInputStream(new byte[]{1, 2, 3}), "a.pdf", documentId, pages::add);
+        return pages;
+    }
+
+    private static class CountingExtractor implements PageExtractor {
+
+        private final AtomicInteger runs = new AtomicInteger();
+
+        @Override
+        public int extractPages(InputStream fileContent, String fileName, String documentId,
+                                Consumer<DocumentPage> pageSink) {
+            runs.incrementAndGet();
+            for (int page = 1; page <= 3; page++) {
+                // Konten acak agar hasil kompresi tidak muat di cache kecil
+                pageSink.accept(new DocumentPage(documentId, page, "halaman " + page + " " + Math.random()));
+            }
+            return 3;
+        }
+
+        @Override
+        public String getExtractorVersion() {
+            return "test";
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.DocIx.adapter.out.extraction;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExtractionBudgetTest {
+
+    @Test
+    void timeBudgetOverrunIsFlaggedAsTimeLimit() {
+        ExtractionBudget budget = new ExtractionBudget(Duration.ZERO, Duration.ofSeconds(1), 1024, 0);
+        ExtractionBudget.Tracker tracker = budget.start();
+
+        assertThatThrownBy(tracker::check)
+                .isInstanceOfSatisfying(ExtractionBudget.BudgetExceededException.class,
+                        e -> assertThat(e.isTimeLimit()).isTrue());
+    }
+
+    @Test
+    void allocationBudgetOverrunIsNotFlaggedAsTimeLimit() {
+        ExtractionBudget budget = new ExtractionBudget(Duration.ofMinutes(1), Duration.ofMinutes(1), 1024, 1);
+        ExtractionBudget.Tracker tracker = budget.start();
+        byte[][] garbage = new byte[64][];
+        for (int i = 0; i < garbage.length; i++) {
+            garbage[i] = new byte[1024];
+        }
+
+        assertThat(garbage.length).isEqualTo(64);
+        assertThatThrownBy(tracker::check)
+                .isInstanceOfSatisfying(ExtractionBudget.BudgetExceededException.class, e -> {
+                    assertThat(e.isTimeLimit()).isFalse();
+                    assertThat(e.getMessage()).contains("allocation budget");
+                });
+    }
+}
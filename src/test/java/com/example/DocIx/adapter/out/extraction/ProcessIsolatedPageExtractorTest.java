@@ -0,0 +1,70 @@
+package com.example.DocIx.adapter.out.extraction;
+
+import com.example.DocIx.domain.port.out.PageExtractor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProcessIsolatedPageExtractorTest {
+
+    private final ProcessIsolatedPageExtractor extractor = new ProcessIsolatedPageExtractor(
+            new ExtractionBudget(Duration.ofMinutes(1), Duration.ofMinutes(1), 16 * 1024 * 1024, 0),
+            "test", 1, 256, 10, 1000);
+
+    @AfterEach
+    void tearDown() {
+        extractor.close();
+    }
+
+    @Test
+    void contentIsStreamedToTheWorkerAndPagesStreamBack() throws Exception {
+        // Lebih besar dari satu chunk dan dari buffer pipe agar kedua arah berjalan bersamaan
+        String text = "Kalimat pengujian untuk ekstraksi terisolasi. ".repeat(20_000);
+        List<PageExtractor.DocumentPage> pages = new ArrayList<>();
+
+        int pageCount = extractor.extractPages(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)),
+                "large.txt", "doc-1", pages::add);
+
+        assertThat(pageCount).isEqualTo(pages.size()).isGreaterThan(100);
+        assertThat(pages.get(0).getPageNumber()).isEqualTo(1);
+        assertThat(pages.get(0).getDocumentId()).isEqualTo("doc-1");
+
+        // Worker yang sama tetap sinkron dengan protokol untuk dokumen berikutnya
+        List<PageExtractor.DocumentPage> second = extractor.extractPages(
+                new ByteArrayInputStream("dokumen kedua".getBytes(StandardCharsets.UTF_8)), "b.txt", "doc-2");
+        assertThat(second).singleElement()
+                .satisfies(page -> assertThat(page.getContent()).contains("dokumen kedua"));
+    }
+
+    @Test
+    void failedSourceReadFailsTheDocumentButNotTheWorker() throws Exception {
+        InputStream broken = new SequenceInputStream(
+                new ByteArrayInputStream("awal dokumen ".repeat(10_000).getBytes(StandardCharsets.UTF_8)),
+                new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        throw new IOException("storage connection reset");
+                    }
+                });
+
+        assertThatThrownBy(() -> extractor.extractPages(broken, "broken.txt", "doc-3", page -> { }))
+                .isInstanceOf(PageExtractor.PageExtractionException.class)
+                .isNotInstanceOf(PageExtractor.ExtractionBudgetExceededException.class);
+
+        List<PageExtractor.DocumentPage> next = extractor.extractPages(
+                new ByteArrayInputStream("setelah gagal".getBytes(StandardCharsets.UTF_8)), "c.txt", "doc-4");
+        assertThat(next).singleElement()
+                .satisfies(page -> assertThat(page.getContent()).contains("setelah gagal"));
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.DocIx.adapter.out.extraction;
+
+import com.example.DocIx.domain.port.out.PageExtractor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SupervisedPageExtractorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private SupervisedPageExtractor extractor;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        release.countDown();
+        if (extractor != null) {
+            extractor.close();
+        }
+    }
+
+    @Test
+    void callerInterruptCountsThreadThatSwallowsInterruptUntilItFinishes() throws Exception {
+        extractor = new SupervisedPageExtractor(new StubbornExtractor(),
+                new ExtractionBudget(Duration.ofMinutes(1), Duration.ofMinutes(1), 1024, 0), meterRegistry);
+        List<PageExtractor.DocumentPage> delivered = new ArrayList<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread caller = new Thread(() -> {
+            try {
+                extractor.extractPages(new ByteArrayInputStream(new byte[0]), "a.pdf", "doc-1", delivered::add);
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        caller.start();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        caller.interrupt();
+        caller.join(5000);
+
+        assertThat(failure.get()).isInstanceOf(PageExtractor.PageExtractionException.class);
+        assertThat(abandonedThreads()).isEqualTo(1);
+
+        release.countDown();
+        awaitAbandonedThreads(0);
+        assertThat(delivered).isEmpty();
+    }
+
+    @Test
+    void extractionFinishingNormallyLeavesGaugeAtZero() throws Exception {
+        release.countDown();
+        extractor = new SupervisedPageExtractor(new StubbornExtractor(),
+                new ExtractionBudget(Duration.ofMinutes(1), Duration.ofMinutes(1), 1024, 0), meterRegistry);
+        List<PageExtractor.DocumentPage> delivered = new ArrayList<>();
+
+        int pages = extractor.extractPages(new ByteArrayInputStream(new byte[0]), "a.pdf", "doc-1", delivered::add);
+
+        assertThat(pages).isEqualTo(1);
+        assertThat(delivered).hasSize(1);
+        assertThat(abandonedThreads()).isZero();
+    }
+
+    private double abandonedThreads() {
+        return meterRegistry.get("extraction_abandoned_threads").gauge().value();
+    }
+
+    private void awaitAbandonedThreads(double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (abandonedThreads() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(abandonedThreads()).isEqualTo(expected);
+    }
+
+    /**
+     * Extractor yang menelan interrupt, seperti parser yang tidak memeriksa status interrupt
+     */
+    private class StubbornExtractor implements PageExtractor {
+
+        @Override
+        public int extractPages(InputStream fileContent, String fileName, String documentId,
+                                Consumer<DocumentPage> pageSink) {
+            started.countDown();
+            while (true) {
+                try {
+                    if (release.await(10, TimeUnit.SECONDS)) {
+                        break;
+                    }
+                } catch (InterruptedException ignored) {
+                    // sengaja ditelan
+                }
+            }
+            pageSink.accept(new DocumentPage(documentId, 1, "isi"));
+            return 1;
+        }
+
+        @Override
+        public String getExtractorVersion() {
+            return "test";
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.DocIx.adapter.out.extraction;
+
+import com.example.DocIx.domain.port.out.PageExtractor;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TikaStreamingPageExtractorTest {
+
+    private static final int PAGE_CHARS = 1000;
+
+    @Test
+    void pagesAreEmittedWhileTheInputIsStillBeingRead() throws Exception {
+        byte[] content = "Lorem ipsum dolor sit amet, consectetur adipiscing elit. ".repeat(5_000)
+                .getBytes(StandardCharsets.UTF_8);
+        CountingInputStream input = new CountingInputStream(new ByteArrayInputStream(content));
+        TikaStreamingPageExtractor extractor = new TikaStreamingPageExtractor(
+                new ExtractionBudget(Duration.ofMinutes(1), Duration.ofMinutes(1), 1024 * 1024, 0), PAGE_CHARS);
+
+        List<Integer> pageNumbers = new ArrayList<>();
+        long[] bytesReadAtFirstPage = {-1};
+        int pageCount = extractor.extractPages(input, "notes.txt", "doc-1", page -> {
+            if (pageNumbers.isEmpty()) {
+                bytesReadAtFirstPage[0] = input.bytesRead;
+            }
+            pageNumbers.add(page.getPageNumber());
+        });
+
+        assertThat(pageCount).isEqualTo(pageNumbers.size()).isGreaterThan(100);
+        assertThat(pageNumbers).startsWith(1, 2, 3).endsWith(pageCount);
+        assertThat(bytesReadAtFirstPage[0]).isBetween(0L, (long) content.length / 2);
+    }
+
+    @Test
+    void listVariantCollectsTheSamePages() throws Exception {
+        TikaStreamingPageExtractor extractor = new TikaStreamingPageExtractor(
+                new ExtractionBudget(Duration.ofMinutes(1), Duration.ofMinutes(1), 1024 * 1024, 0), PAGE_CHARS);
+
+        List<PageExtractor.DocumentPage> pages = extractor.extractPages(
+                new ByteArrayInputStream("halo dunia".getBytes(StandardCharsets.UTF_8)), "a.txt", "doc-2");
+
+        assertThat(pages).singleElement().satisfies(page -> {
+            assertThat(page.getPageNumber()).isEqualTo(1);
+            assertThat(page.getContent()).contains("halo dunia");
+        });
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private volatile long bytesRead;
+
+        private CountingInputStream(ByteArrayInputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                bytesRead++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                bytesRead += read;
+            }
+            return read;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.DocIx.adapter.out.persistence;
+
+import com.example.DocIx.domain.model.IndexingLog;
+import com.example.DocIx.domain.model.IndexingStatus;
+import com.example.DocIx.domain.model.PageStatus;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Migrasi V5 memindahkan indexing_page_log ke bitmap; hasilnya harus terbaca sama oleh IndexingLog
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class BitmapBackfillMigrationTest {
+
+    private static final String HASH_PAGE_1 = "0123456789abcdef" + "0".repeat(48);
+    private static final String HASH_PAGE_10 = "fedcba9876543210" + "0".repeat(48);
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Test
+    void pageLogRowsBecomeBitmapsHashesAndPageErrors() throws SQLException {
+        migrateTo("4");
+
+        long logId;
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO documents (id, file_name, original_file_name, file_size, content_type, " +
+                    "storage_path, uploader, uploaded_at) VALUES ('doc-1', 'a.pdf', 'a.pdf', 1, 'application/pdf', " +
+                    "'documents/a.pdf', 'tester', now())");
+            try (ResultSet rs = statement.executeQuery("INSERT INTO indexing_log (document_id, total_pages, " +
+                    "pages_indexed, pages_failed, indexing_status) VALUES ('doc-1', 10, 2, 1, 'PARTIALLY_INDEXED') " +
+                    "RETURNING id")) {
+                rs.next();
+                logId = rs.getLong(1);
+            }
+            insertPage(connection, logId, 1, "INDEXED", HASH_PAGE_1, null, 0);
+            insertPage(connection, logId, 3, "FAILED", null, "timeout", 2);
+            insertPage(connection, logId, 10, "INDEXED", HASH_PAGE_10, null, 0);
+            insertPage(connection, logId, 5, "PENDING", null, null, 0);
+        }
+
+        migrateTo("5");
+
+        IndexingLog log = new IndexingLog(logId, "doc-1", 10, 2, 1, IndexingStatus.PARTIALLY_INDEXED,
+                LocalDateTime.now(), LocalDateTime.now(), null);
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            List<IndexingLog.PageError> errors = new ArrayList<>();
+            try (ResultSet rs = statement.executeQuery("SELECT page_number, error_message, retry_count, failed_at " +
+                    "FROM indexing_page_error WHERE indexing_log_id = " + logId)) {
+                while (rs.next()) {
+                    errors.add(new IndexingLog.PageError(rs.getInt(1), rs.getString(2), rs.getInt(3),
+                            rs.getTimestamp(4).toLocalDateTime()));
+                }
+            }
+            try (ResultSet rs = statement.executeQuery("SELECT indexed_pages, failed_pages, page_hashes " +
+                    "FROM indexing_log WHERE id = " + logId)) {
+                rs.next();
+                assertThat(rs.getBytes(3)).hasSize(10 * Long.BYTES);
+                log.restorePageState(rs.getBytes(1), rs.getBytes(2), rs.getBytes(3), errors);
+            }
+        }
+
+        assertThat(log.getPageStatus(1)).isEqualTo(PageStatus.INDEXED);
+        assertThat(log.getPageStatus(10)).isEqualTo(PageStatus.INDEXED);
+        assertThat(log.getPageStatus(3)).isEqualTo(PageStatus.FAILED);
+        assertThat(log.getPageStatus(5)).isEqualTo(PageStatus.PENDING);
+        assertThat(log.getPageStatus(2)).isEqualTo(PageStatus.PENDING);
+        assertThat(log.isPageUnchanged(1, HASH_PAGE_1)).isTrue();
+        assertThat(log.isPageUnchanged(10, HASH_PAGE_10)).isTrue();
+        assertThat(log.isPageUnchanged(10, HASH_PAGE_1)).isFalse();
+        assertThat(log.getPageError(3).errorMessage()).isEqualTo("timeout");
+        assertThat(log.getPageError(3).retryCount()).isEqualTo(2);
+    }
+
+    private static void insertPage(Connection connection, long logId, int page, String status, String hash,
+                                   String error, int retryCount) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO indexing_page_log " +
+                "(indexing_log_id, page_number, page_status, content_hash, error_message, retry_count) " +
+                "VALUES (?, ?, ?, ?, ?, ?)")) {
+            insert.setLong(1, logId);
+            insert.setInt(2, page);
+            insert.setString(3, status);
+            insert.setString(4, hash);
+            insert.setString(5, error);
+            insert.setInt(6, retryCount);
+            insert.executeUpdate();
+        }
+    }
+
+    private static void migrateTo(String version) {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .locations("classpath:db/migration")
+                .target(version)
+                .load()
+                .migrate();
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    }
+}
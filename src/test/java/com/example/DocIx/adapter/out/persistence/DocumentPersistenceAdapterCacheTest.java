@@ -0,0 +1,71 @@
+package com.example.DocIx.adapter.out.persistence;
+
+import com.example.DocIx.adapter.out.messaging.RabbitMQDocumentCacheInvalidationPublisher;
+import com.example.DocIx.adapter.out.persistence.entity.DocumentJpaEntity;
+import com.example.DocIx.adapter.out.persistence.mapper.DocumentMapperImpl;
+import com.example.DocIx.adapter.out.persistence.repository.DocumentJpaRepository;
+import com.example.DocIx.domain.model.DocumentId;
+import com.example.DocIx.domain.model.DocumentStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DocumentPersistenceAdapterCacheTest {
+
+    private final DocumentJpaRepository jpaRepository = mock(DocumentJpaRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @Test
+    void withReplicasCacheMissIsLoadedInReadWriteTransaction() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(jpaRepository.findById("doc-1")).thenReturn(Optional.of(row()));
+        DocumentPersistenceAdapter adapter = adapter(true);
+
+        assertThat(adapter.findById(DocumentId.of("doc-1"))).isPresent();
+        assertThat(adapter.findById(DocumentId.of("doc-1"))).isPresent();
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertThat(definition.getValue().isReadOnly()).isFalse();
+        assertThat(definition.getValue().getPropagationBehavior())
+                .isEqualTo(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        verify(jpaRepository, times(1)).findById("doc-1");
+    }
+
+    @Test
+    void withoutReplicasCacheMissUsesCallerTransaction() {
+        when(jpaRepository.findById("doc-1")).thenReturn(Optional.of(row()));
+        DocumentPersistenceAdapter adapter = adapter(false);
+
+        assertThat(adapter.findById(DocumentId.of("doc-1"))).isPresent();
+        assertThat(adapter.findById(DocumentId.of("doc-1"))).isPresent();
+
+        verify(transactionManager, never()).getTransaction(any());
+        verify(jpaRepository, times(1)).findById("doc-1");
+    }
+
+    private DocumentPersistenceAdapter adapter(boolean replicaReads) {
+        DocumentCache cache = new DocumentCache(true, 100, 300, replicaReads,
+                mock(RabbitMQDocumentCacheInvalidationPublisher.class), new SimpleMeterRegistry());
+        return new DocumentPersistenceAdapter(jpaRepository, new DocumentMapperImpl(), cache, transactionManager);
+    }
+
+    private static DocumentJpaEntity row() {
+        return new DocumentJpaEntity("doc-1", "a.pdf", "a.pdf", 1L, "application/pdf", "documents/a.pdf",
+                "tester", LocalDateTime.now(), null, DocumentStatus.PROCESSED, null, null);
+    }
+}
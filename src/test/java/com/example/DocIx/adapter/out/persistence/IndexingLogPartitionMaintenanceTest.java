@@ -0,0 +1,150 @@
+package com.example.DocIx.adapter.out.persistence;
+
+import com.example.DocIx.domain.port.out.IndexingLogRepository;
+import com.example.DocIx.domain.service.IndexingStatusCounters;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@Testcontainers(disabledWithoutDocker = true)
+class IndexingLogPartitionMaintenanceTest {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private JdbcTemplate jdbcTemplate;
+    private IndexingLogPartitionMaintenance maintenance;
+
+    @BeforeEach
+    void setUp() {
+        Flyway flyway = Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .locations("classpath:db/migration")
+                // Schema arsip dibuat migrasi V6, ikut dibersihkan agar setiap test mulai dari awal
+                .schemas("public", "indexing_archive")
+                .cleanDisabled(false)
+                .load();
+        flyway.clean();
+        flyway.migrate();
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        maintenance = new IndexingLogPartitionMaintenance(jdbcTemplate, new DataSourceTransactionManager(dataSource),
+                mock(IndexingLogRepository.class), new IndexingStatusCounters(), 12, false, 3);
+    }
+
+    @Test
+    void expiredPartitionIsDroppedWithLogsAndPageErrorsWithoutRecentActivity() {
+        YearMonth expired = YearMonth.now().minusMonths(14);
+        String partition = createPartition(expired);
+        insertDocument("doc-idle");
+        insertDocument("doc-active");
+        long idleLogId = insertLog("doc-idle", "FAILED", expired.atDay(10).atStartOfDay());
+        long activeLogId = insertLog("doc-active", "FULLY_INDEXED", LocalDateTime.now());
+        insertPageError(idleLogId);
+        insertPageError(activeLogId);
+
+        maintenance.maintainPartitions();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NULL", Boolean.class, partition)).isTrue();
+        assertThat(countLogs(idleLogId)).isZero();
+        assertThat(countPageErrors(idleLogId)).isZero();
+        assertThat(countLogs(activeLogId)).isEqualTo(1);
+        assertThat(countPageErrors(activeLogId)).isEqualTo(1);
+    }
+
+    @Test
+    void updatedLogMovesOutOfExpiringPartitionAndIsKept() {
+        YearMonth expired = YearMonth.now().minusMonths(14);
+        String partition = createPartition(expired);
+        insertDocument("doc-1");
+        long logId = insertLog("doc-1", "FAILED", expired.atDay(10).atStartOfDay());
+
+        // Seperti retry: UPDATE biasa memindahkan baris ke partisi bulan berjalan
+        jdbcTemplate.update("UPDATE indexing_log SET indexing_status = 'FULLY_INDEXED', updated_at = now() " +
+                "WHERE id = ?", logId);
+        maintenance.maintainPartitions();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NULL", Boolean.class, partition)).isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT indexing_status FROM indexing_log WHERE id = ?",
+                String.class, logId)).isEqualTo("FULLY_INDEXED");
+    }
+
+    @Test
+    void orphanPageErrorsArePurged() {
+        insertDocument("doc-1");
+        long logId = insertLog("doc-1", "FAILED", LocalDateTime.now());
+        insertPageError(logId);
+        // Hapus langsung di database: log ikut terhapus lewat cascade, page error tertinggal
+        jdbcTemplate.update("DELETE FROM documents WHERE id = 'doc-1'");
+        assertThat(countPageErrors(logId)).isEqualTo(1);
+
+        maintenance.maintainPartitions();
+
+        assertThat(countPageErrors(logId)).isZero();
+    }
+
+    @Test
+    void latePartitionTakesOverRowsFromDefaultPartition() {
+        YearMonth month = YearMonth.now().plusMonths(2);
+        String partition = "indexing_log_p" + month.format(SUFFIX);
+        jdbcTemplate.execute("DROP TABLE " + partition);
+        insertDocument("doc-1");
+        long logId = insertLog("doc-1", "FULLY_INDEXED", month.atDay(5).atStartOfDay());
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM indexing_log_default", Integer.class)).isEqualTo(1);
+
+        maintenance.maintainPartitions();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM indexing_log_default", Integer.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM " + partition + " WHERE id = ?",
+                Integer.class, logId)).isEqualTo(1);
+    }
+
+    private String createPartition(YearMonth month) {
+        String partition = "indexing_log_p" + month.format(SUFFIX);
+        jdbcTemplate.execute(String.format("CREATE TABLE %s PARTITION OF indexing_log FOR VALUES FROM ('%s') TO ('%s')",
+                partition, month.atDay(1), month.plusMonths(1).atDay(1)));
+        return partition;
+    }
+
+    private void insertDocument(String id) {
+        jdbcTemplate.update("INSERT INTO documents (id, file_name, original_file_name, file_size, content_type, " +
+                "storage_path, uploader, uploaded_at) VALUES (?, 'a.pdf', 'a.pdf', 1, 'application/pdf', " +
+                "'documents/a.pdf', 'tester', now())", id);
+    }
+
+    private long insertLog(String documentId, String status, LocalDateTime updatedAt) {
+        return jdbcTemplate.queryForObject("INSERT INTO indexing_log (document_id, indexing_status, created_at, " +
+                "updated_at) VALUES (?, ?, ?, ?) RETURNING id", Long.class, documentId, status, updatedAt, updatedAt);
+    }
+
+    private void insertPageError(long logId) {
+        jdbcTemplate.update("INSERT INTO indexing_page_error (indexing_log_id, page_number, error_message, " +
+                "retry_count) VALUES (?, 3, 'timeout', 1)", logId);
+    }
+
+    private int countLogs(long logId) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM indexing_log WHERE id = ?", Integer.class, logId);
+    }
+
+    private int countPageErrors(long logId) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM indexing_page_error WHERE indexing_log_id = ?",
+                Integer.class, logId);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.DocIx.adapter.out.persistence;
+
+import com.example.DocIx.adapter.out.persistence.entity.IndexingLogJpaEntity;
+import com.example.DocIx.adapter.out.persistence.mapper.IndexingLogMapperImpl;
+import com.example.DocIx.adapter.out.persistence.repository.IndexingLogJpaRepository;
+import com.example.DocIx.domain.model.IndexingLog;
+import com.example.DocIx.domain.service.IndexingStatusCounters;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IndexingLogPersistenceAdapterTest {
+
+    private static final String HASH_1 = "0123456789abcdef0123456789abcdef";
+    private static final String HASH_2 = "fedcba9876543210fedcba9876543210";
+
+    private final IndexingLogJpaRepository jpaRepository = mock(IndexingLogJpaRepository.class);
+    private final IndexingLogMapperImpl mapper = new IndexingLogMapperImpl();
+    private final IndexingLogPersistenceAdapter adapter =
+            new IndexingLogPersistenceAdapter(jpaRepository, mapper, new IndexingStatusCounters());
+
+    @Test
+    void savesWhenVersionMatchesCurrentRow() {
+        IndexingLogJpaEntity row = storedRow(3L);
+        when(jpaRepository.findById(1L)).thenReturn(Optional.of(row));
+        when(jpaRepository.saveAndFlush(row)).thenAnswer(invocation -> {
+            row.setVersion(row.getVersion() + 1);
+            return row;
+        });
+
+        IndexingLog log = mapper.toDomainEntity(storedRow(3L));
+        log.initializePages(2);
+        log.markPageAsIndexed(1, HASH_1);
+
+        IndexingLog saved = adapter.save(log);
+
+        assertThat(saved.getVersion()).isEqualTo(4L);
+        assertThat(log.getVersion()).isEqualTo(4L);
+        assertThat(row.getIndexedPages()).isEqualTo(log.getIndexedPagesBitmap());
+    }
+
+    @Test
+    void rejectsLogReadBeforeAnotherTransactionSaved() {
+        when(jpaRepository.findById(1L)).thenReturn(Optional.of(storedRow(4L)));
+
+        IndexingLog stale = mapper.toDomainEntity(storedRow(3L));
+        stale.initializePages(2);
+        stale.markPageAsIndexed(1, HASH_1);
+
+        assertThatThrownBy(() -> adapter.save(stale))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        verify(jpaRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void repeatedSavesInOneTransactionCarryTheNewVersion() {
+        IndexingLogJpaEntity row = storedRow(0L);
+        when(jpaRepository.findById(1L)).thenReturn(Optional.of(row));
+        when(jpaRepository.saveAndFlush(row)).thenAnswer(invocation -> {
+            row.setVersion(row.getVersion() + 1);
+            return row;
+        });
+
+        IndexingLog log = mapper.toDomainEntity(storedRow(0L));
+        log.initializePages(2);
+        adapter.save(log);
+        log.markPageAsIndexed(2, HASH_2);
+        adapter.save(log);
+
+        assertThat(row.getVersion()).isEqualTo(2L);
+        assertThat(log.getVersion()).isEqualTo(2L);
+    }
+
+    private static IndexingLogJpaEntity storedRow(long version) {
+        IndexingLogJpaEntity entity = new IndexingLogJpaEntity("doc-1");
+        entity.setId(1L);
+        entity.setVersion(version);
+        return entity;
+    }
+}
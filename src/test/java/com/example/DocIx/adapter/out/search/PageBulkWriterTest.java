@@ -0,0 +1,103 @@
+package com.example.DocIx.adapter.out.search;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.util.EntityUtils;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.RestClient;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PageBulkWriterTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final RestClient restClient = mock(RestClient.class);
+    private final PageBulkWriter writer = new PageBulkWriter(restClient, "pages");
+
+    @Test
+    void bodyIsNdjsonWithActionAndSourcePerDoc() throws Exception {
+        respondWith("{\"errors\":false}");
+
+        writer.write(List.of(
+                new PageBulkWriter.PageDoc("d1_page_1", "d1", 1, "d1_page_1", null, "Isi \"kutipan\"\nbaris"),
+                new PageBulkWriter.PageDoc("d1_page_2_1", "d1", 2, "d1_page_2", 1, null)));
+
+        ArgumentCaptor<Request> request = ArgumentCaptor.forClass(Request.class);
+        verify(restClient).performRequest(request.capture());
+        assertThat(request.getValue().getEndpoint()).isEqualTo("/_bulk");
+        assertThat(request.getValue().getParameters()).containsKey("filter_path");
+
+        String body = EntityUtils.toString(request.getValue().getEntity());
+        assertThat(body).endsWith("\n");
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(4);
+
+        JsonNode firstAction = MAPPER.readTree(lines[0]).get("index");
+        assertThat(firstAction.get("_index").asText()).isEqualTo("pages");
+        assertThat(firstAction.get("_id").asText()).isEqualTo("d1_page_1");
+
+        JsonNode firstSource = MAPPER.readTree(lines[1]);
+        assertThat(firstSource.get("content").asText()).isEqualTo("Isi \"kutipan\"\nbaris");
+        assertThat(firstSource.get("pageNumber").asInt()).isEqualTo(1);
+        assertThat(firstSource.has("passageNumber")).isFalse();
+
+        JsonNode secondSource = MAPPER.readTree(lines[3]);
+        assertThat(secondSource.get("content").asText()).isEmpty();
+        assertThat(secondSource.get("passageNumber").asInt()).isEqualTo(1);
+    }
+
+    @Test
+    void successfulResponseDoesNotThrow() throws Exception {
+        respondWith("{\"errors\":false,\"items\":[]}");
+
+        assertThatCode(() -> writer.write(List.of(doc()))).doesNotThrowAnyException();
+    }
+
+    @Test
+    void firstItemReasonIsReportedWhenBulkHasErrors() throws Exception {
+        respondWith("{\"errors\":true,\"items\":["
+                + "{\"index\":{}},"
+                + "{\"index\":{\"error\":{\"reason\":\"mapper_parsing_exception\"}}},"
+                + "{\"index\":{\"error\":{\"reason\":\"second\"}}}]}");
+
+        assertThatThrownBy(() -> writer.write(List.of(doc())))
+                .isInstanceOf(SearchEngineException.class)
+                .hasMessageContaining("mapper_parsing_exception")
+                .hasMessageNotContaining("second")
+                .extracting(e -> ((SearchEngineException) e).getErrorCode())
+                .isEqualTo(SearchEngineException.ErrorCode.INDEX_ERROR);
+    }
+
+    @Test
+    void errorsWithoutReasonAreStillReported() throws Exception {
+        respondWith("{\"errors\":true}");
+
+        assertThatThrownBy(() -> writer.write(List.of(doc())))
+                .isInstanceOf(SearchEngineException.class)
+                .hasMessageContaining("unknown");
+    }
+
+    private void respondWith(String json) throws Exception {
+        Response response = mock(Response.class);
+        when(response.getEntity()).thenReturn(new StringEntity(json, ContentType.APPLICATION_JSON));
+        when(restClient.performRequest(any(Request.class))).thenReturn(response);
+    }
+
+    private static PageBulkWriter.PageDoc doc() {
+        return new PageBulkWriter.PageDoc("d1_page_1", "d1", 1, "d1_page_1", null, "isi");
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.DocIx.adapter.out.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PassageSplitterTest {
+
+    private final PassageSplitter splitter = new PassageSplitter(100, 20);
+
+    @Test
+    void shortTextStaysOnePassage() {
+        assertThat(splitter.split("halaman pendek")).containsExactly("halaman pendek");
+        assertThat(splitter.split(null)).containsExactly("");
+        assertThat(splitter.split("x".repeat(100))).hasSize(1);
+    }
+
+    @Test
+    void longTextIsSplitAtWhitespaceWithinTheSizeLimit() {
+        String text = words(200);
+
+        List<String> passages = splitter.split(text);
+
+        assertThat(passages).hasSizeGreaterThan(1);
+        assertThat(passages).allSatisfy(passage -> {
+            assertThat(passage.length()).isLessThanOrEqualTo(100);
+            assertThat(passage).matches("(w\\d+ )*w\\d+");
+        });
+    }
+
+    @Test
+    void passagesOverlapAndCoverEveryWord() {
+        String text = words(200);
+
+        List<String> passages = splitter.split(text);
+
+        for (int i = 1; i < passages.size(); i++) {
+            String previousLastWord = lastWord(passages.get(i - 1));
+            assertThat(passages.get(i)).as("passage %d overlaps the previous one", i + 1)
+                    .contains(previousLastWord);
+        }
+        assertThat(passages.stream().flatMap(p -> Arrays.stream(p.split(" "))).collect(Collectors.toSet()))
+                .containsAll(Arrays.asList(text.split(" ")));
+    }
+
+    @Test
+    void textWithoutWhitespaceIsCutAtTheLimit() {
+        List<String> passages = splitter.split("x".repeat(250));
+
+        assertThat(passages).allSatisfy(passage -> assertThat(passage.length()).isLessThanOrEqualTo(100));
+        assertThat(passages.get(0)).hasSize(100);
+        assertThat(passages.get(passages.size() - 1)).isNotEmpty();
+    }
+
+    @Test
+    void rejectsInvalidSizes() {
+        assertThatThrownBy(() -> new PassageSplitter(0, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PassageSplitter(100, 50)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PassageSplitter(100, -1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String words(int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 1; i <= count; i++) {
+            text.append(i > 1 ? " " : "").append("w").append(i);
+        }
+        return text.toString();
+    }
+
+    private static String lastWord(String passage) {
+        return passage.substring(passage.lastIndexOf(' ') + 1);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.DocIx.adapter.out.search;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StalePageDocsQueryTest {
+
+    @Test
+    void groupsPagesByDocCountIntoOneQueryPerDocument() {
+        Map<String, Integer> docCounts = new LinkedHashMap<>();
+        docCounts.put("d1_page_1", 1);
+        docCounts.put("d1_page_2", 3);
+        docCounts.put("d1_page_3", 1);
+        docCounts.put("d1_page_4", 3);
+
+        Query query = ElasticsearchDocumentSearchAdapter.stalePageDocsQuery("d1", docCounts);
+
+        assertThat(query.bool().filter()).singleElement()
+                .satisfies(filter -> assertThat(filter.term().value().stringValue()).isEqualTo("d1"));
+        assertThat(query.bool().minimumShouldMatch()).isEqualTo("1");
+        // Satu klausa untuk halaman utuh, dua untuk halaman tiga passage
+        assertThat(query.bool().should()).hasSize(3);
+
+        Query singleDocPages = query.bool().should().get(0);
+        assertThat(singleDocPages.bool().filter().get(0).terms().terms().value())
+                .extracting(value -> value.stringValue())
+                .containsExactly("d1_page_1", "d1_page_3");
+        assertThat(singleDocPages.bool().filter().get(1).exists().field()).isEqualTo("passageNumber");
+
+        assertThat(query.bool().should().get(1).ids().values()).containsExactly("d1_page_2", "d1_page_4");
+        Query extraPassages = query.bool().should().get(2);
+        assertThat(extraPassages.bool().filter().get(1).range().gt().to(Integer.class)).isEqualTo(3);
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.DocIx.adapter.out.storage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalDiskLruCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readingAnEntryProtectsItFromEviction() throws IOException {
+        LocalDiskLruCache cache = new LocalDiskLruCache("test", directory, 300, new SimpleMeterRegistry());
+        cache.put("a", out -> out.write(new byte[100]));
+        cache.put("b", out -> out.write(new byte[100]));
+        cache.put("c", out -> out.write(new byte[100]));
+
+        // "a" adalah entri tertua; membacanya harus menjadikannya yang paling baru dipakai
+        try (FileChannel ignored = cache.open("a").orElseThrow()) {
+            // hanya akses
+        }
+        cache.put("d", out -> out.write(new byte[100]));
+
+        assertThat(cache.contains("a")).isTrue();
+        assertThat(cache.contains("b")).isFalse();
+        assertThat(cache.contains("c")).isTrue();
+        assertThat(cache.contains("d")).isTrue();
+    }
+
+    @Test
+    void openOrLoadHitAlsoRefreshesRecency() throws IOException {
+        LocalDiskLruCache cache = new LocalDiskLruCache("test", directory, 200, new SimpleMeterRegistry());
+        cache.put("a", out -> out.write(new byte[100]));
+        cache.put("b", out -> out.write(new byte[100]));
+
+        try (FileChannel ignored = cache.openOrLoad("a", out -> {
+            throw new AssertionError("entri yang ada tidak boleh dimuat ulang");
+        })) {
+            // hit
+        }
+        cache.put("c", out -> out.write(new byte[100]));
+
+        assertThat(cache.contains("a")).isTrue();
+        assertThat(cache.contains("b")).isFalse();
+        Optional<FileChannel> evicted = cache.open("b");
+        assertThat(evicted).isEmpty();
+    }
+
+    @Test
+    void writingStopsAsSoonAsEntryExceedsCapacity() {
+        LocalDiskLruCache cache = new LocalDiskLruCache("test", directory, 300, new SimpleMeterRegistry());
+        AtomicInteger chunks = new AtomicInteger();
+
+        assertThatThrownBy(() -> cache.put("big", out -> {
+            for (int i = 0; i < 1000; i++) {
+                out.write(new byte[100]);
+                chunks.incrementAndGet();
+            }
+        })).isInstanceOf(LocalDiskLruCache.EntryTooLargeException.class);
+
+        assertThat(chunks.get()).isEqualTo(3);
+        assertThat(cache.contains("big")).isFalse();
+    }
+
+    @Test
+    void missIsStreamedFromOriginOnceAndCachedAtEndOfStream() throws IOException {
+        LocalDiskLruCache cache = new LocalDiskLruCache("test", directory, 300, new SimpleMeterRegistry());
+        byte[] content = bytes(200);
+        AtomicInteger opens = new AtomicInteger();
+
+        try (InputStream in = cache.openOrTee("a", () -> origin(content, opens))) {
+            assertThat(in.readAllBytes()).isEqualTo(content);
+        }
+        try (InputStream in = cache.openOrTee("a", () -> origin(content, opens))) {
+            assertThat(in.readAllBytes()).isEqualTo(content);
+        }
+
+        assertThat(opens.get()).isEqualTo(1);
+        assertThat(cache.contains("a")).isTrue();
+        assertThat(cache.currentBytes()).isEqualTo(200);
+    }
+
+    @Test
+    void entryLargerThanCapacityIsStillServedWithoutSecondDownload() throws IOException {
+        LocalDiskLruCache cache = new LocalDiskLruCache("test", directory, 100, new SimpleMeterRegistry());
+        byte[] content = bytes(250);
+        AtomicInteger opens = new AtomicInteger();
+
+        try (InputStream in = cache.openOrTee("big", () -> origin(content, opens))) {
+            assertThat(in.readAllBytes()).isEqualTo(content);
+        }
+
+        assertThat(opens.get()).isEqualTo(1);
+        assertThat(cache.contains("big")).isFalse();
+        assertThat(tempFiles()).isZero();
+    }
+
+    @Test
+    void streamClosedBeforeEndIsNotCached() throws IOException {
+        LocalDiskLruCache cache = new LocalDiskLruCache("test", directory, 300, new SimpleMeterRegistry());
+        byte[] content = bytes(200);
+        AtomicInteger opens = new AtomicInteger();
+
+        try (InputStream in = cache.openOrTee("a", () -> origin(content, opens))) {
+            assertThat(in.readNBytes(50)).hasSize(50);
+        }
+
+        assertThat(cache.contains("a")).isFalse();
+        assertThat(tempFiles()).isZero();
+    }
+
+    private long tempFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".tmp")).count();
+        }
+    }
+
+    private static InputStream origin(byte[] content, AtomicInteger opens) {
+        opens.incrementAndGet();
+        return new ByteArrayInputStream(content);
+    }
+
+    private static byte[] bytes(int size) {
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) i;
+        }
+        return content;
+    }
+}
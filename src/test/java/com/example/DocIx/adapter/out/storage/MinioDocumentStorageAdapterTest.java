@@ -0,0 +1,35 @@
+package com.example.DocIx.adapter.out.storage;
+
+import io.minio.MinioClient;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MinioDocumentStorageAdapterTest {
+
+    @Test
+    void presignedUrlsUseThePublicEndpoint() {
+        MinioClient internal = MinioClient.builder()
+                .endpoint("http://docix-minio:9000")
+                .region("us-east-1")
+                .credentials("access", "secret")
+                .build();
+        MinioClient presign = MinioClient.builder()
+                .endpoint("https://files.example.com")
+                .region("us-east-1")
+                .credentials("access", "secret")
+                .build();
+        MinioDocumentStorageAdapter adapter = new MinioDocumentStorageAdapter(internal, presign, "docix-documents");
+
+        URI url = URI.create(adapter.generateDownloadUrl("documents/a.pdf", "a.pdf", "application/pdf",
+                Duration.ofMinutes(5)));
+
+        assertThat(url.getScheme()).isEqualTo("https");
+        assertThat(url.getHost()).isEqualTo("files.example.com");
+        assertThat(url.getPath()).isEqualTo("/docix-documents/documents/a.pdf");
+        assertThat(url.getQuery()).contains("X-Amz-Signature=");
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.DocIx.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final DataSource primary = mock(DataSource.class);
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+    }
+
+    @Test
+    void readsAlternateBetweenHealthyReplicas() throws SQLException {
+        Connection first = mock(Connection.class);
+        Connection second = mock(Connection.class);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary,
+                List.of(dataSource(first), dataSource(second)), 5000);
+
+        assertThat(List.of(routing.getConnection(), routing.getConnection(), routing.getConnection()))
+                .containsExactly(first, second, first);
+    }
+
+    @Test
+    void withoutReplicasReadsGoToPrimary() throws SQLException {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(), 5000);
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        assertThat(routing.healthyReplicaCount()).isZero();
+    }
+
+    @Test
+    void replicaFailingToConnectIsSkippedUntilProbeSucceeds() throws SQLException {
+        DataSource broken = mock(DataSource.class);
+        when(broken.getConnection()).thenThrow(new SQLException("connection refused"));
+        Connection healthy = lagConnection(0);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary,
+                List.of(broken, dataSource(healthy)), 5000);
+
+        assertThat(routing.getConnection()).isSameAs(healthy);
+        assertThat(routing.healthyReplicaCount()).isEqualTo(1);
+        assertThat(routing.getConnection()).isSameAs(healthy);
+
+        Connection recovered = lagConnection(0);
+        doReturn(recovered).when(broken).getConnection();
+        routing.probeReplicas();
+
+        assertThat(routing.healthyReplicaCount()).isEqualTo(2);
+    }
+
+    @Test
+    void lastReplicaFailingFallsBackToPrimary() throws SQLException {
+        DataSource broken = mock(DataSource.class);
+        when(broken.getConnection()).thenThrow(new SQLException("connection refused"));
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(broken), 5000);
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void replicaLaggingBeyondMaxLagIsSkipped() throws SQLException {
+        DataSource lagging = mock(DataSource.class);
+        Connection laggingConnection = lagConnection(8000);
+        when(lagging.getConnection()).thenReturn(laggingConnection);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(lagging), 5000);
+
+        routing.probeReplicas();
+
+        assertThat(routing.healthyReplicaCount()).isZero();
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+
+        Connection caughtUp = lagConnection(100);
+        when(lagging.getConnection()).thenReturn(caughtUp);
+        routing.probeReplicas();
+
+        assertThat(routing.healthyReplicaCount()).isEqualTo(1);
+        assertThat(routing.getConnection()).isSameAs(caughtUp);
+    }
+
+    @Test
+    void failedProbeMarksReplicaUnhealthy() throws SQLException {
+        DataSource replica = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(replica.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenThrow(new SQLException("terminating connection"));
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica), 5000);
+
+        routing.probeReplicas();
+
+        assertThat(routing.healthyReplicaCount()).isZero();
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void lagIsIgnoredWhenMaxLagIsDisabled() throws SQLException {
+        DataSource lagging = mock(DataSource.class);
+        Connection laggingConnection = lagConnection(60_000);
+        when(lagging.getConnection()).thenReturn(laggingConnection);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(lagging), 0);
+
+        routing.probeReplicas();
+
+        assertThat(routing.healthyReplicaCount()).isEqualTo(1);
+    }
+
+    private static DataSource dataSource(Connection connection) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+
+    private static Connection lagConnection(long lagMs) throws SQLException {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(lagMs);
+        return connection;
+    }
+}
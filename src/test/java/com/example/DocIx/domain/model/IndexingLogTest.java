@@ -0,0 +1,147 @@
+package com.example.DocIx.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndexingLogTest {
+
+    private static final String HASH_A = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+    private static final String HASH_B = "fedcba9876543210fedcba9876543210fedcba9876543210fedcba9876543210";
+
+    @Test
+    void bitmapsUsePostgresBitOrder() {
+        IndexingLog log = new IndexingLog("doc-1");
+        log.initializePages(10);
+        log.markPageAsIndexed(1, HASH_A);
+        log.markPageAsIndexed(10, HASH_A);
+        log.markPageAsFailed(3, "timeout");
+
+        // get_bit(bytea, n) membaca bit (n % 8) dari byte n / 8, bit paling rendah lebih dulu
+        assertThat(log.getIndexedPagesBitmap()).containsExactly(0b0000_0001, 0b0000_0010);
+        assertThat(log.getFailedPagesBitmap()).containsExactly(0b0000_0100);
+        assertThat(log.getPagesIndexed()).isEqualTo(2);
+        assertThat(log.getPagesFailed()).isEqualTo(1);
+    }
+
+    @Test
+    void pageIsUnchangedOnlyWhenIndexedWithTheSameHash() {
+        IndexingLog log = new IndexingLog("doc-1");
+        log.initializePages(2);
+        log.markPageAsIndexed(1, HASH_A);
+
+        assertThat(log.isPageUnchanged(1, HASH_A)).isTrue();
+        assertThat(log.isPageUnchanged(1, HASH_B)).isFalse();
+        assertThat(log.isPageUnchanged(2, HASH_A)).isFalse();
+
+        log.markPageAsFailed(1, "timeout");
+        assertThat(log.isPageUnchanged(1, HASH_A)).isFalse();
+
+        log.markPageAsIndexed(1, HASH_A);
+        log.clearPageHashes();
+        assertThat(log.isPageUnchanged(1, HASH_A)).isFalse();
+    }
+
+    @Test
+    void failedPageKeepsRetryCountUntilIndexed() {
+        IndexingLog log = new IndexingLog("doc-1");
+        log.initializePages(1);
+        log.markPageAsFailed(1, "timeout");
+        log.markPageAsFailed(1, "timeout lagi");
+
+        assertThat(log.getPageError(1).retryCount()).isEqualTo(2);
+        assertThat(log.getPageError(1).errorMessage()).isEqualTo("timeout lagi");
+
+        log.markPageAsIndexed(1, HASH_A);
+        assertThat(log.getPageError(1)).isNull();
+        assertThat(log.getPageStatus(1)).isEqualTo(PageStatus.INDEXED);
+    }
+
+    @Test
+    void shrinkingDropsStateOfRemovedPages() {
+        IndexingLog log = new IndexingLog("doc-1");
+        log.initializePages(12);
+        log.markPageAsIndexed(2, HASH_A);
+        log.markPageAsIndexed(11, HASH_A);
+        log.markPageAsFailed(12, "timeout");
+
+        log.initializePages(4);
+
+        assertThat(log.getPagesIndexed()).isEqualTo(1);
+        assertThat(log.getPagesFailed()).isZero();
+        assertThat(log.getPageErrors()).isEmpty();
+        assertThat(log.getPageHashes()).hasSize(4 * Long.BYTES);
+        assertThat(log.isPageUnchanged(2, HASH_A)).isTrue();
+    }
+
+    @Test
+    void pageStateSurvivesRestore() {
+        IndexingLog log = new IndexingLog("doc-1");
+        log.initializePages(9);
+        log.markPageAsIndexed(9, HASH_A);
+        log.markPageAsFailed(4, "timeout");
+
+        IndexingLog restored = new IndexingLog(1L, "doc-1", 9, 1, 1, IndexingStatus.IN_PROGRESS,
+                log.getCreatedAt(), log.getUpdatedAt(), null);
+        restored.restorePageState(log.getIndexedPagesBitmap(), log.getFailedPagesBitmap(),
+                log.getPageHashes(), log.getPageErrors());
+
+        assertThat(restored.isPageUnchanged(9, HASH_A)).isTrue();
+        assertThat(restored.getPageStatus(4)).isEqualTo(PageStatus.FAILED);
+        assertThat(restored.getPageStatus(5)).isEqualTo(PageStatus.PENDING);
+        assertThat(restored.getPageError(4).retryCount()).isEqualTo(1);
+    }
+
+    @Test
+    void completingWithUnprocessedPagesDoesNotStayInProgress() {
+        IndexingLog log = new IndexingLog("doc-1");
+        log.initializePages(3);
+        log.markPageAsIndexed(1, HASH_A);
+        log.markPageAsIndexed(2, HASH_A);
+
+        log.completePageIndexing();
+
+        assertThat(log.getIndexingStatus()).isEqualTo(IndexingStatus.PARTIALLY_INDEXED);
+        assertThat(log.getPageStatus(3)).isEqualTo(PageStatus.FAILED);
+        assertThat(log.getPageError(3)).isNotNull();
+    }
+
+    @Test
+    void completingWithoutIndexedPagesFails() {
+        IndexingLog log = new IndexingLog("doc-1");
+        log.initializePages(2);
+
+        log.completePageIndexing();
+
+        assertThat(log.getIndexingStatus()).isEqualTo(IndexingStatus.FAILED);
+        assertThat(log.getPagesFailed()).isEqualTo(2);
+    }
+
+    @Test
+    void completingWithAllPagesIndexedIsFullyIndexed() {
+        IndexingLog log = new IndexingLog("doc-1");
+        log.initializePages(2);
+        log.markPageAsIndexed(1, HASH_A);
+        log.markPageAsIndexed(2, HASH_B);
+
+        log.completePageIndexing();
+
+        assertThat(log.isFullyIndexed()).isTrue();
+    }
+
+    @Test
+    void extractionTimeoutsAreCountedUntilAnotherFailure() {
+        IndexingLog log = new IndexingLog("doc-1");
+        assertThat(log.getExtractionTimeoutCount()).isZero();
+
+        log.markAsExtractionTimedOut("Extraction exceeded document time budget of 120s");
+        log.markAsExtractionTimedOut("Extraction exceeded document time budget of 120s");
+
+        assertThat(log.getIndexingStatus()).isEqualTo(IndexingStatus.FAILED);
+        assertThat(log.getErrorDetails()).startsWith(IndexingLog.EXTRACTION_TIMEOUT + "#2: ");
+        assertThat(log.getExtractionTimeoutCount()).isEqualTo(2);
+
+        log.markAsFailed("Gagal mengambil file dari storage");
+        assertThat(log.getExtractionTimeoutCount()).isZero();
+    }
+}
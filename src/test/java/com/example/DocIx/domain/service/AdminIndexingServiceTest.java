@@ -0,0 +1,84 @@
+package com.example.DocIx.domain.service;
+
+import com.example.DocIx.domain.model.Document;
+import com.example.DocIx.domain.model.DocumentId;
+import com.example.DocIx.domain.port.in.AdminIndexingUseCase;
+import com.example.DocIx.domain.port.in.DocumentIndexingUseCase;
+import com.example.DocIx.domain.port.out.DocumentProcessingPublisher;
+import com.example.DocIx.domain.port.out.DocumentRepository;
+import com.example.DocIx.domain.port.out.DocumentSearchEngine;
+import com.example.DocIx.domain.port.out.IndexingLogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AdminIndexingServiceTest {
+
+    private final DocumentIndexingService documentIndexingService = mock(DocumentIndexingService.class);
+    private final DocumentRepository documentRepository = mock(DocumentRepository.class);
+    private final DocumentSearchEngine searchEngine = mock(DocumentSearchEngine.class);
+    private final DocumentProcessingPublisher publisher = mock(DocumentProcessingPublisher.class);
+    private AdminIndexingService service;
+
+    private final Document first = document("doc-1");
+    private final Document busy = document("doc-2");
+    private final Document last = document("doc-3");
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        service = new AdminIndexingService(documentIndexingService, mock(IndexingLogRepository.class),
+                documentRepository, searchEngine, new IndexingStatusCounters(), publisher);
+        doAnswer(invocation -> {
+            Consumer<Document> consumer = invocation.getArgument(2);
+            List.of(first, busy, last).forEach(consumer);
+            return null;
+        }).when(documentRepository).forEachByProcessed(eq(true), anyInt(), any(Consumer.class));
+    }
+
+    @Test
+    void reindexAllRequeuesDocumentsRejectedForCapacityAndKeepsWalking() {
+        doThrow(new DocumentIndexingUseCase.IndexingCapacityExceededException("penuh"))
+                .when(documentIndexingService).processDocumentIndexing("doc-2");
+
+        AdminIndexingUseCase.ReindexSummary summary = service.reindexAllDocuments();
+
+        assertThat(summary.getReindexed()).isEqualTo(2);
+        assertThat(summary.getRequeued()).isEqualTo(1);
+        assertThat(summary.getSkipped()).isZero();
+        verify(publisher).publishDocumentForProcessing(busy.getId());
+        verify(documentIndexingService).processDocumentIndexing("doc-3");
+    }
+
+    @Test
+    void reindexMissingSkipsDocumentsRejectedForCapacityAndKeepsWalking() {
+        when(searchEngine.search(any(), anyInt(), anyInt())).thenReturn(List.of());
+        doThrow(new DocumentIndexingUseCase.IndexingCapacityExceededException("penuh"))
+                .when(documentIndexingService).processDocumentIndexing("doc-2", true);
+
+        AdminIndexingUseCase.ReindexSummary summary = service.reindexMissingDocuments();
+
+        assertThat(summary.getReindexed()).isEqualTo(2);
+        assertThat(summary.getSkipped()).isEqualTo(1);
+        verify(documentIndexingService).processDocumentIndexing("doc-3", true);
+        verify(publisher, never()).publishDocumentForProcessing(any());
+    }
+
+    private static Document document(String id) {
+        return new Document(DocumentId.of(id), id + ".enc", id + ".pdf", 1024L, "application/pdf",
+                "documents/" + id, "tester");
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.DocIx.domain.service;
+
+import com.example.DocIx.domain.port.in.AsyncUploadUseCase;
+import com.example.DocIx.domain.port.out.DocumentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AsyncUploadServiceTest {
+
+    @TempDir
+    Path stagingDirectory;
+
+    private BulkUploadService bulkUploadService;
+    private DocumentRepository documentRepository;
+
+    @BeforeEach
+    void setUp() {
+        bulkUploadService = mock(BulkUploadService.class);
+        documentRepository = mock(DocumentRepository.class);
+    }
+
+    @Test
+    void failedCommitKeepsStagedCopyAndPersistsStatus() throws IOException {
+        when(bulkUploadService.commitStagedUpload(any(), anyString(), any(), anyLong(), anyString(), anyString()))
+                .thenThrow(new BulkUploadService.BulkUploadException("storage down", null));
+        AsyncUploadService service = newService(60_000);
+
+        String documentId = service.acceptUpload(command()).getDocumentId();
+
+        assertThat(service.getStagedUploadStatus(documentId))
+                .hasValueSatisfying(status -> assertThat(status.getStatus())
+                        .isEqualTo(AsyncUploadService.STATUS_UPLOAD_FAILED));
+        assertThat(stagedFiles()).hasSize(2);
+
+        // Status gagal tetap terbaca setelah restart
+        AsyncUploadService restarted = newService(60_000);
+        restarted.recoverStagedUploads();
+        assertThat(restarted.getStagedUploadStatus(documentId))
+                .hasValueSatisfying(status -> {
+                    assertThat(status.getStatus()).isEqualTo(AsyncUploadService.STATUS_UPLOAD_FAILED);
+                    assertThat(status.getErrorMessage()).isEqualTo("storage down");
+                });
+    }
+
+    @Test
+    void manualRetryCommitsFromStagedCopyAndRemovesIt() throws IOException {
+        when(bulkUploadService.commitStagedUpload(any(), anyString(), any(), anyLong(), anyString(), anyString()))
+                .thenReturn(BulkUploadService.BulkUploadResult.failure("db down"))
+                .thenReturn(BulkUploadService.BulkUploadResult.success("id", "ok"));
+        AsyncUploadService service = newService(60_000);
+        String documentId = service.acceptUpload(command()).getDocumentId();
+
+        service.retryFailedUpload(documentId);
+
+        assertThat(service.getStagedUploadStatus(documentId)).isEmpty();
+        assertThat(stagedFiles()).isEmpty();
+    }
+
+    @Test
+    void scheduledRetryRecommitsAfterBackoff() throws IOException {
+        when(bulkUploadService.commitStagedUpload(any(), anyString(), any(), anyLong(), anyString(), anyString()))
+                .thenReturn(BulkUploadService.BulkUploadResult.failure("db down"))
+                .thenReturn(BulkUploadService.BulkUploadResult.success("id", "ok"));
+        AsyncUploadService service = newService(0);
+        String documentId = service.acceptUpload(command()).getDocumentId();
+
+        service.retryFailedUploads();
+
+        assertThat(service.getStagedUploadStatus(documentId)).isEmpty();
+        assertThat(stagedFiles()).isEmpty();
+    }
+
+    private AsyncUploadService newService(long retryBackoffMs) {
+        return new AsyncUploadService(bulkUploadService, documentRepository, new SyncTaskExecutor(),
+                stagingDirectory.toString(), 60, 3, retryBackoffMs);
+    }
+
+    private AsyncUploadUseCase.AsyncUploadCommand command() {
+        return new AsyncUploadUseCase.AsyncUploadCommand("laporan.pdf", 5, "application/pdf", "tester",
+                target -> Files.writeString(target, "hello"));
+    }
+
+    private List<Path> stagedFiles() throws IOException {
+        try (Stream<Path> files = Files.list(stagingDirectory)) {
+            return files.toList();
+        }
+    }
+}
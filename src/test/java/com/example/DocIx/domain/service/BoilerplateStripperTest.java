@@ -0,0 +1,121 @@
+package com.example.DocIx.domain.service;
+
+import com.example.DocIx.domain.port.out.PageExtractor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoilerplateStripperTest {
+
+    private final BoilerplateStripper stripper = new BoilerplateStripper(true, 0.6, 3, 2, 200, 50);
+
+    @Test
+    void pageNumberFooterIsNormalisedAcrossPages() {
+        List<PageExtractor.DocumentPage> pages = new ArrayList<>();
+        for (int page = 1; page <= 5; page++) {
+            pages.add(page(page, "Isi bab " + (char) ('A' + page) + "\nHalaman " + page + " dari 120"));
+        }
+
+        List<PageExtractor.DocumentPage> stripped = stripper.strip(pages);
+
+        assertThat(stripped).extracting(PageExtractor.DocumentPage::getContent)
+                .containsExactly("Isi bab B", "Isi bab C", "Isi bab D", "Isi bab E", "Isi bab F");
+    }
+
+    @Test
+    void otherNumbersInRepeatedLineMustMatchExactly() {
+        // "dari 120" vs "dari 121" bukan baris yang sama setelah normalisasi
+        List<PageExtractor.DocumentPage> pages = List.of(
+                page(1, "Isi satu\nHalaman 1 dari 120"),
+                page(2, "Isi dua\nHalaman 2 dari 121"),
+                page(3, "Isi tiga\nHalaman 3 dari 122"));
+
+        assertThat(stripper.detect(pages).isEmpty()).isTrue();
+    }
+
+    @Test
+    void lineBelowPageRatioIsKept() {
+        // Muncul di 3 dari 6 halaman: di bawah 60%
+        List<PageExtractor.DocumentPage> pages = new ArrayList<>();
+        for (int page = 1; page <= 6; page++) {
+            String header = page <= 3 ? "Draf Internal\n" : "";
+            pages.add(page(page, header + "Isi halaman " + (char) ('A' + page)));
+        }
+
+        assertThat(stripper.detect(pages).isEmpty()).isTrue();
+        assertThat(stripper.strip(pages)).isSameAs(pages);
+    }
+
+    @Test
+    void documentShorterThanMinPagesIsNotStripped() {
+        List<PageExtractor.DocumentPage> pages = List.of(
+                page(1, "ACME Corp Rahasia\nIsi satu"),
+                page(2, "ACME Corp Rahasia\nIsi dua"));
+
+        assertThat(stripper.detect(pages)).isEqualTo(BoilerplateStripper.Boilerplate.NONE);
+    }
+
+    @Test
+    void repeatedBodyLineAwayFromEdgesSurvives() {
+        List<PageExtractor.DocumentPage> pages = new ArrayList<>();
+        for (int page = 1; page <= 4; page++) {
+            pages.add(page(page, String.join("\n",
+                    "ACME Corp Rahasia",
+                    "Judul " + (char) ('A' + page),
+                    "Pasal ini berlaku untuk semua pihak",
+                    "Penutup " + (char) ('A' + page),
+                    "Catatan " + (char) ('A' + page))));
+        }
+
+        List<PageExtractor.DocumentPage> stripped = stripper.strip(pages);
+
+        assertThat(stripped).allSatisfy(page -> {
+            assertThat(page.getContent()).doesNotContain("ACME Corp Rahasia");
+            assertThat(page.getContent()).contains("Pasal ini berlaku untuk semua pihak");
+        });
+    }
+
+    @Test
+    void patternFromSampleIsAppliedToLaterPages() {
+        BoilerplateStripper sampled = new BoilerplateStripper(true, 0.6, 3, 2, 200, 3);
+        List<PageExtractor.DocumentPage> sample = new ArrayList<>();
+        for (int page = 1; page <= 3; page++) {
+            sample.add(page(page, "ACME Corp Rahasia\nIsi " + (char) ('A' + page)));
+        }
+
+        BoilerplateStripper.Boilerplate boilerplate = sampled.detect(sample);
+
+        assertThat(sampled.strip(page(40, "ACME Corp Rahasia\nIsi akhir"), boilerplate).getContent())
+                .isEqualTo("Isi akhir");
+    }
+
+    @Test
+    void onlySamplePagesAreUsedForDetection() {
+        BoilerplateStripper sampled = new BoilerplateStripper(true, 0.6, 3, 2, 200, 3);
+        List<PageExtractor.DocumentPage> pages = new ArrayList<>();
+        for (int page = 1; page <= 3; page++) {
+            pages.add(page(page, "Isi " + (char) ('A' + page)));
+        }
+        for (int page = 4; page <= 10; page++) {
+            pages.add(page(page, "Lampiran\nIsi " + (char) ('A' + page)));
+        }
+
+        assertThat(sampled.detect(pages).isEmpty()).isTrue();
+    }
+
+    @Test
+    void disabledStripperLeavesPagesUntouched() {
+        BoilerplateStripper disabled = new BoilerplateStripper(false, 0.6, 3, 2, 200, 50);
+        List<PageExtractor.DocumentPage> pages = List.of(
+                page(1, "ACME\nsatu"), page(2, "ACME\ndua"), page(3, "ACME\ntiga"));
+
+        assertThat(disabled.strip(pages)).isSameAs(pages);
+    }
+
+    private static PageExtractor.DocumentPage page(int number, String content) {
+        return new PageExtractor.DocumentPage("doc-1", number, content);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.DocIx.domain.service;
+
+import com.example.DocIx.domain.model.Document;
+import com.example.DocIx.domain.model.DocumentId;
+import com.example.DocIx.domain.port.out.DocumentRepository;
+import com.example.DocIx.domain.port.out.DocumentStorage;
+import com.example.DocIx.domain.port.out.ExtractedTextStore;
+import com.example.DocIx.domain.port.out.IndexingLogRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.ByteArrayInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BulkUploadServiceTest {
+
+    private final DocumentRepository documentRepository = mock(DocumentRepository.class);
+    private final DocumentStorage documentStorage = mock(DocumentStorage.class);
+    private final IndexingLogRepository indexingLogRepository = mock(IndexingLogRepository.class);
+    private final ExtractedTextStore extractedTextStore = mock(ExtractedTextStore.class);
+    private final BulkUploadService service = new BulkUploadService(documentRepository, documentStorage,
+            indexingLogRepository, extractedTextStore, mock(ApplicationEventPublisher.class));
+
+    @Test
+    void rollbackDeletesStoredFileAndItsExtractedText() {
+        when(documentStorage.store(anyString(), any(), anyLong(), anyString())).thenReturn("documents/stored.pdf");
+        when(indexingLogRepository.save(any())).thenThrow(new IllegalStateException("database down"));
+
+        assertThatThrownBy(() -> service.commitStagedUpload(DocumentId.of("doc-1"), "a.pdf",
+                new ByteArrayInputStream(new byte[]{1}), 1, "application/pdf", "tester"))
+                .isInstanceOf(BulkUploadService.BulkUploadException.class);
+
+        verify(documentStorage).delete("documents/stored.pdf");
+        ArgumentCaptor<Document> deleted = ArgumentCaptor.forClass(Document.class);
+        verify(extractedTextStore).delete(deleted.capture());
+        assertThat(deleted.getValue().getStoragePath()).isEqualTo("documents/stored.pdf");
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.DocIx.domain.service;
+
+import com.example.DocIx.domain.model.Document;
+import com.example.DocIx.domain.model.DocumentId;
+import com.example.DocIx.domain.model.DocumentStatus;
+import com.example.DocIx.domain.model.IndexingLog;
+import com.example.DocIx.domain.model.IndexingStatus;
+import com.example.DocIx.domain.port.out.DocumentRepository;
+import com.example.DocIx.domain.port.out.DocumentSearchEngine;
+import com.example.DocIx.domain.port.out.DocumentStorage;
+import com.example.DocIx.domain.port.out.ExtractedTextStore;
+import com.example.DocIx.domain.port.out.IndexingLogRepository;
+import com.example.DocIx.domain.port.out.PageExtractor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DocumentIndexingServiceTest {
+
+    private static final int PAGES = 5;
+
+    private final DocumentRepository documentRepository = mock(DocumentRepository.class);
+    private final IndexingLogRepository indexingLogRepository = mock(IndexingLogRepository.class);
+    private final DocumentStorage documentStorage = mock(DocumentStorage.class);
+    private final PageExtractor pageExtractor = mock(PageExtractor.class);
+    private final DocumentSearchEngine searchEngine = mock(DocumentSearchEngine.class);
+    private final ExtractedTextStore extractedTextStore = mock(ExtractedTextStore.class);
+    private final ExtractedTextStore.PageWriter sidecar = mock(ExtractedTextStore.PageWriter.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    private final Document document = new Document(DocumentId.of("doc-1"), "enc.pdf", "a.pdf", 10,
+            "application/pdf", "documents/enc.pdf", "tester");
+    private final List<IndexingLog> savedLogs = new ArrayList<>();
+
+    private DocumentIndexingService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(documentRepository.findById(DocumentId.of("doc-1"))).thenReturn(Optional.of(document));
+        when(documentRepository.updateStatusIfCurrent(any(), any())).thenReturn(true);
+        when(documentRepository.claimForProcessing(any(), any(), any())).thenReturn(true);
+        when(indexingLogRepository.findByDocumentId("doc-1")).thenReturn(Optional.empty());
+        when(indexingLogRepository.save(any())).thenAnswer(invocation -> {
+            IndexingLog log = invocation.getArgument(0);
+            savedLogs.add(log);
+            return log;
+        });
+        when(documentStorage.retrieve("documents/enc.pdf")).thenReturn(new ByteArrayInputStream(new byte[]{1}));
+        when(pageExtractor.getExtractorVersion()).thenReturn("v1");
+        when(extractedTextStore.openWriter(document, "v1")).thenReturn(sidecar);
+
+        service = new DocumentIndexingService(documentRepository, indexingLogRepository, documentStorage,
+                pageExtractor, searchEngine, extractedTextStore,
+                new BoilerplateStripper(true, 0.6, 3, 4, 200, 3),
+                new IndexingAdmissionControl(false, 256, 1000, new SimpleMeterRegistry()),
+                transactionManager);
+    }
+
+    @Test
+    void pagesAreIndexedWhileExtractionIsStillRunning() throws Exception {
+        List<Integer> indexedBeforeLastPage = new ArrayList<>();
+        doAnswer(invocation -> {
+            Consumer<PageExtractor.DocumentPage> sink = invocation.getArgument(3);
+            for (int page = 1; page <= PAGES; page++) {
+                if (page == PAGES) {
+                    indexedBeforeLastPage.add(indexedPageCount());
+                }
+                sink.accept(new PageExtractor.DocumentPage("doc-1", page,
+                        "ACME Corp Rahasia\nPasal " + (char) ('A' + page) + " tentang kontrak\nHalaman " + page + " dari 5"));
+            }
+            return PAGES;
+        }).when(pageExtractor).extractPages(any(InputStream.class), anyString(), anyString(), any());
+
+        service.processDocumentIndexing("doc-1");
+
+        // Sampel boilerplate 3 halaman sudah diindeks, begitu juga halaman 4, sebelum halaman terakhir diekstrak
+        assertThat(indexedBeforeLastPage).containsExactly(PAGES - 1);
+
+        ArgumentCaptor<PageExtractor.DocumentPage> indexed = ArgumentCaptor.forClass(PageExtractor.DocumentPage.class);
+        verify(searchEngine, times(PAGES)).indexDocumentPage(indexed.capture());
+        assertThat(indexed.getAllValues()).allSatisfy(page -> assertThat(page.getContent())
+                .isEqualTo("Pasal " + (char) ('A' + page.getPageNumber()) + " tentang kontrak"));
+
+        // Sidecar menerima teks asli setiap halaman saat diterima dan baru disimpan setelah ekstraksi selesai
+        ArgumentCaptor<PageExtractor.DocumentPage> raw = ArgumentCaptor.forClass(PageExtractor.DocumentPage.class);
+        verify(sidecar, times(PAGES)).write(raw.capture());
+        assertThat(raw.getAllValues()).allSatisfy(page -> assertThat(page.getContent()).contains("ACME Corp"));
+        verify(sidecar).commit();
+        verify(sidecar).close();
+
+        IndexingLog finalLog = savedLogs.get(savedLogs.size() - 1);
+        assertThat(finalLog.getIndexingStatus()).isEqualTo(IndexingStatus.FULLY_INDEXED);
+        assertThat(finalLog.getTotalPages()).isEqualTo(PAGES);
+        verify(documentRepository).updateStatusIfCurrent(eq(document), eq(DocumentStatus.PROCESSING));
+        assertThat(document.getStatus()).isEqualTo(DocumentStatus.PROCESSED);
+    }
+
+    @Test
+    void claimIsCommittedBeforeIndexingStarts() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<PageExtractor.DocumentPage> sink = invocation.getArgument(3);
+            sink.accept(new PageExtractor.DocumentPage("doc-1", 1, "isi"));
+            return 1;
+        }).when(pageExtractor).extractPages(any(InputStream.class), anyString(), anyString(), any());
+
+        service.processDocumentIndexing("doc-1");
+
+        InOrder order = inOrder(documentRepository, transactionManager, pageExtractor);
+        order.verify(documentRepository).claimForProcessing(eq(document), eq(DocumentStatus.UPLOADED), any());
+        order.verify(transactionManager).commit(any());
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(pageExtractor).extractPages(any(InputStream.class), anyString(), anyString(), any());
+        order.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void lostClaimSkipsDocumentWithoutTouchingIt() throws Exception {
+        when(documentRepository.claimForProcessing(any(), any(), any())).thenReturn(false);
+
+        service.processDocumentIndexing("doc-1");
+
+        verify(pageExtractor, never()).extractPages(any(InputStream.class), anyString(), anyString(), any());
+        verify(extractedTextStore, never()).load(any(), any(), any());
+        verify(searchEngine, never()).indexDocumentPage(any());
+        verify(indexingLogRepository, never()).save(any());
+        verify(documentRepository, never()).updateStatusIfCurrent(any(), any());
+    }
+
+    @Test
+    void processingDocumentIsOnlyReclaimedAfterStuckThreshold() {
+        Document processing = new Document(DocumentId.of("doc-1"), "enc.pdf", "a.pdf", 10, "application/pdf",
+                "documents/enc.pdf", "tester", LocalDateTime.now().minusMinutes(5), null,
+                DocumentStatus.PROCESSING, null, LocalDateTime.now().minusMinutes(1), 3L);
+        when(documentRepository.findById(DocumentId.of("doc-1"))).thenReturn(Optional.of(processing));
+        when(documentRepository.claimForProcessing(any(), any(), any())).thenReturn(false);
+        ReflectionTestUtils.setField(service, "processingStuckAfterMs", 1_800_000L);
+
+        service.processDocumentIndexing("doc-1");
+
+        ArgumentCaptor<LocalDateTime> stuckBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(documentRepository).claimForProcessing(eq(processing), eq(DocumentStatus.PROCESSING),
+                stuckBefore.capture());
+        assertThat(stuckBefore.getValue()).isEqualTo(processing.getLastProcessedAt().minusMinutes(30));
+        verify(indexingLogRepository, never()).save(any());
+    }
+
+    @Test
+    void pagesLoadedFromSidecarAreNotWrittenBack() {
+        doAnswer(invocation -> {
+            Consumer<PageExtractor.DocumentPage> sink = invocation.getArgument(2);
+            sink.accept(new PageExtractor.DocumentPage("doc-1", 1, "isi"));
+            return 1;
+        }).when(extractedTextStore).load(eq(document), eq("v1"), any());
+
+        service.processDocumentIndexing("doc-1");
+
+        verify(searchEngine).indexDocumentPage(any());
+        verify(extractedTextStore, times(0)).openWriter(any(), any());
+        assertThat(document.getStatus()).isEqualTo(DocumentStatus.PROCESSED);
+    }
+
+    private int indexedPageCount() {
+        return (int) mockingDetails(searchEngine).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("indexDocumentPage"))
+                .count();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.DocIx.domain.service;
+
+import com.example.DocIx.domain.model.DocumentId;
+import com.example.DocIx.domain.model.DocumentStatus;
+import com.example.DocIx.domain.model.DocumentStatusSummary;
+import com.example.DocIx.domain.port.in.DocumentStatusQueryUseCase.DocumentStatusResponse;
+import com.example.DocIx.domain.port.in.StagedUploadStatusQuery;
+import com.example.DocIx.domain.port.out.DocumentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DocumentStatusQueryServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private final DocumentRepository documentRepository = mock(DocumentRepository.class);
+    private final StagedUploadStatusQuery stagedUploadStatusQuery = mock(StagedUploadStatusQuery.class);
+    private final DocumentStatusQueryService service =
+            new DocumentStatusQueryService(documentRepository, stagedUploadStatusQuery);
+
+    private final List<DocumentStatusSummary> firstBatch = summaries(0, 500);
+    private final List<DocumentStatusSummary> lastBatch = summaries(500, 3);
+
+    @BeforeEach
+    void setUp() {
+        doCallRealMethod().when(documentRepository).forEachStatusSummary(any(), anyInt(), any());
+        DocumentStatusSummary lastOfFirst = firstBatch.get(firstBatch.size() - 1);
+        when(documentRepository.findStatusSummaries(DocumentStatus.PROCESSED, null, null, 500))
+                .thenReturn(firstBatch);
+        when(documentRepository.findStatusSummaries(DocumentStatus.PROCESSED, lastOfFirst.uploadedAt(),
+                lastOfFirst.id(), 500))
+                .thenReturn(lastBatch);
+    }
+
+    @Test
+    void listWithoutPagingReturnsEveryDocumentReadInKeysetBatches() {
+        List<DocumentStatusResponse> all = service.getDocumentsByStatus("processed");
+
+        assertThat(all).hasSize(503);
+        assertThat(all.get(0).getDocumentId()).isEqualTo("doc-0");
+        assertThat(all.get(502).getDocumentId()).isEqualTo("doc-502");
+        verify(documentRepository).findStatusSummaries(eq(DocumentStatus.PROCESSED), eq(null), eq(null), eq(500));
+    }
+
+    @Test
+    void streamDeliversBatchesInOrder() {
+        List<String> ids = new ArrayList<>();
+
+        service.streamDocumentsByStatus("PROCESSED", doc -> ids.add(doc.getDocumentId()));
+
+        assertThat(ids).hasSize(503).startsWith("doc-0", "doc-1").endsWith("doc-501", "doc-502");
+    }
+
+    @Test
+    void uploadWithoutDatabaseRowIsReportedFromStaging() {
+        when(documentRepository.findById(DocumentId.of("doc-staged"))).thenReturn(Optional.empty());
+        when(stagedUploadStatusQuery.getStagedUploadStatus("doc-staged")).thenReturn(Optional.of(
+                new StagedUploadStatusQuery.StagedUploadStatus("doc-staged", "a.pdf",
+                        AsyncUploadService.STATUS_UPLOAD_FAILED, START.toString(), "storage down")));
+
+        assertThat(service.getDocumentStatus("doc-staged")).hasValueSatisfying(status -> {
+            assertThat(status.getStatus()).isEqualTo(AsyncUploadService.STATUS_UPLOAD_FAILED);
+            assertThat(status.getErrorMessage()).isEqualTo("storage down");
+        });
+    }
+
+    private static List<DocumentStatusSummary> summaries(int from, int count) {
+        return IntStream.range(from, from + count)
+                .mapToObj(i -> new DocumentStatusSummary(DocumentId.of("doc-" + i), "file-" + i + ".pdf",
+                        DocumentStatus.PROCESSED, START.plusMinutes(i), null, null))
+                .toList();
+    }
+}
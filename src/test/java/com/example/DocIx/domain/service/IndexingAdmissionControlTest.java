@@ -0,0 +1,71 @@
+package com.example.DocIx.domain.service;
+
+import com.example.DocIx.domain.port.in.DocumentIndexingUseCase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IndexingAdmissionControlTest {
+
+    private static final long MB = 1024 * 1024;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final IndexingAdmissionControl control = new IndexingAdmissionControl(true, 10, 50, meterRegistry);
+
+    @Test
+    void permitHoldsBudgetUntilClosed() {
+        IndexingAdmissionControl.Permit permit = control.acquire("doc-1", 4 * MB);
+
+        assertThat(inUseBytes()).isEqualTo(4 * MB);
+
+        permit.close();
+        permit.close();
+        assertThat(inUseBytes()).isZero();
+    }
+
+    @Test
+    void documentThatDoesNotFitIsRejectedAfterMaxWait() {
+        try (IndexingAdmissionControl.Permit ignored = control.acquire("doc-1", 8 * MB)) {
+            assertThatThrownBy(() -> control.acquire("doc-2", 4 * MB))
+                    .isInstanceOf(DocumentIndexingUseCase.IndexingCapacityExceededException.class);
+        }
+
+        assertThat(meterRegistry.get("indexing_admission_wait_ms").tag("outcome", "rejected").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("indexing_admission_wait_ms").tag("outcome", "rejected").timer()
+                .totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(50);
+        assertThat(inUseBytes()).isZero();
+    }
+
+    @Test
+    void documentLargerThanBudgetIsCappedAndRunsAlone() {
+        try (IndexingAdmissionControl.Permit ignored = control.acquire("doc-big", 100 * MB)) {
+            assertThat(inUseBytes()).isEqualTo(10 * MB);
+            assertThatThrownBy(() -> control.acquire("doc-small", 1))
+                    .isInstanceOf(DocumentIndexingUseCase.IndexingCapacityExceededException.class);
+        }
+
+        try (IndexingAdmissionControl.Permit ignored = control.acquire("doc-small", 1)) {
+            // Dokumen kosong atau sangat kecil tetap mengambil minimal satu permit
+            assertThat(inUseBytes()).isEqualTo(1024);
+        }
+    }
+
+    @Test
+    void disabledControlAdmitsEverything() {
+        IndexingAdmissionControl disabled = new IndexingAdmissionControl(false, 1, 0, new SimpleMeterRegistry());
+
+        try (IndexingAdmissionControl.Permit first = disabled.acquire("doc-1", 100 * MB);
+             IndexingAdmissionControl.Permit second = disabled.acquire("doc-2", 100 * MB)) {
+            assertThat(first).isSameAs(second);
+        }
+    }
+
+    private double inUseBytes() {
+        return meterRegistry.get("indexing_admission_in_use_bytes").gauge().value();
+    }
+}